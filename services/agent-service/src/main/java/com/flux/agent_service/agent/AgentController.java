@@ -0,0 +1,80 @@
+package com.flux.agent_service.agent;
+
+import com.flux.agent_service.agent.dto.ScheduleRequest;
+import com.flux.agent_service.agent.dto.ScheduleResult;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+@Slf4j
+@RestController
+@RequestMapping("/agent")
+public class AgentController {
+    private final AgentService agentService;
+    private final ExecutorService agentExecutor;
+    private final long streamTimeoutMs;
+
+    public AgentController(AgentService agentService,
+                           @Qualifier("agentExecutor") ExecutorService agentExecutor,
+                           @Value("${agent.stream-timeout-ms:120000}") long streamTimeoutMs) {
+        this.agentService = agentService;
+        this.agentExecutor = agentExecutor;
+        this.streamTimeoutMs = streamTimeoutMs;
+    }
+
+    /**
+     * Answer a scheduling question as a stream
+     * POST /agent/schedule
+     * Sends {@code token} events with the text as it is written, then one {@code done} event with a
+     * {@link ScheduleResult}, or an {@code error} event.
+     */
+    @PostMapping(value = "/schedule", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter schedule(@RequestBody @Valid ScheduleRequest request,
+                               @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        ZoneId zone = ZoneId.of(request.timezone() == null || request.timezone().isBlank() ? "UTC" : request.timezone());
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        agentExecutor.execute(() -> {
+            try {
+                ScheduleResult result = agentService.schedule(request, zone, authorization,
+                        token -> send(emitter, SseEmitter.event().name("token").data(token)));
+                send(emitter, SseEmitter.event().name("done").data(result));
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                // The client went away; nothing left to send to
+                emitter.completeWithError(e);
+            } catch (RuntimeException e) {
+                log.warn("Scheduling request failed: {}", e.getMessage());
+                try {
+                    send(emitter, SseEmitter.event().name("error").data(Map.of("error", "The assistant could not answer: " + e.getMessage())));
+                    emitter.complete();
+                } catch (UncheckedIOException gone) {
+                    emitter.completeWithError(gone);
+                }
+            }
+        });
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
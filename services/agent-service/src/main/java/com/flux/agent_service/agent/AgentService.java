@@ -0,0 +1,186 @@
+package com.flux.agent_service.agent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flux.agent_service.agent.dto.ScheduleRequest;
+import com.flux.agent_service.agent.dto.ScheduleResult;
+import com.flux.agent_service.model.ModelClient;
+import com.flux.agent_service.model.ModelException;
+import com.flux.agent_service.model.ModelTurn;
+import com.flux.agent_service.model.ToolCall;
+import com.flux.agent_service.tool.SchedulingTools;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Answers scheduling questions with the model and the calendar tools. The answer is streamed as the
+ * model writes it, and the final text is cached by normalized intent, so asking the same thing again
+ * in other words is answered at once without the model or the backends.
+ */
+@Slf4j
+@Service
+public class AgentService {
+    private static final String SYSTEM_PROMPT = """
+            You help users of the Flux calendar schedule meetings. Today is %s and the user's timezone \
+            is %s; give times in that timezone. Use the tools to look up users, events and free slots \
+            instead of guessing. When you need several users or events, request them all in the same \
+            turn. Answer briefly.""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelClient modelClient;
+    private final SchedulingTools schedulingTools;
+    private final IntentNormalizer intentNormalizer;
+    private final ResponseCache responseCache;
+    private final Clock clock;
+    private final int maxModelCalls;
+    private final Timer timeToFirstToken;
+    private final DistributionSummary modelCallsPerRequest;
+    private final DistributionSummary backendCallsPerRequest;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public AgentService(ModelClient modelClient,
+                        SchedulingTools schedulingTools,
+                        IntentNormalizer intentNormalizer,
+                        ResponseCache responseCache,
+                        Clock clock,
+                        MeterRegistry meterRegistry,
+                        @Value("${agent.max-model-calls:4}") int maxModelCalls) {
+        this.modelClient = modelClient;
+        this.schedulingTools = schedulingTools;
+        this.intentNormalizer = intentNormalizer;
+        this.responseCache = responseCache;
+        this.clock = clock;
+        this.maxModelCalls = maxModelCalls;
+        this.timeToFirstToken = Timer.builder("agent.time.to.first.token")
+                .description("From the request to the first token sent to the client")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.modelCallsPerRequest = DistributionSummary.builder("agent.model.calls")
+                .description("Model calls per user request")
+                .register(meterRegistry);
+        this.backendCallsPerRequest = DistributionSummary.builder("agent.backend.calls")
+                .description("Calendar and user service calls per user request")
+                .register(meterRegistry);
+        this.cacheHits = Counter.builder("agent.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("agent.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Answers {@code request}, passing the text to {@code onToken} as it is produced. Backend calls
+     * are made with the caller's {@code authorization} header.
+     */
+    public ScheduleResult schedule(ScheduleRequest request, ZoneId zone, String authorization, Consumer<String> onToken) {
+        FirstToken tokens = new FirstToken(onToken);
+        LocalDate today = LocalDate.now(clock.withZone(zone));
+        String intent = zone.getId() + "|" + intentNormalizer.normalize(request.prompt(), today);
+
+        Optional<String> cached = responseCache.get(authorization, intent);
+        if (cached.isPresent()) {
+            cacheHits.increment();
+            // Word by word, so clients render a cached answer the same way as a generated one
+            for (String word : cached.get().split("(?<=\\s)")) {
+                tokens.accept(word);
+            }
+            return record(new ScheduleResult(true, 0, 0, tokens.elapsedMs()));
+        }
+        cacheMisses.increment();
+
+        List<ObjectNode> messages = new ArrayList<>();
+        messages.add(message("system", SYSTEM_PROMPT.formatted(today, zone.getId())));
+        messages.add(message("user", request.prompt()));
+        StringBuilder answer = new StringBuilder();
+        int modelCalls = 0;
+        int backendCalls = 0;
+        boolean cacheable = true;
+        while (true) {
+            // The last allowed call gets no tools, so the model has to answer with what it has
+            boolean toolsAllowed = modelCalls < maxModelCalls - 1;
+            ModelTurn turn = modelClient.stream(messages, toolsAllowed ? schedulingTools.definitions() : null, tokens);
+            modelCalls++;
+            answer.append(turn.content());
+            if (!turn.hasToolCalls()) {
+                break;
+            }
+            if (!toolsAllowed) {
+                throw new ModelException("The model kept calling tools after " + modelCalls + " calls");
+            }
+            messages.add(assistantMessage(turn));
+            SchedulingTools.Execution execution = schedulingTools.execute(turn.toolCalls(), zone.getId(), authorization);
+            backendCalls += execution.backendCalls();
+            cacheable &= execution.complete();
+            messages.addAll(execution.messages());
+        }
+
+        if (cacheable && !answer.isEmpty()) {
+            responseCache.put(authorization, intent, answer.toString());
+        }
+        log.debug("Answered with {} model and {} backend calls", modelCalls, backendCalls);
+        return record(new ScheduleResult(false, modelCalls, backendCalls, tokens.elapsedMs()));
+    }
+
+    private ScheduleResult record(ScheduleResult result) {
+        if (result.timeToFirstTokenMs() >= 0) {
+            timeToFirstToken.record(result.timeToFirstTokenMs(), TimeUnit.MILLISECONDS);
+        }
+        modelCallsPerRequest.record(result.modelCalls());
+        backendCallsPerRequest.record(result.backendCalls());
+        return result;
+    }
+
+    private ObjectNode message(String role, String content) {
+        return objectMapper.createObjectNode().put("role", role).put("content", content);
+    }
+
+    private ObjectNode assistantMessage(ModelTurn turn) {
+        ObjectNode message = objectMapper.createObjectNode().put("role", "assistant");
+        if (turn.content().isEmpty()) {
+            message.putNull("content");
+        } else {
+            message.put("content", turn.content());
+        }
+        ArrayNode toolCalls = message.putArray("tool_calls");
+        for (ToolCall call : turn.toolCalls()) {
+            ObjectNode toolCall = toolCalls.addObject().put("id", call.id()).put("type", "function");
+            toolCall.putObject("function").put("name", call.name()).put("arguments", call.arguments());
+        }
+        return message;
+    }
+
+    private static class FirstToken implements Consumer<String> {
+        private final long started = System.nanoTime();
+        private final Consumer<String> delegate;
+        private long firstTokenAt = -1;
+
+        FirstToken(Consumer<String> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void accept(String token) {
+            if (firstTokenAt < 0) {
+                firstTokenAt = System.nanoTime();
+            }
+            delegate.accept(token);
+        }
+
+        long elapsedMs() {
+            return firstTokenAt < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(firstTokenAt - started);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.flux.agent_service.agent;
+
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reduces a scheduling prompt to the intent it expresses, so rephrasings of the same question share a
+ * cache entry: relative dates become ISO dates, durations and times get one spelling, synonyms one
+ * word, and filler words are dropped. "Can you book 1 hour with Anna tomorrow at 3pm?" and "please set
+ * up an hour with anna tomorrow, 15:00" normalize alike. Anything that changes the answer, such as
+ * names, dates, numbers and the order they come in, is kept: "move 15:00 to 16:00" is not
+ * "move 16:00 to 15:00".
+ */
+@Component
+public class IntentNormalizer {
+    private static final Set<String> FILLER = Set.of(
+            "a", "an", "the", "please", "can", "could", "would", "will", "you", "i", "me", "we", "us", "let",
+            "lets", "to", "for", "with", "and", "of", "on", "at", "in", "some", "my", "our", "is",
+            "are", "be", "it", "there", "any", "do", "does", "need", "want", "like", "hi", "hello", "thanks",
+            "thank", "am", "meeting", "meet", "call", "time", "slot", "slots");
+
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+            Map.entry("book", "schedule"),
+            Map.entry("arrange", "schedule"),
+            Map.entry("organise", "schedule"),
+            Map.entry("organize", "schedule"),
+            Map.entry("plan", "schedule"),
+            Map.entry("setup", "schedule"),
+            Map.entry("find", "schedule"),
+            Map.entry("reschedule", "move"),
+            Map.entry("shift", "move"),
+            Map.entry("postpone", "move"),
+            Map.entry("delete", "cancel"),
+            Map.entry("drop", "cancel"),
+            Map.entry("free", "available"),
+            Map.entry("availability", "available"));
+
+    private static final Pattern HALF_HOUR = Pattern.compile("\\b(?:half an hour|half-hour|half hour)\\b");
+    private static final Pattern ONE_HOUR = Pattern.compile("\\b(?:an|one) hour\\b");
+    private static final Pattern HOURS = Pattern.compile("\\b(\\d+(?:\\.\\d+)?)\\s*-?\\s*(?:hours?|hrs?|h)\\b");
+    private static final Pattern MINUTES = Pattern.compile("\\b(\\d+)\\s*-?\\s*(?:minutes?|mins?|m)\\b");
+    private static final Pattern CLOCK = Pattern.compile("\\b(\\d{1,2})(?::(\\d{2}))?\\s*(am|pm)\\b");
+    private static final Pattern CLOCK_24 = Pattern.compile("\\b(\\d{1,2}):(\\d{2})\\b");
+    private static final Pattern WEEKDAY = Pattern.compile(
+            "\\b(next |this |on )?(monday|tuesday|wednesday|thursday|friday|saturday|sunday)\\b");
+
+    /** The normalized intent of {@code prompt}, with relative dates resolved against {@code today}. */
+    public String normalize(String prompt, LocalDate today) {
+        String text = prompt.toLowerCase(Locale.ROOT)
+                .replace("set up", "setup")
+                .replace("let's", "lets");
+        text = text.replace("day after tomorrow", today.plusDays(2).toString())
+                .replace("tomorrow", today.plusDays(1).toString())
+                .replace("today", today.toString())
+                .replace("next week", week(today.plusWeeks(1)))
+                .replace("this week", week(today));
+        text = weekdays(text, today);
+
+        text = HALF_HOUR.matcher(text).replaceAll("30min");
+        text = ONE_HOUR.matcher(text).replaceAll("60min");
+        text = replace(HOURS, text, m -> Math.round(Double.parseDouble(m.group(1)) * 60) + "min");
+        text = replace(MINUTES, text, m -> Integer.parseInt(m.group(1)) + "min");
+        text = replace(CLOCK, text, m -> {
+            int hour = Integer.parseInt(m.group(1)) % 12 + (m.group(3).equals("pm") ? 12 : 0);
+            return clock(hour, m.group(2) == null ? 0 : Integer.parseInt(m.group(2)));
+        });
+        text = replace(CLOCK_24, text, m -> clock(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))));
+
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}:@.\\-]+"))
+                .map(word -> word.replaceAll("^[.\\-]+|[.\\-]+$", ""))
+                .filter(word -> !word.isEmpty() && !FILLER.contains(word))
+                .map(word -> SYNONYMS.getOrDefault(word, word))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String weekdays(String text, LocalDate today) {
+        return replace(WEEKDAY, text, m -> {
+            DayOfWeek day = DayOfWeek.valueOf(m.group(2).toUpperCase(Locale.ROOT));
+            LocalDate date = "next ".equals(m.group(1))
+                    ? today.with(TemporalAdjusters.next(day))
+                    : today.with(TemporalAdjusters.nextOrSame(day));
+            return date.toString();
+        });
+    }
+
+    private static String week(LocalDate date) {
+        return "%d-w%02d".formatted(date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    private static String clock(int hour, int minute) {
+        return "%02d:%02d".formatted(hour, minute);
+    }
+
+    private static String replace(Pattern pattern, String text, Function<MatchResult, String> replacement) {
+        return pattern.matcher(text).replaceAll(match -> Matcher.quoteReplacement(replacement.apply(match)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.flux.agent_service.agent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Final answers by caller and normalized intent. Entries are private to the token they were produced
+ * with: a cache hit skips the backend calls that would check the token, so keying by the user id a
+ * client claims would hand one user's schedule to anyone who names them. The TTL is short because
+ * the answers describe calendars that keep changing.
+ */
+@Component
+public class ResponseCache {
+    private final Cache<String, String> answers;
+
+    public ResponseCache(@Value("${agent.cache.ttl-seconds:300}") long ttlSeconds,
+                         @Value("${agent.cache.max-entries:10000}") long maxEntries) {
+        this.answers = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public Optional<String> get(String authorization, String intent) {
+        return Optional.ofNullable(answers.getIfPresent(key(authorization, intent)));
+    }
+
+    public void put(String authorization, String intent, String answer) {
+        answers.put(key(authorization, intent), answer);
+    }
+
+    private static String key(String authorization, String intent) {
+        try {
+            byte[] token = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(token) + "|" + intent;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
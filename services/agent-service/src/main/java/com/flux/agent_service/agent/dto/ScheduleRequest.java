@@ -0,0 +1,9 @@
+package com.flux.agent_service.agent.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record ScheduleRequest(
+        @NotBlank @Size(max = 4000) String prompt,
+        String timezone) {
+}
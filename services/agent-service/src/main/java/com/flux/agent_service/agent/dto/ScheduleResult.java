@@ -0,0 +1,12 @@
+package com.flux.agent_service.agent.dto;
+
+/**
+ * What one request cost, sent as the last event of the stream. {@code timeToFirstTokenMs} is -1 when
+ * no text was produced.
+ */
+public record ScheduleResult(
+        boolean cached,
+        int modelCalls,
+        int backendCalls,
+        long timeToFirstTokenMs) {
+}
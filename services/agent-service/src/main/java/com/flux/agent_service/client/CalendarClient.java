@@ -0,0 +1,59 @@
+package com.flux.agent_service.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Collection;
+
+/**
+ * Calls calendar-service on behalf of the user, with the user's own token, so the calendar service
+ * applies the same access rules as for the user's direct requests.
+ */
+@Component
+public class CalendarClient {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RestClient restClient;
+
+    public CalendarClient(RestClient.Builder restClientBuilder,
+                          @Value("${agent.calendar-service.url:http://calendars-service}") String baseUrl) {
+        this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+    }
+
+    /** All events with the given ids in one request; unknown ids are left out. */
+    public JsonNode getEvents(Collection<String> ids, String authorization) {
+        return read(restClient.get()
+                .uri(uri -> uri.path("/events").queryParam("ids", String.join(",", ids)).build())
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .retrieve()
+                .body(String.class));
+    }
+
+    public JsonNode findCommonSlots(Collection<String> userIds, String start, String end,
+                                    int durationMinutes, int count, String timezone, String authorization) {
+        return read(restClient.get()
+                .uri(uri -> uri.path("/scheduling/slots")
+                        .queryParam("userIds", String.join(",", userIds))
+                        .queryParam("start", start)
+                        .queryParam("end", end)
+                        .queryParam("durationMinutes", durationMinutes)
+                        .queryParam("count", count)
+                        .queryParam("timezone", timezone)
+                        .build())
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .retrieve()
+                .body(String.class));
+    }
+
+    private JsonNode read(String body) {
+        try {
+            return objectMapper.readTree(body == null ? "null" : body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable response from calendar-service", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.flux.agent_service.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Collection;
+
+/**
+ * Calls user-management-service with the user's own token.
+ */
+@Component
+public class UserClient {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RestClient restClient;
+
+    public UserClient(RestClient.Builder restClientBuilder,
+                      @Value("${agent.user-service.url:http://user-management-service}") String baseUrl) {
+        this.restClient = restClientBuilder.baseUrl(baseUrl).build();
+    }
+
+    /** All users with the given ids in one request; unknown ids are left out. */
+    public JsonNode getUsers(Collection<String> ids, String authorization) {
+        String body = restClient.get()
+                .uri(uri -> uri.path("/users").queryParam("ids", String.join(",", ids)).build())
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .retrieve()
+                .body(String.class);
+        try {
+            return objectMapper.readTree(body == null ? "null" : body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable response from user-management-service", e);
+        }
+    }
+}
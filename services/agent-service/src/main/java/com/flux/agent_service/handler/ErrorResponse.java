@@ -0,0 +1,7 @@
+package com.flux.agent_service.handler;
+
+import java.util.Map;
+
+public record ErrorResponse(
+        Map<String, String> errors) {
+}
@@ -0,0 +1,162 @@
+package com.flux.agent_service.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams chat completions from an OpenAI-compatible server ({@code agent.model.base-url}) and hands
+ * the content to the caller token by token as it arrives. Tool calls come in fragments spread over
+ * many chunks; they are put together here, so the caller gets all calls of a turn at once and can
+ * batch them.
+ */
+@Component
+public class ModelClient {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final URI completionsUri;
+    private final String apiKey;
+    private final String model;
+    private final Duration timeout;
+
+    public ModelClient(
+            @Value("${agent.model.base-url:https://api.openai.com}") String baseUrl,
+            @Value("${agent.model.api-key:}") String apiKey,
+            @Value("${agent.model.name:gpt-4o-mini}") String model,
+            @Value("${agent.model.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${agent.model.timeout-ms:60000}") long timeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.completionsUri = URI.create(baseUrl.replaceAll("/+$", "") + "/v1/chat/completions");
+        this.apiKey = apiKey;
+        this.model = model;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    /**
+     * Sends the conversation and blocks until the model has finished its turn, passing every content
+     * token to {@code onToken} on the calling thread as soon as it is read. Without {@code tools} the
+     * model has to answer in text.
+     */
+    public ModelTurn stream(List<? extends JsonNode> messages, JsonNode tools, Consumer<String> onToken) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", model);
+        body.put("stream", true);
+        body.set("messages", objectMapper.valueToTree(messages));
+        if (tools != null && !tools.isEmpty()) {
+            body.set("tools", tools);
+            body.put("parallel_tool_calls", true);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(completionsUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        if (!apiKey.isBlank()) {
+            request.header("Authorization", "Bearer " + apiKey);
+        }
+
+        HttpResponse<Stream<String>> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        } catch (IOException e) {
+            throw new ModelException("Model request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelException("Interrupted while waiting for the model", e);
+        }
+
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new ModelException("Model answered " + response.statusCode() + ": "
+                        + lines.collect(Collectors.joining("\n")));
+            }
+            return read(lines.iterator(), onToken);
+        }
+    }
+
+    private ModelTurn read(Iterator<String> lines, Consumer<String> onToken) {
+        StringBuilder content = new StringBuilder();
+        Map<Integer, PartialToolCall> toolCalls = new TreeMap<>();
+        String finishReason = null;
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (!line.startsWith("data:")) {
+                continue;
+            }
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) {
+                break;
+            }
+            JsonNode choice = parse(data).path("choices").path(0);
+            JsonNode delta = choice.path("delta");
+            if (delta.hasNonNull("content")) {
+                String token = delta.get("content").asText();
+                if (!token.isEmpty()) {
+                    content.append(token);
+                    onToken.accept(token);
+                }
+            }
+            for (JsonNode fragment : delta.path("tool_calls")) {
+                toolCalls.computeIfAbsent(fragment.path("index").asInt(), index -> new PartialToolCall())
+                        .append(fragment);
+            }
+            if (choice.hasNonNull("finish_reason")) {
+                finishReason = choice.get("finish_reason").asText();
+            }
+        }
+        return new ModelTurn(
+                content.toString(),
+                toolCalls.values().stream().map(PartialToolCall::build).toList(),
+                finishReason);
+    }
+
+    private JsonNode parse(String data) {
+        try {
+            return objectMapper.readTree(data);
+        } catch (JsonProcessingException e) {
+            throw new ModelException("Unreadable chunk from the model: " + data, e);
+        }
+    }
+
+    private static class PartialToolCall {
+        private String id;
+        private String name;
+        private final StringBuilder arguments = new StringBuilder();
+
+        void append(JsonNode fragment) {
+            if (fragment.hasNonNull("id")) {
+                id = fragment.get("id").asText();
+            }
+            JsonNode function = fragment.path("function");
+            if (function.hasNonNull("name")) {
+                name = function.get("name").asText();
+            }
+            if (function.hasNonNull("arguments")) {
+                arguments.append(function.get("arguments").asText());
+            }
+        }
+
+        ToolCall build() {
+            return new ToolCall(id, name, arguments.isEmpty() ? "{}" : arguments.toString());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.flux.agent_service.model;
+
+import java.util.List;
+
+/**
+ * One complete answer of the model: the text it streamed and the tool calls it asked for.
+ */
+public record ModelTurn(
+        String content,
+        List<ToolCall> toolCalls,
+        String finishReason) {
+
+    public boolean hasToolCalls() {
+        return !toolCalls.isEmpty();
+    }
+}
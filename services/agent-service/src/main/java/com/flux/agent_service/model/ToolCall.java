@@ -0,0 +1,11 @@
+package com.flux.agent_service.model;
+
+/**
+ * A function call requested by the model. {@code arguments} is the raw JSON text the model wrote,
+ * kept as is so it can be echoed back in the conversation.
+ */
+public record ToolCall(
+        String id,
+        String name,
+        String arguments) {
+}
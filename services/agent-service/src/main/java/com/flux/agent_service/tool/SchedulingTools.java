@@ -0,0 +1,197 @@
+package com.flux.agent_service.tool;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flux.agent_service.client.CalendarClient;
+import com.flux.agent_service.client.UserClient;
+import com.flux.agent_service.model.ToolCall;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The tools the model may call, and their execution. A model that needs several users or events asks
+ * for them in parallel calls of one turn; those are sent to the bulk endpoints as one request per
+ * tool, and identical slot searches are run once.
+ */
+@Slf4j
+@Component
+public class SchedulingTools {
+    static final String GET_USER = "get_user";
+    static final String GET_EVENT = "get_event";
+    static final String FIND_COMMON_SLOTS = "find_common_slots";
+
+    private static final String DEFINITIONS = """
+            [
+              {"type": "function", "function": {
+                "name": "get_user",
+                "description": "Profile of a user: name, email and birthday.",
+                "parameters": {"type": "object", "required": ["user_id"],
+                  "properties": {"user_id": {"type": "string"}}}}},
+              {"type": "function", "function": {
+                "name": "get_event",
+                "description": "An event with its title, calendar, start and end.",
+                "parameters": {"type": "object", "required": ["event_id"],
+                  "properties": {"event_id": {"type": "string"}}}}},
+              {"type": "function", "function": {
+                "name": "find_common_slots",
+                "description": "The first free slots all given users have in common.",
+                "parameters": {"type": "object", "required": ["user_ids", "start", "end"],
+                  "properties": {
+                    "user_ids": {"type": "array", "items": {"type": "string"}},
+                    "start": {"type": "string", "description": "ISO local date-time, inclusive"},
+                    "end": {"type": "string", "description": "ISO local date-time, exclusive"},
+                    "duration_minutes": {"type": "integer", "default": 30},
+                    "count": {"type": "integer", "default": 5}}}}}
+            ]""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CalendarClient calendarClient;
+    private final UserClient userClient;
+    private final ArrayNode definitions;
+
+    public SchedulingTools(CalendarClient calendarClient, UserClient userClient) {
+        this.calendarClient = calendarClient;
+        this.userClient = userClient;
+        this.definitions = (ArrayNode) parse(DEFINITIONS);
+    }
+
+    /** Schemas in the {@code tools} format of the chat completions API. */
+    public ArrayNode definitions() {
+        return definitions.deepCopy();
+    }
+
+    /**
+     * Runs the tool calls of one model turn and returns a {@code tool} message for each, in call order.
+     * A failing backend call becomes an error result for the model instead of failing the request.
+     */
+    public Execution execute(List<ToolCall> calls, String timezone, String authorization) {
+        Map<String, JsonNode> results = new HashMap<>();
+        int backendCalls = 0;
+
+        Map<String, List<ToolCall>> usersById = group(calls, GET_USER, "user_id");
+        if (!usersById.isEmpty()) {
+            backendCalls++;
+            resolve(usersById, "user", () -> userClient.getUsers(usersById.keySet(), authorization), results);
+        }
+
+        Map<String, List<ToolCall>> eventsById = group(calls, GET_EVENT, "event_id");
+        if (!eventsById.isEmpty()) {
+            backendCalls++;
+            resolve(eventsById, "event", () -> calendarClient.getEvents(eventsById.keySet(), authorization), results);
+        }
+
+        // ObjectNode equality ignores field order, so rephrased but identical searches share a call
+        Map<JsonNode, List<ToolCall>> searches = new LinkedHashMap<>();
+        for (ToolCall call : calls) {
+            if (FIND_COMMON_SLOTS.equals(call.name())) {
+                searches.computeIfAbsent(arguments(call), arguments -> new ArrayList<>()).add(call);
+            }
+        }
+        for (Map.Entry<JsonNode, List<ToolCall>> search : searches.entrySet()) {
+            backendCalls++;
+            JsonNode result = call(() -> findCommonSlots(search.getKey(), timezone, authorization));
+            search.getValue().forEach(call -> results.put(call.id(), result));
+        }
+
+        List<ObjectNode> messages = new ArrayList<>(calls.size());
+        boolean complete = true;
+        for (ToolCall call : calls) {
+            JsonNode result = results.getOrDefault(call.id(), error("Unknown tool or missing arguments: " + call.name()));
+            complete &= !result.has("error");
+            messages.add(objectMapper.createObjectNode()
+                    .put("role", "tool")
+                    .put("tool_call_id", call.id())
+                    .put("content", result.toString()));
+        }
+        return new Execution(messages, backendCalls, complete);
+    }
+
+    /** {@code complete} is false when a result is an error, so an answer built on it is not worth caching. */
+    public record Execution(List<ObjectNode> messages, int backendCalls, boolean complete) {
+    }
+
+    private Map<String, List<ToolCall>> group(List<ToolCall> calls, String tool, String idArgument) {
+        Map<String, List<ToolCall>> byId = new LinkedHashMap<>();
+        for (ToolCall call : calls) {
+            if (!tool.equals(call.name())) {
+                continue;
+            }
+            String id = arguments(call).path(idArgument).asText("");
+            if (id.isBlank()) {
+                continue;
+            }
+            byId.computeIfAbsent(id, key -> new ArrayList<>()).add(call);
+        }
+        return byId;
+    }
+
+    private void resolve(Map<String, List<ToolCall>> byId, String kind, BackendCall bulk, Map<String, JsonNode> results) {
+        JsonNode found = call(bulk);
+        Function<String, JsonNode> lookup;
+        if (found.isArray()) {
+            Map<String, JsonNode> index = new HashMap<>();
+            found.forEach(item -> index.put(item.path("id").asText(), item));
+            lookup = id -> index.getOrDefault(id, error("No " + kind + " with id " + id));
+        } else {
+            lookup = id -> found;
+        }
+        byId.forEach((id, calls) -> calls.forEach(call -> results.put(call.id(), lookup.apply(id))));
+    }
+
+    private JsonNode findCommonSlots(JsonNode arguments, String timezone, String authorization) {
+        List<String> userIds = new ArrayList<>();
+        arguments.path("user_ids").forEach(userId -> userIds.add(userId.asText()));
+        return calendarClient.findCommonSlots(
+                userIds,
+                arguments.path("start").asText(),
+                arguments.path("end").asText(),
+                arguments.path("duration_minutes").asInt(30),
+                arguments.path("count").asInt(5),
+                timezone,
+                authorization);
+    }
+
+    private JsonNode call(BackendCall backendCall) {
+        try {
+            return backendCall.call();
+        } catch (RuntimeException e) {
+            log.warn("Tool call failed: {}", e.getMessage());
+            return error(e.getMessage());
+        }
+    }
+
+    private JsonNode arguments(ToolCall call) {
+        try {
+            return objectMapper.readTree(call.arguments());
+        } catch (JsonProcessingException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private JsonNode parse(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ObjectNode error(String message) {
+        return objectMapper.createObjectNode().put("error", message);
+    }
+
+    @FunctionalInterface
+    private interface BackendCall {
+        JsonNode call();
+    }
+}
@@ -0,0 +1,120 @@
+package com.flux.agent_service.agent;
+
+import com.flux.agent_service.agent.dto.ScheduleRequest;
+import com.flux.agent_service.agent.dto.ScheduleResult;
+import com.flux.agent_service.handler.GlobalExceptionHandler;
+import com.flux.agent_service.model.ModelException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AgentControllerTest {
+    private static final String BODY = "{\"prompt\":\"free tomorrow?\",\"timezone\":\"Europe/Berlin\"}";
+
+    @Mock
+    private AgentService agentService;
+
+    private ExecutorService executor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        mockMvc = MockMvcBuilders.standaloneSetup(new AgentController(agentService, executor, 5000))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamsTokensThenTheResult() throws Exception {
+        when(agentService.schedule(any(ScheduleRequest.class), eq(ZoneId.of("Europe/Berlin")), eq("Bearer t"), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<String> onToken = invocation.getArgument(3);
+                    onToken.accept("Yes, ");
+                    onToken.accept("after 14:00.");
+                    return new ScheduleResult(false, 2, 1, 230);
+                });
+
+        MvcResult result = mockMvc.perform(post("/agent/schedule")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer t")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:token\ndata:Yes, \n\n")))
+                .andExpect(content().string(containsString("event:token\ndata:after 14:00.\n\n")))
+                .andExpect(content().string(containsString("event:done\ndata:{\"cached\":false,\"modelCalls\":2,\"backendCalls\":1,\"timeToFirstTokenMs\":230}")));
+    }
+
+    @Test
+    void reportsFailuresAsAnErrorEvent() throws Exception {
+        when(agentService.schedule(any(ScheduleRequest.class), any(ZoneId.class), eq("Bearer t"), any()))
+                .thenThrow(new ModelException("Model answered 503"));
+
+        MvcResult result = mockMvc.perform(post("/agent/schedule")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer t")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().string(containsString("event:error")))
+                .andExpect(content().string(containsString("Model answered 503")));
+    }
+
+    @Test
+    void rejectsUnknownTimezone() throws Exception {
+        mockMvc.perform(post("/agent/schedule")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer t")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"prompt\":\"free tomorrow?\",\"timezone\":\"Mars/Olympus\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(agentService);
+    }
+
+    @Test
+    void requiresAuthorization() throws Exception {
+        mockMvc.perform(post("/agent/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(agentService);
+    }
+}
@@ -0,0 +1,197 @@
+package com.flux.agent_service.agent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flux.agent_service.agent.dto.ScheduleRequest;
+import com.flux.agent_service.agent.dto.ScheduleResult;
+import com.flux.agent_service.client.CalendarClient;
+import com.flux.agent_service.client.UserClient;
+import com.flux.agent_service.model.ModelClient;
+import com.flux.agent_service.model.ModelException;
+import com.flux.agent_service.model.StubModelServer;
+import com.flux.agent_service.model.ToolCall;
+import com.flux.agent_service.tool.SchedulingTools;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the agent against {@link StubModelServer}, which waits {@value #PROMPT_MILLIS} ms before its
+ * first token, with the backends mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class AgentServiceTest {
+    private static final long PROMPT_MILLIS = 200;
+    private static final String AUTHORIZATION = "Bearer token-a";
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CalendarClient calendarClient;
+
+    @Mock
+    private UserClient userClient;
+
+    private StubModelServer model;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        model = new StubModelServer(PROMPT_MILLIS, 5);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.close();
+    }
+
+    @Test
+    void batchesToolCallsOfATurnIntoBulkRequests() throws Exception {
+        String slots = "{\"user_ids\":[\"u-1\",\"u-2\"],\"start\":\"2026-10-21T09:00\",\"end\":\"2026-10-21T18:00\",\"duration_minutes\":60}";
+        String sameSlots = "{\"duration_minutes\":60,\"end\":\"2026-10-21T18:00\",\"start\":\"2026-10-21T09:00\",\"user_ids\":[\"u-1\",\"u-2\"]}";
+        model.callTools(
+                        new ToolCall("c1", "get_user", "{\"user_id\":\"u-1\"}"),
+                        new ToolCall("c2", "get_user", "{\"user_id\":\"u-2\"}"),
+                        new ToolCall("c3", "get_event", "{\"event_id\":\"e-1\"}"),
+                        new ToolCall("c4", "get_event", "{\"event_id\":\"e-2\"}"),
+                        new ToolCall("c5", "find_common_slots", slots),
+                        new ToolCall("c6", "find_common_slots", sameSlots))
+                .answer("Wednesday ", "10:00 ", "works ", "for ", "both.");
+        when(userClient.getUsers(any(), eq(AUTHORIZATION)))
+                .thenReturn(json("[{\"id\":\"u-1\",\"firstname\":\"Anna\"},{\"id\":\"u-2\",\"firstname\":\"Ben\"}]"));
+        when(calendarClient.getEvents(any(), eq(AUTHORIZATION)))
+                .thenReturn(json("[{\"id\":\"e-1\",\"title\":\"Standup\"}]"));
+        when(calendarClient.findCommonSlots(any(), anyString(), anyString(), anyInt(), anyInt(), anyString(), eq(AUTHORIZATION)))
+                .thenReturn(json("{\"slots\":[{\"start\":\"2026-10-21T10:00\"}]}"));
+        List<String> tokens = new ArrayList<>();
+
+        ScheduleResult result = agentService(4).schedule(request("Find an hour for Anna and Ben on Wednesday"), ZONE, AUTHORIZATION, tokens::add);
+
+        assertEquals("Wednesday 10:00 works for both.", String.join("", tokens));
+        assertFalse(result.cached());
+        assertEquals(2, result.modelCalls());
+        assertEquals(3, result.backendCalls());
+        verify(userClient).getUsers(eq(Set.of("u-1", "u-2")), eq(AUTHORIZATION));
+        verify(calendarClient).getEvents(eq(Set.of("e-1", "e-2")), eq(AUTHORIZATION));
+        verify(calendarClient, times(1)).findCommonSlots(
+                eq(List.of("u-1", "u-2")), eq("2026-10-21T09:00"), eq("2026-10-21T18:00"), eq(60), eq(5), eq("Europe/Berlin"), eq(AUTHORIZATION));
+
+        JsonNode followUp = model.requests().get(1).path("messages");
+        assertEquals(3 + 6, followUp.size());
+        assertEquals(6, followUp.get(2).path("tool_calls").size());
+        assertEquals("c4", followUp.get(6).path("tool_call_id").asText());
+        assertTrue(followUp.get(6).path("content").asText().contains("No event with id e-2"));
+        assertTrue(followUp.get(4).path("content").asText().contains("Ben"));
+    }
+
+    @Test
+    void answersARephrasedQuestionFromTheCache() throws Exception {
+        model.answer("Tuesday ", "15:00 ", "is ", "free.");
+        AgentService agentService = agentService(4);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        ScheduleResult miss = agentService.schedule(request("Can you book 1 hour tomorrow at 3pm?"), ZONE, AUTHORIZATION, first::add);
+        ScheduleResult hit = agentService.schedule(request("Please book an hour tomorrow at 15:00"), ZONE, AUTHORIZATION, second::add);
+
+        System.out.printf("time to first token: %d ms generated, %d ms cached%n", miss.timeToFirstTokenMs(), hit.timeToFirstTokenMs());
+        assertEquals(String.join("", first), String.join("", second));
+        assertEquals(1, model.requests().size());
+        assertTrue(hit.cached());
+        assertEquals(0, hit.modelCalls());
+        assertEquals(0, hit.backendCalls());
+        assertTrue(miss.timeToFirstTokenMs() >= PROMPT_MILLIS);
+        assertTrue(hit.timeToFirstTokenMs() < PROMPT_MILLIS);
+        assertEquals(1.0, meterRegistry.counter("agent.cache", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("agent.cache", "result", "miss").count());
+        assertEquals(2, meterRegistry.get("agent.time.to.first.token").timer().count());
+        assertEquals(0.5, meterRegistry.get("agent.model.calls").summary().mean());
+        verifyNoInteractions(calendarClient, userClient);
+    }
+
+    @Test
+    void doesNotShareCachedAnswersBetweenTokens() {
+        model.answer("Free.").answer("Free.");
+        AgentService agentService = agentService(4);
+
+        agentService.schedule(request("free today?"), ZONE, AUTHORIZATION, token -> { });
+        ScheduleResult other = agentService.schedule(request("free today?"), ZONE, "Bearer token-b", token -> { });
+
+        assertFalse(other.cached());
+        assertEquals(2, model.requests().size());
+    }
+
+    @Test
+    void doesNotCacheAnswersBuiltOnFailedToolCalls() {
+        model.callTools(new ToolCall("c1", "get_user", "{\"user_id\":\"u-1\"}"))
+                .answer("Could ", "not ", "look ", "that ", "up.")
+                .answer("Anna ", "is ", "free.");
+        when(userClient.getUsers(any(), eq(AUTHORIZATION))).thenThrow(new RestClientException("503 Service Unavailable"));
+        AgentService agentService = agentService(4);
+
+        agentService.schedule(request("is anna free today?"), ZONE, AUTHORIZATION, token -> { });
+        ScheduleResult retry = agentService.schedule(request("is anna free today?"), ZONE, AUTHORIZATION, token -> { });
+
+        assertFalse(retry.cached());
+        assertTrue(model.requests().get(1).toString().contains("503 Service Unavailable"));
+    }
+
+    @Test
+    void lastModelCallHasNoTools() {
+        model.callTools(new ToolCall("c1", "get_event", "{\"event_id\":\"e-1\"}"))
+                .callTools(new ToolCall("c2", "get_event", "{\"event_id\":\"e-2\"}"));
+        when(calendarClient.getEvents(any(), eq(AUTHORIZATION))).thenReturn(objectMapper.createArrayNode());
+
+        assertThrows(ModelException.class,
+                () -> agentService(2).schedule(request("what is e-1?"), ZONE, AUTHORIZATION, token -> { }));
+
+        assertTrue(model.requests().get(0).has("tools"));
+        assertFalse(model.requests().get(1).has("tools"));
+    }
+
+    private AgentService agentService(int maxModelCalls) {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-19T08:00:00Z"), ZoneOffset.UTC);
+        return new AgentService(
+                new ModelClient(model.baseUrl(), "", "stub-model", 1000, 5000),
+                new SchedulingTools(calendarClient, userClient),
+                new IntentNormalizer(),
+                new ResponseCache(300, 100),
+                clock,
+                meterRegistry,
+                maxModelCalls);
+    }
+
+    private static ScheduleRequest request(String prompt) {
+        return new ScheduleRequest(prompt, ZONE.getId());
+    }
+
+    private JsonNode json(String json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+}
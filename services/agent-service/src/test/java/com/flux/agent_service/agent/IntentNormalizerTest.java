@@ -0,0 +1,66 @@
+package com.flux.agent_service.agent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntentNormalizerTest {
+
+    // A Monday
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    private final IntentNormalizer normalizer = new IntentNormalizer();
+
+    @Test
+    void rephrasingsShareAnIntent() {
+        String intent = normalizer.normalize("Can you book 1 hour with Anna tomorrow at 3pm?", TODAY);
+
+        assertEquals("schedule 60min anna 2026-10-20 15:00", intent);
+        assertEquals(intent, normalizer.normalize("could you please book 60 minutes with anna tomorrow, 15:00", TODAY));
+        assertEquals(intent, normalizer.normalize("Please set up an hour with Anna on Tuesday, 3 PM.", TODAY));
+    }
+
+    @Test
+    void resolvesRelativeDatesAgainstToday() {
+        assertEquals("available 2026-10-19", normalizer.normalize("Am I free today?", TODAY));
+        assertEquals("available 2026-10-26", normalizer.normalize("free next monday", TODAY));
+        assertEquals("available 2026-10-19", normalizer.normalize("free monday", TODAY));
+        assertEquals("available 2026-w44", normalizer.normalize("free next week", TODAY));
+        assertEquals("available 2026-10-21", normalizer.normalize("free the day after tomorrow", TODAY));
+    }
+
+    @Test
+    void normalizesDurations() {
+        assertEquals("schedule 30min", normalizer.normalize("schedule half an hour", TODAY));
+        assertEquals("schedule 90min", normalizer.normalize("schedule 1.5 hours", TODAY));
+        assertEquals("schedule 45min", normalizer.normalize("schedule 45 mins", TODAY));
+    }
+
+    @Test
+    void keepsWhatChangesTheAnswer() {
+        assertNotEquals(
+                normalizer.normalize("book 30 min with anna tomorrow", TODAY),
+                normalizer.normalize("book 30 min with bob tomorrow", TODAY));
+        assertNotEquals(
+                normalizer.normalize("book 30 min with anna tomorrow", TODAY),
+                normalizer.normalize("cancel 30 min with anna tomorrow", TODAY));
+        assertNotEquals(
+                normalizer.normalize("book 30 min with anna tomorrow", TODAY),
+                normalizer.normalize("book 30 min with anna tomorrow", TODAY.plusDays(1)));
+    }
+
+    @Test
+    void keepsWordOrder() {
+        assertNotEquals(
+                normalizer.normalize("move my 15:00 to 16:00", TODAY),
+                normalizer.normalize("move my 16:00 to 15:00", TODAY));
+        assertNotEquals(
+                normalizer.normalize("give anna's slot to bob", TODAY),
+                normalizer.normalize("give bob's slot to anna", TODAY));
+        assertNotEquals(
+                normalizer.normalize("move tomorrow to friday", TODAY),
+                normalizer.normalize("move friday to tomorrow", TODAY));
+    }
+}
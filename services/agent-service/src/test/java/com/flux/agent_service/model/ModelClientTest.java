@@ -0,0 +1,78 @@
+package com.flux.agent_service.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubModelServer server;
+    private ModelClient modelClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubModelServer(0, 0);
+        modelClient = new ModelClient(server.baseUrl(), "test-key", "stub-model", 1000, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void passesTokensOnAsTheyArrive() {
+        server.answer("Tuesday ", "at ", "10:00");
+        List<String> tokens = new ArrayList<>();
+
+        ModelTurn turn = modelClient.stream(List.of(user("When?")), null, tokens::add);
+
+        assertEquals(List.of("Tuesday ", "at ", "10:00"), tokens);
+        assertEquals("Tuesday at 10:00", turn.content());
+        assertFalse(turn.hasToolCalls());
+        assertEquals("stop", turn.finishReason());
+        JsonNode request = server.requests().get(0);
+        assertTrue(request.path("stream").asBoolean());
+        assertEquals("stub-model", request.path("model").asText());
+        assertFalse(request.has("tools"));
+    }
+
+    @Test
+    void assemblesToolCallsSplitOverChunks() {
+        server.callTools(
+                new ToolCall("call-1", "get_user", "{\"user_id\":\"u-1\"}"),
+                new ToolCall("call-2", "get_user", "{\"user_id\":\"u-2\"}"));
+        List<String> tokens = new ArrayList<>();
+
+        ModelTurn turn = modelClient.stream(List.of(user("Who?")), objectMapper.createArrayNode().add(1), tokens::add);
+
+        assertTrue(tokens.isEmpty());
+        assertEquals("tool_calls", turn.finishReason());
+        assertEquals(List.of(
+                new ToolCall("call-1", "get_user", "{\"user_id\":\"u-1\"}"),
+                new ToolCall("call-2", "get_user", "{\"user_id\":\"u-2\"}")), turn.toolCalls());
+        assertTrue(server.requests().get(0).path("parallel_tool_calls").asBoolean());
+    }
+
+    @Test
+    void failsOnErrorStatus() {
+        ModelException exception = assertThrows(ModelException.class,
+                () -> modelClient.stream(List.of(user("When?")), null, token -> { }));
+
+        assertTrue(exception.getMessage().contains("500"));
+    }
+
+    private ObjectNode user(String content) {
+        return objectMapper.createObjectNode().put("role", "user").put("content", content);
+    }
+}
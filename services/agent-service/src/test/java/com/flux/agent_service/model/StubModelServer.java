@@ -0,0 +1,149 @@
+package com.flux.agent_service.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A local chat completions server that streams scripted turns the way OpenAI does: one SSE chunk per
+ * token, tool call arguments split over several chunks, and {@code [DONE]} at the end. Before the
+ * first chunk it waits {@code promptMillis}, and {@code tokenMillis} between chunks, standing in for
+ * prompt processing and generation.
+ */
+public class StubModelServer implements AutoCloseable {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long promptMillis;
+    private final long tokenMillis;
+    private final Queue<Turn> turns = new ConcurrentLinkedQueue<>();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+
+    public StubModelServer(long promptMillis, long tokenMillis) throws IOException {
+        this.promptMillis = promptMillis;
+        this.tokenMillis = tokenMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/v1/chat/completions", this::complete);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /** Answers the next request with text, one chunk per token. */
+    public StubModelServer answer(String... tokens) {
+        turns.add(new Turn(List.of(tokens), List.of()));
+        return this;
+    }
+
+    /** Answers the next request with these tool calls. */
+    public StubModelServer callTools(ToolCall... calls) {
+        turns.add(new Turn(List.of(), List.of(calls)));
+        return this;
+    }
+
+    /** Request bodies received so far. */
+    public List<JsonNode> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private record Turn(List<String> tokens, List<ToolCall> toolCalls) {
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.add(objectMapper.readTree(exchange.getRequestBody()));
+            Turn turn = turns.poll();
+            if (turn == null) {
+                byte[] error = "{\"error\":\"no scripted turn left\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(500, error.length);
+                exchange.getResponseBody().write(error);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            pause(promptMillis);
+            for (int i = 0; i < turn.tokens().size(); i++) {
+                if (i > 0) {
+                    pause(tokenMillis);
+                }
+                ObjectNode delta = objectMapper.createObjectNode().put("content", turn.tokens().get(i));
+                write(out, chunk(delta, null));
+            }
+            for (int i = 0; i < turn.toolCalls().size(); i++) {
+                ToolCall call = turn.toolCalls().get(i);
+                String arguments = call.arguments();
+                int half = arguments.length() / 2;
+                write(out, chunk(toolCallDelta(i, call.id(), call.name(), arguments.substring(0, half)), null));
+                write(out, chunk(toolCallDelta(i, null, null, arguments.substring(half)), null));
+            }
+            write(out, chunk(objectMapper.createObjectNode(), turn.toolCalls().isEmpty() ? "stop" : "tool_calls"));
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+    }
+
+    private ObjectNode toolCallDelta(int index, String id, String name, String arguments) {
+        ObjectNode delta = objectMapper.createObjectNode();
+        ObjectNode call = delta.putArray("tool_calls").addObject().put("index", index);
+        if (id != null) {
+            call.put("id", id).put("type", "function");
+        }
+        ObjectNode function = call.putObject("function");
+        if (name != null) {
+            function.put("name", name);
+        }
+        function.put("arguments", arguments);
+        return delta;
+    }
+
+    private ObjectNode chunk(ObjectNode delta, String finishReason) {
+        ObjectNode chunk = objectMapper.createObjectNode().put("object", "chat.completion.chunk");
+        ArrayNode choices = chunk.putArray("choices");
+        ObjectNode choice = choices.addObject().put("index", 0);
+        choice.set("delta", delta);
+        if (finishReason == null) {
+            choice.putNull("finish_reason");
+        } else {
+            choice.put("finish_reason", finishReason);
+        }
+        return chunk;
+    }
+
+    private static void write(OutputStream out, JsonNode chunk) throws IOException {
+        out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
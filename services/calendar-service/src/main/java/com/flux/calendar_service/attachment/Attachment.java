@@ -1,5 +1,6 @@
 package com.flux.calendar_service.attachment;
 
+import com.flux.calendar_service.cache.GatewayCacheEntityListener;
 import com.flux.calendar_service.event.Event;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -18,15 +19,27 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "attachments")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, GatewayCacheEntityListener.class})
 public class Attachment {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
-    @Column(name = "file_url", nullable = false)
+    // External link; stored files are addressed by objectName and served through presigned URLs
+    @Column(name = "file_url")
     private String fileUrl;
 
+    @Column(name = "object_name", length = 512)
+    private String objectName;
+
+    // Storage ETag without quotes
+    @Column(name = "etag")
+    private String etag;
+
+    // Key into attachment_blobs; null for attachments that own their object
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "title", nullable = false)
     private String title;
 
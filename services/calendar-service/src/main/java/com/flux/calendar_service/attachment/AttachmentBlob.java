@@ -0,0 +1,45 @@
+package com.flux.calendar_service.attachment;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored object shared by every attachment with the same content. Rows are written through the
+ * native statements in {@link AttachmentBlobRepository} so the reference count stays atomic.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "attachment_blobs")
+public class AttachmentBlob {
+    // Hex SHA-256 of the content
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "object_name", nullable = false, length = 512)
+    private String objectName;
+
+    // bytes
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
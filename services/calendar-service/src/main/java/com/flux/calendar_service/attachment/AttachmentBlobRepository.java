@@ -0,0 +1,56 @@
+package com.flux.calendar_service.attachment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    interface StorageStats {
+        long getBlobs();
+
+        long getReferences();
+
+        long getStoredBytes();
+
+        long getLogicalBytes();
+    }
+
+    /**
+     * Registers one more reference to the content, creating the blob if this is its first upload.
+     * Concurrent uploads of the same content serialize on the row lock.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO attachment_blobs (content_hash, object_name, size, etag, ref_count, created_at, updated_at) " +
+                   "VALUES (:contentHash, :objectName, :size, :etag, 1, now(), now()) " +
+                   "ON CONFLICT (content_hash) DO UPDATE SET ref_count = attachment_blobs.ref_count + 1, updated_at = now()",
+           nativeQuery = true)
+    int acquire(@Param("contentHash") String contentHash,
+                @Param("objectName") String objectName,
+                @Param("size") long size,
+                @Param("etag") String etag);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE attachment_blobs SET ref_count = ref_count + 1, updated_at = now() " +
+                   "WHERE content_hash = :contentHash AND ref_count > 0", nativeQuery = true)
+    int addReference(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query(value = "UPDATE attachment_blobs SET ref_count = ref_count - 1, updated_at = now() " +
+                   "WHERE content_hash = :contentHash", nativeQuery = true)
+    int release(@Param("contentHash") String contentHash);
+
+    @Modifying
+    @Query(value = "DELETE FROM attachment_blobs WHERE content_hash = :contentHash AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("contentHash") String contentHash);
+
+    @Query(value = "SELECT COUNT(*) AS \"blobs\", " +
+                   "CAST(COALESCE(SUM(ref_count), 0) AS BIGINT) AS \"references\", " +
+                   "CAST(COALESCE(SUM(size), 0) AS BIGINT) AS \"storedBytes\", " +
+                   "CAST(COALESCE(SUM(size * ref_count), 0) AS BIGINT) AS \"logicalBytes\" " +
+                   "FROM attachment_blobs", nativeQuery = true)
+    StorageStats getStorageStats();
+}
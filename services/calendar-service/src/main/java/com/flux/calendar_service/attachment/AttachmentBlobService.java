@@ -0,0 +1,125 @@
+package com.flux.calendar_service.attachment;
+
+import com.flux.calendar_service.attachment.dto.StorageStatsResponse;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.ws.rs.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Content-addressed attachment storage. Attachments with the same SHA-256 share one object, and the
+ * object is removed from storage only when its last reference goes away.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentBlobService {
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final MinioService minioService;
+
+    /**
+     * Takes a reference to the content of a freshly uploaded object. If the content was already stored,
+     * the existing blob is returned and the new upload is removed once the transaction commits.
+     */
+    @Transactional
+    public AttachmentBlob acquire(MinioService.StoredObject uploaded) {
+        attachmentBlobRepository.acquire(uploaded.sha256(), uploaded.objectName(), uploaded.size(), uploaded.etag());
+        AttachmentBlob blob = attachmentBlobRepository.findById(uploaded.sha256()).orElseThrow();
+
+        if (!blob.getObjectName().equals(uploaded.objectName())) {
+            log.info("Deduplicated upload {} into {} ({} bytes saved, {} references)",
+                    uploaded.objectName(), blob.getObjectName(), uploaded.size(), blob.getRefCount());
+            runAfterCommit(() -> deleteObject(uploaded.objectName()));
+        }
+        return blob;
+    }
+
+    /**
+     * Drops one reference to the content and deletes the stored object after commit if it was the last one.
+     */
+    @Transactional
+    public void release(String contentHash) {
+        AttachmentBlob blob = attachmentBlobRepository.findById(contentHash).orElse(null);
+        if (blob == null) {
+            log.warn("Released unknown attachment blob {}", contentHash);
+            return;
+        }
+
+        attachmentBlobRepository.release(contentHash);
+        if (attachmentBlobRepository.deleteIfUnreferenced(contentHash) > 0) {
+            runAfterCommit(() -> deleteObject(blob.getObjectName()));
+        }
+    }
+
+    /**
+     * Drops one reference per hash (a hash may repeat) and returns the objects whose last reference
+     * went away. Unlike {@link #release(String)} nothing is deleted from storage; the caller owns that.
+     */
+    @Transactional
+    public List<String> releaseAll(Collection<String> contentHashes) {
+        List<String> unreferenced = new ArrayList<>();
+        // A stable lock order keeps concurrent bulk releases from deadlocking on the blob rows
+        for (String contentHash : contentHashes.stream().sorted().toList()) {
+            AttachmentBlob blob = attachmentBlobRepository.findById(contentHash).orElse(null);
+            if (blob == null) {
+                log.warn("Released unknown attachment blob {}", contentHash);
+                continue;
+            }
+
+            attachmentBlobRepository.release(contentHash);
+            if (attachmentBlobRepository.deleteIfUnreferenced(contentHash) > 0) {
+                unreferenced.add(blob.getObjectName());
+            }
+        }
+        return unreferenced;
+    }
+
+    /**
+     * Takes one more reference to content that is already stored, e.g. when an attachment is copied.
+     */
+    @Transactional
+    public AttachmentBlob addReference(String contentHash) {
+        if (attachmentBlobRepository.addReference(contentHash) == 0) {
+            throw new NotFoundException("Attachment content not found: " + contentHash);
+        }
+        return attachmentBlobRepository.findById(contentHash).orElseThrow();
+    }
+
+    @Transactional(readOnly = true)
+    public StorageStatsResponse getStorageStats() {
+        AttachmentBlobRepository.StorageStats stats = attachmentBlobRepository.getStorageStats();
+        long saved = stats.getLogicalBytes() - stats.getStoredBytes();
+        double ratio = stats.getLogicalBytes() > 0 ? (double) saved / stats.getLogicalBytes() : 0.0;
+        return new StorageStatsResponse(stats.getBlobs(), stats.getReferences(), stats.getStoredBytes(),
+                stats.getLogicalBytes(), saved, ratio);
+    }
+
+    private void deleteObject(String objectName) {
+        try {
+            minioService.deleteFile(objectName);
+        } catch (Exception e) {
+            log.warn("Failed to delete unreferenced object {}: {}", objectName, e.getMessage());
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,15 +1,32 @@
 package com.flux.calendar_service.attachment;
 
 import com.flux.calendar_service.attachment.dto.AttachmentResponse;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadCompleteRequest;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadRequest;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadResponse;
+import com.flux.calendar_service.attachment.dto.StorageStatsResponse;
+import com.flux.calendar_service.attachment.preview.AttachmentPreviewService;
+import com.flux.calendar_service.attachment.preview.PreviewJob;
+import com.flux.calendar_service.attachment.preview.PreviewStatus;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,6 +40,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 @Tag(name = "Attachment Controller", description = "Endpoints for managing attachments")
 public class AttachmentController {
     private final AttachmentService attachmentService;
+    private final AttachmentPreviewService attachmentPreviewService;
 
     @Operation(summary = "Upload attachment", description = "Uploads an attachment for a specific event")
     @ApiResponses(value = {
@@ -40,24 +58,193 @@ public class AttachmentController {
                 .body(attachmentService.uploadAttachment(eventId, file));
     }
 
-    @Operation(summary = "Download attachment file", description = "Downloads the file associated with an attachment ID")
+    @Operation(summary = "Stream attachment upload", description = "Uploads an attachment by streaming the multipart body straight into storage, without buffering the file in memory or on disk")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "File downloaded successfully"),
+            @ApiResponse(responseCode = "201", description = "Attachment uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "Event not found")
+    })
+    @PostMapping(value = "/event/{eventId}/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AttachmentResponse> uploadAttachmentStream(
+            @PathVariable String eventId,
+            HttpServletRequest request) throws java.io.IOException {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(attachmentService.uploadAttachmentStream(eventId, request.getContentType(), request.getInputStream()));
+    }
+
+    @Operation(summary = "Request upload URL", description = "Issues a presigned URL the client can PUT the file to directly")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Upload URL issued"),
+            @ApiResponse(responseCode = "404", description = "Event not found")
+    })
+    @PostMapping("/event/{eventId}/uploads")
+    public ResponseEntity<AttachmentUploadResponse> createUploadUrl(
+            @PathVariable String eventId,
+            @RequestBody @Valid AttachmentUploadRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(attachmentService.createUploadUrl(eventId, request));
+    }
+
+    @Operation(summary = "Complete upload", description = "Records the attachment once the file has been uploaded through a presigned URL")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Attachment recorded"),
+            @ApiResponse(responseCode = "404", description = "Event or uploaded object not found"),
+            @ApiResponse(responseCode = "409", description = "Object was not issued for this event")
+    })
+    @PostMapping("/event/{eventId}/uploads/complete")
+    public ResponseEntity<AttachmentResponse> completeUpload(
+            @PathVariable String eventId,
+            @RequestBody @Valid AttachmentUploadCompleteRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(attachmentService.completeUpload(eventId, request));
+    }
+
+    @Operation(summary = "Download attachment via storage", description = "Redirects to a short-lived presigned storage URL")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "302", description = "Redirect to the file"),
             @ApiResponse(responseCode = "404", description = "Attachment not found")
     })
+    @GetMapping("/{attachmentId}/download")
+    public ResponseEntity<Void> redirectToFile(@PathVariable String attachmentId) {
+        return ResponseEntity
+                .status(HttpStatus.FOUND)
+                .location(URI.create(attachmentService.getDownloadUrl(attachmentId).url()))
+                .build();
+    }
+
+    @Operation(summary = "Download attachment file", description = "Downloads the file associated with an attachment ID. Supports Range, If-Range and If-None-Match")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File downloaded successfully"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range"),
+            @ApiResponse(responseCode = "304", description = "File not modified"),
+            @ApiResponse(responseCode = "404", description = "Attachment not found"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
+    })
     @GetMapping("/{attachmentId}/file")
-    public ResponseEntity<Resource> getFile(@PathVariable String attachmentId) {
+    public ResponseEntity<Resource> getFile(
+            @PathVariable String attachmentId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Attachment attachment = attachmentService.getAttachment(attachmentId);
+        String etag = "\"" + attachmentService.getETag(attachment) + "\"";
+
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag, true)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        // A stale If-Range means the client's partial copy is outdated, so it gets the whole file
+        HttpRange requested = range != null && (ifRange == null || etagMatches(ifRange, etag, false))
+                ? singleRange(range)
+                : null;
+        if (requested != null) {
+            long size = attachment.getFileSize();
+            long start;
+            long end;
+            try {
+                start = requested.getRangeStart(size);
+                end = requested.getRangeEnd(size);
+                if (end < start) {
+                    throw new IllegalArgumentException("Empty range");
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+
+            long length = end - start + 1;
+            Resource resource = new InputStreamResource(attachmentService.downloadAttachmentRange(attachment, start, length));
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .contentType(MediaType.parseMediaType(attachment.getMimeType()))
+                    .contentLength(length)
+                    .eTag(etag)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"" + attachment.getTitle() + "\"")
+                    .body(resource);
+        }
+
         java.io.InputStream inputStream = attachmentService.downloadAttachment(attachmentId);
         Resource resource = new InputStreamResource(inputStream);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(attachment.getMimeType()))
+                .eTag(etag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=\"" + attachment.getTitle() + "\"")
                 .body(resource);
     }
 
+    @Operation(summary = "Download all attachments", description = "Streams every attachment of an event as one zip archive")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Zip archive streamed"),
+            @ApiResponse(responseCode = "404", description = "Event not found")
+    })
+    @GetMapping("/event/{eventId}/zip")
+    public ResponseEntity<StreamingResponseBody> downloadEventAttachments(@PathVariable String eventId) {
+        List<Attachment> attachments = attachmentService.getEventAttachments(eventId);
+        StreamingResponseBody body = out -> attachmentService.writeZip(attachments, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"attachments-" + eventId + ".zip\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Copy attachments", description = "Copies all attachments of one event to another event")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Attachments copied"),
+            @ApiResponse(responseCode = "404", description = "Source or target event not found")
+    })
+    @PostMapping("/event/{sourceEventId}/copy-to/{targetEventId}")
+    public ResponseEntity<List<AttachmentResponse>> copyAttachments(
+            @PathVariable String sourceEventId,
+            @PathVariable String targetEventId) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(attachmentService.copyAttachments(sourceEventId, targetEventId));
+    }
+
+    @Operation(summary = "Attachment preview", description = "Returns a small PNG thumbnail of an image or the first page of a PDF")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Preview returned"),
+            @ApiResponse(responseCode = "202", description = "Preview is still being generated"),
+            @ApiResponse(responseCode = "404", description = "Attachment not found or no preview available")
+    })
+    @GetMapping("/{attachmentId}/preview")
+    public ResponseEntity<Resource> getPreview(@PathVariable String attachmentId) {
+        PreviewJob job = attachmentPreviewService.getPreviewJob(attachmentId);
+        if (job.getStatus() == PreviewStatus.PENDING || job.getStatus() == PreviewStatus.PROCESSING) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .build();
+        }
+        if (job.getStatus() != PreviewStatus.DONE) {
+            throw new NotFoundException("No preview available for attachment: " + attachmentId);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate())
+                .body(new InputStreamResource(attachmentPreviewService.openPreview(job)));
+    }
+
+    @Operation(summary = "Storage statistics", description = "Reports how many bytes content deduplication saves")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics returned")
+    })
+    @GetMapping("/storage-stats")
+    public ResponseEntity<StorageStatsResponse> getStorageStats() {
+        return ResponseEntity.ok(attachmentService.getStorageStats());
+    }
+
     @Operation(summary = "Delete attachment", description = "Deletes an attachment by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Attachment deleted successfully"),
@@ -68,4 +255,49 @@ public class AttachmentController {
         attachmentService.deleteAttachment(attachmentId);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Delete all attachments", description = "Deletes every attachment of an event")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Attachments deleted successfully"),
+            @ApiResponse(responseCode = "404", description = "Event not found")
+    })
+    @DeleteMapping("/event/{eventId}")
+    public ResponseEntity<Void> deleteEventAttachments(@PathVariable String eventId) {
+        attachmentService.deleteEventAttachments(eventId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Only single ranges are served; malformed or multi-range requests fall back to the full file.
+     */
+    private static HttpRange singleRange(String range) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * If-None-Match uses weak comparison and accepts "*"; If-Range requires a strong match.
+     */
+    private static boolean etagMatches(String header, String etag, boolean weak) {
+        if (weak && header.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
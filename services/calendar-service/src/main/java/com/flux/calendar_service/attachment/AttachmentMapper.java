@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class AttachmentMapper {
+    // Responses are cached with their event, so stored files get the stable redirect instead of a presigned URL
+    static final String DOWNLOAD_PATH = "/attachments/%s/download";
 
     public AttachmentResponse toAttachmentResponse(Attachment attachment) {
         if (attachment == null) {
@@ -14,7 +16,9 @@ public class AttachmentMapper {
         }
         return new AttachmentResponse(
                 attachment.getId(),
-                attachment.getFileUrl(),
+                attachment.getObjectName() != null
+                        ? DOWNLOAD_PATH.formatted(attachment.getId())
+                        : attachment.getFileUrl(),
                 attachment.getTitle(),
                 attachment.getMimeType(),
                 attachment.getFileSize(),
@@ -3,9 +3,15 @@ package com.flux.calendar_service.attachment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, String> {
     List<Attachment> findByEventId(String eventId);
+
+    List<Attachment> findByEventIdIn(Collection<String> eventIds);
+
+    Optional<Attachment> findByObjectName(String objectName);
 }
@@ -1,23 +1,50 @@
 package com.flux.calendar_service.attachment;
 
 import com.flux.calendar_service.attachment.dto.AttachmentResponse;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadCompleteRequest;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadRequest;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadResponse;
+import com.flux.calendar_service.attachment.dto.StorageStatsResponse;
+import com.flux.calendar_service.attachment.preview.AttachmentPreviewService;
 import com.flux.calendar_service.event.Event;
 import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.exceptions.MinIoUploadingErrorException;
+import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
 import com.flux.calendar_service.storage.MinioService;
+import com.flux.calendar_service.storage.MultipartStreamReader;
+import io.minio.StatObjectResponse;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AttachmentService {
     private final AttachmentRepository attachmentRepository;
     private final EventRepository eventRepository;
     private final AttachmentMapper attachmentMapper;
     private final MinioService minioService;
+    private final AttachmentBlobService attachmentBlobService;
+    private final AttachmentPreviewService attachmentPreviewService;
+
+    @Value("${attachments.stream.buffer-size:65536}")
+    private int streamBufferSize;
 
     public Attachment getAttachment(String attachmentId) {
         return attachmentRepository.findById(attachmentId)
@@ -25,10 +52,95 @@ public class AttachmentService {
     }
 
     public InputStream downloadAttachment(String attachmentId) {
-        Attachment attachment = getAttachment(attachmentId);
-        String fileUrl = attachment.getFileUrl();
-        String fileName = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
-        return minioService.getFile(fileName);
+        return minioService.getFile(objectNameOf(getAttachment(attachmentId)));
+    }
+
+    public StorageStatsResponse getStorageStats() {
+        return attachmentBlobService.getStorageStats();
+    }
+
+    public InputStream downloadAttachmentRange(Attachment attachment, long offset, long length) {
+        return minioService.getFileRange(objectNameOf(attachment), offset, length);
+    }
+
+    /**
+     * Returns the storage ETag of the attachment, fetching and remembering it for rows created
+     * before ETags were recorded.
+     */
+    public String getETag(Attachment attachment) {
+        if (attachment.getEtag() != null) {
+            return attachment.getEtag();
+        }
+        String etag = minioService.findObject(objectNameOf(attachment))
+                .map(StatObjectResponse::etag)
+                .orElseThrow(() -> new NotFoundException("File not found for attachment: " + attachment.getId()));
+        attachment.setEtag(etag);
+        attachmentRepository.save(attachment);
+        return etag;
+    }
+
+    public MinioService.PresignedUrl getDownloadUrl(String attachmentId) {
+        return minioService.presignDownload(objectNameOf(getAttachment(attachmentId)));
+    }
+
+    /**
+     * Issues a presigned PUT URL so the client uploads straight to storage. The attachment row is
+     * only created once the client reports completion via {@link #completeUpload}.
+     */
+    public AttachmentUploadResponse createUploadUrl(String eventId, AttachmentUploadRequest request) {
+        if (!eventRepository.existsById(eventId)) {
+            throw new NotFoundException("Event not found with ID: " + eventId);
+        }
+
+        String objectName = MinioService.newObjectName(eventId, request.fileName());
+        MinioService.PresignedUrl url = minioService.presignUpload(objectName);
+        return new AttachmentUploadResponse(objectName, url.url(), url.expiresAt());
+    }
+
+    /**
+     * Records the attachment for an object uploaded through a presigned URL. Size and content type are
+     * taken from storage rather than the client, and repeated calls return the same attachment. The
+     * object is hashed like any other upload, so content that is already stored replaces it. Not
+     * transactional, so no database connection is held while the object is read back.
+     */
+    public AttachmentResponse completeUpload(String eventId, AttachmentUploadCompleteRequest request) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event not found with ID: " + eventId));
+        if (!request.objectName().startsWith(eventId + "/")) {
+            throw new ConflictException("Object " + request.objectName() + " was not issued for event " + eventId);
+        }
+
+        Attachment existing = attachmentRepository.findByObjectName(request.objectName()).orElse(null);
+        if (existing != null) {
+            return attachmentMapper.toAttachmentResponse(existing);
+        }
+
+        StatObjectResponse object = minioService.findObject(request.objectName())
+                .orElseThrow(() -> new NotFoundException("Uploaded object not found: " + request.objectName()));
+        MinioService.StoredObject stored = new MinioService.StoredObject(request.objectName(), object.size(),
+                object.etag(), minioService.sha256(request.objectName()));
+
+        AttachmentBlob blob = attachmentBlobService.acquire(stored);
+        Attachment attachment = Attachment.builder()
+                .title(request.title())
+                .objectName(blob.getObjectName())
+                .etag(blob.getEtag())
+                .contentHash(blob.getContentHash())
+                .mimeType(object.contentType() != null ? object.contentType() : "application/octet-stream")
+                .fileSize(object.size())
+                .event(event)
+                .build();
+
+        Attachment savedAttachment;
+        try {
+            savedAttachment = attachmentRepository.save(attachment);
+        } catch (RuntimeException e) {
+            // The blob reference was committed on its own, so give it back
+            attachmentBlobService.release(blob.getContentHash());
+            throw e;
+        }
+        attachmentPreviewService.enqueue(savedAttachment);
+        return attachmentMapper.toAttachmentResponse(savedAttachment);
     }
 
     @Transactional
@@ -36,18 +148,78 @@ public class AttachmentService {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event not found with ID: " + eventId));
 
-        String fileName = minioService.uploadFile(file);
-        String fileUrl = minioService.getFileUrl(fileName);
+        AttachmentBlob blob = attachmentBlobService.acquire(minioService.uploadFile(file));
 
         Attachment attachment = Attachment.builder()
                 .title(file.getOriginalFilename())
-                .fileUrl(fileUrl)
+                .objectName(blob.getObjectName())
+                .etag(blob.getEtag())
+                .contentHash(blob.getContentHash())
                 .mimeType(file.getContentType())
                 .fileSize(file.getSize())
                 .event(event)
                 .build();
 
         Attachment savedAttachment = attachmentRepository.save(attachment);
+        attachmentPreviewService.enqueue(savedAttachment);
+        return attachmentMapper.toAttachmentResponse(savedAttachment);
+    }
+
+    /**
+     * Pipes the "file" part of a raw multipart request body straight into MinIO. Deliberately not
+     * transactional so no database connection is held while the body is being received.
+     */
+    public AttachmentResponse uploadAttachmentStream(String eventId, String contentType, InputStream body) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event not found with ID: " + eventId));
+
+        String boundary = MultipartStreamReader.boundaryOf(contentType);
+        if (boundary == null) {
+            throw new MustNotBeEmptyException("Multipart boundary must not be empty");
+        }
+
+        MinioService.StoredObject stored = null;
+        String title = null;
+        String mimeType = null;
+        try {
+            MultipartStreamReader reader = new MultipartStreamReader(body, boundary, streamBufferSize);
+            for (MultipartStreamReader.Part part = reader.nextPart(); part != null; part = reader.nextPart()) {
+                if ("file".equals(part.name()) && part.filename() != null && stored == null) {
+                    title = part.filename();
+                    mimeType = part.contentType() != null ? part.contentType() : "application/octet-stream";
+                    stored = minioService.uploadStream(part.body(), title, mimeType);
+                }
+            }
+        } catch (IOException e) {
+            if (stored != null) {
+                minioService.deleteFile(stored.objectName());
+            }
+            throw new MinIoUploadingErrorException("Failed to read multipart body: " + e.getMessage());
+        }
+        if (stored == null) {
+            throw new MustNotBeEmptyException("File part must not be empty");
+        }
+
+        AttachmentBlob blob = attachmentBlobService.acquire(stored);
+        Attachment attachment = Attachment.builder()
+                .title(title)
+                .objectName(blob.getObjectName())
+                .etag(blob.getEtag())
+                .contentHash(blob.getContentHash())
+                .mimeType(mimeType)
+                .fileSize(stored.size())
+                .event(event)
+                .build();
+
+        Attachment savedAttachment;
+        try {
+            savedAttachment = attachmentRepository.save(attachment);
+        } catch (RuntimeException e) {
+            // The blob reference was committed on its own, so give it back
+            attachmentBlobService.release(blob.getContentHash());
+            throw e;
+        }
+        attachmentPreviewService.enqueue(savedAttachment);
         return attachmentMapper.toAttachmentResponse(savedAttachment);
     }
 
@@ -60,11 +232,161 @@ public class AttachmentService {
             attachment.getEvent().getAttachments().remove(attachment);
         }
 
+        releaseFiles(List.of(attachment));
+        attachmentRepository.delete(attachment);
+    }
+
+    /**
+     * Deletes every attachment of an event; their files go in one multi-object delete after commit.
+     */
+    @Transactional
+    public int deleteEventAttachments(String eventId) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event not found with ID: " + eventId));
+
+        List<Attachment> attachments = new ArrayList<>(event.getAttachments());
+        releaseFiles(attachments);
+        // Orphan removal deletes the rows
+        event.getAttachments().clear();
+        return attachments.size();
+    }
+
+    /**
+     * Copies all attachments of one event to another. Deduplicated content only gains a reference;
+     * files that predate deduplication are copied server-side in parallel.
+     */
+    @Transactional
+    public List<AttachmentResponse> copyAttachments(String sourceEventId, String targetEventId) {
+        if (!eventRepository.existsById(sourceEventId)) {
+            throw new NotFoundException("Event not found with ID: " + sourceEventId);
+        }
+        Event target = eventRepository.findById(targetEventId)
+                .orElseThrow(() -> new NotFoundException("Event not found with ID: " + targetEventId));
+
+        List<Attachment> copies = new ArrayList<>();
+        Map<String, String> objectCopies = new LinkedHashMap<>();
+        for (Attachment source : attachmentRepository.findByEventId(sourceEventId)) {
+            Attachment.AttachmentBuilder copy = Attachment.builder()
+                    .title(source.getTitle())
+                    .mimeType(source.getMimeType())
+                    .fileSize(source.getFileSize())
+                    .event(target);
+
+            if (source.getContentHash() != null) {
+                AttachmentBlob blob = attachmentBlobService.addReference(source.getContentHash());
+                copy.objectName(blob.getObjectName())
+                        .etag(blob.getEtag())
+                        .contentHash(blob.getContentHash());
+            } else {
+                String objectName = MinioService.newObjectName(targetEventId, source.getTitle());
+                objectCopies.put(objectNameOf(source), objectName);
+                copy.objectName(objectName)
+                        .etag(source.getEtag());
+            }
+            copies.add(copy.build());
+        }
+
+        // Copies that already finished must not outlive a failed batch or transaction
+        runAfterRollback(() -> deleteObjects(objectCopies.values()));
+        minioService.copyFiles(objectCopies);
+
+        List<Attachment> saved = attachmentRepository.saveAll(copies);
+        target.getAttachments().addAll(saved);
+        saved.forEach(attachmentPreviewService::enqueue);
+        return saved.stream().map(attachmentMapper::toAttachmentResponse).toList();
+    }
+
+    public List<Attachment> getEventAttachments(String eventId) {
+        if (!eventRepository.existsById(eventId)) {
+            throw new NotFoundException("Event not found with ID: " + eventId);
+        }
+        return attachmentRepository.findByEventId(eventId);
+    }
+
+    /**
+     * Writes the files of the given attachments into a zip archive, one entry per attachment.
+     */
+    public void writeZip(List<Attachment> attachments, OutputStream out) throws IOException {
+        minioService.writeZip(attachments.stream()
+                .map(attachment -> new MinioService.ZipSource(attachment.getTitle(), objectNameOf(attachment)))
+                .toList(), out);
+    }
+
+    /**
+     * Gives up the stored files of attachments that are about to be deleted: blob references are dropped
+     * and previews detached in this transaction, and every object left without an owner is removed
+     * from storage in one batch once it commits.
+     */
+    @Transactional
+    public void releaseFiles(Collection<Attachment> attachments) {
+        if (attachments == null || attachments.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = new ArrayList<>();
+        List<String> unowned = new ArrayList<>();
+        List<String> attachmentIds = new ArrayList<>();
+        for (Attachment attachment : attachments) {
+            if (attachment.getId() != null) {
+                attachmentIds.add(attachment.getId());
+            }
+            if (attachment.getContentHash() != null) {
+                hashes.add(attachment.getContentHash());
+            } else if (attachment.getObjectName() != null || attachment.getFileUrl() != null) {
+                unowned.add(objectNameOf(attachment));
+            }
+        }
+
+        unowned.addAll(attachmentBlobService.releaseAll(hashes));
+        unowned.addAll(attachmentPreviewService.detachPreviews(attachmentIds));
+        if (!unowned.isEmpty()) {
+            runAfterCommit(() -> deleteObjects(unowned));
+        }
+    }
+
+    private void deleteObjects(Collection<String> objectNames) {
+        try {
+            List<String> failed = minioService.deleteFiles(objectNames);
+            if (!failed.isEmpty()) {
+                log.warn("Failed to delete {} of {} attachment objects: {}", failed.size(), objectNames.size(), failed);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to delete attachment objects {}: {}", objectNames, e.getMessage());
+        }
+    }
+
+    private static String objectNameOf(Attachment attachment) {
+        if (attachment.getObjectName() != null) {
+            return attachment.getObjectName();
+        }
+        // Legacy rows only stored the public URL
         String fileUrl = attachment.getFileUrl();
-        String fileName = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
+        return fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
+    }
 
-        minioService.deleteFile(fileName);
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 
-        attachmentRepository.delete(attachment);
+    private static void runAfterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        action.run();
+                    }
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,8 @@
+package com.flux.calendar_service.attachment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record AttachmentUploadCompleteRequest(
+        @NotBlank String objectName,
+        @NotBlank String title) {
+}
@@ -0,0 +1,7 @@
+package com.flux.calendar_service.attachment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record AttachmentUploadRequest(
+        @NotBlank String fileName) {
+}
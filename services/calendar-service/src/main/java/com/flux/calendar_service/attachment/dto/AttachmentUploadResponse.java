@@ -0,0 +1,9 @@
+package com.flux.calendar_service.attachment.dto;
+
+import java.time.Instant;
+
+public record AttachmentUploadResponse(
+        String objectName,
+        String uploadUrl,
+        Instant expiresAt) {
+}
@@ -0,0 +1,10 @@
+package com.flux.calendar_service.attachment.dto;
+
+public record StorageStatsResponse(
+        long blobs,
+        long references,
+        long storedBytes,
+        long logicalBytes,
+        long savedBytes,
+        double savedRatio) {
+}
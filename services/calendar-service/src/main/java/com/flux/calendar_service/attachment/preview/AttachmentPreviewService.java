@@ -0,0 +1,100 @@
+package com.flux.calendar_service.attachment.preview;
+
+import com.flux.calendar_service.attachment.Attachment;
+import com.flux.calendar_service.attachment.AttachmentRepository;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.ws.rs.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Front door of the preview pipeline: queues rendering for new attachments and hands out finished
+ * previews. The rendering itself happens in {@link PreviewWorker}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttachmentPreviewService {
+    private final PreviewJobRepository previewJobRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final PreviewRenderer previewRenderer;
+    private final MinioService minioService;
+
+    /**
+     * Queues a preview for the attachment if its type can be rendered. Runs in the caller's transaction,
+     * so the job only becomes visible to workers once the attachment itself is committed.
+     */
+    @Transactional
+    public void enqueue(Attachment attachment) {
+        if (attachment.getId() == null || !previewRenderer.supports(attachment.getMimeType())) {
+            return;
+        }
+        if (previewJobRepository.findByAttachmentId(attachment.getId()).isPresent()) {
+            return;
+        }
+
+        previewJobRepository.save(PreviewJob.builder()
+                .attachmentId(attachment.getId())
+                .status(PreviewStatus.PENDING)
+                .availableAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Returns the preview job of an attachment. Attachments uploaded before the pipeline existed
+     * get queued on first request.
+     */
+    @Transactional
+    public PreviewJob getPreviewJob(String attachmentId) {
+        PreviewJob job = previewJobRepository.findByAttachmentId(attachmentId).orElse(null);
+        if (job != null) {
+            return job;
+        }
+
+        Attachment attachment = attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new NotFoundException("Attachment not found with ID: " + attachmentId));
+        if (!previewRenderer.supports(attachment.getMimeType())) {
+            throw new NotFoundException("No preview available for attachment: " + attachmentId);
+        }
+        enqueue(attachment);
+        return previewJobRepository.findByAttachmentId(attachmentId).orElseThrow();
+    }
+
+    public InputStream openPreview(PreviewJob job) {
+        return minioService.getFile(job.getPreviewObjectName());
+    }
+
+    @Transactional
+    public void deletePreview(String attachmentId) {
+        previewJobRepository.findByAttachmentId(attachmentId).ifPresent(job -> {
+            if (job.getPreviewObjectName() != null) {
+                minioService.deleteFile(job.getPreviewObjectName());
+            }
+            previewJobRepository.delete(job);
+        });
+    }
+
+    /**
+     * Removes the preview jobs of several attachments and returns the preview objects left in storage,
+     * so they can be deleted together with the attachments' own files.
+     */
+    @Transactional
+    public List<String> detachPreviews(Collection<String> attachmentIds) {
+        if (attachmentIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<PreviewJob> jobs = previewJobRepository.findByAttachmentIdIn(attachmentIds);
+        previewJobRepository.deleteAllInBatch(jobs);
+        return jobs.stream()
+                .map(PreviewJob::getPreviewObjectName)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.flux.calendar_service.attachment.preview;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PreviewJobRepository extends JpaRepository<PreviewJob, String> {
+    Optional<PreviewJob> findByAttachmentId(String attachmentId);
+
+    List<PreviewJob> findByAttachmentIdIn(Collection<String> attachmentIds);
+
+    void deleteByAttachmentId(String attachmentId);
+}
@@ -0,0 +1,108 @@
+package com.flux.calendar_service.attachment.preview;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Renders PNG thumbnails of images and of the first page of PDFs, bounded to a square of
+ * {@code attachments.preview.max-dimension} pixels.
+ */
+@Component
+public class PreviewRenderer {
+    static final String PDF = "application/pdf";
+    private static final Set<String> IMAGE_TYPES = Set.of("image/png", "image/jpeg", "image/jpg", "image/gif", "image/bmp");
+
+    @Value("${attachments.preview.max-dimension:320}")
+    private int maxDimension;
+
+    @Value("${attachments.preview.pdf-dpi:72}")
+    private float pdfDpi;
+
+    public boolean supports(String mimeType) {
+        String type = normalize(mimeType);
+        return PDF.equals(type) || IMAGE_TYPES.contains(type);
+    }
+
+    public byte[] render(InputStream source, String mimeType) throws IOException {
+        BufferedImage image = PDF.equals(normalize(mimeType)) ? renderFirstPage(source) : readImage(source);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scale(image), "png", out);
+        return out.toByteArray();
+    }
+
+    private BufferedImage readImage(InputStream source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Subsample while decoding so a huge photo never becomes a full-size bitmap on the heap
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longestSide / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage renderFirstPage(InputStream source) throws IOException {
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBuffer(source))) {
+            if (document.getNumberOfPages() == 0) {
+                throw new IOException("PDF has no pages");
+            }
+            return new PDFRenderer(document).renderImageWithDPI(0, pdfDpi, ImageType.RGB);
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static String normalize(String mimeType) {
+        if (mimeType == null) {
+            return "";
+        }
+        int parameters = mimeType.indexOf(';');
+        return (parameters >= 0 ? mimeType.substring(0, parameters) : mimeType).trim().toLowerCase(Locale.ROOT);
+    }
+}
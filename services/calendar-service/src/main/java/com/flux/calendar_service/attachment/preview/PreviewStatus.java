@@ -0,0 +1,9 @@
+package com.flux.calendar_service.attachment.preview;
+
+public enum PreviewStatus {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED,
+    UNSUPPORTED
+}
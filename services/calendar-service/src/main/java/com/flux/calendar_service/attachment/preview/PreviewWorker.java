@@ -0,0 +1,136 @@
+package com.flux.calendar_service.attachment.preview;
+
+import com.flux.calendar_service.attachment.Attachment;
+import com.flux.calendar_service.attachment.AttachmentRepository;
+import com.flux.calendar_service.attachment.AttachmentService;
+import com.flux.calendar_service.job.ClaimQueue;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Drains the preview queue through a {@link ClaimQueue}, so the pool never builds up an in-memory
+ * backlog and the remaining work stays in the table.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "attachments.preview.enabled", havingValue = "true", matchIfMissing = true)
+public class PreviewWorker {
+    static final String PREVIEW_PREFIX = "previews/";
+
+    private static final String CLAIM_SQL = "UPDATE attachment_preview_jobs " +
+            "SET status = 'PROCESSING', locked_at = now(), attempts = attempts + 1, updated_at = now() " +
+            "WHERE id IN (SELECT id FROM attachment_preview_jobs " +
+            "WHERE status = 'PENDING' AND available_at <= now() " +
+            "ORDER BY available_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, attempts";
+
+    // Jobs whose worker died mid-render go back to the queue
+    private static final String RECOVER_SQL = "UPDATE attachment_preview_jobs " +
+            "SET status = 'PENDING', locked_at = NULL, updated_at = now() " +
+            "WHERE status = 'PROCESSING' AND locked_at < ?";
+
+    // Touches no row once the job was deleted with its attachment, or recovered and claimed again mid-render
+    private static final String COMPLETE_SQL = "UPDATE attachment_preview_jobs " +
+            "SET status = ?, preview_object_name = ?, last_error = ?, available_at = ?, locked_at = NULL, updated_at = now() " +
+            "WHERE id = ? AND status = 'PROCESSING' AND attempts = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PreviewJobRepository previewJobRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentService attachmentService;
+    private final MinioService minioService;
+    private final PreviewRenderer previewRenderer;
+
+    @Value("${attachments.preview.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${attachments.preview.max-attempts:3}")
+    private int maxAttempts;
+
+    // Larger sources are marked UNSUPPORTED rather than pulled into a worker
+    @Value("${attachments.preview.max-source-bytes:52428800}")
+    private long maxSourceBytes;
+
+    @Value("${attachments.preview.stale-after-minutes:10}")
+    private long staleAfterMinutes;
+
+    private ClaimQueue queue;
+
+    @PostConstruct
+    public void start() {
+        queue = new ClaimQueue(jdbcTemplate, CLAIM_SQL, RECOVER_SQL, Duration.ofMinutes(staleAfterMinutes),
+                workerThreads, "preview-worker-", this::process);
+    }
+
+    @PreDestroy
+    public void stop() {
+        queue.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${attachments.preview.poll-interval-ms:2000}")
+    public void poll() {
+        queue.poll();
+    }
+
+    void process(String jobId, int attempt) {
+        PreviewJob job = previewJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Attachment attachment = attachmentRepository.findById(job.getAttachmentId()).orElse(null);
+        if (attachment == null) {
+            previewJobRepository.delete(job);
+            return;
+        }
+        if (!previewRenderer.supports(attachment.getMimeType()) || attachment.getFileSize() > maxSourceBytes) {
+            complete(job, attempt, PreviewStatus.UNSUPPORTED, null);
+            return;
+        }
+
+        try (InputStream source = attachmentService.downloadAttachment(attachment.getId())) {
+            byte[] preview = previewRenderer.render(source, attachment.getMimeType());
+            // Per attempt, so a worker that lost its claim never deletes the object of the one that took over
+            String objectName = PREVIEW_PREFIX + attachment.getId() + "-" + attempt + ".png";
+            minioService.uploadBytes(objectName, preview, "image/png");
+            job.setPreviewObjectName(objectName);
+            if (!complete(job, attempt, PreviewStatus.DONE, null)) {
+                minioService.deleteFile(objectName);
+            }
+        } catch (Exception e) {
+            log.warn("Preview of attachment {} failed (attempt {}): {}", attachment.getId(), attempt, e.getMessage());
+            if (attempt < maxAttempts) {
+                job.setAvailableAt(LocalDateTime.now().plusSeconds(30L << (attempt - 1)));
+                complete(job, attempt, PreviewStatus.PENDING, e.getMessage());
+            } else {
+                complete(job, attempt, PreviewStatus.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private boolean complete(PreviewJob job, int attempt, PreviewStatus status, String error) {
+        job.setStatus(status);
+        job.setLockedAt(null);
+        job.setLastError(error != null && error.length() > 1024 ? error.substring(0, 1024) : error);
+        int updated = jdbcTemplate.update(COMPLETE_SQL, status.name(), job.getPreviewObjectName(), job.getLastError(),
+                Timestamp.valueOf(job.getAvailableAt()), job.getId(), attempt);
+        if (updated == 0) {
+            log.info("Preview job {} lost attempt {}: removed with attachment {} or claimed again",
+                    job.getId(), attempt, job.getAttachmentId());
+        }
+        return updated > 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.flux.calendar_service.availability;
+
+import com.flux.calendar_service.availability.dto.AvailabilityResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/availability")
+@RequiredArgsConstructor
+@Tag(name = "Availability Controller", description = "Endpoints for free/busy queries")
+public class AvailabilityController {
+    private final AvailabilityService availabilityService;
+
+    /**
+     * Get the slots in which all given users are free
+     * GET /availability?userIds=a,b&start=...&end=...
+     */
+    @Operation(summary = "Get common availability", description = "Returns the 15 minute aligned slots in which every given user is free")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed availability"),
+            @ApiResponse(responseCode = "400", description = "Invalid users or range")
+    })
+    @GetMapping
+    public ResponseEntity<AvailabilityResponse> getAvailability(
+            @Parameter(description = "Users to intersect") @RequestParam List<String> userIds,
+            @Parameter(description = "Range start (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "Range end (exclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(availabilityService.getAvailability(userIds, start, end));
+    }
+}
@@ -0,0 +1,277 @@
+package com.flux.calendar_service.availability;
+
+import com.flux.calendar_service.availability.dto.AvailabilityResponse;
+import com.flux.calendar_service.availability.dto.FreeSlot;
+import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
+import com.flux.calendar_service.exceptions.RequestLimitExceededException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Free/busy engine backed by one {@link BusyBitmap} per user and day in Redis.
+ * Bitmaps are rebuilt for the touched days after every event write and lazily on a cache miss,
+ * so a group availability query is a single MGET plus a byte-wise OR.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityService {
+    static final String KEY_PREFIX = "availability:";
+
+    private final EventRepository eventRepository;
+    private final OccurrenceExpander occurrenceExpander;
+    // Raw connections read and write the bitmaps as bytes, without the template's JSON serializer
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${availability.ttl-days:7}")
+    private long ttlDays;
+
+    @Value("${availability.max-range-days:31}")
+    private int maxRangeDays;
+
+    @Value("${availability.max-users:50}")
+    private int maxUsers;
+
+    public AvailabilityResponse getAvailability(List<String> userIds, LocalDateTime start, LocalDateTime end) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new MustNotBeEmptyException("At least one user ID is required");
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IncorrectTimeException("Range start must be before range end");
+        }
+
+        List<String> users = userIds.stream().filter(id -> id != null && !id.isBlank()).distinct().toList();
+        if (users.isEmpty()) {
+            throw new MustNotBeEmptyException("At least one user ID is required");
+        }
+        if (users.size() > maxUsers) {
+            throw new RequestLimitExceededException("Availability can be queried for at most " + maxUsers + " users");
+        }
+
+        LocalDateTime from = BusyBitmap.floorToSlot(start);
+        LocalDateTime to = BusyBitmap.ceilToSlot(end);
+        LocalDate firstDay = from.toLocalDate();
+        int days = (int) ChronoUnit.DAYS.between(firstDay, to.minusNanos(1).toLocalDate()) + 1;
+        if (days > maxRangeDays) {
+            throw new RequestLimitExceededException("Availability range cannot exceed " + maxRangeDays + " days");
+        }
+
+        byte[] busy = new byte[days * BusyBitmap.BYTES_PER_DAY];
+        byte[][] keys = new byte[users.size() * days][];
+        for (int u = 0; u < users.size(); u++) {
+            for (int d = 0; d < days; d++) {
+                keys[u * days + d] = key(users.get(u), firstDay.plusDays(d));
+            }
+        }
+
+        List<byte[]> values;
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(keys);
+        }
+
+        Map<String, List<LocalDate>> missing = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            byte[] value = values != null ? values.get(i) : null;
+            if (value == null) {
+                missing.computeIfAbsent(users.get(i / days), k -> new ArrayList<>()).add(firstDay.plusDays(i % days));
+            } else {
+                BusyBitmap.or(busy, i % days, value);
+            }
+        }
+
+        // SET NX: a rebuild triggered by a concurrent event write is fresher than this read and must win
+        missing.forEach((userId, missingDays) -> rebuildDays(userId, missingDays, RedisStringCommands.SetOption.ifAbsent())
+                .forEach((day, bitmap) -> BusyBitmap.or(busy, (int) ChronoUnit.DAYS.between(firstDay, day), bitmap)));
+
+        return new AvailabilityResponse(users, from, to, BusyBitmap.SLOT_MINUTES, freeSlots(busy, firstDay, from, to));
+    }
+
+    public void onEventChanged(Event event) {
+        if (event == null || event.getCalendar() == null) {
+            return;
+        }
+        onEventChanged(event.getCalendar().getUserId(), event.getStartTime(), event.getEndTime(),
+                event.getRecurrenceRule() != null);
+    }
+
+    /**
+     * Refreshes the bitmaps touched by an event once the surrounding transaction commits.
+     * A recurring series can touch any day, so all of the user's bitmaps are dropped instead.
+     */
+    public void onEventChanged(String userId, LocalDateTime start, LocalDateTime end, boolean recurring) {
+        if (userId == null || start == null) {
+            return;
+        }
+
+        runAfterCommit(() -> {
+            try {
+                LocalDate lastDay = (end != null && end.isAfter(start) ? end.minusNanos(1) : start).toLocalDate();
+                long days = ChronoUnit.DAYS.between(start.toLocalDate(), lastDay) + 1;
+                if (recurring || days > maxRangeDays) {
+                    evictUser(userId);
+                    return;
+                }
+
+                List<LocalDate> touched = new ArrayList<>();
+                for (LocalDate day = start.toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+                    touched.add(day);
+                }
+                rebuildDays(userId, touched, RedisStringCommands.SetOption.upsert());
+            } catch (Exception e) {
+                log.warn("Failed to refresh availability for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    /** Drops all of the user's bitmaps once the surrounding transaction commits, e.g. after a calendar is deleted. */
+    public void onCalendarChanged(String userId) {
+        if (userId == null) {
+            return;
+        }
+
+        runAfterCommit(() -> {
+            try {
+                evictUser(userId);
+            } catch (Exception e) {
+                log.warn("Failed to evict availability for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    Map<LocalDate, byte[]> rebuildDays(String userId, List<LocalDate> days, RedisStringCommands.SetOption setOption) {
+        LocalDate firstDay = days.stream().min(LocalDate::compareTo).orElseThrow();
+        LocalDate lastDay = days.stream().max(LocalDate::compareTo).orElseThrow();
+        LocalDateTime rangeStart = firstDay.atStartOfDay();
+        LocalDateTime rangeEnd = lastDay.plusDays(1).atStartOfDay();
+
+        // Always read from the primary: a lagging replica would be cached for the whole TTL
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<EventOccurrenceResponse> occurrences = transactionTemplate.execute(status -> occurrenceExpander.expand(
+                busyEvents(eventRepository.findSingleByUserIdOverlapping(userId, rangeStart, rangeEnd)),
+                busyEvents(eventRepository.findRecurringByUserIdOverlapping(userId, rangeStart, rangeEnd)),
+                rangeStart, rangeEnd));
+
+        Map<LocalDate, byte[]> bitmaps = new TreeMap<>();
+        for (LocalDate day : days) {
+            bitmaps.put(day, BusyBitmap.emptyDay());
+        }
+        for (EventOccurrenceResponse occurrence : occurrences) {
+            LocalDateTime occurrenceEnd = occurrenceEnd(occurrence);
+            for (LocalDate day = occurrence.startTime().toLocalDate();
+                 day.atStartOfDay().isBefore(occurrenceEnd) && !day.isAfter(lastDay);
+                 day = day.plusDays(1)) {
+                byte[] bitmap = bitmaps.get(day);
+                if (bitmap != null) {
+                    BusyBitmap.markBusy(bitmap, day, occurrence.startTime(), occurrenceEnd);
+                }
+            }
+        }
+
+        Expiration expiration = Expiration.from(Duration.ofDays(ttlDays));
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            connection.openPipeline();
+            bitmaps.forEach((day, bitmap) -> connection.stringCommands()
+                    .set(key(userId, day), bitmap, expiration, setOption));
+            connection.closePipeline();
+        }
+
+        return bitmaps;
+    }
+
+    private void evictUser(String userId) {
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + userId + ":*").count(500).build();
+        try (RedisConnection connection = redisConnectionFactory.getConnection();
+             Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+            List<byte[]> keys = new ArrayList<>();
+            cursor.forEachRemaining(keys::add);
+            if (!keys.isEmpty()) {
+                connection.keyCommands().del(keys.toArray(new byte[0][]));
+            }
+        }
+    }
+
+    private static List<FreeSlot> freeSlots(byte[] busy, LocalDate firstDay, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime origin = firstDay.atStartOfDay();
+        int fromSlot = (int) (ChronoUnit.MINUTES.between(origin, from) / BusyBitmap.SLOT_MINUTES);
+        int toSlot = (int) (ChronoUnit.MINUTES.between(origin, to) / BusyBitmap.SLOT_MINUTES);
+
+        List<FreeSlot> slots = new ArrayList<>();
+        int runStart = -1;
+        for (int slot = fromSlot; slot <= toSlot; slot++) {
+            boolean free = slot < toSlot && !BusyBitmap.isBusy(busy, slot);
+            if (free && runStart < 0) {
+                runStart = slot;
+            } else if (!free && runStart >= 0) {
+                slots.add(new FreeSlot(
+                        origin.plusMinutes((long) runStart * BusyBitmap.SLOT_MINUTES),
+                        origin.plusMinutes((long) slot * BusyBitmap.SLOT_MINUTES)));
+                runStart = -1;
+            }
+        }
+        return slots;
+    }
+
+    private static List<Event> busyEvents(List<Event> events) {
+        return events.stream().filter(e -> e.getStatus() != EventStatus.CANCELLED).toList();
+    }
+
+    private static LocalDateTime occurrenceEnd(EventOccurrenceResponse occurrence) {
+        if (occurrence.allDay()) {
+            LocalDateTime endOfDay = occurrence.startTime().toLocalDate().plusDays(1).atStartOfDay();
+            return occurrence.endTime() != null && occurrence.endTime().isAfter(endOfDay) ? occurrence.endTime() : endOfDay;
+        }
+        if (occurrence.endTime() == null || !occurrence.endTime().isAfter(occurrence.startTime())) {
+            return occurrence.startTime().plusMinutes(BusyBitmap.SLOT_MINUTES);
+        }
+        return occurrence.endTime();
+    }
+
+    private static byte[] key(String userId, LocalDate day) {
+        return (KEY_PREFIX + userId + ":" + day).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
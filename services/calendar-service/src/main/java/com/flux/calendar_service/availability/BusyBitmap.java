@@ -0,0 +1,70 @@
+package com.flux.calendar_service.availability;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One day of a user's calendar as 96 bits, one per 15 minute slot, most significant bit first
+ * so the layout matches Redis GETBIT/SETBIT/BITOP offsets.
+ */
+public final class BusyBitmap {
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int BYTES_PER_DAY = SLOTS_PER_DAY / 8;
+    private static final int SLOT_SECONDS = SLOT_MINUTES * 60;
+
+    private BusyBitmap() {
+    }
+
+    public static byte[] emptyDay() {
+        return new byte[BYTES_PER_DAY];
+    }
+
+    /**
+     * Marks every slot of {@code day} that intersects {@code [start, end)}.
+     */
+    public static void markBusy(byte[] bitmap, LocalDate day, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        if (!end.isAfter(dayStart) || !start.isBefore(dayEnd) || !end.isAfter(start)) {
+            return;
+        }
+
+        int from = start.isAfter(dayStart) ? start.toLocalTime().toSecondOfDay() / SLOT_SECONDS : 0;
+        int to = end.isBefore(dayEnd) ? ceilSlot(end.toLocalTime()) : SLOTS_PER_DAY;
+        for (int slot = from; slot < to; slot++) {
+            bitmap[slot >>> 3] |= (byte) (0x80 >>> (slot & 7));
+        }
+    }
+
+    public static boolean isBusy(byte[] bitmap, int slot) {
+        return (bitmap[slot >>> 3] & (0x80 >>> (slot & 7))) != 0;
+    }
+
+    /**
+     * ORs one day into a multi-day bitmap at the given day index.
+     */
+    public static void or(byte[] target, int dayIndex, byte[] day) {
+        int offset = dayIndex * BYTES_PER_DAY;
+        for (int i = 0; i < BYTES_PER_DAY && i < day.length; i++) {
+            target[offset + i] |= day[i];
+        }
+    }
+
+    public static LocalDateTime floorToSlot(LocalDateTime time) {
+        int slot = time.toLocalTime().toSecondOfDay() / SLOT_SECONDS;
+        return time.toLocalDate().atStartOfDay().plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    public static LocalDateTime ceilToSlot(LocalDateTime time) {
+        LocalDateTime floor = floorToSlot(time);
+        return floor.equals(time) ? time : floor.plusMinutes(SLOT_MINUTES);
+    }
+
+    private static int ceilSlot(LocalTime time) {
+        // A partial second still occupies the slot it falls into
+        int seconds = time.toSecondOfDay() + (time.getNano() > 0 ? 1 : 0);
+        return (seconds + SLOT_SECONDS - 1) / SLOT_SECONDS;
+    }
+}
@@ -0,0 +1,12 @@
+package com.flux.calendar_service.availability.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AvailabilityResponse(
+                List<String> userIds,
+                LocalDateTime start,
+                LocalDateTime end,
+                int slotMinutes,
+                List<FreeSlot> freeSlots) {
+}
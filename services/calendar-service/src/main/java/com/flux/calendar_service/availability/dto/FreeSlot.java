@@ -0,0 +1,8 @@
+package com.flux.calendar_service.availability.dto;
+
+import java.time.LocalDateTime;
+
+public record FreeSlot(
+                LocalDateTime start,
+                LocalDateTime end) {
+}
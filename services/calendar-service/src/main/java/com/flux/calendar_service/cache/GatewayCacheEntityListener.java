@@ -0,0 +1,105 @@
+package com.flux.calendar_service.cache;
+
+import com.flux.calendar_service.attachment.Attachment;
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.conference.Conference;
+import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.event.recurrence.OccurrenceException;
+import com.flux.calendar_service.location.Location;
+import com.flux.calendar_service.task.Task;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invalidates the gateway responses a changed entity appears in: its own id, the ids of the calendar
+ * and event it belongs to, the owner's user id, and the resource name for the collection endpoints.
+ * Locations and conferences are embedded in event responses, so they invalidate the events using them;
+ * occurrence exceptions invalidate their series, which covers the occurrence listings of its calendar.
+ */
+@Component
+@RequiredArgsConstructor
+public class GatewayCacheEntityListener {
+    // Plain JDBC on the transaction's connection; a JPA query here would flush the session again
+    private static final String EVENTS_BY_LOCATION_SQL = "SELECT e.id, e.calendar_id, c.user_id FROM events e " +
+            "JOIN calendars c ON c.id = e.calendar_id WHERE e.location_id = ?";
+    private static final String EVENTS_BY_CONFERENCE_SQL = "SELECT e.id, e.calendar_id, c.user_id FROM events e " +
+            "JOIN calendars c ON c.id = e.calendar_id WHERE e.conference_id = ?";
+
+    private final GatewayCacheInvalidator gatewayCacheInvalidator;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Before removal, while events still point at a location or conference the database is about to unset
+    @PostPersist
+    @PostUpdate
+    @PreRemove
+    public void changed(Object entity) {
+        List<String> ids = new ArrayList<>();
+        if (entity instanceof Calendar calendar) {
+            ids.add("calendars");
+            addCalendar(ids, calendar);
+        } else if (entity instanceof Event event) {
+            ids.add("events");
+            addEvent(ids, event);
+        } else if (entity instanceof Task task) {
+            ids.add("tasks");
+            ids.add(task.getId());
+            addEvent(ids, task.getEvent());
+        } else if (entity instanceof Attachment attachment) {
+            ids.add(attachment.getId());
+            addEvent(ids, attachment.getEvent());
+        } else if (entity instanceof OccurrenceException exception) {
+            ids.add("events");
+            ids.add(exception.getId());
+            addEvent(ids, exception.getEvent());
+        } else if (entity instanceof Location location) {
+            ids.add(location.getId());
+            addEvents(ids, EVENTS_BY_LOCATION_SQL, location.getId());
+        } else if (entity instanceof Conference conference) {
+            ids.add(conference.getId());
+            addEvents(ids, EVENTS_BY_CONFERENCE_SQL, conference.getId());
+        }
+        gatewayCacheInvalidator.invalidate(ids);
+    }
+
+    private static void addEvent(List<String> ids, Event event) {
+        if (event == null) {
+            return;
+        }
+        ids.add(event.getId());
+        // A lazy event is not loaded during a flush just to find its calendar
+        if (Hibernate.isInitialized(event)) {
+            addCalendar(ids, event.getCalendar());
+        }
+    }
+
+    private void addEvents(List<String> ids, String sql, String id) {
+        if (id == null) {
+            return;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, id);
+        if (!rows.isEmpty()) {
+            ids.add("events");
+        }
+        for (Map<String, Object> row : rows) {
+            ids.add((String) row.get("id"));
+            ids.add((String) row.get("calendar_id"));
+            ids.add((String) row.get("user_id"));
+        }
+    }
+
+    private static void addCalendar(List<String> ids, Calendar calendar) {
+        if (calendar != null) {
+            ids.add(calendar.getId());
+            ids.add(calendar.getUserId());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.flux.calendar_service.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Lets the gateway cache the GET responses of the resources it caches. Spring Security sends
+ * {@code no-cache, no-store} unless a response already carries {@code Cache-Control}, so this filter
+ * runs ahead of the security chain and sets it first: {@code s-maxage} keeps an entry fresh in the
+ * gateway until a write invalidates it, and {@code max-age=0} makes browsers revalidate. The ETag
+ * added by {@link ShallowEtagHeaderFilter} answers those revalidations with a {@code 304}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class GatewayCacheHeadersFilter extends ShallowEtagHeaderFilter {
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> cachedPaths;
+    private final List<String> excludedPaths;
+    private final String cacheControl;
+
+    public GatewayCacheHeadersFilter(
+            @Value("${gateway.cache.paths:/calendars/**,/events/**,/tasks/**}") List<String> cachedPaths,
+            // Streamed downloads would be buffered whole to compute the ETag
+            @Value("${gateway.cache.excluded-paths:/calendars/imports/**,/calendars/*/export.ics}") List<String> excludedPaths,
+            @Value("${gateway.cache.max-age-seconds:30}") long maxAgeSeconds) {
+        this.cachedPaths = cachedPaths;
+        this.excludedPaths = excludedPaths;
+        this.cacheControl = "max-age=0, s-maxage=" + maxAgeSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod())
+                || cachedPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path))
+                || excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        super.doFilterInternal(request, response, filterChain);
+    }
+}
@@ -0,0 +1,69 @@
+package com.flux.calendar_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tells the gateway which ids a write touched, so it drops the cached responses that contain them.
+ * Ids collected during a transaction go out in one message once it commits; nothing is sent on rollback.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GatewayCacheInvalidator {
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${gateway.cache.invalidation-channel:gateway:cache:invalidate}")
+    private String channel;
+
+    @SuppressWarnings("unchecked")
+    public void invalidate(Collection<String> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(ids);
+            return;
+        }
+
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> collected = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(collected);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(GatewayCacheInvalidator.this);
+                }
+            });
+            pending = collected;
+        }
+        ids.stream().filter(Objects::nonNull).forEach(pending::add);
+    }
+
+    private void publish(Collection<String> ids) {
+        Set<String> tags = new LinkedHashSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(tags::add);
+        if (tags.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(channel, String.join(",", tags));
+        } catch (RuntimeException e) {
+            // The gateway entries still expire on their own
+            log.warn("Failed to publish gateway cache invalidation for {}: {}", tags, e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.flux.calendar_service.calendar;
 
+import com.flux.calendar_service.cache.GatewayCacheEntityListener;
 import com.flux.calendar_service.event.Event;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -20,7 +21,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "calendars")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, GatewayCacheEntityListener.class})
 public class Calendar {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -47,6 +48,9 @@ public class Calendar {
     @Column(name = "is_deleted", columnDefinition = "false")
     private boolean isDeleted;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @Column(name = "created_at", updatable = false)
     @CreatedDate
     private LocalDateTime createdAt;
@@ -4,18 +4,31 @@ import com.flux.calendar_service.calendar.dto.CalendarRequest;
 import com.flux.calendar_service.calendar.dto.CalendarResponse;
 import com.flux.calendar_service.calendar.dto.CalendarUpdateRequest;
 import com.flux.calendar_service.calendar.dto.PrimaryRequest;
+import com.flux.calendar_service.ics.IcsExportService;
+import com.flux.calendar_service.ics.IcsImportService;
+import com.flux.calendar_service.ics.dto.IcsImportJobResponse;
+import com.flux.calendar_service.job.dto.JobResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.Response;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/calendars")
@@ -23,6 +36,8 @@ import java.util.List;
 @Tag(name = "Calendar Controller", description = "Endpoints for managing calendars")
 public class CalendarController {
     private final CalendarService calendarService;
+    private final IcsExportService icsExportService;
+    private final IcsImportService icsImportService;
 
     @Operation(summary = "Create a new calendar", description = "Creates a new calendar definition")
     @ApiResponses(value = {
@@ -93,6 +108,82 @@ public class CalendarController {
                 .body(calendarService.getByTitle(id, title));
     }
 
+    @Operation(summary = "Export calendar", description = "Streams all events of a calendar as an iCalendar (.ics) file, gzip-compressed when the client accepts it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calendar exported"),
+            @ApiResponse(responseCode = "404", description = "Calendar not found")
+    })
+    @GetMapping("/{id}/export.ics")
+    public ResponseEntity<StreamingResponseBody> exportCalendar(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String fileName = icsExportService.getExportFileName(id);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                icsExportService.exportCalendar(id, compressed);
+                compressed.finish();
+            } else {
+                icsExportService.exportCalendar(id, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachmentDisposition(fileName))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @Operation(summary = "Export calendar in the background", description = "Queues an iCalendar export to storage. Once the job completes the file is downloaded from /jobs/{jobId}/download")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Export queued"),
+            @ApiResponse(responseCode = "404", description = "Calendar not found")
+    })
+    @PostMapping("/{id}/export")
+    public ResponseEntity<JobResponse> startExport(@PathVariable String id) {
+        JobResponse job = icsExportService.startExport(id);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @Operation(summary = "Import iCalendar file", description = "Queues an import of the .ics request body into the calendar. Events are matched by UID, so importing the same file again updates them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import queued"),
+            @ApiResponse(responseCode = "400", description = "Body is not an iCalendar file, or an import is already running"),
+            @ApiResponse(responseCode = "404", description = "Calendar not found")
+    })
+    @PostMapping(value = "/{id}/import", consumes = {"text/calendar", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<IcsImportJobResponse> importCalendar(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "false") boolean syncToGoogle,
+            HttpServletRequest request) throws IOException {
+        IcsImportJobResponse job = icsImportService.startImport(id, request.getInputStream(), syncToGoogle);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/calendars/imports/" + job.id()))
+                .body(job);
+    }
+
+    @Operation(summary = "Get import status", description = "Reports the progress of an iCalendar import")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import job found"),
+            @ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    @GetMapping("/imports/{jobId}")
+    public ResponseEntity<IcsImportJobResponse> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(icsImportService.getImportJob(jobId));
+    }
+
     @Operation(summary = "Make calendar primary", description = "Sets a calendar as primary for the user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Calendar set as primary successfully"),
@@ -129,14 +220,39 @@ public class CalendarController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).build();
     };
 
-    @Operation(summary = "Delete calendar", description = "Deletes a calendar by its ID")
+    @Operation(summary = "Delete calendar", description = "Deletes a calendar by its ID and queues the removal of its events from Google Calendar")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Calendar deleted successfully"),
             @ApiResponse(responseCode = "404", description = "Calendar not found")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteCalendar(@PathVariable String id) {
-        calendarService.deleteCalendar(id);
-        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    public ResponseEntity<JobResponse> deleteCalendar(@PathVariable String id) {
+        JobResponse job = calendarService.deleteCalendar(id);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/jobs/" + job.id()))
+                .body(job);
+    }
+
+    // Plain filename like the attachment downloads; filename* (RFC 6266) only when the name is not ASCII
+    private static String attachmentDisposition(String fileName) {
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)) {
+            return "attachment; filename=\"" + fileName + "\"";
+        }
+        return "attachment; filename=\"" + fileName.replaceAll("[^\\x20-\\x7E]", "_") + "\"; " +
+                "filename*=UTF-8''" + UriUtils.encode(fileName, StandardCharsets.UTF_8);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package com.flux.calendar_service.calendar;
+
+import com.flux.calendar_service.cache.GatewayCacheInvalidator;
+import com.flux.calendar_service.google.GoogleCalendarApiService;
+import com.flux.calendar_service.job.Job;
+import com.flux.calendar_service.job.JobContext;
+import com.flux.calendar_service.job.JobHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cascades a calendar deletion to Google Calendar. The events stay in the database so the calendar
+ * can be recovered; their Google copies are deleted and the link cleared, a page at a time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarDeleteJobHandler implements JobHandler {
+    public static final String TYPE = "calendar.delete";
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM events " +
+            "WHERE calendar_id = ? AND google_calendar_id IS NOT NULL";
+
+    // Keyset pagination, so events whose Google copy could not be deleted are not fetched again
+    private static final String PAGE_SQL = "SELECT id, start_time, google_calendar_id FROM events " +
+            "WHERE calendar_id = ? AND google_calendar_id IS NOT NULL AND id > ? " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String UNLINK_SQL = "UPDATE events SET google_calendar_id = NULL, sync_status = 'PENDING' " +
+            "WHERE id = ? AND start_time = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CalendarRepository calendarRepository;
+    private final GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Autowired(required = false)
+    private GoogleCalendarApiService googleCalendarApiService;
+
+    record LinkedEvent(String id, LocalDateTime startTime, String googleCalendarId) {
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> run(Job job, JobContext context) throws IOException {
+        String calendarId = job.getPayload().get("calendarId");
+        String userId = job.getPayload().get("userId");
+        if (googleCalendarApiService == null) {
+            return Map.of("googleDeleted", "0", "googleFailed", "0");
+        }
+
+        Long total = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, calendarId);
+        context.progress(0, total);
+
+        long processed = 0;
+        int deleted = 0;
+        String lastId = "";
+        while (calendarRepository.findCalendarByIdAndIsDeletedTrue(calendarId).isPresent()) {
+            List<LinkedEvent> page = jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> new LinkedEvent(
+                    rs.getString("id"),
+                    rs.getTimestamp("start_time").toLocalDateTime(),
+                    rs.getString("google_calendar_id")), calendarId, lastId, PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+
+            Set<String> gone = new HashSet<>(googleCalendarApiService.deleteEventsInBatch(userId,
+                    page.stream().map(LinkedEvent::googleCalendarId).toList()));
+            List<Object[]> unlinked = page.stream()
+                    .filter(event -> gone.contains(event.googleCalendarId()))
+                    .map(event -> new Object[]{event.id(), Timestamp.valueOf(event.startTime())})
+                    .toList();
+            jdbcTemplate.batchUpdate(UNLINK_SQL, unlinked);
+            if (!unlinked.isEmpty()) {
+                // Plain JDBC skips the entity listener, so the cached event responses are dropped here
+                List<String> ids = new ArrayList<>(List.of("events", calendarId, userId));
+                unlinked.forEach(row -> ids.add((String) row[0]));
+                gatewayCacheInvalidator.invalidate(ids);
+            }
+
+            deleted += unlinked.size();
+            processed += page.size();
+            lastId = page.get(page.size() - 1).id();
+            context.progress(processed, Math.max(total, processed));
+        }
+
+        log.info("Deleted {} of {} Google events of calendar {}", deleted, processed, calendarId);
+        return Map.of("googleDeleted", String.valueOf(deleted), "googleFailed", String.valueOf(processed - deleted));
+    }
+}
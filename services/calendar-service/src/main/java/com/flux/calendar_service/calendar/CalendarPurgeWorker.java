@@ -0,0 +1,132 @@
+package com.flux.calendar_service.calendar;
+
+import com.flux.calendar_service.attachment.Attachment;
+import com.flux.calendar_service.attachment.AttachmentRepository;
+import com.flux.calendar_service.attachment.AttachmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hard-deletes calendars that have been soft-deleted for longer than the retention window. Each
+ * transaction removes one batch of events with their tasks, attachments, exceptions and conferences,
+ * so a large calendar never holds locks or builds up WAL for long; the calendar row goes last.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "calendars.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class CalendarPurgeWorker {
+    private static final String EXPIRED_SQL = "SELECT id FROM calendars " +
+            "WHERE is_deleted AND deleted_at < ? ORDER BY deleted_at LIMIT ?";
+
+    // Locking the calendar makes a concurrent recovery wait for the batch, and lets other
+    // instances skip a calendar that is already being purged
+    private static final String LOCK_SQL = "SELECT id FROM calendars " +
+            "WHERE id = ? AND is_deleted AND deleted_at < ? FOR UPDATE SKIP LOCKED";
+
+    private static final String EVENT_BATCH_SQL = "SELECT id FROM events WHERE calendar_id = ? LIMIT ?";
+
+    private static final String DELETE_TASKS_SQL = "DELETE FROM tasks WHERE event_id = ANY(?)";
+
+    private static final String DELETE_ATTACHMENTS_SQL = "DELETE FROM attachments WHERE event_id = ANY(?)";
+
+    private static final String DELETE_EXCEPTIONS_SQL = "DELETE FROM event_occurrence_exceptions WHERE event_id = ANY(?)";
+
+    private static final String DELETE_EVENTS_SQL = "DELETE FROM events WHERE calendar_id = ? AND id = ANY(?) " +
+            "RETURNING conference_id";
+
+    private static final String DELETE_CONFERENCES_SQL = "DELETE FROM conferences WHERE id = ANY(?)";
+
+    // Import jobs go with it through their foreign key
+    private static final String DELETE_CALENDAR_SQL = "DELETE FROM calendars WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentService attachmentService;
+
+    @Value("${calendars.purge.retention-days:30}")
+    private long retentionDays;
+
+    @Value("${calendars.purge.calendars-per-run:20}")
+    private int calendarsPerRun;
+
+    @Value("${calendars.purge.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${calendars.purge.interval-ms:600000}")
+    public void purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        List<String> calendarIds = jdbcTemplate.queryForList(EXPIRED_SQL, String.class, cutoff, calendarsPerRun);
+
+        for (String calendarId : calendarIds) {
+            try {
+                purgeCalendar(calendarId, cutoff);
+            } catch (Exception e) {
+                // Whatever was deleted stays deleted; the next run carries on from there
+                log.error("Failed to purge calendar {}", calendarId, e);
+            }
+        }
+    }
+
+    void purgeCalendar(String calendarId, Timestamp cutoff) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long events = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> purgeBatch(calendarId, cutoff));
+            if (deleted == null || deleted < 0) {
+                break;
+            }
+            events += deleted;
+            if (deleted == 0) {
+                log.info("Purged calendar {} with {} events", calendarId, events);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Deletes one batch of events of the calendar, or the calendar itself once it has none left.
+     * Returns the number of events deleted, or -1 when the calendar was recovered or is locked.
+     */
+    int purgeBatch(String calendarId, Timestamp cutoff) {
+        if (jdbcTemplate.queryForList(LOCK_SQL, String.class, calendarId, cutoff).isEmpty()) {
+            return -1;
+        }
+
+        List<String> eventIds = jdbcTemplate.queryForList(EVENT_BATCH_SQL, String.class, calendarId, batchSize);
+        if (eventIds.isEmpty()) {
+            jdbcTemplate.update(DELETE_CALENDAR_SQL, calendarId);
+            return 0;
+        }
+        String[] ids = eventIds.toArray(String[]::new);
+
+        // Blob references and previews are released here, the files once the batch commits
+        List<Attachment> attachments = attachmentRepository.findByEventIdIn(eventIds);
+        attachmentService.releaseFiles(attachments);
+        jdbcTemplate.update(DELETE_ATTACHMENTS_SQL, (Object) ids);
+        jdbcTemplate.update(DELETE_TASKS_SQL, (Object) ids);
+        jdbcTemplate.update(DELETE_EXCEPTIONS_SQL, (Object) ids);
+
+        List<String> conferenceIds = jdbcTemplate.queryForList(DELETE_EVENTS_SQL, String.class, calendarId, ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (!conferenceIds.isEmpty()) {
+            jdbcTemplate.update(DELETE_CONFERENCES_SQL, (Object) conferenceIds.toArray(String[]::new));
+        }
+        return eventIds.size();
+    }
+}
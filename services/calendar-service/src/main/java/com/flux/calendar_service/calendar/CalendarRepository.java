@@ -1,7 +1,12 @@
 package com.flux.calendar_service.calendar;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +17,8 @@ public interface CalendarRepository extends JpaRepository<Calendar, String> {
     
     Page<Calendar> findAllByIsDeletedFalse(Pageable pageable);
     
+    List<Calendar> findByUserIdInAndIsDeletedFalse(Collection<String> userIds);
+
     Optional<Calendar> findCalendarByIdAndIsDeletedFalse(String id);
     
     Optional<Calendar> findCalendarByIdAndIsDeletedTrue(String id);
@@ -1,5 +1,6 @@
 package com.flux.calendar_service.calendar;
 
+import com.flux.calendar_service.availability.AvailabilityService;
 import com.flux.calendar_service.calendar.dto.CalendarRequest;
 import com.flux.calendar_service.calendar.dto.CalendarResponse;
 import com.flux.calendar_service.calendar.dto.CalendarUpdateRequest;
@@ -8,6 +9,8 @@ import com.flux.calendar_service.exceptions.EmptyCalendarsException;
 import com.flux.calendar_service.exceptions.MustBeUniqueException;
 import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
 import com.flux.calendar_service.exceptions.SomethingWentWrongException;
+import com.flux.calendar_service.job.JobService;
+import com.flux.calendar_service.job.dto.JobResponse;
 import jakarta.ws.rs.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +25,9 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +37,8 @@ public class CalendarService {
     private final CalendarRepository calendarRepository;
     private final CalendarMapper calendarMapper;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final JobService jobService;
+    private final AvailabilityService availabilityService;
 
     @Transactional
     @Caching(evict = {
@@ -65,6 +72,7 @@ public class CalendarService {
         return savedCalendar.getId();
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "allCalendars", 
               key = "#pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
     public Page<CalendarResponse> getAllCalendars(Pageable pageable) {
@@ -73,6 +81,7 @@ public class CalendarService {
         return calendars.map(calendarMapper::toCalendarResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "calendar", key = "#id", unless = "#result == null")
     public CalendarResponse getCalendarById(String id) {
         validateId(id, "Calendar ID");
@@ -83,6 +92,7 @@ public class CalendarService {
                 .orElseThrow(() -> new NotFoundException("Calendar with ID " + id + " not found"));
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "userCalendars", 
               key = "#userId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
     public Page<CalendarResponse> getCalendarsByUserId(String userId, Pageable pageable) {
@@ -98,6 +108,7 @@ public class CalendarService {
         return calendars.map(calendarMapper::toCalendarResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "userPrimaryCalendar", key = "#userId", unless = "#result == null")
     public CalendarResponse getPrimaryCalendar(String userId) {
         validateId(userId, "User ID");
@@ -108,6 +119,7 @@ public class CalendarService {
                 .orElseThrow(() -> new NotFoundException("No primary calendar found for user: " + userId));
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "calendarByTitle", 
               key = "#userId + ':' + #title", unless = "#result == null")
     public CalendarResponse getByTitle(String userId, String title) {
@@ -200,17 +212,23 @@ public class CalendarService {
                    condition = "#calendar != null"),
         @CacheEvict(value = "event", allEntries = true, condition = "#calendar != null")
     })
-    public void deleteCalendar(String id) {
+    public JobResponse deleteCalendar(String id) {
         validateId(id, "Calendar ID");
         
         Calendar calendar = calendarRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Calendar not found with ID: " + id));
         
         calendar.setDeleted(true);
+        calendar.setDeletedAt(LocalDateTime.now());
         calendarRepository.save(calendar);
         
         log.info("Calendar marked as deleted. ID: {}, User: {}", 
                 calendar.getId(), calendar.getUserId());
+        availabilityService.onCalendarChanged(calendar.getUserId());
+
+        // Removing the events from Google Calendar can take minutes for a large calendar
+        return jobService.submit(CalendarDeleteJobHandler.TYPE,
+                Map.of("calendarId", calendar.getId(), "userId", calendar.getUserId()));
     }
 
     @Transactional
@@ -228,12 +246,15 @@ public class CalendarService {
         
         calendar.setPrimary(false);
         calendar.setDeleted(false);
+        calendar.setDeletedAt(null);
         calendarRepository.save(calendar);
         
         log.info("Calendar recovered. ID: {}, User: {}", 
                 calendar.getId(), calendar.getUserId());
+        availabilityService.onCalendarChanged(calendar.getUserId());
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "bulkCalendars", key = "T(java.util.Arrays).toString(#ids)")
     public List<CalendarResponse> getCalendarsByIds(List<String> ids) {
         log.debug("Fetching bulk calendars: {}", ids);
@@ -243,6 +264,7 @@ public class CalendarService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "calendarSearch", 
               key = "#userId + ':' + #query + ':' + #pageable")
     public Page<CalendarResponse> searchCalendars(String userId, String query, Pageable pageable) {
@@ -1,5 +1,6 @@
 package com.flux.calendar_service.conference;
 
+import com.flux.calendar_service.cache.GatewayCacheEntityListener;
 import com.flux.calendar_service.event.Event;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -18,7 +19,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "conferences")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, GatewayCacheEntityListener.class})
 public class Conference {
 
     @Id
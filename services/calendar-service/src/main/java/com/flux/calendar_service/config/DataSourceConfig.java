@@ -0,0 +1,117 @@
+package com.flux.calendar_service.config;
+
+import com.flux.calendar_service.datasource.PrimaryReadInterceptor;
+import com.flux.calendar_service.datasource.ReplicaLagMonitor;
+import com.flux.calendar_service.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends connections opened inside {@code @Transactional(readOnly = true)} methods to the read replicas.
+ * The lazy proxy defers fetching the physical connection until the read-only flag of the
+ * transaction is known, so read-write transactions keep going to the primary. Reads that fill a
+ * cache go to the primary too.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true", matchIfMissing = false)
+@Slf4j
+public class DataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    @Value("${datasource.replicas.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Bean
+    public DataSource primaryDataSource() {
+        return buildDataSource("primary", primaryUrl, 0, false);
+    }
+
+    @Bean
+    public Map<String, DataSource> replicaDataSources() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String key = "replica-" + i;
+            replicas.put(key, buildDataSource(key, replicaUrls.get(i).trim(), replicaPoolSize, true));
+        }
+        log.info("Configured {} read replica(s), max tolerated lag: {} ms", replicas.size(), maxLagMillis);
+        return replicas;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSources(), maxLagMillis);
+        monitor.refresh();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        ReplicaRoutingDataSource readDataSource = new ReplicaRoutingDataSource(
+                primaryDataSource(), replicaDataSources(), replicaLagMonitor());
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource());
+        proxy.setReadOnlyDataSource(readDataSource);
+        return proxy;
+    }
+
+    // Infrastructure role, so the auto-proxy creator behind @EnableCaching picks it up; outermost,
+    // so the flag is set before the transaction fetches a connection
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor primaryReadAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Cacheable.class),
+                new PrimaryReadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private DataSource buildDataSource(String name, String url, int poolSize, boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setReadOnly(readOnly);
+        // Same as spring.datasource.hikari.data-source-properties for the default pool
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        if (poolSize > 0) {
+            config.setMaximumPoolSize(poolSize);
+        }
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,102 @@
+package com.flux.calendar_service.config;
+
+import com.flux.calendar_service.security.CachingJwtDecoder;
+import com.flux.calendar_service.security.InternalJwtDecoder;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces the auto-configured JWT decoder with one that keeps Keycloak's signing keys warm and
+ * remembers validated tokens. The key set is fetched at startup and refreshed in the background
+ * before it expires, so no request waits on Keycloak, and a failed refresh keeps the last keys.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.security.oauth2.resourceserver.jwt.issuer-uri")
+public class JwtDecoderConfig {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:${spring.security.oauth2.resourceserver.jwt.issuer-uri}/protocol/openid-connect/certs}")
+    private String jwkSetUri;
+
+    @Value("${security.jwt.jwks.cache-seconds:300}")
+    private long jwksCacheSeconds;
+
+    @Value("${security.jwt.jwks.refresh-ahead-seconds:30}")
+    private long jwksRefreshAheadSeconds;
+
+    @Value("${security.jwt.jwks.outage-tolerance-seconds:3600}")
+    private long jwksOutageToleranceSeconds;
+
+    @Value("${security.jwt.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    @Value("${security.internal-jwt.secret:}")
+    private String internalSecret;
+
+    @Value("${security.internal-jwt.max-age-seconds:30}")
+    private long internalMaxAgeSeconds;
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource() throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                .cache(TimeUnit.SECONDS.toMillis(jwksCacheSeconds), TimeUnit.SECONDS.toMillis(15))
+                .refreshAheadCache(TimeUnit.SECONDS.toMillis(jwksRefreshAheadSeconds), true)
+                .retrying(true)
+                .outageTolerant(TimeUnit.SECONDS.toMillis(jwksOutageToleranceSeconds))
+                .build();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by the Spring validator below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefaultWithIssuer(issuerUri);
+        NimbusJwtDecoder nimbus = new NimbusJwtDecoder(processor);
+        nimbus.setJwtValidator(validator);
+
+        JwtDecoder decoder = new CachingJwtDecoder(nimbus, cacheMaxEntries);
+        if (internalSecret.isBlank()) {
+            return decoder;
+        }
+        return new InternalJwtDecoder(decoder, validator, internalSecret, internalMaxAgeSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchSigningKeys() throws MalformedURLException {
+        try {
+            jwkSource().get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+        } catch (KeySourceException e) {
+            log.warn("Could not prefetch signing keys from {}: {}", jwkSetUri, e.getMessage());
+        }
+    }
+}
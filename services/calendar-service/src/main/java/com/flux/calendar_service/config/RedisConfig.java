@@ -15,8 +15,6 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
@@ -31,22 +29,12 @@ import java.util.Map;
 @Slf4j
 public class RedisConfig {
 
-    // Redis connection configuration
-    @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
-        config.setHostName("localhost");
-        config.setPort(6379);
-        // Uncomment and configure for production
-        // config.setPassword(RedisPassword.of("your-password"));
-        return new LettuceConnectionFactory(config);
-    }
-
+    // Connection settings live in RedisConnectionConfig
     @Bean
     @Primary
-    public RedisTemplate<String, Object> redisTemplate() {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(redisConnectionFactory());
+        template.setConnectionFactory(redisConnectionFactory);
         
         // Configure serializers
         template.setKeySerializer(new StringRedisSerializer());
@@ -62,17 +50,18 @@ public class RedisConfig {
         
         template.setValueSerializer(valueSerializer);
         template.setHashValueSerializer(valueSerializer);
-        
-        // Enable transaction support
-        template.setEnableTransactionSupport(true);
-        
+
+        // No transaction support: it opened a dedicated connection for every @Transactional method that
+        // touched Redis, just to queue its evictions in MULTI. Cache writes are still deferred to commit
+        // by the transaction-aware cache manager.
+
         template.afterPropertiesSet();
         log.info("RedisTemplate configured successfully");
         return template;
     }
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
@@ -92,6 +81,7 @@ public class RedisConfig {
         cacheConfigurations.put("userEvents", createCacheConfig(Duration.ofMinutes(30)));
         cacheConfigurations.put("eventSearch", createCacheConfig(Duration.ofMinutes(10)));
         cacheConfigurations.put("bulkEvents", createCacheConfig(Duration.ofMinutes(5)));
+        cacheConfigurations.put("eventOccurrences", createCacheConfig(Duration.ofMinutes(15)));
 
         // Calendar-related cache configurations
         cacheConfigurations.put("calendar", createCacheConfig(Duration.ofHours(2)));
@@ -117,7 +107,7 @@ public class RedisConfig {
         cacheConfigurations.put("conferences", createCacheConfig(Duration.ofMinutes(15)));
 
         // Build cache manager
-        RedisCacheManager cacheManager = RedisCacheManager.builder(redisConnectionFactory())
+        RedisCacheManager cacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .transactionAware()
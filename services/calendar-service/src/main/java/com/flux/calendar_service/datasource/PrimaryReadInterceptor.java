@@ -0,0 +1,32 @@
+package com.flux.calendar_service.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Pins the reads of the intercepted method to the primary. Applied to {@code @Cacheable} methods:
+ * their result is written to the shared cache for its whole TTL, so a replica that has not caught up
+ * with a write would refill the entry that write just evicted with the old data. Cache misses are
+ * rare enough for the primary to serve them.
+ */
+public class PrimaryReadInterceptor implements MethodInterceptor {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    /** Whether the current thread is inside an intercepted method. */
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (isActive()) {
+            return invocation.proceed();
+        }
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.flux.calendar_service.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically measures replication lag on every replica and keeps track of
+ * which ones are fresh enough to serve reads.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    // 0 when the replica has replayed everything it received, otherwise the age of the last replayed transaction
+    static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagMillis;
+    private final Map<String, Long> lagByReplica = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, long maxLagMillis) {
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public boolean isHealthy(String replicaKey) {
+        Long lag = lagByReplica.get(replicaKey);
+        return lag != null && lag <= maxLagMillis;
+    }
+
+    public Long getLagMillis(String replicaKey) {
+        return lagByReplica.get(replicaKey);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:5000}")
+    public void refresh() {
+        replicas.forEach((key, dataSource) -> {
+            try {
+                long lag = measureLag(dataSource);
+                lagByReplica.put(key, lag);
+                if (lag > maxLagMillis) {
+                    log.warn("Replica {} is lagging by {} ms, reads fall back to primary", key, lag);
+                }
+            } catch (Exception e) {
+                lagByReplica.remove(key);
+                log.warn("Failed to check replication lag for replica {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    void recordLag(String replicaKey, long lagMillis) {
+        lagByReplica.put(replicaKey, lagMillis);
+    }
+
+    private long measureLag(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            return resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+        }
+    }
+}
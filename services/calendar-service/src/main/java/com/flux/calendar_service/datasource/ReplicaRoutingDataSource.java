@@ -0,0 +1,55 @@
+package com.flux.calendar_service.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only connections across the configured replicas.
+ * Replicas reported as lagging by {@link ReplicaLagMonitor} are skipped,
+ * and the primary is used when no replica is healthy or the read fills a cache
+ * (see {@link PrimaryReadInterceptor}).
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY_KEY = "primary";
+
+    private final List<String> replicaKeys;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReplicaLagMonitor lagMonitor) {
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.lagMonitor = lagMonitor;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY_KEY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PrimaryReadInterceptor.isActive()) {
+            return PRIMARY_KEY;
+        }
+        int size = replicaKeys.size();
+        int start = Math.floorMod(counter.getAndIncrement(), Math.max(size, 1));
+
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (lagMonitor.isHealthy(key)) {
+                return key;
+            }
+        }
+
+        log.debug("No healthy replica available, routing read to primary");
+        return PRIMARY_KEY;
+    }
+}
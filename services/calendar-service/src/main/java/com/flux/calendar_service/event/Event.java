@@ -1,6 +1,8 @@
 package com.flux.calendar_service.event;
 
+import com.flux.calendar_service.cache.GatewayCacheEntityListener;
 import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.event.recurrence.OccurrenceException;
 import com.flux.calendar_service.conference.Conference;
 import com.flux.calendar_service.location.Location;
 import com.flux.calendar_service.task.Task;
@@ -24,7 +26,7 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "events")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, GatewayCacheEntityListener.class})
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -33,6 +35,10 @@ public class Event {
     @Column(name = "google_calendar_id")
     private String googleCalendarId;
 
+    // UID of the VEVENT this event was imported from, see IcsImportWorker
+    @Column(name = "ical_uid", length = 512)
+    private String icalUid;
+
     @ManyToOne
     @JoinColumn(name = "calendar_id", nullable = false)
     private Calendar calendar;
@@ -66,7 +72,8 @@ public class Event {
     @Enumerated(EnumType.STRING)
     private EventType type;
 
-    @Column(name = "start_time")
+    // Partition key of the events table, see V8__partition_events_by_start_time.sql
+    @Column(name = "start_time", nullable = false)
     private LocalDateTime startTime;
 
     @Column(name = "end_time")
@@ -75,6 +82,18 @@ public class Event {
     @Column(name = "all_day")
     private boolean allDay;
 
+    // RFC 5545 RRULE without the "RRULE:" prefix; null for single events
+    @Column(name = "recurrence_rule", length = 512)
+    private String recurrenceRule;
+
+    // End of the last occurrence, null when the series never ends
+    @Column(name = "recurrence_end")
+    private LocalDateTime recurrenceEnd;
+
+    @Builder.Default
+    @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    private List<OccurrenceException> occurrenceExceptions = new ArrayList<>();
+
     @Enumerated(EnumType.STRING)
     @Column(name = "sync_status")
     private SyncStatus syncStatus = SyncStatus.SYNCED;
@@ -1,10 +1,14 @@
 package com.flux.calendar_service.event;
 
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
 import com.flux.calendar_service.event.dto.EventRequest;
 import com.flux.calendar_service.event.dto.EventResponse;
 import com.flux.calendar_service.event.dto.EventUpdateRequest;
+import com.flux.calendar_service.event.dto.OccurrenceExceptionRequest;
+import com.flux.calendar_service.job.dto.JobResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +18,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,6 +28,7 @@ import java.util.List;
 @Tag(name = "Event Controller", description = "Endpoints for managing events")
 public class EventController {
     private final EventService eventService;
+    private final EventOccurrenceService eventOccurrenceService;
 
     /**
      * Create a new event for a specific calendar
@@ -85,6 +92,20 @@ public class EventController {
                 .body(eventService.getAllEvents());
     }
 
+    /**
+     * Get several events in one call
+     * GET /events?ids=a,b
+     */
+    @Operation(summary = "Get events by IDs", description = "Retrieves the given events in one call; unknown IDs are skipped")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved events")
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<EventResponse>> getEventsByIds(
+            @Parameter(description = "Event IDs") @RequestParam List<String> ids) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(eventService.getEventsByIds(ids));
+    }
+
     /**
      * Get event by ID
      * GET /events/{id}
@@ -118,6 +139,44 @@ public class EventController {
                 .body(eventService.getEventsByCalendarId(calendarId));
     }
 
+    /**
+     * Get the occurrences of a calendar in a time range, with recurring series expanded
+     * GET /events/calendar/{calendarId}/occurrences?start=...&end=...
+     */
+    @Operation(summary = "Get occurrences by calendar", description = "Retrieves single events and expanded recurring occurrences in a time range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved occurrences"),
+            @ApiResponse(responseCode = "400", description = "Invalid range")
+    })
+    @GetMapping("/calendar/{calendarId}/occurrences")
+    public ResponseEntity<List<EventOccurrenceResponse>> getOccurrencesByCalendar(
+            @PathVariable String calendarId,
+            @Parameter(description = "Range start (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "Range end (exclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(eventOccurrenceService.getOccurrences(calendarId, start, end));
+    }
+
+    /**
+     * Cancel or override a single occurrence of a recurring event
+     * POST /events/{id}/exceptions
+     */
+    @Operation(summary = "Add occurrence exception", description = "Cancels or modifies one occurrence of a recurring event")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Exception saved successfully"),
+            @ApiResponse(responseCode = "404", description = "Event not found"),
+            @ApiResponse(responseCode = "409", description = "Event is not recurring")
+    })
+    @PostMapping("/{id}/exceptions")
+    public ResponseEntity<String> addOccurrenceException(
+            @PathVariable String id,
+            @RequestBody @Valid OccurrenceExceptionRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(eventOccurrenceService.addException(id, request));
+    }
+
     /**
      * Get all events for a specific user (across all their calendars)
      * GET /events/user/{userId}
@@ -164,6 +223,27 @@ public class EventController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).build();
     }
 
+    /**
+     * Delete a user's Google Calendar events in a date range in the background
+     * DELETE /events/google/user/{userId}
+     */
+    @Operation(summary = "Delete Google events in range", description = "Queues the deletion of a user's Google Calendar events in a time range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Deletion queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or Google Calendar integration disabled")
+    })
+    @DeleteMapping("/google/user/{userId}")
+    public ResponseEntity<JobResponse> deleteGoogleEventsByDateRange(
+            @PathVariable String userId,
+            @Parameter(description = "Range start") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "Range end") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        JobResponse job = eventService.deleteGoogleEventsByDateRange(userId, start, end);
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/jobs/" + job.id()))
+                .body(job);
+    }
+
     /**
      * Attach an existing location to an event
      * PUT /events/{eventId}/location/{locationId}
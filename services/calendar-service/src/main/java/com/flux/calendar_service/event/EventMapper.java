@@ -7,14 +7,20 @@ import com.flux.calendar_service.conference.ConferenceMapper;
 import com.flux.calendar_service.event.dto.EventRequest;
 import com.flux.calendar_service.event.dto.EventResponse;
 import com.flux.calendar_service.event.dto.EventUpdateRequest;
+import com.flux.calendar_service.event.recurrence.RecurrenceRule;
 import com.flux.calendar_service.location.LocationMapper;
 import com.flux.calendar_service.task.TaskMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventMapper {
@@ -49,7 +55,8 @@ public class EventMapper {
                         ? event.getAttachments().stream().map(attachmentMapper::toAttachmentResponse).toList()
                         : java.util.Collections.emptyList(),
                 event.getCreatedAt(),
-                event.getUpdatedAt());
+                event.getUpdatedAt(),
+                event.getRecurrenceRule());
     }
 
     public Event toEvent(EventRequest request, Calendar calendar) {
@@ -75,6 +82,9 @@ public class EventMapper {
         event.setAttachments(request.attachments() != null
                 ? request.attachments().stream().map(a -> attachmentMapper.toAttachment(a, event)).toList()
                 : new java.util.ArrayList<>());
+        if (request.recurrenceRule() != null && !request.recurrenceRule().isBlank()) {
+            applyRecurrenceRule(event, RecurrenceRule.parse(request.recurrenceRule(), calendarZone(calendar)));
+        }
 
         return event;
     }
@@ -114,5 +124,32 @@ public class EventMapper {
                     .map(a -> attachmentMapper.toAttachment(a, event))
                     .toList());
         }
+        if (request.recurrenceRule() != null) {
+            // A blank rule turns the series back into a single event
+            if (request.recurrenceRule().isBlank()) {
+                event.setRecurrenceRule(null);
+                event.setRecurrenceEnd(null);
+            } else {
+                applyRecurrenceRule(event, RecurrenceRule.parse(request.recurrenceRule(),
+                        calendarZone(event.getCalendar())));
+            }
+        } else if (event.getRecurrenceRule() != null) {
+            // Start or end may have moved, which shifts the end of the series
+            applyRecurrenceRule(event, RecurrenceRule.parse(event.getRecurrenceRule()));
+        }
+    }
+
+    private void applyRecurrenceRule(Event event, RecurrenceRule rule) {
+        event.setRecurrenceRule(rule.toString());
+        event.setRecurrenceEnd(rule.seriesEnd(event.getStartTime(), event.getEndTime()));
+    }
+
+    private ZoneId calendarZone(Calendar calendar) {
+        try {
+            return ZoneId.of(calendar.getTimezone());
+        } catch (DateTimeException | NullPointerException e) {
+            log.warn("Calendar has an invalid timezone, reading UNTIL as UTC");
+            return ZoneOffset.UTC;
+        }
     }
 }
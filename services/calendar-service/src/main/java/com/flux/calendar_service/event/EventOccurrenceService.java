@@ -0,0 +1,82 @@
+package com.flux.calendar_service.event;
+
+import com.flux.calendar_service.availability.AvailabilityService;
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
+import com.flux.calendar_service.event.dto.OccurrenceExceptionRequest;
+import com.flux.calendar_service.event.recurrence.OccurrenceException;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
+import jakarta.ws.rs.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serves calendar ranges with recurring series expanded on the fly. Only the series row and its
+ * exceptions are stored; instances are generated for the requested window and the result is cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventOccurrenceService {
+    private final EventRepository eventRepository;
+    private final OccurrenceExceptionRepository occurrenceExceptionRepository;
+    private final OccurrenceExpander occurrenceExpander;
+    private final AvailabilityService availabilityService;
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = "eventOccurrences", key = "#calendarId + ':' + #start + ':' + #end")
+    public List<EventOccurrenceResponse> getOccurrences(String calendarId, LocalDateTime start, LocalDateTime end) {
+        if (calendarId == null || calendarId.isBlank()) {
+            throw new MustNotBeEmptyException("Calendar ID must not be empty");
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IncorrectTimeException("Range start must be before range end");
+        }
+
+        return occurrenceExpander.expand(
+                eventRepository.findSingleByCalendarIdOverlapping(calendarId, start, end),
+                eventRepository.findRecurringByCalendarIdOverlapping(calendarId, start, end),
+                start, end);
+    }
+
+    @Transactional
+    @CacheEvict(value = "eventOccurrences", allEntries = true)
+    public String addException(String eventId, OccurrenceExceptionRequest request) {
+        if (eventId == null || eventId.isBlank()) {
+            throw new MustNotBeEmptyException("Event ID must not be empty");
+        }
+
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException("Event not found with ID: " + eventId));
+        if (event.getRecurrenceRule() == null) {
+            throw new ConflictException("Event " + eventId + " is not a recurring event");
+        }
+        if (request.startTime() != null && request.endTime() != null
+                && request.endTime().isBefore(request.startTime())) {
+            throw new IncorrectTimeException("End time must be after start time");
+        }
+
+        OccurrenceException exception = occurrenceExceptionRepository
+                .findByEventIdAndOriginalStartTime(eventId, request.originalStartTime())
+                .orElseGet(() -> OccurrenceException.builder()
+                        .event(event)
+                        .originalStartTime(request.originalStartTime())
+                        .build());
+        exception.setCancelled(request.cancelled());
+        exception.setStartTime(request.startTime());
+        exception.setEndTime(request.endTime());
+        exception.setTitle(request.title());
+
+        String id = occurrenceExceptionRepository.save(exception).getId();
+        availabilityService.onEventChanged(event);
+        return id;
+    }
+}
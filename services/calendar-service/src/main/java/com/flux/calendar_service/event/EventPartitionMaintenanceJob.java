@@ -0,0 +1,105 @@
+package com.flux.calendar_service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the events table in shape: creates partitions ahead of time
+ * and, when a retention is configured, detaches expired months into an archive schema. A month
+ * that still holds a running recurring series stays attached, since the series row is partitioned
+ * by its first occurrence and keeps producing occurrences after it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "events.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+public class EventPartitionMaintenanceJob {
+    static final String PARTITION_PREFIX = "events_";
+    static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'events'";
+
+    // Open-ended series, or ones ending after the cutoff, are still expanded on read
+    private static final String LIVE_SERIES_SQL = "SELECT EXISTS (SELECT 1 FROM %s " +
+            "WHERE recurrence_rule IS NOT NULL AND (recurrence_end IS NULL OR recurrence_end >= ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${events.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 keeps every partition attached
+    @Value("${events.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${events.partitioning.archive-schema:events_archive}")
+    private String archiveSchema;
+
+    @Scheduled(cron = "${events.partitioning.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth now = YearMonth.now();
+        createFuturePartitions(now);
+        if (retentionMonths > 0) {
+            archiveExpiredPartitions(now.minusMonths(retentionMonths));
+        }
+    }
+
+    void createFuturePartitions(YearMonth from) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = from.plusMonths(i);
+            try {
+                jdbcTemplate.execute("SELECT create_events_partition(DATE '" + month.atDay(1) + "')");
+            } catch (Exception e) {
+                // Rows of the month already in events_default are moved over by the function (V17)
+                log.error("Failed to create events partition for {}: {}", month, e.getMessage());
+            }
+        }
+        log.debug("Ensured events partitions up to {}", from.plusMonths(monthsAhead));
+    }
+
+    void archiveExpiredPartitions(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(LIVE_SERIES_SQL.formatted(partition), Boolean.class,
+                    Timestamp.valueOf(cutoff.atDay(1).atStartOfDay())))) {
+                log.info("Keeping events partition {} attached, it holds recurring series still running", partition);
+                continue;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE events DETACH PARTITION " + partition);
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema);
+            log.info("Archived events partition {} into schema {}", partition, archiveSchema);
+        }
+    }
+
+    static YearMonth parseMonth(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,130 @@
 package com.flux.calendar_service.event;
 
+import com.flux.calendar_service.grpc.EventRow;
+import com.flux.calendar_service.ics.IcsEventRow;
+import com.flux.calendar_service.scheduling.EventSpan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EventRepository extends JpaRepository<Event, String> {
     List<Event> findByCalendarId(String calendarId);
 
+    Page<Event> findByCalendarId(String calendarId, Pageable pageable);
+
     List<Event> findByCalendar_UserId(String userId);
 
+    Page<Event> findByCalendar_UserId(String userId, Pageable pageable);
+
     Optional<Event> findByIdAndCalendar_UserId(String id, String userId);
 
     Optional<Event> findEventByLocationId(String locationId);
+
+    // Range predicates on start_time let Postgres prune the monthly partitions of the events table
+    @Query("SELECT e FROM Event e WHERE e.calendar.id = :calendarId " +
+           "AND e.startTime >= :start AND e.startTime < :end ORDER BY e.startTime")
+    List<Event> findByCalendarIdInRange(@Param("calendarId") String calendarId,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
+    @Query("SELECT e FROM Event e WHERE e.calendar.id = :calendarId AND e.calendar.isDeleted = false " +
+           "AND e.recurrenceRule IS NULL " +
+           "AND e.startTime < :end AND COALESCE(e.endTime, e.startTime) >= :start ORDER BY e.startTime")
+    List<Event> findSingleByCalendarIdOverlapping(@Param("calendarId") String calendarId,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("end") LocalDateTime end);
+
+    // Series that started before the window and have not ended yet; expanded in memory by OccurrenceIterator
+    @Query("SELECT e FROM Event e WHERE e.calendar.id = :calendarId AND e.calendar.isDeleted = false " +
+           "AND e.recurrenceRule IS NOT NULL " +
+           "AND e.startTime < :end AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd > :start)")
+    List<Event> findRecurringByCalendarIdOverlapping(@Param("calendarId") String calendarId,
+                                                     @Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end);
+
+    @Query("SELECT e FROM Event e WHERE e.calendar.userId = :userId " +
+           "AND e.startTime >= :start AND e.startTime < :end ORDER BY e.startTime")
+    List<Event> findByUserIdInRange(@Param("userId") String userId,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end);
+
+    // Streamed with a cursor so a scheduling search only reads as far as it needs to. All-day and timed
+    // events come separately, so each stream stays ordered once all-day events are moved to midnight
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.flux.calendar_service.scheduling.EventSpan(e.startTime, e.endTime, e.allDay) " +
+           "FROM Event e WHERE e.calendar.id = :calendarId AND e.recurrenceRule IS NULL AND e.status <> :excluded " +
+           "AND e.allDay = :allDay AND e.startTime < :end AND COALESCE(e.endTime, e.startTime) > :start " +
+           "ORDER BY e.startTime")
+    Stream<EventSpan> streamSingleEventSpans(@Param("calendarId") String calendarId,
+                                             @Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end,
+                                             @Param("excluded") EventStatus excluded,
+                                             @Param("allDay") boolean allDay);
+
+    // Exports read every event of a calendar, so rows are projected and pulled through a cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.flux.calendar_service.ics.IcsEventRow(e.id, e.icalUid, e.title, e.description, e.startTime, " +
+           "e.endTime, e.allDay, e.recurrenceRule, e.status, e.createdAt, e.updatedAt, " +
+           "l.placeName, l.streetAddress, l.city, l.country) " +
+           "FROM Event e LEFT JOIN e.location l WHERE e.calendar.id = :calendarId ORDER BY e.startTime")
+    Stream<IcsEventRow> streamForExport(@Param("calendarId") String calendarId);
+
+    // Range listings for the gRPC API are streamed to the client as rows arrive; series are expanded separately
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.flux.calendar_service.grpc.EventRow(e.id, e.calendar.id, e.title, e.description, " +
+           "e.colorHex, e.type, e.startTime, e.endTime, e.allDay, e.status, e.syncStatus, e.recurrenceRule, " +
+           "e.createdAt, e.updatedAt) " +
+           "FROM Event e WHERE e.calendar.id = :calendarId AND e.calendar.isDeleted = false " +
+           "AND e.recurrenceRule IS NULL AND e.startTime < :end " +
+           "AND (e.startTime >= :start OR e.endTime > :start) ORDER BY e.startTime")
+    Stream<EventRow> streamSingleByCalendarIdOverlapping(@Param("calendarId") String calendarId,
+                                                         @Param("start") LocalDateTime start,
+                                                         @Param("end") LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.flux.calendar_service.grpc.EventRow(e.id, e.calendar.id, e.title, e.description, " +
+           "e.colorHex, e.type, e.startTime, e.endTime, e.allDay, e.status, e.syncStatus, e.recurrenceRule, " +
+           "e.createdAt, e.updatedAt) " +
+           "FROM Event e WHERE e.calendar.userId = :userId AND e.calendar.isDeleted = false " +
+           "AND e.recurrenceRule IS NULL AND e.startTime < :end " +
+           "AND (e.startTime >= :start OR e.endTime > :start) ORDER BY e.startTime")
+    Stream<EventRow> streamSingleByUserIdOverlapping(@Param("userId") String userId,
+                                                     @Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end);
+
+    long countByCalendarId(String calendarId);
+
+    @Query("SELECT e FROM Event e WHERE e.calendar.userId = :userId AND e.calendar.isDeleted = false " +
+           "AND e.recurrenceRule IS NULL " +
+           "AND e.startTime < :end AND COALESCE(e.endTime, e.startTime) >= :start")
+    List<Event> findSingleByUserIdOverlapping(@Param("userId") String userId,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end);
+
+    @Query("SELECT e FROM Event e WHERE e.calendar.userId = :userId AND e.calendar.isDeleted = false " +
+           "AND e.recurrenceRule IS NOT NULL " +
+           "AND e.startTime < :end AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd > :start)")
+    List<Event> findRecurringByUserIdOverlapping(@Param("userId") String userId,
+                                                 @Param("start") LocalDateTime start,
+                                                 @Param("end") LocalDateTime end);
+
+    @Query("SELECT e FROM Event e WHERE e.calendar.userId = :userId " +
+           "AND e.startTime >= :start AND e.startTime < :end AND " +
+           "(:keyword IS NULL OR LOWER(e.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(e.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<Event> searchEvents(@Param("userId") String userId,
+                             @Param("start") LocalDateTime start,
+                             @Param("end") LocalDateTime end,
+                             @Param("keyword") String keyword,
+                             Pageable pageable);
 }
@@ -1,5 +1,7 @@
 package com.flux.calendar_service.event;
 
+import com.flux.calendar_service.attachment.AttachmentService;
+import com.flux.calendar_service.availability.AvailabilityService;
 import com.flux.calendar_service.calendar.Calendar;
 import com.flux.calendar_service.calendar.CalendarRepository;
 import com.flux.calendar_service.conference.Conference;
@@ -8,6 +10,7 @@ import com.flux.calendar_service.conference.ConferenceRepository;
 import com.flux.calendar_service.event.dto.EventRequest;
 import com.flux.calendar_service.event.dto.EventResponse;
 import com.flux.calendar_service.event.dto.EventUpdateRequest;
+import com.flux.calendar_service.event.recurrence.RecurrenceRule;
 import com.flux.calendar_service.exceptions.AddGoogleMeetFailedException;
 import com.flux.calendar_service.exceptions.ConflictException;
 import com.flux.calendar_service.exceptions.GoogleCalendarDisabledException;
@@ -16,6 +19,9 @@ import com.flux.calendar_service.exceptions.IncorrectTimeException;
 import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
 import com.flux.calendar_service.exceptions.RemoveGoogleMeetFailedException;
 import com.flux.calendar_service.google.GoogleCalendarApiService;
+import com.flux.calendar_service.google.GoogleEventsDeleteJobHandler;
+import com.flux.calendar_service.job.JobService;
+import com.flux.calendar_service.job.dto.JobResponse;
 import com.flux.calendar_service.location.Location;
 import com.flux.calendar_service.location.LocationMapper;
 import com.flux.calendar_service.location.LocationRepository;
@@ -38,7 +44,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -54,6 +62,9 @@ public class EventService {
     private final ConferenceMapper conferenceMapper;
     private final ZoomApiService zoomApiService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final AvailabilityService availabilityService;
+    private final AttachmentService attachmentService;
+    private final JobService jobService;
 
     @Autowired(required = false)
     private GoogleCalendarApiService googleCalendarApiService;
@@ -64,7 +75,8 @@ public class EventService {
         @CacheEvict(value = "calendarEvents", key = "#calendarId"),
         @CacheEvict(value = "userEvents", allEntries = true, condition = "#result != null"),
         @CacheEvict(value = "allEvents", allEntries = true),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public String createEvent(String calendarId, EventRequest request) {
         validateCalendarId(calendarId);
@@ -78,6 +90,7 @@ public class EventService {
         associateChildEntities(event);
         
         Event savedEvent = eventRepository.save(event);
+        availabilityService.onEventChanged(savedEvent);
 
         syncWithGoogleCalendar(savedEvent, calendar.getUserId());
 
@@ -90,7 +103,8 @@ public class EventService {
         @CacheEvict(value = "calendarEvents", key = "#calendarId"),
         @CacheEvict(value = "userEvents", allEntries = true, condition = "#result != null"),
         @CacheEvict(value = "allEvents", allEntries = true),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public String createEventWithGoogleMeet(String calendarId, EventRequest request) {
         validateCalendarId(calendarId);
@@ -104,6 +118,7 @@ public class EventService {
         associateChildEntities(event);
         
         Event savedEvent = eventRepository.save(event);
+        availabilityService.onEventChanged(savedEvent);
 
         checkGoogleCalendarEnabled();
 
@@ -134,7 +149,8 @@ public class EventService {
         @CacheEvict(value = "userEvents", 
                    allEntries = true, 
                    condition = "#event != null and #event.calendar != null"),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void addGoogleMeetToExistingEvent(String id) {
         validateEventId(id);
@@ -173,7 +189,8 @@ public class EventService {
         @CacheEvict(value = "userEvents", 
                    allEntries = true, 
                    condition = "#event != null and #event.calendar != null"),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void removeGoogleMeetFromEvent(String id) {
         validateEventId(id);
@@ -197,7 +214,8 @@ public class EventService {
         @CacheEvict(value = "calendarEvents", key = "#calendarId"),
         @CacheEvict(value = "userEvents", allEntries = true, condition = "#result != null"),
         @CacheEvict(value = "allEvents", allEntries = true),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public String createEventWithNewZoomMeeting(String calendarId, EventRequest request) {
         validateCalendarId(calendarId);
@@ -209,6 +227,7 @@ public class EventService {
 
         Event event = eventMapper.toEvent(request, calendar);
         Event savedEvent = eventRepository.save(event);
+        availabilityService.onEventChanged(savedEvent);
 
         if (googleCalendarApiService != null) {
             syncZoomEventWithGoogle(savedEvent, calendar, zoomResponse);
@@ -226,7 +245,8 @@ public class EventService {
         @CacheEvict(value = "userEvents", 
                    allEntries = true, 
                    condition = "#event != null and #event.calendar != null"),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void addZoomToExistingEvent(String id) {
         Event event = eventRepository.findById(id)
@@ -253,7 +273,8 @@ public class EventService {
         @CacheEvict(value = "userEvents", 
                    allEntries = true, 
                    condition = "#event != null and #event.calendar != null"),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void removeZoomFromEvent(String id) {
         Event event = eventRepository.findById(id)
@@ -272,6 +293,7 @@ public class EventService {
 
     // Cacheable read operations
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "allEvents", 
               key = "#pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
     public Page<EventResponse> getAllEvents(Pageable pageable) {
@@ -281,6 +303,7 @@ public class EventService {
         return events.map(eventMapper::toEventResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "event", key = "#id", unless = "#result == null")
     public EventResponse getEventById(String id) {
         validateEventId(id);
@@ -291,6 +314,7 @@ public class EventService {
                 .orElseThrow(() -> new NotFoundException("Event not found with ID: " + id));
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "calendarEvents", 
               key = "#calendarId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
     public Page<EventResponse> getEventsByCalendarId(String calendarId, Pageable pageable) {
@@ -304,6 +328,7 @@ public class EventService {
         return events.map(eventMapper::toEventResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "userEvents", 
               key = "#userId + ':' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
     public Page<EventResponse> getEventsByUserId(String userId, Pageable pageable) {
@@ -319,6 +344,7 @@ public class EventService {
         return events.map(eventMapper::toEventResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "eventSearch", 
               key = "#userId + ':' + #start + ':' + #end + ':' + #keyword + ':' + #pageable")
     public Page<EventResponse> searchEvents(String userId, LocalDateTime start, 
@@ -328,6 +354,7 @@ public class EventService {
         return events.map(eventMapper::toEventResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "bulkEvents", key = "T(java.util.Arrays).toString(#ids)")
     public List<EventResponse> getEventsByIds(List<String> ids) {
         log.debug("Fetching bulk events: {}", ids);
@@ -348,7 +375,8 @@ public class EventService {
                    condition = "#event != null and #event.calendar != null"),
         @CacheEvict(value = "allEvents", allEntries = true),
         @CacheEvict(value = "eventSearch", allEntries = true),
-        @CacheEvict(value = "bulkEvents", allEntries = true)
+        @CacheEvict(value = "bulkEvents", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void updateEvent(String id, EventUpdateRequest request) {
         validateEventId(id);
@@ -358,12 +386,15 @@ public class EventService {
 
         validateUpdateTime(event, request);
 
+        // The old slot has to be freed as well as the new one marked busy
+        availabilityService.onEventChanged(event);
         eventMapper.updateEventFromRequest(event, request);
 
         updateLocation(event, request);
         updateConference(event, request);
 
         eventRepository.save(event);
+        availabilityService.onEventChanged(event);
 
         syncEventUpdateWithGoogle(event);
     }
@@ -379,7 +410,8 @@ public class EventService {
                    condition = "#event != null and #event.calendar != null"),
         @CacheEvict(value = "allEvents", allEntries = true),
         @CacheEvict(value = "eventSearch", allEntries = true),
-        @CacheEvict(value = "bulkEvents", allEntries = true)
+        @CacheEvict(value = "bulkEvents", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void deleteEvent(String id) {
         validateEventId(id);
@@ -389,17 +421,37 @@ public class EventService {
 
         deleteFromGoogleCalendar(event);
 
+        // Attachment rows go with the event through the cascade; their files are removed after commit
+        attachmentService.releaseFiles(event.getAttachments());
+
         eventRepository.delete(event);
+        availabilityService.onEventChanged(event);
         clearEventCache(id, event);
     }
 
+    /**
+     * Queues the deletion of a user's Google events in a date range, see GoogleEventsDeleteJobHandler.
+     */
+    public JobResponse deleteGoogleEventsByDateRange(String userId, LocalDateTime start, LocalDateTime end) {
+        validateUserId(userId);
+        if (!end.isAfter(start)) {
+            throw new IncorrectTimeException("End time must be after start time");
+        }
+        if (googleCalendarApiService == null) {
+            throw new GoogleCalendarDisabledException("Google Calendar integration is disabled");
+        }
+        return jobService.submit(GoogleEventsDeleteJobHandler.TYPE,
+                Map.of("userId", userId, "start", start.toString(), "end", end.toString()));
+    }
+
     @Transactional
     @Caching(evict = {
         @CacheEvict(value = "event", key = "#result"),
         @CacheEvict(value = "calendarEvents", key = "#calendarId"),
         @CacheEvict(value = "userEvents", allEntries = true, condition = "#result != null"),
         @CacheEvict(value = "allEvents", allEntries = true),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public String createEventWithLocation(String calendarId, EventRequest request) {
         return createEvent(calendarId, request);
@@ -414,7 +466,8 @@ public class EventService {
         @CacheEvict(value = "userEvents", 
                    allEntries = true, 
                    condition = "#event != null and #event.calendar != null"),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void attachLocation(String eventId, String locationId) {
         Event event = eventRepository.findById(eventId)
@@ -436,7 +489,8 @@ public class EventService {
         @CacheEvict(value = "userEvents", 
                    allEntries = true, 
                    condition = "#event != null and #event.calendar != null"),
-        @CacheEvict(value = "eventSearch", allEntries = true)
+        @CacheEvict(value = "eventSearch", allEntries = true),
+        @CacheEvict(value = "eventOccurrences", allEntries = true)
     })
     public void attachConference(String eventId, String conferenceId) {
         Event event = eventRepository.findById(eventId)
@@ -462,6 +516,7 @@ public class EventService {
         redisTemplate.delete(redisTemplate.keys("eventSearch:*"));
         redisTemplate.delete(redisTemplate.keys("allEvents:*"));
         redisTemplate.delete(redisTemplate.keys("bulkEvents:*"));
+        redisTemplate.delete(redisTemplate.keys("eventOccurrences:*"));
         log.info("All event cache cleared");
     }
 
@@ -744,7 +799,17 @@ public class EventService {
         if (googleCalendarApiService != null) {
             try {
                 com.google.api.services.calendar.model.Event googleEvent;
-                if (savedEvent.isAllDay()) {
+                if (savedEvent.getRecurrenceRule() != null) {
+                    googleEvent = googleCalendarApiService.createRecurringEvent(
+                            userId,
+                            savedEvent.getTitle(),
+                            savedEvent.getDescription(),
+                            savedEvent.getStartTime(),
+                            savedEvent.getEndTime(),
+                            // Google reads the event times in the server's zone, so UNTIL has to match
+                            RecurrenceRule.parse(savedEvent.getRecurrenceRule())
+                                    .toICalProperty(ZoneId.systemDefault()));
+                } else if (savedEvent.isAllDay()) {
                     googleEvent = googleCalendarApiService.createAllDayEvent(
                             userId,
                             savedEvent.getTitle(),
@@ -0,0 +1,17 @@
+package com.flux.calendar_service.event.dto;
+
+import com.flux.calendar_service.event.EventType;
+
+import java.time.LocalDateTime;
+
+public record EventOccurrenceResponse(
+                String eventId,
+                String title,
+                String colorHex,
+                EventType type,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                boolean allDay,
+                boolean recurring,
+                boolean modified) {
+}
@@ -14,10 +14,11 @@ public record EventRequest(
                 @NotNull @NotBlank String colorHex,
                 EventType type,
                 LocalDate date,
-                LocalDateTime startTime,
+                @NotNull LocalDateTime startTime,
                 LocalDateTime endTime,
                 boolean allDay,
                 EventStatus status,
                 java.util.List<com.flux.calendar_service.task.dto.TaskRequest> tasks,
-                java.util.List<com.flux.calendar_service.attachment.dto.AttachmentRequest> attachments) {
+                java.util.List<com.flux.calendar_service.attachment.dto.AttachmentRequest> attachments,
+                String recurrenceRule) {
 }
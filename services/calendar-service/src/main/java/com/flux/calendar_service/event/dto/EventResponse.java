@@ -26,5 +26,6 @@ public record EventResponse(
                 java.util.List<com.flux.calendar_service.task.dto.TaskResponse> tasks,
                 java.util.List<com.flux.calendar_service.attachment.dto.AttachmentResponse> attachments,
                 LocalDateTime createdAt,
-                LocalDateTime updatedAt) {
+                LocalDateTime updatedAt,
+                String recurrenceRule) {
 }
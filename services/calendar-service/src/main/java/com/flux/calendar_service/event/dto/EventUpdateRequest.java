@@ -18,5 +18,6 @@ public record EventUpdateRequest(
                 LocalDateTime endTime,
                 Boolean allDay,
                 EventStatus status,
-                java.util.List<com.flux.calendar_service.attachment.dto.AttachmentRequest> attachments) {
+                java.util.List<com.flux.calendar_service.attachment.dto.AttachmentRequest> attachments,
+                String recurrenceRule) {
 }
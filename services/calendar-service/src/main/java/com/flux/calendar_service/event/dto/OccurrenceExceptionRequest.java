@@ -0,0 +1,13 @@
+package com.flux.calendar_service.event.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public record OccurrenceExceptionRequest(
+                @NotNull LocalDateTime originalStartTime,
+                boolean cancelled,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                String title) {
+}
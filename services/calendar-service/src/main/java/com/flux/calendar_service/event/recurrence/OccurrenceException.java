@@ -0,0 +1,60 @@
+package com.flux.calendar_service.event.recurrence;
+
+import com.flux.calendar_service.cache.GatewayCacheEntityListener;
+import com.flux.calendar_service.event.Event;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cancels or overrides a single occurrence of a recurring event, identified by its original start time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "event_occurrence_exceptions")
+@EntityListeners({AuditingEntityListener.class, GatewayCacheEntityListener.class})
+public class OccurrenceException {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    @lombok.EqualsAndHashCode.Exclude
+    @lombok.ToString.Exclude
+    private Event event;
+
+    @Column(name = "original_start_time", nullable = false)
+    private LocalDateTime originalStartTime;
+
+    @Column(name = "cancelled", nullable = false)
+    private boolean cancelled;
+
+    // Overrides, null keeps the value of the series
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "title")
+    private String title;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
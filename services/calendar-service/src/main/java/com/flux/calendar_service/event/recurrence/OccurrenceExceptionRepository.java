@@ -0,0 +1,22 @@
+package com.flux.calendar_service.event.recurrence;
+
+import com.flux.calendar_service.ics.IcsExceptionRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OccurrenceExceptionRepository extends JpaRepository<OccurrenceException, String> {
+    List<OccurrenceException> findByEventIdIn(Collection<String> eventIds);
+
+    Optional<OccurrenceException> findByEventIdAndOriginalStartTime(String eventId, LocalDateTime originalStartTime);
+
+    @Query("SELECT new com.flux.calendar_service.ics.IcsExceptionRow(x.event.id, x.originalStartTime, x.cancelled, " +
+           "x.startTime, x.endTime, x.title) " +
+           "FROM OccurrenceException x WHERE x.event.calendar.id = :calendarId ORDER BY x.originalStartTime")
+    List<IcsExceptionRow> findExportRowsByCalendarId(@Param("calendarId") String calendarId);
+}
@@ -0,0 +1,89 @@
+package com.flux.calendar_service.event.recurrence;
+
+import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns single events and recurring series into the occurrences that overlap a window,
+ * applying cancelled and modified occurrences of each series.
+ */
+@Component
+@RequiredArgsConstructor
+public class OccurrenceExpander {
+    private final OccurrenceExceptionRepository occurrenceExceptionRepository;
+
+    public List<EventOccurrenceResponse> expand(List<Event> singles, List<Event> series,
+                                                LocalDateTime start, LocalDateTime end) {
+        List<EventOccurrenceResponse> occurrences = new ArrayList<>();
+        for (Event event : singles) {
+            occurrences.add(toOccurrence(event, event.getStartTime(), event.getEndTime(), event.getTitle(), false));
+        }
+
+        if (!series.isEmpty()) {
+            Map<String, Map<LocalDateTime, OccurrenceException>> exceptions = loadExceptions(series);
+            for (Event event : series) {
+                expandSeries(event, start, end, exceptions.getOrDefault(event.getId(), Map.of()), occurrences);
+            }
+        }
+
+        occurrences.sort(Comparator.comparing(EventOccurrenceResponse::startTime));
+        return occurrences;
+    }
+
+    private void expandSeries(Event event, LocalDateTime start, LocalDateTime end,
+                              Map<LocalDateTime, OccurrenceException> exceptions,
+                              List<EventOccurrenceResponse> occurrences) {
+        RecurrenceRule rule = RecurrenceRule.parse(event.getRecurrenceRule());
+        long durationSeconds = RecurrenceRule.durationSeconds(event.getStartTime(), event.getEndTime());
+
+        OccurrenceIterator iterator = new OccurrenceIterator(rule, event.getStartTime(), durationSeconds, start, end);
+        while (iterator.hasNext()) {
+            LocalDateTime occurrenceStart = iterator.next();
+            LocalDateTime occurrenceEnd = occurrenceStart.plusSeconds(durationSeconds);
+
+            OccurrenceException exception = exceptions.get(occurrenceStart);
+            if (exception == null) {
+                occurrences.add(toOccurrence(event, occurrenceStart, occurrenceEnd, event.getTitle(), false));
+            } else if (!exception.isCancelled()) {
+                occurrences.add(toOccurrence(event,
+                        exception.getStartTime() != null ? exception.getStartTime() : occurrenceStart,
+                        exception.getEndTime() != null ? exception.getEndTime() : occurrenceEnd,
+                        exception.getTitle() != null ? exception.getTitle() : event.getTitle(),
+                        true));
+            }
+        }
+    }
+
+    private Map<String, Map<LocalDateTime, OccurrenceException>> loadExceptions(List<Event> series) {
+        List<String> ids = series.stream().map(Event::getId).toList();
+        Map<String, Map<LocalDateTime, OccurrenceException>> byEvent = new HashMap<>();
+        for (OccurrenceException exception : occurrenceExceptionRepository.findByEventIdIn(ids)) {
+            byEvent.computeIfAbsent(exception.getEvent().getId(), k -> new HashMap<>())
+                    .put(exception.getOriginalStartTime(), exception);
+        }
+        return byEvent;
+    }
+
+    private EventOccurrenceResponse toOccurrence(Event event, LocalDateTime start, LocalDateTime end,
+                                                 String title, boolean modified) {
+        return new EventOccurrenceResponse(
+                event.getId(),
+                title,
+                event.getColorHex(),
+                event.getType(),
+                start,
+                end,
+                event.isAllDay(),
+                event.getRecurrenceRule() != null,
+                modified);
+    }
+}
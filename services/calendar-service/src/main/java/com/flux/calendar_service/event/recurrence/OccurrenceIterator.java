@@ -0,0 +1,156 @@
+package com.flux.calendar_service.event.recurrence;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily yields the start times of the occurrences of a series that overlap {@code [windowStart, windowEnd)}.
+ * Daily and weekly series jump straight to the window instead of walking every earlier occurrence,
+ * so a month view of a ten year series only generates the instances it returns.
+ */
+public final class OccurrenceIterator implements Iterator<LocalDateTime> {
+    private final RecurrenceRule rule;
+    private final LocalDateTime seriesStart;
+    private final long durationSeconds;
+    private final LocalDateTime windowStart;
+    private final LocalDateTime windowEnd;
+    private final LocalDate firstWeekStart;
+    private final int weekMask;
+
+    private long period;
+    private int slot;
+    // number of occurrences of the series before the current position, used for COUNT
+    private long index;
+    private LocalDateTime next;
+    private boolean exhausted;
+
+    public OccurrenceIterator(RecurrenceRule rule, LocalDateTime seriesStart, long durationSeconds,
+                              LocalDateTime windowStart, LocalDateTime windowEnd) {
+        this.rule = rule;
+        this.seriesStart = seriesStart;
+        this.durationSeconds = durationSeconds;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.firstWeekStart = seriesStart.toLocalDate()
+                .minusDays(seriesStart.getDayOfWeek().getValue() - 1);
+        this.weekMask = rule.getByDayMask() != 0
+                ? rule.getByDayMask()
+                : 1 << (seriesStart.getDayOfWeek().getValue() - 1);
+        skipAhead();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !exhausted) {
+            next = computeNext();
+            exhausted = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public LocalDateTime next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LocalDateTime result = next;
+        next = null;
+        return result;
+    }
+
+    private void skipAhead() {
+        LocalDateTime target = windowStart.minusSeconds(durationSeconds);
+        if (!target.isAfter(seriesStart)) {
+            return;
+        }
+
+        switch (rule.getFrequency()) {
+            case DAILY -> {
+                long periods = ChronoUnit.DAYS.between(seriesStart, target) / rule.getInterval();
+                period = periods;
+                index = periods;
+            }
+            case WEEKLY -> {
+                long periods = ChronoUnit.WEEKS.between(firstWeekStart, target.toLocalDate()) / rule.getInterval();
+                if (periods > 0) {
+                    int daysBeforeStart = seriesStart.getDayOfWeek().getValue() - 1;
+                    period = periods;
+                    index = periods * Integer.bitCount(weekMask)
+                            - Integer.bitCount(weekMask & ((1 << daysBeforeStart) - 1));
+                }
+            }
+            default -> {
+                // Monthly and yearly series have few enough occurrences to walk from the start
+            }
+        }
+    }
+
+    private LocalDateTime computeNext() {
+        while (true) {
+            if (rule.getCount() > 0 && index >= rule.getCount()) {
+                return null;
+            }
+
+            LocalDateTime candidate;
+            try {
+                candidate = candidate();
+            } catch (DateTimeException e) {
+                return null;
+            }
+            advance();
+
+            if (candidate == null) {
+                continue;
+            }
+            if (rule.getUntil() != null && candidate.isAfter(rule.getUntil())) {
+                return null;
+            }
+            if (!candidate.isBefore(windowEnd)) {
+                return null;
+            }
+
+            index++;
+            if (!candidate.isBefore(windowStart) || candidate.plusSeconds(durationSeconds).isAfter(windowStart)) {
+                return candidate;
+            }
+        }
+    }
+
+    private LocalDateTime candidate() {
+        long step = period * rule.getInterval();
+        return switch (rule.getFrequency()) {
+            case DAILY -> seriesStart.plusDays(step);
+            case WEEKLY -> {
+                if ((weekMask & (1 << slot)) == 0) {
+                    yield null;
+                }
+                LocalDateTime candidate = firstWeekStart.plusDays(step * 7 + slot).atTime(seriesStart.toLocalTime());
+                yield candidate.isBefore(seriesStart) ? null : candidate;
+            }
+            case MONTHLY -> {
+                // Months without the start day (e.g. the 31st) are skipped, as in RFC 5545
+                LocalDateTime candidate = seriesStart.plusMonths(step);
+                yield candidate.getDayOfMonth() == seriesStart.getDayOfMonth() ? candidate : null;
+            }
+            case YEARLY -> {
+                LocalDateTime candidate = seriesStart.plusYears(step);
+                yield candidate.getDayOfMonth() == seriesStart.getDayOfMonth() ? candidate : null;
+            }
+        };
+    }
+
+    private void advance() {
+        if (rule.getFrequency() == RecurrenceRule.Frequency.WEEKLY) {
+            slot++;
+            if (slot < 7) {
+                return;
+            }
+            slot = 0;
+        }
+        period++;
+    }
+}
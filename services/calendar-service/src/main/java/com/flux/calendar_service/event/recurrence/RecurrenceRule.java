@@ -0,0 +1,248 @@
+package com.flux.calendar_service.event.recurrence;
+
+import com.flux.calendar_service.exceptions.InvalidRecurrenceRuleException;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parsed form of the RFC 5545 RRULE subset supported locally:
+ * FREQ (DAILY, WEEKLY, MONTHLY, YEARLY), INTERVAL, COUNT, UNTIL and BYDAY for weekly rules.
+ * <p>
+ * UNTIL is held in the calendar's local time, like the event times it is compared with. A UTC value
+ * (trailing {@code Z}) is converted on parse, and {@link #toString()} writes the local form that is
+ * stored with the event.
+ */
+@Getter
+public final class RecurrenceRule {
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+
+    private static final String PREFIX = "RRULE:";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+    // seriesEnd walks every occurrence of a counted rule; about 13 years of daily events is plenty
+    static final int MAX_COUNT = 5000;
+
+    private final Frequency frequency;
+    private final int interval;
+    // 0 means the rule is not bounded by a count
+    private final int count;
+    private final LocalDateTime until;
+    // bit (dayOfWeek - 1) is set for every BYDAY entry
+    private final int byDayMask;
+
+    private RecurrenceRule(Frequency frequency, int interval, int count, LocalDateTime until, int byDayMask) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDayMask = byDayMask;
+    }
+
+    /**
+     * Parses a rule stored with an event, whose UNTIL is already in the calendar's local time.
+     */
+    public static RecurrenceRule parse(String value) {
+        return parse(value, ZoneOffset.UTC);
+    }
+
+    /**
+     * Parses a rule from a client or an imported file, converting a UTC UNTIL into {@code zone}.
+     */
+    public static RecurrenceRule parse(String value, ZoneId zone) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidRecurrenceRuleException("Recurrence rule cannot be empty");
+        }
+
+        String rule = value.trim();
+        if (rule.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            rule = rule.substring(PREFIX.length());
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        int count = 0;
+        LocalDateTime until = null;
+        int byDayMask = 0;
+
+        for (String part : rule.split(";")) {
+            int separator = part.indexOf('=');
+            if (separator <= 0) {
+                throw new InvalidRecurrenceRuleException("Malformed recurrence rule part: " + part);
+            }
+            String name = part.substring(0, separator).trim().toUpperCase();
+            String partValue = part.substring(separator + 1).trim().toUpperCase();
+
+            switch (name) {
+                case "FREQ" -> frequency = parseFrequency(partValue);
+                case "INTERVAL" -> interval = parsePositive(name, partValue);
+                case "COUNT" -> {
+                    count = parsePositive(name, partValue);
+                    if (count > MAX_COUNT) {
+                        throw new InvalidRecurrenceRuleException("COUNT cannot exceed " + MAX_COUNT);
+                    }
+                }
+                case "UNTIL" -> until = parseUntil(partValue, zone);
+                case "BYDAY" -> byDayMask = parseByDay(partValue);
+                case "WKST" -> {
+                    // Only Monday-based weeks are supported, which is the RFC default
+                    if (!"MO".equals(partValue)) {
+                        throw new InvalidRecurrenceRuleException("Only WKST=MO is supported");
+                    }
+                }
+                default -> throw new InvalidRecurrenceRuleException("Unsupported recurrence rule part: " + name);
+            }
+        }
+
+        if (frequency == null) {
+            throw new InvalidRecurrenceRuleException("Recurrence rule must define FREQ");
+        }
+        if (count > 0 && until != null) {
+            throw new InvalidRecurrenceRuleException("COUNT and UNTIL cannot be combined");
+        }
+        if (byDayMask != 0 && frequency != Frequency.WEEKLY) {
+            throw new InvalidRecurrenceRuleException("BYDAY is only supported for weekly rules");
+        }
+
+        return new RecurrenceRule(frequency, interval, count, until, byDayMask);
+    }
+
+    /**
+     * End of the last occurrence of a series, or {@code null} when the series never ends.
+     */
+    public LocalDateTime seriesEnd(LocalDateTime seriesStart, LocalDateTime seriesEndOfFirst) {
+        long durationSeconds = durationSeconds(seriesStart, seriesEndOfFirst);
+        if (until != null) {
+            return until.plusSeconds(durationSeconds);
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        OccurrenceIterator iterator = new OccurrenceIterator(this, seriesStart, durationSeconds,
+                seriesStart, LocalDateTime.MAX);
+        LocalDateTime last = seriesStart;
+        while (iterator.hasNext()) {
+            last = iterator.next();
+        }
+        return last.plusSeconds(durationSeconds);
+    }
+
+    public boolean includesDay(DayOfWeek dayOfWeek) {
+        return (byDayMask & (1 << (dayOfWeek.getValue() - 1))) != 0;
+    }
+
+    public static long durationSeconds(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            return 0;
+        }
+        return Duration.between(start, end).getSeconds();
+    }
+
+    @Override
+    public String toString() {
+        return format(until != null ? until.format(DATE_TIME) : null);
+    }
+
+    /**
+     * The RRULE property for other calendars, with UNTIL in UTC as RFC 5545 requires when DTSTART
+     * carries a zone. {@code zone} is the one the event times are local to.
+     */
+    public String toICalProperty(ZoneId zone) {
+        String utcUntil = until != null
+                ? until.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).format(DATE_TIME) + "Z" : null;
+        return PREFIX + format(utcUntil);
+    }
+
+    private String format(String untilValue) {
+        StringBuilder sb = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            sb.append(";INTERVAL=").append(interval);
+        }
+        if (count > 0) {
+            sb.append(";COUNT=").append(count);
+        }
+        if (untilValue != null) {
+            sb.append(";UNTIL=").append(untilValue);
+        }
+        if (byDayMask != 0) {
+            sb.append(";BYDAY=");
+            boolean first = true;
+            for (int i = 0; i < DAY_CODES.length; i++) {
+                if ((byDayMask & (1 << i)) != 0) {
+                    if (!first) {
+                        sb.append(',');
+                    }
+                    sb.append(DAY_CODES[i]);
+                    first = false;
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Frequency parseFrequency(String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRecurrenceRuleException("Unsupported recurrence frequency: " + value);
+        }
+    }
+
+    private static int parsePositive(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new InvalidRecurrenceRuleException(name + " must be a positive integer");
+    }
+
+    private static LocalDateTime parseUntil(String value, ZoneId zone) {
+        try {
+            if (value.length() == 8) {
+                return LocalDate.parse(value, DATE).atTime(23, 59, 59);
+            }
+            if (value.endsWith("Z")) {
+                return LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME)
+                        .atOffset(ZoneOffset.UTC)
+                        .atZoneSameInstant(zone)
+                        .toLocalDateTime();
+            }
+            return LocalDateTime.parse(value, DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRecurrenceRuleException("Invalid UNTIL value: " + value);
+        }
+    }
+
+    private static int parseByDay(String value) {
+        int mask = 0;
+        for (String day : value.split(",")) {
+            int index = -1;
+            for (int i = 0; i < DAY_CODES.length; i++) {
+                if (DAY_CODES[i].equals(day.trim())) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                throw new InvalidRecurrenceRuleException("Unsupported BYDAY value: " + day);
+            }
+            mask |= 1 << index;
+        }
+        return mask;
+    }
+}
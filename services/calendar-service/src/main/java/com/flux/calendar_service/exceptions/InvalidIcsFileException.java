@@ -0,0 +1,7 @@
+package com.flux.calendar_service.exceptions;
+
+public class InvalidIcsFileException extends RuntimeException {
+    public InvalidIcsFileException(String message) {
+        super(message);
+    }
+}
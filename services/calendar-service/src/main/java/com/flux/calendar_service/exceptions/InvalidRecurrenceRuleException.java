@@ -0,0 +1,7 @@
+package com.flux.calendar_service.exceptions;
+
+public class InvalidRecurrenceRuleException extends RuntimeException {
+    public InvalidRecurrenceRuleException(String message) {
+        super(message);
+    }
+}
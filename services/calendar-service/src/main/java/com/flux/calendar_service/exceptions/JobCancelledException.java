@@ -0,0 +1,7 @@
+package com.flux.calendar_service.exceptions;
+
+public class JobCancelledException extends RuntimeException{
+    public JobCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.flux.calendar_service.exceptions;
+
+public class RequestLimitExceededException extends RuntimeException {
+    public RequestLimitExceededException(String message) {
+        super(message);
+    }
+}
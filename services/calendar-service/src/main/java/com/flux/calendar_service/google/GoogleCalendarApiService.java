@@ -3,6 +3,10 @@ package com.flux.calendar_service.google;
 import com.flux.calendar_service.conference.Conference;
 import com.google.api.client.util.DateTime;
 import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.JsonFactory;
@@ -26,6 +30,8 @@ import java.util.stream.Collectors;
 public class GoogleCalendarApiService {
         private final GoogleAuthService googleAuthService;
         private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+        // Google executes at most 50 calls of a batch request
+        private static final int MAX_BATCH_CALLS = 50;
 
         @Value("${google.calendar.calendar-id:primary}")
         private String calendarId;
@@ -864,25 +870,79 @@ public class GoogleCalendarApiService {
         }
 
         /**
-         * Delete all events in a date range
+         * Delete all events in a date range. Large ranges should be queued as a job instead,
+         * see GoogleEventsDeleteJobHandler
          */
         public int deleteEventsByDateRange(String userId, LocalDateTime startDate,
                         LocalDateTime endDate) throws IOException {
 
-                List<Event> events = getEventsByDateRange(userId, startDate, endDate);
-                int deletedCount = 0;
+                List<String> eventIds = getEventIdsByDateRange(userId, startDate, endDate);
+                int deletedCount = deleteEventsInBatch(userId, eventIds).size();
 
-                for (Event event : events) {
-                        try {
-                                deleteEvent(userId, event.getId());
-                                deletedCount++;
-                        } catch (IOException e) {
-                                System.err.println("Failed to delete event: " + event.getId() + " for user " + userId);
+                System.out.println("Deleted " + deletedCount + " events for user " + userId);
+                return deletedCount;
+        }
+
+        /**
+         * Get the IDs of all event instances in a date range, following every result page
+         */
+        public List<String> getEventIdsByDateRange(String userId, LocalDateTime startDate,
+                        LocalDateTime endDate) throws IOException {
+
+                List<String> eventIds = new ArrayList<>();
+                String pageToken = null;
+                do {
+                        Events events = getCalendarClient(userId).events()
+                                        .list(calendarId)
+                                        .setTimeMin(convertToDateTime(startDate))
+                                        .setTimeMax(convertToDateTime(endDate))
+                                        .setSingleEvents(true)
+                                        .setMaxResults(2500)
+                                        .setFields("nextPageToken,items(id)")
+                                        .setPageToken(pageToken)
+                                        .execute();
+                        events.getItems().forEach(event -> eventIds.add(event.getId()));
+                        pageToken = events.getNextPageToken();
+                } while (pageToken != null);
+
+                return eventIds;
+        }
+
+        /**
+         * Delete many events with Google batch requests, {@value #MAX_BATCH_CALLS} calls per HTTP request.
+         * Returns the IDs that are gone afterwards, including events that were already deleted.
+         */
+        public List<String> deleteEventsInBatch(String userId, List<String> eventIds) throws IOException {
+                Calendar client = getCalendarClient(userId);
+                List<String> deletedIds = new ArrayList<>(eventIds.size());
+
+                for (int from = 0; from < eventIds.size(); from += MAX_BATCH_CALLS) {
+                        BatchRequest batch = client.batch();
+                        for (String eventId : eventIds.subList(from, Math.min(from + MAX_BATCH_CALLS, eventIds.size()))) {
+                                client.events()
+                                                .delete(calendarId, eventId)
+                                                .setSendNotifications(false)
+                                                .queue(batch, new JsonBatchCallback<Void>() {
+                                                        @Override
+                                                        public void onSuccess(Void result, HttpHeaders responseHeaders) {
+                                                                deletedIds.add(eventId);
+                                                        }
+
+                                                        @Override
+                                                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                                                                if (error.getCode() == 404 || error.getCode() == 410) {
+                                                                        deletedIds.add(eventId);
+                                                                } else {
+                                                                        System.err.println("Failed to delete event: " + eventId
+                                                                                        + " for user " + userId + ": " + error.getMessage());
+                                                                }
+                                                        }
+                                                });
                         }
+                        batch.execute();
                 }
 
-                System.out.println("Deleted " + deletedCount + " events for user " + userId);
-                return deletedCount;
+                return deletedIds;
         }
 
         /**
@@ -983,6 +1043,41 @@ public class GoogleCalendarApiService {
                 return createdEvents;
         }
 
+        /**
+         * Create many events with Google batch requests, {@value #MAX_BATCH_CALLS} calls per HTTP request.
+         * Returns the Google event ids in the order of the input, with {@code null} for events that failed.
+         */
+        public List<String> createEventsInBatch(String userId, List<EventData> eventDataList) throws IOException {
+                Calendar client = getCalendarClient(userId);
+                String[] createdIds = new String[eventDataList.size()];
+
+                for (int from = 0; from < eventDataList.size(); from += MAX_BATCH_CALLS) {
+                        BatchRequest batch = client.batch();
+                        for (int i = from; i < Math.min(from + MAX_BATCH_CALLS, eventDataList.size()); i++) {
+                                int index = i;
+                                client.events()
+                                                .insert(calendarId, toGoogleEvent(eventDataList.get(i)))
+                                                .queue(batch, new JsonBatchCallback<Event>() {
+                                                        @Override
+                                                        public void onSuccess(Event event, HttpHeaders responseHeaders) {
+                                                                createdIds[index] = event.getId();
+                                                        }
+
+                                                        @Override
+                                                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                                                                System.err.println("Failed to create event: " + eventDataList.get(index).title
+                                                                                + " for user " + userId + ": " + error.getMessage());
+                                                        }
+                                                });
+                        }
+                        batch.execute();
+                }
+
+                System.out.println("Created " + Arrays.stream(createdIds).filter(Objects::nonNull).count()
+                                + " of " + createdIds.length + " events in batch for user " + userId);
+                return Arrays.asList(createdIds);
+        }
+
         /**
          * Delete multiple events by IDs
          */
@@ -1047,6 +1142,9 @@ public class GoogleCalendarApiService {
                 public LocalDateTime startTime;
                 public LocalDateTime endTime;
                 public String type;
+                public boolean allDay;
+                // RRULE without the "RRULE:" prefix, null for single events
+                public String recurrenceRule;
 
                 public EventData(String title, String description,
                                 LocalDateTime startTime, LocalDateTime endTime) {
@@ -1070,6 +1168,43 @@ public class GoogleCalendarApiService {
                 }
         }
 
+        /**
+         * Build the Google event for batch creation, the same way the single create methods do
+         */
+        private Event toGoogleEvent(EventData data) {
+                Event event = new Event()
+                                .setSummary(data.title)
+                                .setDescription(data.description);
+
+                if (data.allDay) {
+                        LocalDateTime endDate = data.endTime != null && data.endTime.isAfter(data.startTime)
+                                        ? data.endTime
+                                        : data.startTime.plusDays(1);
+                        event.setStart(new EventDateTime().setDate(new DateTime(true,
+                                        data.startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), 0)));
+                        event.setEnd(new EventDateTime().setDate(new DateTime(true,
+                                        endDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), 0)));
+                } else {
+                        event.setStart(new EventDateTime()
+                                        .setDateTime(convertToDateTime(data.startTime))
+                                        .setTimeZone("UTC"));
+                        event.setEnd(new EventDateTime()
+                                        .setDateTime(convertToDateTime(data.endTime != null ? data.endTime : data.startTime))
+                                        .setTimeZone("UTC"));
+                }
+                if (data.recurrenceRule != null) {
+                        event.setRecurrence(List.of("RRULE:" + data.recurrenceRule));
+                }
+                if (data.type != null) {
+                        event.setColorId(defineColorId(data.type));
+                }
+
+                event.setReminders(new Event.Reminders()
+                                .setUseDefault(false)
+                                .setOverrides(new ArrayList<>()));
+                return event;
+        }
+
         /**
          * Convert LocalDateTime to Google DateTime
          */
@@ -0,0 +1,75 @@
+package com.flux.calendar_service.google;
+
+import com.flux.calendar_service.cache.GatewayCacheInvalidator;
+import com.flux.calendar_service.exceptions.GoogleCalendarDisabledException;
+import com.flux.calendar_service.job.Job;
+import com.flux.calendar_service.job.JobContext;
+import com.flux.calendar_service.job.JobHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes every event of a user's Google calendar in a date range, one batch request per page, and
+ * clears the link of local events whose Google copy is gone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GoogleEventsDeleteJobHandler implements JobHandler {
+    public static final String TYPE = "google.delete-range";
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String UNLINK_SQL = "UPDATE events SET google_calendar_id = NULL, sync_status = 'PENDING' " +
+            "WHERE calendar_id IN (SELECT id FROM calendars WHERE user_id = ?) AND google_calendar_id = ANY(?) " +
+            "RETURNING id, calendar_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Autowired(required = false)
+    private GoogleCalendarApiService googleCalendarApiService;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> run(Job job, JobContext context) throws IOException {
+        if (googleCalendarApiService == null) {
+            throw new GoogleCalendarDisabledException("Google Calendar integration is disabled");
+        }
+        String userId = job.getPayload().get("userId");
+        List<String> eventIds = googleCalendarApiService.getEventIdsByDateRange(userId,
+                LocalDateTime.parse(job.getPayload().get("start")), LocalDateTime.parse(job.getPayload().get("end")));
+        context.progress(0, eventIds.size());
+
+        int deleted = 0;
+        for (int from = 0; from < eventIds.size(); from += PAGE_SIZE) {
+            List<String> page = eventIds.subList(from, Math.min(from + PAGE_SIZE, eventIds.size()));
+            List<String> gone = googleCalendarApiService.deleteEventsInBatch(userId, page);
+            if (!gone.isEmpty()) {
+                // Plain JDBC skips the entity listener, so the cached event responses are dropped here
+                List<String> ids = new ArrayList<>(List.of("events", userId));
+                jdbcTemplate.query(UNLINK_SQL, (rs, rowNum) -> List.of(rs.getString("id"), rs.getString("calendar_id")),
+                        userId, gone.toArray(String[]::new)).forEach(ids::addAll);
+                gatewayCacheInvalidator.invalidate(ids);
+            }
+            deleted += gone.size();
+            context.progress(from + page.size(), eventIds.size());
+        }
+
+        log.info("Deleted {} of {} Google events of user {}", deleted, eventIds.size(), userId);
+        return Map.of("deleted", String.valueOf(deleted), "failed", String.valueOf(eventIds.size() - deleted));
+    }
+}
@@ -0,0 +1,47 @@
+package com.flux.calendar_service.grpc;
+
+import com.flux.calendar_service.calendar.CalendarService;
+import com.flux.calendar_service.grpc.v1.Calendar;
+import com.flux.calendar_service.grpc.v1.CalendarDataGrpc;
+import com.flux.calendar_service.grpc.v1.CalendarList;
+import com.flux.calendar_service.grpc.v1.CreateCalendarRequest;
+import com.flux.calendar_service.grpc.v1.CreatedId;
+import com.flux.calendar_service.grpc.v1.GetCalendarRequest;
+import com.flux.calendar_service.grpc.v1.GetCalendarsRequest;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * gRPC surface of {@link CalendarService}, sharing its validation and caches with the REST API.
+ */
+@Component
+@RequiredArgsConstructor
+public class CalendarGrpcService extends CalendarDataGrpc.CalendarDataImplBase {
+    private final CalendarService calendarService;
+    private final GrpcMapper grpcMapper;
+
+    @Override
+    public void getCalendar(GetCalendarRequest request, StreamObserver<Calendar> responseObserver) {
+        responseObserver.onNext(grpcMapper.toCalendar(calendarService.getCalendarById(request.getId())));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getCalendars(GetCalendarsRequest request, StreamObserver<CalendarList> responseObserver) {
+        CalendarList.Builder calendars = CalendarList.newBuilder();
+        calendarService.getCalendarsByIds(List.copyOf(request.getIdsList()))
+                .forEach(calendar -> calendars.addCalendars(grpcMapper.toCalendar(calendar)));
+        responseObserver.onNext(calendars.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void createCalendar(CreateCalendarRequest request, StreamObserver<CreatedId> responseObserver) {
+        String id = calendarService.createCalendar(grpcMapper.toCalendarRequest(request));
+        responseObserver.onNext(CreatedId.newBuilder().setId(id).build());
+        responseObserver.onCompleted();
+    }
+}
@@ -0,0 +1,215 @@
+package com.flux.calendar_service.grpc;
+
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventService;
+import com.flux.calendar_service.event.dto.EventRequest;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
+import com.flux.calendar_service.grpc.v1.CreateEventRequest;
+import com.flux.calendar_service.grpc.v1.CreatedId;
+import com.flux.calendar_service.grpc.v1.Event;
+import com.flux.calendar_service.grpc.v1.EventDataGrpc;
+import com.flux.calendar_service.grpc.v1.EventList;
+import com.flux.calendar_service.grpc.v1.EventRangeRequest;
+import com.flux.calendar_service.grpc.v1.GetEventRequest;
+import com.flux.calendar_service.grpc.v1.GetEventsRequest;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * gRPC surface of {@link EventService}. Single and bulk reads go through the service and its caches;
+ * range listings stream single events straight from a database cursor, one message per row, and only
+ * as fast as the client reads them. Recurring series are expanded in memory, as for the REST
+ * occurrences endpoint, and merged into the stream in start order.
+ */
+@Component
+@Slf4j
+public class EventGrpcService extends EventDataGrpc.EventDataImplBase {
+    private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final OccurrenceExpander occurrenceExpander;
+    private final GrpcMapper grpcMapper;
+    private final Validator validator;
+    // Explicit, because the gRPC runtime calls the service object directly rather than a Spring proxy
+    private final TransactionTemplate readOnlyTransaction;
+
+    public EventGrpcService(EventService eventService,
+                            EventRepository eventRepository,
+                            OccurrenceExpander occurrenceExpander,
+                            GrpcMapper grpcMapper,
+                            Validator validator,
+                            PlatformTransactionManager transactionManager) {
+        this.eventService = eventService;
+        this.eventRepository = eventRepository;
+        this.occurrenceExpander = occurrenceExpander;
+        this.grpcMapper = grpcMapper;
+        this.validator = validator;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void getEvent(GetEventRequest request, StreamObserver<Event> responseObserver) {
+        responseObserver.onNext(grpcMapper.toEvent(eventService.getEventById(request.getId())));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getEvents(GetEventsRequest request, StreamObserver<EventList> responseObserver) {
+        EventList.Builder events = EventList.newBuilder();
+        eventService.getEventsByIds(List.copyOf(request.getIdsList()))
+                .forEach(event -> events.addEvents(grpcMapper.toEvent(event)));
+        responseObserver.onNext(events.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void listEventsInRange(EventRangeRequest request, StreamObserver<Event> responseObserver) {
+        if (!request.hasStart() || !request.hasEnd()) {
+            throw new MustNotBeEmptyException("Range start and end are required");
+        }
+        LocalDateTime start = grpcMapper.toLocalDateTime(request.getStart());
+        LocalDateTime end = grpcMapper.toLocalDateTime(request.getEnd());
+        if (!start.isBefore(end)) {
+            throw new IncorrectTimeException("Range start must be before its end");
+        }
+
+        ServerCallStreamObserver<Event> call = (ServerCallStreamObserver<Event>) responseObserver;
+        Readiness readiness = new Readiness(call);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Iterator<EventRow> occurrences = occurrences(request, start, end).iterator();
+            try (Stream<EventRow> rows = singles(request, start, end)) {
+                Iterator<EventRow> singles = rows.iterator();
+                EventRow single = next(singles);
+                EventRow occurrence = next(occurrences);
+                while (single != null || occurrence != null) {
+                    if (!readiness.await()) {
+                        log.debug("Range listing cancelled by the client");
+                        return;
+                    }
+                    if (occurrence == null || (single != null && !single.startTime().isAfter(occurrence.startTime()))) {
+                        call.onNext(grpcMapper.toEvent(single));
+                        single = next(singles);
+                    } else {
+                        call.onNext(grpcMapper.toEvent(occurrence));
+                        occurrence = next(occurrences);
+                    }
+                }
+            }
+        });
+        if (!call.isCancelled()) {
+            call.onCompleted();
+        }
+    }
+
+    @Override
+    public void createEvent(CreateEventRequest request, StreamObserver<CreatedId> responseObserver) {
+        EventRequest eventRequest = grpcMapper.toEventRequest(request);
+        Set<ConstraintViolation<EventRequest>> violations = validator.validate(eventRequest);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        String id = eventService.createEvent(request.getCalendarId(), eventRequest);
+        responseObserver.onNext(CreatedId.newBuilder().setId(id).build());
+        responseObserver.onCompleted();
+    }
+
+    private Stream<EventRow> singles(EventRangeRequest request, LocalDateTime start, LocalDateTime end) {
+        return switch (request.getOwnerCase()) {
+            case CALENDAR_ID -> eventRepository.streamSingleByCalendarIdOverlapping(request.getCalendarId(), start, end);
+            case USER_ID -> eventRepository.streamSingleByUserIdOverlapping(request.getUserId(), start, end);
+            case OWNER_NOT_SET -> throw new MustNotBeEmptyException("Calendar ID or user ID is required");
+        };
+    }
+
+    // One row per occurrence in the window, with the columns of its series and its own title and times
+    private List<EventRow> occurrences(EventRangeRequest request, LocalDateTime start, LocalDateTime end) {
+        return switch (request.getOwnerCase()) {
+            case CALENDAR_ID -> expand(
+                    eventRepository.findRecurringByCalendarIdOverlapping(request.getCalendarId(), start, end), start, end);
+            case USER_ID -> expand(
+                    eventRepository.findRecurringByUserIdOverlapping(request.getUserId(), start, end), start, end);
+            case OWNER_NOT_SET -> throw new MustNotBeEmptyException("Calendar ID or user ID is required");
+        };
+    }
+
+    private List<EventRow> expand(List<com.flux.calendar_service.event.Event> series,
+                                  LocalDateTime start, LocalDateTime end) {
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        Map<String, EventRow> rows = series.stream().collect(Collectors.toMap(event -> event.getId(), EventRow::of));
+        return occurrenceExpander.expand(List.of(), series, start, end).stream()
+                .map(occurrence -> rows.get(occurrence.eventId()).withOccurrence(occurrence))
+                .toList();
+    }
+
+    private static EventRow next(Iterator<EventRow> rows) {
+        return rows.hasNext() ? rows.next() : null;
+    }
+
+    /**
+     * Holds the cursor back while the client's HTTP/2 flow-control window is full, instead of
+     * letting gRPC buffer the whole range in memory.
+     */
+    private static final class Readiness {
+        private final ServerCallStreamObserver<?> call;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+
+        Readiness(ServerCallStreamObserver<?> call) {
+            this.call = call;
+            call.setOnReadyHandler(this::signal);
+            call.setOnCancelHandler(this::signal);
+        }
+
+        /**
+         * False once the client has gone away.
+         */
+        boolean await() {
+            lock.lock();
+            try {
+                while (!call.isReady()) {
+                    if (call.isCancelled()) {
+                        return false;
+                    }
+                    ready.await(100, TimeUnit.MILLISECONDS);
+                }
+                return !call.isCancelled();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void signal() {
+            lock.lock();
+            try {
+                ready.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.flux.calendar_service.grpc;
+
+import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.EventType;
+import com.flux.calendar_service.event.SyncStatus;
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of an event sent by the streamed range listing, without its associations. Times are in
+ * the local time of the calendar.
+ */
+public record EventRow(
+                String id,
+                String calendarId,
+                String title,
+                String description,
+                String colorHex,
+                EventType type,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                boolean allDay,
+                EventStatus status,
+                SyncStatus syncStatus,
+                String recurrenceRule,
+                LocalDateTime createdAt,
+                LocalDateTime updatedAt) {
+
+    public static EventRow of(Event event) {
+        return new EventRow(event.getId(), event.getCalendar().getId(), event.getTitle(), event.getDescription(),
+                event.getColorHex(), event.getType(), event.getStartTime(), event.getEndTime(), event.isAllDay(),
+                event.getStatus(), event.getSyncStatus(), event.getRecurrenceRule(),
+                event.getCreatedAt(), event.getUpdatedAt());
+    }
+
+    /**
+     * This series row as one of its occurrences, which may have its own title and times.
+     */
+    public EventRow withOccurrence(EventOccurrenceResponse occurrence) {
+        return new EventRow(id, calendarId, occurrence.title(), description, colorHex, type,
+                occurrence.startTime(), occurrence.endTime(), allDay, status, syncStatus, recurrenceRule,
+                createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,45 @@
+package com.flux.calendar_service.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Requires the same bearer token on gRPC calls as the REST API does on requests, checked by the
+ * same (caching) {@link JwtDecoder}.
+ */
+@Component
+@RequiredArgsConstructor
+public class GrpcAuthInterceptor implements ServerInterceptor {
+    static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+    private static final String BEARER = "Bearer ";
+
+    private final JwtDecoder jwtDecoder;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String authorization = headers.get(AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return reject(call, "Missing bearer token");
+        }
+        try {
+            jwtDecoder.decode(authorization.substring(BEARER.length()));
+        } catch (JwtException e) {
+            return reject(call, "Invalid bearer token");
+        }
+        return next.startCall(call, headers);
+    }
+
+    private static <ReqT, RespT> ServerCall.Listener<ReqT> reject(ServerCall<ReqT, RespT> call, String description) {
+        call.close(Status.UNAUTHENTICATED.withDescription(description), new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    }
+}
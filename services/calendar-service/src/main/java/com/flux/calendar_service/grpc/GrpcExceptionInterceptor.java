@@ -0,0 +1,79 @@
+package com.flux.calendar_service.grpc;
+
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.exceptions.EmptyCalendarsException;
+import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import com.flux.calendar_service.exceptions.InvalidRecurrenceRuleException;
+import com.flux.calendar_service.exceptions.MustBeUniqueException;
+import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * The gRPC counterpart of {@code GlobalExceptionHandler}: turns exceptions thrown by the services
+ * into the status codes closest to the HTTP statuses the REST API answers with.
+ */
+@Component
+@Slf4j
+public class GrpcExceptionInterceptor implements ServerInterceptor {
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        ServerCall.Listener<ReqT> listener = next.startCall(call, headers);
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                try {
+                    super.onMessage(message);
+                } catch (RuntimeException e) {
+                    close(call, e);
+                }
+            }
+
+            // Unary and server-streaming handlers run here, once the request message is complete
+            @Override
+            public void onHalfClose() {
+                try {
+                    super.onHalfClose();
+                } catch (RuntimeException e) {
+                    close(call, e);
+                }
+            }
+        };
+    }
+
+    static Status toStatus(Throwable e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException.getStatus();
+        }
+        if (e instanceof NotFoundException || e instanceof EmptyCalendarsException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage());
+        }
+        if (e instanceof MustBeUniqueException || e instanceof MustNotBeEmptyException
+                || e instanceof IncorrectTimeException || e instanceof InvalidRecurrenceRuleException
+                || e instanceof ConflictException || e instanceof ConstraintViolationException
+                || e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+        }
+        log.error("Unhandled exception in gRPC call", e);
+        return Status.INTERNAL.withDescription(e.getMessage());
+    }
+
+    private static void close(ServerCall<?, ?> call, RuntimeException e) {
+        try {
+            call.close(toStatus(e), new Metadata());
+        } catch (IllegalStateException alreadyClosed) {
+            log.debug("gRPC call already closed when {} was thrown", e.getClass().getSimpleName());
+        }
+    }
+}
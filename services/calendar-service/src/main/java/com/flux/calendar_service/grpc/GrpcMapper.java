@@ -0,0 +1,142 @@
+package com.flux.calendar_service.grpc;
+
+import com.flux.calendar_service.calendar.dto.CalendarRequest;
+import com.flux.calendar_service.calendar.dto.CalendarResponse;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.EventType;
+import com.flux.calendar_service.event.dto.EventRequest;
+import com.flux.calendar_service.event.dto.EventResponse;
+import com.flux.calendar_service.grpc.v1.Calendar;
+import com.flux.calendar_service.grpc.v1.CreateCalendarRequest;
+import com.flux.calendar_service.grpc.v1.CreateEventRequest;
+import com.flux.calendar_service.grpc.v1.Event;
+import com.google.protobuf.Timestamp;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Converts between the REST DTOs and the protobuf messages of the gRPC API. Local times go into a
+ * {@link Timestamp} as if they were UTC, and empty strings stand for null.
+ */
+@Service
+public class GrpcMapper {
+
+    public Event toEvent(EventResponse response) {
+        Event.Builder event = Event.newBuilder()
+                .setId(response.id())
+                .setTitle(orEmpty(response.title()))
+                .setDescription(orEmpty(response.description()))
+                .setColorHex(orEmpty(response.colorHex()))
+                .setType(name(response.type()))
+                .setAllDay(response.allDay())
+                .setStatus(name(response.status()))
+                .setSyncStatus(name(response.syncStatus()))
+                .setRecurrenceRule(orEmpty(response.recurrenceRule()));
+        if (response.calendar() != null) {
+            event.setCalendarId(response.calendar().id());
+        }
+        setTimes(event, response.startTime(), response.endTime(), response.createdAt(), response.updatedAt());
+        return event.build();
+    }
+
+    public Event toEvent(EventRow row) {
+        Event.Builder event = Event.newBuilder()
+                .setId(row.id())
+                .setCalendarId(row.calendarId())
+                .setTitle(orEmpty(row.title()))
+                .setDescription(orEmpty(row.description()))
+                .setColorHex(orEmpty(row.colorHex()))
+                .setType(name(row.type()))
+                .setAllDay(row.allDay())
+                .setStatus(name(row.status()))
+                .setSyncStatus(name(row.syncStatus()))
+                .setRecurrenceRule(orEmpty(row.recurrenceRule()));
+        setTimes(event, row.startTime(), row.endTime(), row.createdAt(), row.updatedAt());
+        return event.build();
+    }
+
+    public EventRequest toEventRequest(CreateEventRequest request) {
+        return new EventRequest(
+                request.getTitle(),
+                request.getDescription(),
+                request.getColorHex(),
+                request.getType().isEmpty() ? null : EventType.valueOf(request.getType()),
+                null,
+                request.hasStartTime() ? toLocalDateTime(request.getStartTime()) : null,
+                request.hasEndTime() ? toLocalDateTime(request.getEndTime()) : null,
+                request.getAllDay(),
+                request.getStatus().isEmpty() ? null : EventStatus.valueOf(request.getStatus()),
+                null,
+                null,
+                emptyToNull(request.getRecurrenceRule()));
+    }
+
+    public Calendar toCalendar(CalendarResponse response) {
+        Calendar.Builder calendar = Calendar.newBuilder()
+                .setId(response.id())
+                .setUserId(orEmpty(response.userId()))
+                .setTitle(orEmpty(response.title()))
+                .setDescription(orEmpty(response.description()))
+                .setColorHex(orEmpty(response.colorHex()))
+                .setTimezone(orEmpty(response.timezone()))
+                .setPrimary(response.isPrimary());
+        if (response.createdAt() != null) {
+            calendar.setCreatedAt(toTimestamp(response.createdAt()));
+        }
+        if (response.updatedAt() != null) {
+            calendar.setUpdatedAt(toTimestamp(response.updatedAt()));
+        }
+        return calendar.build();
+    }
+
+    public CalendarRequest toCalendarRequest(CreateCalendarRequest request) {
+        return new CalendarRequest(
+                request.getUserId(),
+                request.getTitle(),
+                emptyToNull(request.getDescription()),
+                emptyToNull(request.getColorHex()),
+                request.getTimezone(),
+                request.getPrimary());
+    }
+
+    public Timestamp toTimestamp(LocalDateTime time) {
+        return Timestamp.newBuilder()
+                .setSeconds(time.toEpochSecond(ZoneOffset.UTC))
+                .setNanos(time.getNano())
+                .build();
+    }
+
+    public LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC);
+    }
+
+    private void setTimes(Event.Builder event, LocalDateTime start, LocalDateTime end,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        if (start != null) {
+            event.setStartTime(toTimestamp(start));
+        }
+        if (end != null) {
+            event.setEndTime(toTimestamp(end));
+        }
+        if (createdAt != null) {
+            event.setCreatedAt(toTimestamp(createdAt));
+        }
+        if (updatedAt != null) {
+            event.setUpdatedAt(toTimestamp(updatedAt));
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? "" : value.name();
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
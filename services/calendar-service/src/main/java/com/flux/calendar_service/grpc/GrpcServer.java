@@ -0,0 +1,95 @@
+package com.flux.calendar_service.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the internal gRPC API over HTTP/2 on its own port, next to the servlet container. Each
+ * client connection carries many concurrent calls, so other services keep one channel per instance
+ * instead of a pool of HTTP/1.1 connections. The port is published in the Eureka metadata as
+ * {@code grpc-port}.
+ */
+@Component
+@ConditionalOnProperty(name = "grpc.server.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class GrpcServer implements SmartLifecycle {
+    private final Server server;
+    // Calls block on JDBC, so they run on virtual threads rather than the Netty event loops
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int port;
+    private final long shutdownGraceMs;
+    private volatile boolean running;
+
+    public GrpcServer(List<BindableService> services,
+                      GrpcAuthInterceptor authInterceptor,
+                      GrpcExceptionInterceptor exceptionInterceptor,
+                      @Value("${grpc.server.port:9090}") int port,
+                      @Value("${grpc.server.max-concurrent-calls-per-connection:256}") int maxConcurrentCalls,
+                      @Value("${grpc.server.flow-control-window-bytes:1048576}") int flowControlWindow,
+                      @Value("${grpc.server.max-inbound-message-bytes:4194304}") int maxInboundMessageSize,
+                      @Value("${grpc.server.shutdown-grace-ms:10000}") long shutdownGraceMs) {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .maxConcurrentCallsPerConnection(maxConcurrentCalls)
+                .flowControlWindow(flowControlWindow)
+                .maxInboundMessageSize(maxInboundMessageSize)
+                .keepAliveTime(30, TimeUnit.SECONDS)
+                .permitKeepAliveTime(10, TimeUnit.SECONDS)
+                .permitKeepAliveWithoutCalls(true);
+        // The last interceptor runs first: authenticate, then map exceptions of the handler
+        services.forEach(service -> builder.addService(
+                ServerInterceptors.intercept(service, exceptionInterceptor, authInterceptor)));
+        this.server = builder.build();
+        this.port = port;
+        this.shutdownGraceMs = shutdownGraceMs;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + port, e);
+        }
+        running = true;
+        log.info("gRPC server listening on port {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(shutdownGraceMs, TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+}
@@ -15,6 +15,8 @@ import com.flux.calendar_service.exceptions.EmptyCalendarsException;
 import com.flux.calendar_service.exceptions.GoogleCalendarDisabledException;
 import com.flux.calendar_service.exceptions.GoogleCalendarSyncFailedException;
 import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import com.flux.calendar_service.exceptions.InvalidIcsFileException;
+import com.flux.calendar_service.exceptions.InvalidRecurrenceRuleException;
 import com.flux.calendar_service.exceptions.MinIoBucketInitializingErrorException;
 import com.flux.calendar_service.exceptions.MinIoDeleteErrorException;
 import com.flux.calendar_service.exceptions.MinIoRetrievingErrorException;
@@ -22,6 +24,7 @@ import com.flux.calendar_service.exceptions.MinIoUploadingErrorException;
 import com.flux.calendar_service.exceptions.MustBeUniqueException;
 import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
 import com.flux.calendar_service.exceptions.RemoveGoogleMeetFailedException;
+import com.flux.calendar_service.exceptions.RequestLimitExceededException;
 import com.flux.calendar_service.exceptions.SomethingWentWrongException;
 import com.flux.calendar_service.exceptions.ZoomCredentionalsNotFullyConfiguredException;
 import com.flux.calendar_service.exceptions.ZoomMeetingFailedException;
@@ -88,6 +91,33 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(errors));
     }
 
+    @ExceptionHandler(InvalidRecurrenceRuleException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRecurrenceRuleException(InvalidRecurrenceRuleException exp) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", exp.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(errors));
+    }
+
+    @ExceptionHandler(InvalidIcsFileException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIcsFileException(InvalidIcsFileException exp) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", exp.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(errors));
+    }
+
+    @ExceptionHandler(RequestLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRequestLimitExceededException(RequestLimitExceededException exp) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", exp.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(errors));
+    }
+
     @ExceptionHandler(GoogleCalendarDisabledException.class) 
     public ResponseEntity<ErrorResponse> handleGoogleCalendarDisabledException(GoogleCalendarDisabledException exp) {
         Map<String, String> errors = new HashMap<>();
@@ -0,0 +1,26 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.event.EventStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of an event needed for an iCalendar export. Times are in the local time of the calendar.
+ */
+public record IcsEventRow(
+                String id,
+                String icalUid,
+                String title,
+                String description,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                boolean allDay,
+                String recurrenceRule,
+                EventStatus status,
+                LocalDateTime createdAt,
+                LocalDateTime updatedAt,
+                String placeName,
+                String streetAddress,
+                String city,
+                String country) {
+}
@@ -0,0 +1,15 @@
+package com.flux.calendar_service.ics;
+
+import java.time.LocalDateTime;
+
+/**
+ * A cancelled or overridden occurrence of a recurring event, as written to an iCalendar export.
+ */
+public record IcsExceptionRow(
+                String eventId,
+                LocalDateTime originalStartTime,
+                boolean cancelled,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                String title) {
+}
@@ -0,0 +1,65 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.job.Job;
+import com.flux.calendar_service.job.JobContext;
+import com.flux.calendar_service.job.JobHandler;
+import com.flux.calendar_service.job.JobService;
+import com.flux.calendar_service.storage.MinioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes a calendar export to object storage. The file is spooled to local disk first so the event
+ * cursor is not held open while the upload waits on the network.
+ */
+@Component
+@RequiredArgsConstructor
+public class IcsExportJobHandler implements JobHandler {
+    public static final String TYPE = "calendar.export";
+
+    private final IcsExportService icsExportService;
+    private final EventRepository eventRepository;
+    private final MinioService minioService;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Map<String, String> run(Job job, JobContext context) throws IOException {
+        String calendarId = job.getPayload().get("calendarId");
+        String fileName = job.getPayload().get("fileName");
+        long total = eventRepository.countByCalendarId(calendarId);
+        context.progress(0, total);
+
+        Path file = Files.createTempFile("calendar-export-", ".ics");
+        try {
+            long count;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                count = icsExportService.exportCalendar(calendarId, out,
+                        written -> context.progress(written, Math.max(total, written)));
+            }
+            MinioService.StoredObject stored;
+            try (InputStream in = Files.newInputStream(file)) {
+                stored = minioService.uploadStream(in, fileName, "text/calendar");
+            }
+            return Map.of(
+                    JobService.RESULT_OBJECT_NAME, stored.objectName(),
+                    "fileName", fileName,
+                    "events", String.valueOf(count),
+                    "sizeBytes", String.valueOf(stored.size()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
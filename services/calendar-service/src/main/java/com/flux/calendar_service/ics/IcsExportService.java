@@ -0,0 +1,122 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.job.JobService;
+import com.flux.calendar_service.job.dto.JobResponse;
+import jakarta.ws.rs.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exports a calendar as an iCalendar file. Events are read through a database cursor and written as
+ * they arrive, so memory use does not depend on the size of the calendar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IcsExportService {
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final CalendarRepository calendarRepository;
+    private final EventRepository eventRepository;
+    private final OccurrenceExceptionRepository occurrenceExceptionRepository;
+    private final JobService jobService;
+
+    @Value("${ics.export.buffer-size:65536}")
+    private int bufferSize;
+
+    @Transactional(readOnly = true)
+    public String getExportFileName(String calendarId) {
+        Calendar calendar = findCalendar(calendarId);
+        String title = calendar.getTitle() == null ? "" : calendar.getTitle().replaceAll("[\\\\/:*?\"<>|\\r\\n]", "_").trim();
+        return (title.isEmpty() ? "calendar" : title) + ".ics";
+    }
+
+    /**
+     * Writes the calendar to {@code out} and returns the number of events. The event cursor lives as
+     * long as this transaction, so it has to run on the thread that writes the response.
+     */
+    @Transactional(readOnly = true)
+    public long exportCalendar(String calendarId, OutputStream out) throws IOException {
+        return exportCalendar(calendarId, out, written -> {
+        });
+    }
+
+    /**
+     * Same as {@link #exportCalendar(String, OutputStream)}, reporting the number of events written
+     * every {@value #PROGRESS_INTERVAL} events.
+     */
+    @Transactional(readOnly = true)
+    public long exportCalendar(String calendarId, OutputStream out, LongConsumer onProgress) throws IOException {
+        Calendar calendar = findCalendar(calendarId);
+        // Only series have exceptions, and there are few of them compared to events
+        Map<String, List<IcsExceptionRow>> exceptions = occurrenceExceptionRepository
+                .findExportRowsByCalendarId(calendarId).stream()
+                .collect(Collectors.groupingBy(IcsExceptionRow::eventId));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+        IcsWriter ics = new IcsWriter(writer, calendarZone(calendar), Instant.now());
+        ics.beginCalendar(calendar.getTitle(), calendar.getDescription());
+
+        long count = 0;
+        try (Stream<IcsEventRow> events = eventRepository.streamForExport(calendarId)) {
+            for (Iterator<IcsEventRow> iterator = events.iterator(); iterator.hasNext(); count++) {
+                IcsEventRow event = iterator.next();
+                ics.event(event, exceptions.getOrDefault(event.id(), List.of()));
+                if ((count + 1) % PROGRESS_INTERVAL == 0) {
+                    onProgress.accept(count + 1);
+                }
+            }
+        }
+        ics.endCalendar();
+
+        log.info("Exported {} events of calendar {}", count, calendarId);
+        return count;
+    }
+
+    /**
+     * Queues an export to object storage for calendars too large to download in one request, see
+     * IcsExportJobHandler.
+     */
+    @Transactional
+    public JobResponse startExport(String calendarId) {
+        String fileName = getExportFileName(calendarId);
+        return jobService.submit(IcsExportJobHandler.TYPE, Map.of("calendarId", calendarId, "fileName", fileName));
+    }
+
+    private Calendar findCalendar(String calendarId) {
+        return calendarRepository.findCalendarByIdAndIsDeletedFalse(calendarId)
+                .orElseThrow(() -> new NotFoundException("Calendar with ID " + calendarId + " not found"));
+    }
+
+    private ZoneId calendarZone(Calendar calendar) {
+        try {
+            return ZoneId.of(calendar.getTimezone());
+        } catch (DateTimeException | NullPointerException e) {
+            log.warn("Calendar {} has an invalid timezone '{}', exporting in UTC", calendar.getId(), calendar.getTimezone());
+            return ZoneId.of("UTC");
+        }
+    }
+}
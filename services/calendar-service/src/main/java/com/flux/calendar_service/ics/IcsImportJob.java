@@ -0,0 +1,88 @@
+package com.flux.calendar_service.ics;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * An uploaded .ics file and the progress of its import. Once created the row is only changed through
+ * SQL by {@link IcsImportWorker}, so counters written by the batches are never overwritten.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ics_import_jobs")
+@EntityListeners(AuditingEntityListener.class)
+public class IcsImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "calendar_id", nullable = false)
+    private String calendarId;
+
+    @Column(name = "object_name", nullable = false, length = 512)
+    private String objectName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "bytes_read", nullable = false)
+    private long bytesRead;
+
+    @Column(name = "sync_to_google", nullable = false)
+    private boolean syncToGoogle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private IcsImportStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "events_inserted", nullable = false)
+    private int eventsInserted;
+
+    @Column(name = "events_updated", nullable = false)
+    private int eventsUpdated;
+
+    @Column(name = "exceptions_written", nullable = false)
+    private int exceptionsWritten;
+
+    @Column(name = "tasks_written", nullable = false)
+    private int tasksWritten;
+
+    // Components that could not be mapped, e.g. events without a start or tasks without an event
+    @Column(name = "skipped", nullable = false)
+    private int skipped;
+
+    @Column(name = "google_synced", nullable = false)
+    private int googleSynced;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    // Heartbeat of the worker processing the job, refreshed with every batch
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,11 @@
+package com.flux.calendar_service.ics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface IcsImportJobRepository extends JpaRepository<IcsImportJob, String> {
+    boolean existsByCalendarIdAndStatusIn(String calendarId, Collection<IcsImportStatus> statuses);
+}
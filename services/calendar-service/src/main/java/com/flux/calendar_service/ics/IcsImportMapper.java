@@ -0,0 +1,238 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.recurrence.RecurrenceRule;
+import com.flux.calendar_service.exceptions.InvalidRecurrenceRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maps parsed components to import rows. Times are converted to the local time of the target
+ * calendar, which is how events created through the API are stored.
+ */
+final class IcsImportMapper {
+    static final int MAX_UID_LENGTH = 512;
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final ZoneId zone;
+    // TZIDs repeat on every event, and unknown ones would otherwise be resolved over and over
+    private final Map<String, ZoneId> zones = new HashMap<>();
+
+    IcsImportMapper(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Maps a VEVENT. Throws {@link DateTimeException} when its dates cannot be read; recurrence rules
+     * that are not supported locally only import the first occurrence.
+     */
+    IcsImportedEvent toEvent(IcsReader.Component component) {
+        IcsReader.Property dtStart = component.first("DTSTART");
+        if (dtStart == null) {
+            throw new DateTimeException("VEVENT without DTSTART");
+        }
+        boolean allDay = isDate(dtStart);
+        LocalDateTime start = time(dtStart.value(), dtStart);
+
+        LocalDateTime end = null;
+        IcsReader.Property dtEnd = component.first("DTEND");
+        String duration = component.value("DURATION");
+        if (dtEnd != null) {
+            end = time(dtEnd.value(), dtEnd);
+        } else if (duration != null) {
+            end = start.plus(duration(duration));
+        } else if (allDay) {
+            end = start.plusDays(1);
+        }
+        if (end != null && end.isBefore(start)) {
+            end = null;
+        }
+
+        IcsReader.Property recurrenceIdProperty = component.first("RECURRENCE-ID");
+        LocalDateTime recurrenceId = recurrenceIdProperty != null
+                ? time(recurrenceIdProperty.value(), recurrenceIdProperty) : null;
+
+        String recurrenceRule = null;
+        LocalDateTime recurrenceEnd = null;
+        String rrule = component.value("RRULE");
+        if (rrule != null && recurrenceId == null) {
+            try {
+                RecurrenceRule rule = RecurrenceRule.parse(rrule, zone);
+                recurrenceRule = rule.toString();
+                recurrenceEnd = rule.seriesEnd(start, end);
+            } catch (InvalidRecurrenceRuleException e) {
+                // Imported as a single event rather than dropped
+            }
+        }
+
+        List<LocalDateTime> exdates = new ArrayList<>();
+        if (recurrenceRule != null) {
+            for (IcsReader.Property exdate : component.all("EXDATE")) {
+                for (String value : exdate.value().split(",")) {
+                    exdates.add(time(value, exdate));
+                }
+            }
+        }
+
+        return new IcsImportedEvent(
+                uid(component),
+                recurrenceId,
+                text(component.value("SUMMARY"), "(No title)"),
+                description(component.value("DESCRIPTION")),
+                optionalText(component.value("LOCATION")),
+                start,
+                end,
+                allDay,
+                recurrenceRule,
+                recurrenceEnd,
+                status(component.value("STATUS")),
+                exdates);
+    }
+
+    /**
+     * Maps a VTODO, or returns {@code null} when it is not related to an event.
+     */
+    IcsImportedTask toTask(IcsReader.Component component) {
+        IcsReader.Property related = component.first("RELATED-TO");
+        if (related == null || related.value().isBlank()
+                || (related.parameter("RELTYPE") != null && !"PARENT".equalsIgnoreCase(related.parameter("RELTYPE")))) {
+            return null;
+        }
+        boolean done = "COMPLETED".equalsIgnoreCase(component.value("STATUS")) || component.first("COMPLETED") != null;
+        return new IcsImportedTask(
+                uid(component),
+                limitUid(IcsReader.unescape(related.value().trim())),
+                text(component.value("SUMMARY"), "(No title)"),
+                done);
+    }
+
+    private LocalDateTime time(String value, IcsReader.Property property) {
+        String trimmed = value.trim();
+        if (trimmed.length() == 8 || "DATE".equalsIgnoreCase(property.parameter("VALUE"))) {
+            return LocalDate.parse(trimmed.length() > 8 ? trimmed.substring(0, 8) : trimmed, DATE).atStartOfDay();
+        }
+        if (trimmed.endsWith("Z") || trimmed.endsWith("z")) {
+            return LocalDateTime.parse(trimmed.substring(0, trimmed.length() - 1), LOCAL)
+                    .atOffset(ZoneOffset.UTC)
+                    .atZoneSameInstant(zone)
+                    .toLocalDateTime();
+        }
+
+        LocalDateTime local = LocalDateTime.parse(trimmed, LOCAL);
+        String tzid = property.parameter("TZID");
+        if (tzid == null) {
+            // Floating time, the same wall clock time in every zone
+            return local;
+        }
+        ZoneId source = zones.computeIfAbsent(tzid, this::resolveZone);
+        return source.equals(zone) ? local : local.atZone(source).withZoneSameInstant(zone).toLocalDateTime();
+    }
+
+    /**
+     * Resolves a TZID to a JDK zone. Some producers prefix the IANA name (e.g.
+     * "/mozilla.org/20070129_1/Europe/Berlin"), so shorter suffixes are tried as well. Names that are
+     * not IANA zones at all fall back to the calendar's zone.
+     */
+    private ZoneId resolveZone(String tzid) {
+        String candidate = tzid.trim();
+        while (true) {
+            try {
+                return ZoneId.of(candidate);
+            } catch (DateTimeException e) {
+                int slash = candidate.indexOf('/', 1);
+                if (slash < 0) {
+                    return zone;
+                }
+                candidate = candidate.substring(slash + 1);
+            }
+        }
+    }
+
+    private static boolean isDate(IcsReader.Property property) {
+        return "DATE".equalsIgnoreCase(property.parameter("VALUE")) || property.value().trim().length() == 8;
+    }
+
+    static Duration duration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.startsWith("-")) {
+            throw new DateTimeException("Negative DURATION " + value);
+        }
+        if (trimmed.startsWith("+")) {
+            trimmed = trimmed.substring(1);
+        }
+        // java.time durations have no weeks
+        if (trimmed.endsWith("W")) {
+            return Duration.ofDays(7 * Long.parseLong(trimmed.substring(1, trimmed.length() - 1)));
+        }
+        return Duration.parse(trimmed);
+    }
+
+    private static EventStatus status(String status) {
+        if ("CANCELLED".equalsIgnoreCase(status)) {
+            return EventStatus.CANCELLED;
+        }
+        return "TENTATIVE".equalsIgnoreCase(status) ? EventStatus.POSTPONED : EventStatus.NOTSTARTED;
+    }
+
+    /**
+     * UID of the component. Components without one get a UID derived from their content, so that a
+     * re-import still matches them.
+     */
+    private static String uid(IcsReader.Component component) {
+        String uid = component.value("UID");
+        if (uid == null || uid.isBlank()) {
+            String key = component.value("DTSTART") + "\n" + component.value("SUMMARY") + "\n" + component.value("DESCRIPTION");
+            return "flux-import-" + UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return limitUid(IcsReader.unescape(uid.trim()));
+    }
+
+    private static String limitUid(String uid) {
+        if (uid.length() <= MAX_UID_LENGTH) {
+            return uid;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(uid.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String text(String value, String fallback) {
+        String text = optionalText(value);
+        return text != null ? text : fallback;
+    }
+
+    private static String optionalText(String value) {
+        String text = IcsReader.unescape(value);
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        text = text.strip();
+        return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+    }
+
+    private static String description(String value) {
+        String text = IcsReader.unescape(value);
+        return text != null ? text : "";
+    }
+}
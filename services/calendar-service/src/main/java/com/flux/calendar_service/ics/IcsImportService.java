@@ -0,0 +1,119 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.exceptions.InvalidIcsFileException;
+import com.flux.calendar_service.ics.dto.IcsImportJobResponse;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.ws.rs.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Accepts .ics uploads for import. The file is streamed to object storage and a job is queued for
+ * {@link IcsImportWorker}, so the request returns as soon as the upload is stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IcsImportService {
+    private static final Set<IcsImportStatus> ACTIVE = EnumSet.of(
+            IcsImportStatus.QUEUED, IcsImportStatus.RUNNING, IcsImportStatus.SYNCING);
+    private static final byte[] CALENDAR_HEADER = "BEGIN:VCALENDAR".getBytes(StandardCharsets.US_ASCII);
+
+    private final CalendarRepository calendarRepository;
+    private final IcsImportJobRepository importJobRepository;
+    private final MinioService minioService;
+
+    public IcsImportJobResponse startImport(String calendarId, InputStream body, boolean syncToGoogle) throws IOException {
+        calendarRepository.findCalendarByIdAndIsDeletedFalse(calendarId)
+                .orElseThrow(() -> new NotFoundException("Calendar with ID " + calendarId + " not found"));
+        if (importJobRepository.existsByCalendarIdAndStatusIn(calendarId, ACTIVE)) {
+            throw new ConflictException("An import into calendar " + calendarId + " is already running");
+        }
+
+        BufferedInputStream in = new BufferedInputStream(body, 8192);
+        requireCalendarHeader(in);
+        MinioService.StoredObject stored = minioService.uploadStream(in, "import-" + calendarId + ".ics", "text/calendar");
+
+        IcsImportJob job = IcsImportJob.builder()
+                .calendarId(calendarId)
+                .objectName(stored.objectName())
+                .sizeBytes(stored.size())
+                .syncToGoogle(syncToGoogle)
+                .status(IcsImportStatus.QUEUED)
+                .build();
+        try {
+            job = importJobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            // Another import of the calendar was queued while this file was uploading
+            minioService.deleteFile(stored.objectName());
+            throw new ConflictException("An import into calendar " + calendarId + " is already running");
+        }
+
+        log.info("Queued import {} of {} bytes into calendar {}", job.getId(), stored.size(), calendarId);
+        return toResponse(job);
+    }
+
+    public IcsImportJobResponse getImportJob(String jobId) {
+        return importJobRepository.findById(jobId)
+                .map(IcsImportService::toResponse)
+                .orElseThrow(() -> new NotFoundException("Import job with ID " + jobId + " not found"));
+    }
+
+    /**
+     * Rejects bodies that are not iCalendar data before anything is stored. A byte order mark and
+     * leading blank lines are allowed.
+     */
+    private static void requireCalendarHeader(BufferedInputStream in) throws IOException {
+        in.mark(64);
+        byte[] head = in.readNBytes(64);
+        in.reset();
+
+        int start = 0;
+        if (head.length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+            start = 3;
+        }
+        while (start < head.length && Character.isWhitespace(head[start])) {
+            start++;
+        }
+        if (head.length - start < CALENDAR_HEADER.length) {
+            throw new InvalidIcsFileException("Body is not an iCalendar file");
+        }
+        for (int i = 0; i < CALENDAR_HEADER.length; i++) {
+            if (Character.toUpperCase(head[start + i]) != CALENDAR_HEADER[i]) {
+                throw new InvalidIcsFileException("Body is not an iCalendar file");
+            }
+        }
+    }
+
+    private static IcsImportJobResponse toResponse(IcsImportJob job) {
+        int percent = job.getStatus() == IcsImportStatus.COMPLETED ? 100
+                : job.getSizeBytes() > 0 ? (int) Math.min(99, job.getBytesRead() * 100 / job.getSizeBytes()) : 0;
+        return new IcsImportJobResponse(
+                job.getId(),
+                job.getCalendarId(),
+                job.getStatus(),
+                job.getSizeBytes(),
+                job.getBytesRead(),
+                percent,
+                job.getEventsInserted(),
+                job.getEventsUpdated(),
+                job.getExceptionsWritten(),
+                job.getTasksWritten(),
+                job.getSkipped(),
+                job.getGoogleSynced(),
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getFinishedAt());
+    }
+}
@@ -0,0 +1,9 @@
+package com.flux.calendar_service.ics;
+
+public enum IcsImportStatus {
+    QUEUED,
+    RUNNING,
+    SYNCING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,297 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.google.GoogleCalendarApiService;
+import com.flux.calendar_service.job.ClaimQueue;
+import com.flux.calendar_service.storage.CountingInputStream;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs queued .ics imports. For each job the file is parsed on a worker thread into batches that go
+ * through a bounded queue to a writer thread, so parsing and database round trips overlap while a
+ * slow database holds the parser back instead of filling the heap. Jobs are claimed through a
+ * {@link ClaimQueue}, whose threads do the parsing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "ics.import.enabled", havingValue = "true", matchIfMissing = true)
+public class IcsImportWorker {
+    // One page of imported events fills one Google batch request
+    static final int GOOGLE_PAGE_SIZE = 50;
+
+    private static final String CLAIM_SQL = "UPDATE ics_import_jobs " +
+            "SET status = 'RUNNING', locked_at = now(), attempts = attempts + 1, bytes_read = 0, " +
+            "events_inserted = 0, events_updated = 0, exceptions_written = 0, tasks_written = 0, skipped = 0, " +
+            "google_synced = 0, updated_at = now() " +
+            "WHERE id IN (SELECT id FROM ics_import_jobs WHERE status = 'QUEUED' " +
+            "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, attempts";
+
+    // Imports are idempotent, so a job whose worker died is simply started again
+    private static final String RECOVER_SQL = "UPDATE ics_import_jobs " +
+            "SET status = 'QUEUED', locked_at = NULL, updated_at = now() " +
+            "WHERE status IN ('RUNNING', 'SYNCING') AND locked_at < ?";
+
+    // Status changes match the claiming attempt, so a worker that lost its job cannot end the restarted one
+    private static final String SYNCING_SQL = "UPDATE ics_import_jobs SET status = 'SYNCING', locked_at = now(), " +
+            "updated_at = now() WHERE id = ? AND attempts = ?";
+
+    private static final String FINISH_SQL = "UPDATE ics_import_jobs SET status = ?, last_error = ?, locked_at = NULL, " +
+            "finished_at = now(), updated_at = now() WHERE id = ? AND attempts = ?";
+
+    private static final IcsImportBatch END = new IcsImportBatch(List.of(), List.of(), List.of(), 0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IcsImportJobRepository importJobRepository;
+    private final CalendarRepository calendarRepository;
+    private final IcsImportWriter importWriter;
+    private final MinioService minioService;
+
+    @Autowired(required = false)
+    private GoogleCalendarApiService googleCalendarApiService;
+
+    @Value("${ics.import.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${ics.import.batch-size:2000}")
+    private int batchSize;
+
+    // Batches parsed ahead of the writer; bounds the memory of a running import
+    @Value("${ics.import.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${ics.import.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${ics.import.stale-after-minutes:10}")
+    private long staleAfterMinutes;
+
+    private ClaimQueue queue;
+    private ExecutorService writers;
+
+    /**
+     * One parsed batch. Overrides and tasks are staged by the writer until every event is in.
+     */
+    record IcsImportBatch(List<IcsImportedEvent> events, List<IcsImportedEvent> overrides,
+                          List<IcsImportedTask> tasks, int skipped, long bytesRead) {
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ics-import-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        queue = new ClaimQueue(jdbcTemplate, CLAIM_SQL, RECOVER_SQL, Duration.ofMinutes(staleAfterMinutes),
+                workerThreads, "ics-import-", this::process);
+    }
+
+    @PreDestroy
+    public void stop() {
+        queue.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${ics.import.poll-interval-ms:2000}")
+    public void poll() {
+        queue.poll();
+    }
+
+    void process(String jobId, int attempt) {
+        IcsImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Calendar calendar = calendarRepository.findCalendarByIdAndIsDeletedFalse(job.getCalendarId()).orElse(null);
+        if (calendar == null) {
+            finish(job, attempt, IcsImportStatus.FAILED, "Calendar " + job.getCalendarId() + " no longer exists");
+            return;
+        }
+        if (attempt > maxAttempts) {
+            finish(job, attempt, IcsImportStatus.FAILED, "Gave up after " + maxAttempts + " attempts");
+            return;
+        }
+
+        try {
+            IcsImportWriter.Target target = new IcsImportWriter.Target(job.getId(), attempt, calendar.getId(),
+                    calendar.getUserId(), calendar.getColorHex(), job.isSyncToGoogle());
+            long started = System.nanoTime();
+            importFile(job, target, calendarZone(calendar));
+            log.info("Imported {} into calendar {} in {} ms", job.getObjectName(), calendar.getId(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+            if (job.isSyncToGoogle()) {
+                syncToGoogle(job, attempt, calendar.getUserId());
+            }
+            finish(job, attempt, IcsImportStatus.COMPLETED, null);
+        } catch (InterruptedException e) {
+            // Shutting down; the job goes stale and is picked up again
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("Import job {} failed: {}", jobId, cause.getMessage());
+            finish(job, attempt, IcsImportStatus.FAILED, cause.getMessage());
+        }
+    }
+
+    /**
+     * Parses the uploaded file on the calling thread and hands batches to a writer thread.
+     */
+    private void importFile(IcsImportJob job, IcsImportWriter.Target target, ZoneId zone) throws Exception {
+        BlockingQueue<IcsImportBatch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Future<?> writer = writers.submit(() -> {
+            drain(queue, target);
+            return null;
+        });
+
+        try (CountingInputStream in = new CountingInputStream(minioService.getFile(job.getObjectName()))) {
+            IcsReader reader = new IcsReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            IcsImportMapper mapper = new IcsImportMapper(zone);
+
+            List<IcsImportedEvent> events = new ArrayList<>(batchSize);
+            List<IcsImportedEvent> overrides = new ArrayList<>();
+            List<IcsImportedTask> tasks = new ArrayList<>();
+            int skipped = 0;
+
+            for (IcsReader.Component component = reader.next(); component != null; component = reader.next()) {
+                try {
+                    if (component.name().equals("VTODO")) {
+                        IcsImportedTask task = mapper.toTask(component);
+                        if (task != null) {
+                            tasks.add(task);
+                        } else {
+                            skipped++;
+                        }
+                    } else {
+                        IcsImportedEvent event = mapper.toEvent(component);
+                        (event.recurrenceId() != null ? overrides : events).add(event);
+                    }
+                } catch (DateTimeException | IllegalArgumentException e) {
+                    skipped++;
+                }
+
+                if (events.size() + overrides.size() + tasks.size() >= batchSize) {
+                    put(queue, new IcsImportBatch(events, overrides, tasks, skipped, in.getCount()), writer);
+                    events = new ArrayList<>(batchSize);
+                    overrides = new ArrayList<>();
+                    tasks = new ArrayList<>();
+                    skipped = 0;
+                }
+            }
+            put(queue, new IcsImportBatch(events, overrides, tasks, skipped, in.getCount()), writer);
+            put(queue, END, writer);
+        } catch (Exception e) {
+            writer.cancel(true);
+            throw e;
+        }
+        writer.get();
+    }
+
+    /**
+     * Waits for room in the queue, giving up as soon as the writer has failed.
+     */
+    private static void put(BlockingQueue<IcsImportBatch> queue, IcsImportBatch batch, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("Import writer stopped unexpectedly");
+            }
+        }
+    }
+
+    /**
+     * Writes the events of each batch and stages its overrides and tasks, which are then written a
+     * page at a time once every event they may point at is in.
+     */
+    private void drain(BlockingQueue<IcsImportBatch> queue, IcsImportWriter.Target target) throws InterruptedException {
+        for (IcsImportBatch batch = queue.take(); batch != END; batch = queue.take()) {
+            importWriter.writeEvents(target, batch.events(), batch.skipped(), batch.bytesRead());
+            importWriter.stageLinked(target, batch.overrides(), batch.tasks());
+        }
+
+        IcsImportWriter.StagedLinked page = importWriter.findStaged(target, 0, batchSize);
+        while (!page.isEmpty()) {
+            importWriter.writeLinked(target, page.overrides(), page.tasks());
+            page = importWriter.findStaged(target, page.lastSeq(), batchSize);
+        }
+    }
+
+    /**
+     * Creates the imported events in the user's Google calendar, one batch request per page.
+     */
+    private void syncToGoogle(IcsImportJob job, int attempt, String userId) throws Exception {
+        if (googleCalendarApiService == null) {
+            log.info("Google Calendar is disabled, import job {} is not synced", job.getId());
+            return;
+        }
+        jdbcTemplate.update(SYNCING_SQL, job.getId(), attempt);
+
+        List<IcsImportWriter.PendingGoogleEvent> page;
+        while (!(page = importWriter.findPendingGoogleSync(job.getCalendarId(), GOOGLE_PAGE_SIZE)).isEmpty()) {
+            List<GoogleCalendarApiService.EventData> data = page.stream().map(event -> {
+                GoogleCalendarApiService.EventData eventData = new GoogleCalendarApiService.EventData(
+                        event.title(), event.description(), event.startTime(),
+                        event.endTime() != null ? event.endTime() : event.startTime());
+                eventData.allDay = event.allDay();
+                eventData.recurrenceRule = event.recurrenceRule();
+                return eventData;
+            }).toList();
+            importWriter.markGoogleSynced(job.getId(), page, googleCalendarApiService.createEventsInBatch(userId, data));
+        }
+    }
+
+    private void finish(IcsImportJob job, int attempt, IcsImportStatus status, String error) {
+        int updated = jdbcTemplate.update(FINISH_SQL, status.name(),
+                error != null && error.length() > 1024 ? error.substring(0, 1024) : error, job.getId(), attempt);
+        if (updated == 0) {
+            // Another worker restarted the job and still needs the file
+            log.info("Import job {} was restarted, attempt {} leaves it alone", job.getId(), attempt);
+            return;
+        }
+        try {
+            importWriter.clearStaged(job.getId());
+            minioService.deleteFile(job.getObjectName());
+        } catch (RuntimeException e) {
+            log.warn("Could not clean up after import job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private ZoneId calendarZone(Calendar calendar) {
+        try {
+            return ZoneId.of(calendar.getTimezone());
+        } catch (DateTimeException | NullPointerException e) {
+            return ZoneId.of("UTC");
+        }
+    }
+}
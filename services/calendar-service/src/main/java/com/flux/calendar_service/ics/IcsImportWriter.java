@@ -0,0 +1,375 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.cache.GatewayCacheInvalidator;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.EventType;
+import com.flux.calendar_service.event.SyncStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes import batches with JDBC batch statements instead of going through JPA. Every batch runs in
+ * one transaction together with the progress update of its job, so the counters of a job always
+ * match what has been committed. The progress update only matches the attempt that claimed the job,
+ * so a worker that lost its job to a restart rolls back instead of counting its batches again.
+ */
+@Component
+@RequiredArgsConstructor
+public class IcsImportWriter {
+    // Events exported by this service carry "<id>@flux-calendar" as UID, so they are matched by id too
+    private static final String LOOKUP_SQL = "SELECT e.id, e.ical_uid, e.start_time, e.location_id, l.place_name " +
+            "FROM events e LEFT JOIN locations l ON l.id = e.location_id " +
+            "WHERE e.calendar_id = ? AND (e.ical_uid = ANY(?) OR e.id = ANY(?))";
+
+    private static final String INSERT_LOCATION_SQL = "INSERT INTO locations (id, place_name) VALUES (?, ?)";
+
+    private static final String INSERT_EVENT_SQL = "INSERT INTO events (id, calendar_id, title, description, " +
+            "color_hex, location_id, type, start_time, end_time, all_day, sync_status, status, recurrence_rule, " +
+            "recurrence_end, ical_uid, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_EVENT_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BOOLEAN,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.TIMESTAMP,
+            Types.TIMESTAMP};
+
+    // The old start time lets the update prune partitions; a changed start moves the row
+    private static final String UPDATE_EVENT_SQL = "UPDATE events SET title = ?, description = ?, location_id = ?, " +
+            "start_time = ?, end_time = ?, all_day = ?, status = ?, recurrence_rule = ?, recurrence_end = ?, " +
+            "updated_at = ? WHERE id = ? AND start_time = ?";
+    private static final int[] UPDATE_EVENT_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
+            Types.TIMESTAMP, Types.BOOLEAN, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP,
+            Types.VARCHAR, Types.TIMESTAMP};
+
+    private static final String UPSERT_EXCEPTION_SQL = "INSERT INTO event_occurrence_exceptions (id, event_id, " +
+            "original_start_time, cancelled, start_time, end_time, title, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (event_id, original_start_time) DO UPDATE SET cancelled = EXCLUDED.cancelled, " +
+            "start_time = EXCLUDED.start_time, end_time = EXCLUDED.end_time, title = EXCLUDED.title, " +
+            "updated_at = EXCLUDED.updated_at";
+    private static final int[] UPSERT_EXCEPTION_TYPES = {Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
+            Types.BOOLEAN, Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    // Task ids are derived from the VTODO UID, which makes a re-import overwrite them
+    private static final String UPSERT_TASK_SQL = "INSERT INTO tasks (id, task, is_done, event_id) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET task = EXCLUDED.task, is_done = EXCLUDED.is_done, event_id = EXCLUDED.event_id";
+
+    private static final String EVENT_PROGRESS_SQL = "UPDATE ics_import_jobs SET bytes_read = ?, " +
+            "events_inserted = events_inserted + ?, events_updated = events_updated + ?, " +
+            "exceptions_written = exceptions_written + ?, skipped = skipped + ?, " +
+            "locked_at = now(), updated_at = now() WHERE id = ? AND attempts = ?";
+
+    private static final String LINKED_PROGRESS_SQL = "UPDATE ics_import_jobs SET " +
+            "exceptions_written = exceptions_written + ?, tasks_written = tasks_written + ?, skipped = skipped + ?, " +
+            "locked_at = now(), updated_at = now() WHERE id = ? AND attempts = ?";
+
+    private static final String STAGE_LINKED_SQL = "INSERT INTO ics_import_linked (job_id, attempt, uid, event_uid, " +
+            "recurrence_id, start_time, end_time, title, status, done) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] STAGE_LINKED_TYPES = {Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN};
+
+    private static final String STAGED_LINKED_SQL = "SELECT seq, uid, event_uid, recurrence_id, start_time, end_time, " +
+            "title, status, done FROM ics_import_linked WHERE job_id = ? AND attempt = ? AND seq > ? ORDER BY seq LIMIT ?";
+
+    private static final String CLEAR_LINKED_SQL = "DELETE FROM ics_import_linked WHERE job_id = ?";
+
+    private static final String PENDING_GOOGLE_SQL = "SELECT id, start_time, end_time, all_day, title, description, " +
+            "recurrence_rule FROM events WHERE calendar_id = ? AND ical_uid IS NOT NULL AND sync_status = 'PENDING' LIMIT ?";
+
+    private static final String GOOGLE_SYNCED_SQL = "UPDATE events SET google_calendar_id = ?, sync_status = ? " +
+            "WHERE id = ? AND start_time = ?";
+
+    private static final String GOOGLE_PROGRESS_SQL = "UPDATE ics_import_jobs SET google_synced = google_synced + ?, " +
+            "locked_at = now(), updated_at = now() WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    /**
+     * The calendar a job imports into. Locations are shared by all events of the file that name the
+     * same place, so their ids are remembered for the whole job.
+     */
+    public record Target(String jobId, int attempt, String calendarId, String userId, String colorHex,
+                         boolean syncToGoogle, Map<String, String> locationIds) {
+        public Target(String jobId, int attempt, String calendarId, String userId, String colorHex, boolean syncToGoogle) {
+            this(jobId, attempt, calendarId, userId, colorHex, syncToGoogle, new HashMap<>());
+        }
+    }
+
+    /** One page of staged overrides and tasks; {@code lastSeq} is where the next page starts. */
+    public record StagedLinked(List<IcsImportedEvent> overrides, List<IcsImportedTask> tasks, long lastSeq) {
+        public boolean isEmpty() {
+            return overrides.isEmpty() && tasks.isEmpty();
+        }
+    }
+
+    public record PendingGoogleEvent(String id, LocalDateTime startTime, LocalDateTime endTime, boolean allDay,
+                                     String title, String description, String recurrenceRule) {
+    }
+
+    private record Existing(String id, LocalDateTime startTime, String locationId, String placeName) {
+    }
+
+    /**
+     * Inserts the events whose UID is new to the calendar and updates the others. Cancelled
+     * occurrences of series (EXDATE) are written along with them.
+     */
+    @Transactional
+    public void writeEvents(Target target, List<IcsImportedEvent> events, int skipped, long bytesRead) {
+        // Later copies of a UID win, as they would on a second import
+        Map<String, IcsImportedEvent> byUid = new LinkedHashMap<>();
+        for (IcsImportedEvent event : events) {
+            byUid.put(event.uid(), event);
+        }
+        Map<String, Existing> existing = lookup(target.calendarId(), byUid.keySet());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String syncStatus = (target.syncToGoogle() ? SyncStatus.PENDING : SyncStatus.SYNCED).name();
+        List<Object[]> locations = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Map<String, Object[]> exceptions = new LinkedHashMap<>();
+
+        for (IcsImportedEvent event : byUid.values()) {
+            Existing current = existing.get(event.uid());
+            String locationId = current != null && event.location() != null && event.location().equals(current.placeName())
+                    ? current.locationId()
+                    : locationId(target, event.location(), locations);
+
+            String eventId;
+            if (current == null) {
+                eventId = UUID.randomUUID().toString();
+                inserts.add(new Object[]{eventId, target.calendarId(), event.title(), event.description(),
+                        target.colorHex(), locationId, EventType.OTHERS.name(), timestamp(event.startTime()),
+                        timestamp(event.endTime()), event.allDay(), syncStatus, status(event.status()),
+                        event.recurrenceRule(), timestamp(event.recurrenceEnd()), event.uid(), now, now});
+            } else {
+                eventId = current.id();
+                updates.add(new Object[]{event.title(), event.description(), locationId, timestamp(event.startTime()),
+                        timestamp(event.endTime()), event.allDay(), status(event.status()), event.recurrenceRule(),
+                        timestamp(event.recurrenceEnd()), now, eventId, timestamp(current.startTime())});
+            }
+            for (LocalDateTime exdate : event.exdates()) {
+                exceptions.put(eventId + "|" + exdate, new Object[]{UUID.randomUUID().toString(), eventId,
+                        timestamp(exdate), true, null, null, null, now, now});
+            }
+        }
+
+        if (!locations.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LOCATION_SQL, locations, new int[]{Types.VARCHAR, Types.VARCHAR});
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, inserts, INSERT_EVENT_TYPES);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_EVENT_SQL, updates, UPDATE_EVENT_TYPES);
+        }
+        if (!exceptions.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_EXCEPTION_SQL, new ArrayList<>(exceptions.values()), UPSERT_EXCEPTION_TYPES);
+        }
+        updateProgress(target, jdbcTemplate.update(EVENT_PROGRESS_SQL, bytesRead, inserts.size(), updates.size(),
+                exceptions.size(), skipped, target.jobId(), target.attempt()));
+        invalidateGatewayCache(target, updates.stream().map(update -> (String) update[10]).toList());
+    }
+
+    /**
+     * Writes overridden occurrences and tasks, which point at events by UID. They are written after
+     * all events of the file, since the event they belong to may come later in the file.
+     */
+    @Transactional
+    public void writeLinked(Target target, List<IcsImportedEvent> overrides, List<IcsImportedTask> tasks) {
+        List<String> uids = new ArrayList<>(overrides.size() + tasks.size());
+        overrides.forEach(override -> uids.add(override.uid()));
+        tasks.forEach(task -> uids.add(task.eventUid()));
+        Map<String, Existing> events = lookup(target.calendarId(), uids);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int skipped = 0;
+        Map<String, Object[]> exceptions = new LinkedHashMap<>();
+        for (IcsImportedEvent override : overrides) {
+            Existing series = events.get(override.uid());
+            if (series == null) {
+                skipped++;
+                continue;
+            }
+            exceptions.put(series.id() + "|" + override.recurrenceId(), new Object[]{UUID.randomUUID().toString(),
+                    series.id(), timestamp(override.recurrenceId()), override.status() == EventStatus.CANCELLED,
+                    timestamp(override.startTime()), timestamp(override.endTime()), override.title(), now, now});
+        }
+
+        Map<String, Object[]> taskRows = new LinkedHashMap<>();
+        for (IcsImportedTask task : tasks) {
+            Existing event = events.get(task.eventUid());
+            if (event == null) {
+                skipped++;
+                continue;
+            }
+            String taskId = UUID.nameUUIDFromBytes((target.calendarId() + "\n" + task.uid())
+                    .getBytes(StandardCharsets.UTF_8)).toString();
+            taskRows.put(taskId, new Object[]{taskId, task.title(), task.done(), event.id()});
+        }
+
+        if (!exceptions.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_EXCEPTION_SQL, new ArrayList<>(exceptions.values()), UPSERT_EXCEPTION_TYPES);
+        }
+        if (!taskRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_TASK_SQL, new ArrayList<>(taskRows.values()),
+                    new int[]{Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN, Types.VARCHAR});
+        }
+        updateProgress(target, jdbcTemplate.update(LINKED_PROGRESS_SQL, exceptions.size(), taskRows.size(), skipped,
+                target.jobId(), target.attempt()));
+        invalidateGatewayCache(target, events.values().stream().map(Existing::id).toList());
+    }
+
+    /**
+     * Parks overrides and tasks until every event of the file is written, so the worker does not
+     * have to hold them until the end of a large file.
+     */
+    public void stageLinked(Target target, List<IcsImportedEvent> overrides, List<IcsImportedTask> tasks) {
+        List<Object[]> rows = new ArrayList<>(overrides.size() + tasks.size());
+        for (IcsImportedEvent override : overrides) {
+            rows.add(new Object[]{target.jobId(), target.attempt(), override.uid(), null,
+                    timestamp(override.recurrenceId()), timestamp(override.startTime()), timestamp(override.endTime()),
+                    override.title(), override.status() != null ? override.status().name() : null, false});
+        }
+        for (IcsImportedTask task : tasks) {
+            rows.add(new Object[]{target.jobId(), target.attempt(), task.uid(), task.eventUid(),
+                    null, null, null, task.title(), null, task.done()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(STAGE_LINKED_SQL, rows, STAGE_LINKED_TYPES);
+        }
+    }
+
+    public StagedLinked findStaged(Target target, long afterSeq, int limit) {
+        List<IcsImportedEvent> overrides = new ArrayList<>();
+        List<IcsImportedTask> tasks = new ArrayList<>();
+        long[] lastSeq = {afterSeq};
+        jdbcTemplate.query(STAGED_LINKED_SQL, rs -> {
+            lastSeq[0] = rs.getLong("seq");
+            String eventUid = rs.getString("event_uid");
+            if (eventUid != null) {
+                tasks.add(new IcsImportedTask(rs.getString("uid"), eventUid, rs.getString("title"), rs.getBoolean("done")));
+            } else {
+                String status = rs.getString("status");
+                overrides.add(new IcsImportedEvent(rs.getString("uid"), localDateTime(rs.getTimestamp("recurrence_id")),
+                        rs.getString("title"), null, null, localDateTime(rs.getTimestamp("start_time")),
+                        localDateTime(rs.getTimestamp("end_time")), false, null, null,
+                        status != null ? EventStatus.valueOf(status) : null, List.of()));
+            }
+        }, target.jobId(), target.attempt(), afterSeq, limit);
+        return new StagedLinked(overrides, tasks, lastSeq[0]);
+    }
+
+    public void clearStaged(String jobId) {
+        jdbcTemplate.update(CLEAR_LINKED_SQL, jobId);
+    }
+
+    public List<PendingGoogleEvent> findPendingGoogleSync(String calendarId, int limit) {
+        return jdbcTemplate.query(PENDING_GOOGLE_SQL, (rs, rowNum) -> new PendingGoogleEvent(
+                rs.getString("id"),
+                localDateTime(rs.getTimestamp("start_time")),
+                localDateTime(rs.getTimestamp("end_time")),
+                rs.getBoolean("all_day"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getString("recurrence_rule")), calendarId, limit);
+    }
+
+    /**
+     * Stores the Google ids of a synced page; a {@code null} id marks the event as failed so that it
+     * is not picked up again.
+     */
+    @Transactional
+    public void markGoogleSynced(String jobId, List<PendingGoogleEvent> events, List<String> googleIds) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        int synced = 0;
+        for (int i = 0; i < events.size(); i++) {
+            String googleId = googleIds.get(i);
+            if (googleId != null) {
+                synced++;
+            }
+            rows.add(new Object[]{googleId, (googleId != null ? SyncStatus.SYNCED : SyncStatus.FAILED).name(),
+                    events.get(i).id(), timestamp(events.get(i).startTime())});
+        }
+        jdbcTemplate.batchUpdate(GOOGLE_SYNCED_SQL, rows,
+                new int[]{Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP});
+        jdbcTemplate.update(GOOGLE_PROGRESS_SQL, synced, jobId);
+    }
+
+    private static void updateProgress(Target target, int updated) {
+        if (updated == 0) {
+            throw new IllegalStateException("Import job " + target.jobId() + " was restarted, attempt "
+                    + target.attempt() + " stops");
+        }
+    }
+
+    // The JDBC writes bypass the entity listener, so the gateway is told once the batch commits
+    private void invalidateGatewayCache(Target target, List<String> eventIds) {
+        List<String> ids = new ArrayList<>(eventIds);
+        ids.add("events");
+        ids.add(target.calendarId());
+        ids.add(target.userId());
+        gatewayCacheInvalidator.invalidate(ids);
+    }
+
+    private Map<String, Existing> lookup(String calendarId, Collection<String> uids) {
+        Map<String, Existing> existing = new HashMap<>();
+        if (uids.isEmpty()) {
+            return existing;
+        }
+        String[] exportedIds = uids.stream()
+                .filter(uid -> uid.endsWith(IcsWriter.UID_SUFFIX))
+                .map(uid -> uid.substring(0, uid.length() - IcsWriter.UID_SUFFIX.length()))
+                .toArray(String[]::new);
+
+        jdbcTemplate.query(LOOKUP_SQL, rs -> {
+            Existing event = new Existing(rs.getString("id"), localDateTime(rs.getTimestamp("start_time")),
+                    rs.getString("location_id"), rs.getString("place_name"));
+            existing.put(event.id() + IcsWriter.UID_SUFFIX, event);
+            String icalUid = rs.getString("ical_uid");
+            if (icalUid != null) {
+                existing.put(icalUid, event);
+            }
+        }, calendarId, uids.toArray(String[]::new), exportedIds);
+        return existing;
+    }
+
+    private static String locationId(Target target, String placeName, List<Object[]> newLocations) {
+        if (placeName == null) {
+            return null;
+        }
+        return target.locationIds().computeIfAbsent(placeName, name -> {
+            String id = UUID.randomUUID().toString();
+            newLocations.add(new Object[]{id, name});
+            return id;
+        });
+    }
+
+    // Event.status has no @Enumerated, so Hibernate stores its ordinal
+    private static String status(EventStatus status) {
+        return String.valueOf(Objects.requireNonNullElse(status, EventStatus.NOTSTARTED).ordinal());
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
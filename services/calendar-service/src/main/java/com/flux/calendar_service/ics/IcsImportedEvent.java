@@ -0,0 +1,25 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.event.EventStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A VEVENT mapped for import. Times are in the local time of the target calendar. A non-null
+ * {@code recurrenceId} marks an override of one occurrence of the series with the same UID.
+ */
+public record IcsImportedEvent(
+                String uid,
+                LocalDateTime recurrenceId,
+                String title,
+                String description,
+                String location,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                boolean allDay,
+                String recurrenceRule,
+                LocalDateTime recurrenceEnd,
+                EventStatus status,
+                List<LocalDateTime> exdates) {
+}
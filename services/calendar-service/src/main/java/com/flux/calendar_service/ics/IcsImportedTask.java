@@ -0,0 +1,11 @@
+package com.flux.calendar_service.ics;
+
+/**
+ * A VTODO mapped for import. Tasks always belong to an event, which is the VEVENT named by RELATED-TO.
+ */
+public record IcsImportedTask(
+                String uid,
+                String eventUid,
+                String title,
+                boolean done) {
+}
@@ -0,0 +1,200 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.exceptions.InvalidIcsFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming reader for RFC 5545 content. Folded lines are joined and every VEVENT or VTODO is
+ * returned as soon as its END line has been read, so only one component is held in memory at a time.
+ * Nested components such as VALARM are skipped.
+ */
+public final class IcsReader {
+    private static final Set<String> COMPONENTS = Set.of("VEVENT", "VTODO");
+    // Guards against a file that never ends a component, or never ends a line
+    private static final int MAX_PROPERTIES = 1000;
+    private static final int MAX_LINE_LENGTH = 1 << 20;
+
+    public record Property(String name, Map<String, String> parameters, String value) {
+        public String parameter(String name) {
+            return parameters.get(name);
+        }
+    }
+
+    public record Component(String name, List<Property> properties) {
+        public Property first(String name) {
+            for (Property property : properties) {
+                if (property.name().equals(name)) {
+                    return property;
+                }
+            }
+            return null;
+        }
+
+        public String value(String name) {
+            Property property = first(name);
+            return property != null ? property.value() : null;
+        }
+
+        public List<Property> all(String name) {
+            List<Property> matching = new ArrayList<>();
+            for (Property property : properties) {
+                if (property.name().equals(name)) {
+                    matching.add(property);
+                }
+            }
+            return matching;
+        }
+    }
+
+    private final BufferedReader in;
+    private String lookahead;
+    private long lineNumber;
+
+    public IcsReader(Reader in) {
+        this.in = in instanceof BufferedReader buffered ? buffered : new BufferedReader(in, 65536);
+    }
+
+    /**
+     * Returns the next VEVENT or VTODO, or {@code null} at the end of the input.
+     */
+    public Component next() throws IOException {
+        String current = null;
+        List<Property> properties = null;
+        int skipDepth = 0;
+
+        for (String line = nextLine(); line != null; line = nextLine()) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            Property property = parse(line);
+
+            if (property.name().equals("BEGIN")) {
+                String component = property.value().toUpperCase();
+                if (current != null) {
+                    skipDepth++;
+                } else if (COMPONENTS.contains(component)) {
+                    current = component;
+                    properties = new ArrayList<>();
+                }
+            } else if (property.name().equals("END")) {
+                if (skipDepth > 0) {
+                    skipDepth--;
+                } else if (current != null && current.equalsIgnoreCase(property.value())) {
+                    return new Component(current, properties);
+                }
+            } else if (current != null && skipDepth == 0) {
+                if (properties.size() == MAX_PROPERTIES) {
+                    throw new InvalidIcsFileException("Component ending at line " + lineNumber + " has too many properties");
+                }
+                properties.add(property);
+            }
+        }
+
+        if (current != null) {
+            throw new InvalidIcsFileException("Unexpected end of file inside " + current);
+        }
+        return null;
+    }
+
+    /**
+     * Reads one content line, joining continuation lines that start with a space or a tab.
+     */
+    private String nextLine() throws IOException {
+        String line = lookahead != null ? lookahead : in.readLine();
+        lookahead = null;
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = in.readLine()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            if (unfolded.length() + next.length() > MAX_LINE_LENGTH) {
+                throw new InvalidIcsFileException("Line " + lineNumber + " is longer than " + MAX_LINE_LENGTH + " characters");
+            }
+            unfolded.append(next, 1, next.length());
+            lineNumber++;
+        }
+        lookahead = next;
+        return unfolded != null ? unfolded.toString() : line;
+    }
+
+    /**
+     * Splits {@code NAME;PARAM=value;PARAM="quoted:value":property value}. Names are upper-cased,
+     * the value is returned as written.
+     */
+    private Property parse(String line) {
+        int nameEnd = 0;
+        while (nameEnd < line.length() && line.charAt(nameEnd) != ';' && line.charAt(nameEnd) != ':') {
+            nameEnd++;
+        }
+        if (nameEnd == line.length()) {
+            throw new InvalidIcsFileException("Line " + lineNumber + " is not a content line");
+        }
+        String name = line.substring(0, nameEnd).trim().toUpperCase();
+
+        Map<String, String> parameters = Map.of();
+        int i = nameEnd;
+        while (line.charAt(i) == ';') {
+            int keyEnd = line.indexOf('=', i);
+            if (keyEnd < 0) {
+                throw new InvalidIcsFileException("Malformed parameter on line " + lineNumber);
+            }
+            String key = line.substring(i + 1, keyEnd).trim().toUpperCase();
+
+            int valueEnd = keyEnd + 1;
+            boolean quoted = false;
+            while (valueEnd < line.length()) {
+                char c = line.charAt(valueEnd);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (!quoted && (c == ';' || c == ':')) {
+                    break;
+                }
+                valueEnd++;
+            }
+            if (valueEnd == line.length()) {
+                throw new InvalidIcsFileException("Line " + lineNumber + " has no value");
+            }
+            if (parameters.isEmpty()) {
+                parameters = new LinkedHashMap<>();
+            }
+            parameters.put(key, line.substring(keyEnd + 1, valueEnd).replace("\"", ""));
+            i = valueEnd;
+        }
+
+        return new Property(name, parameters, line.substring(i + 1));
+    }
+
+    /**
+     * Reverses the TEXT escaping of RFC 5545 section 3.3.11.
+     */
+    public static String unescape(String text) {
+        if (text == null || text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder unescaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char escaped = text.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+}
@@ -0,0 +1,298 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.recurrence.RecurrenceRule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Writes RFC 5545 iCalendar content line by line, so a calendar of any size can be exported without
+ * building it in memory. Event times are written in the calendar's timezone, which is described by a
+ * VTIMEZONE derived from the JDK's zone rules.
+ */
+public final class IcsWriter {
+    static final String UID_SUFFIX = "@flux-calendar";
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer out;
+    private final ZoneId zone;
+    private final String stamp;
+
+    public IcsWriter(Writer out, ZoneId zone, Instant stamp) {
+        this.out = out;
+        this.zone = zone;
+        this.stamp = UTC.format(stamp);
+    }
+
+    public void beginCalendar(String name, String description) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Flux//Flux Calendar//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        if (name != null) {
+            line("X-WR-CALNAME:" + escape(name));
+        }
+        if (description != null && !description.isBlank()) {
+            line("X-WR-CALDESC:" + escape(description));
+        }
+        line("X-WR-TIMEZONE:" + zone.getId());
+        timezone();
+    }
+
+    /**
+     * Writes one event. For a recurring event the exceptions of the series become EXDATEs (cancelled
+     * occurrences) or overriding VEVENTs with a RECURRENCE-ID.
+     */
+    public void event(IcsEventRow event, List<IcsExceptionRow> exceptions) throws IOException {
+        boolean recurring = event.recurrenceRule() != null;
+
+        line("BEGIN:VEVENT");
+        line("UID:" + escape(uid(event)));
+        line("DTSTAMP:" + stamp);
+        times(event.startTime(), event.endTime(), event.allDay());
+        line("SUMMARY:" + escape(event.title()));
+        if (event.description() != null && !event.description().isBlank()) {
+            line("DESCRIPTION:" + escape(event.description()));
+        }
+        String location = location(event);
+        if (location != null) {
+            line("LOCATION:" + escape(location));
+        }
+        line("STATUS:" + status(event.status()));
+        if (event.createdAt() != null) {
+            line("CREATED:" + utc(event.createdAt()));
+        }
+        if (event.updatedAt() != null) {
+            line("LAST-MODIFIED:" + utc(event.updatedAt()));
+        }
+        if (recurring) {
+            line(RecurrenceRule.parse(event.recurrenceRule()).toICalProperty(zone));
+            for (IcsExceptionRow exception : exceptions) {
+                if (exception.cancelled()) {
+                    line("EXDATE" + dateTimeValue(exception.originalStartTime(), event.allDay()));
+                }
+            }
+        }
+        line("END:VEVENT");
+
+        if (recurring) {
+            for (IcsExceptionRow exception : exceptions) {
+                if (!exception.cancelled()) {
+                    override(event, exception);
+                }
+            }
+        }
+    }
+
+    public void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    private void override(IcsEventRow series, IcsExceptionRow exception) throws IOException {
+        LocalDateTime start = exception.startTime() != null ? exception.startTime() : exception.originalStartTime();
+        LocalDateTime end = exception.endTime();
+        if (end == null && series.endTime() != null) {
+            end = start.plus(Duration.between(series.startTime(), series.endTime()));
+        }
+
+        line("BEGIN:VEVENT");
+        line("UID:" + escape(uid(series)));
+        line("DTSTAMP:" + stamp);
+        line("RECURRENCE-ID" + dateTimeValue(exception.originalStartTime(), series.allDay()));
+        times(start, end, series.allDay());
+        line("SUMMARY:" + escape(exception.title() != null ? exception.title() : series.title()));
+        if (series.description() != null && !series.description().isBlank()) {
+            line("DESCRIPTION:" + escape(series.description()));
+        }
+        line("STATUS:" + status(series.status()));
+        line("END:VEVENT");
+    }
+
+    private void times(LocalDateTime start, LocalDateTime end, boolean allDay) throws IOException {
+        if (allDay) {
+            LocalDate first = start.toLocalDate();
+            // DTEND of an all-day event is the exclusive end date
+            LocalDate last = end == null ? first
+                    : end.toLocalTime().equals(LocalTime.MIDNIGHT) ? end.toLocalDate()
+                    : end.toLocalDate().plusDays(1);
+            line("DTSTART;VALUE=DATE:" + DATE.format(first));
+            line("DTEND;VALUE=DATE:" + DATE.format(last.isAfter(first) ? last : first.plusDays(1)));
+            return;
+        }
+
+        line("DTSTART" + dateTimeValue(start, false));
+        if (end != null && end.isAfter(start)) {
+            line("DTEND" + dateTimeValue(end, false));
+        }
+    }
+
+    // Imported events keep the UID of their source, so re-importing an export updates them
+    private static String uid(IcsEventRow event) {
+        return event.icalUid() != null ? event.icalUid() : event.id() + UID_SUFFIX;
+    }
+
+    private String dateTimeValue(LocalDateTime time, boolean allDay) {
+        return allDay
+                ? ";VALUE=DATE:" + DATE.format(time.toLocalDate())
+                : ";TZID=" + zone.getId() + ":" + LOCAL.format(time);
+    }
+
+    /**
+     * Describes the calendar's zone with its current rules: one STANDARD/DAYLIGHT component per yearly
+     * transition rule, or a single fixed offset for zones without daylight saving time.
+     */
+    private void timezone() throws IOException {
+        ZoneRules rules = zone.getRules();
+        line("BEGIN:VTIMEZONE");
+        line("TZID:" + zone.getId());
+
+        List<ZoneOffsetTransitionRule> transitionRules = rules.getTransitionRules();
+        if (transitionRules.isEmpty()) {
+            ZoneOffset offset = rules.getOffset(Instant.now());
+            line("BEGIN:STANDARD");
+            line("DTSTART:19700101T000000");
+            line("TZOFFSETFROM:" + offset(offset));
+            line("TZOFFSETTO:" + offset(offset));
+            line("END:STANDARD");
+        }
+        for (ZoneOffsetTransitionRule rule : transitionRules) {
+            ZoneOffsetTransition transition = rule.createTransition(1970);
+            String component = rule.getOffsetAfter().getTotalSeconds() > rule.getStandardOffset().getTotalSeconds()
+                    ? "DAYLIGHT" : "STANDARD";
+            line("BEGIN:" + component);
+            line("DTSTART:" + LOCAL.format(transition.getDateTimeBefore()));
+            line("RRULE:FREQ=YEARLY;BYMONTH=" + rule.getMonth().getValue() + byDay(rule));
+            line("TZOFFSETFROM:" + offset(rule.getOffsetBefore()));
+            line("TZOFFSETTO:" + offset(rule.getOffsetAfter()));
+            line("END:" + component);
+        }
+        line("END:VTIMEZONE");
+    }
+
+    static String byDay(ZoneOffsetTransitionRule rule) {
+        int dayOfMonth = rule.getDayOfMonthIndicator();
+        DayOfWeek dayOfWeek = rule.getDayOfWeek();
+        if (dayOfWeek == null) {
+            return ";BYMONTHDAY=" + dayOfMonth;
+        }
+
+        String day = dayOfWeek.name().substring(0, 2);
+        // Rules like "last Sunday" are stored as "Sunday on or after the 25th"
+        boolean lastWeek = dayOfMonth > 0 && rule.getMonth() != Month.FEBRUARY
+                && dayOfMonth + 6 == rule.getMonth().maxLength();
+        if (dayOfMonth == -1 || lastWeek) {
+            return ";BYDAY=-1" + day;
+        }
+        if (dayOfMonth > 0 && (dayOfMonth - 1) % 7 == 0) {
+            return ";BYDAY=" + ((dayOfMonth - 1) / 7 + 1) + day;
+        }
+        // "First <day> on or after the 10th" and similar rules become a seven day window
+        int first = dayOfMonth > 0 ? dayOfMonth : dayOfMonth - 6;
+        return ";BYMONTHDAY=" + IntStream.range(first, first + 7)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(",")) + ";BYDAY=" + day;
+    }
+
+    private static String offset(ZoneOffset offset) {
+        int seconds = offset.getTotalSeconds();
+        int absolute = Math.abs(seconds);
+        String value = String.format("%s%02d%02d", seconds < 0 ? "-" : "+", absolute / 3600, absolute / 60 % 60);
+        return absolute % 60 != 0 ? value + String.format("%02d", absolute % 60) : value;
+    }
+
+    private static String utc(LocalDateTime serverTime) {
+        // Audit timestamps are written in the server's zone
+        return UTC.format(serverTime.atZone(ZoneId.systemDefault()));
+    }
+
+    private static String status(EventStatus status) {
+        if (status == EventStatus.CANCELLED) {
+            return "CANCELLED";
+        }
+        return status == EventStatus.POSTPONED ? "TENTATIVE" : "CONFIRMED";
+    }
+
+    private static String location(IcsEventRow event) {
+        String location = Stream.of(event.placeName(), event.streetAddress(), event.city(), event.country())
+                .filter(Objects::nonNull)
+                .filter(part -> !part.isBlank())
+                .collect(Collectors.joining(", "));
+        return location.isEmpty() ? null : location;
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case ';' -> escaped.append("\\;");
+                case ',' -> escaped.append("\\,");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> {
+                }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Writes a content line folded at 75 octets, never splitting a UTF-8 sequence.
+     */
+    private void line(String content) throws IOException {
+        int octets = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int codePoint = content.codePointAt(i);
+            int size = utf8Length(codePoint);
+            if (octets + size > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                // The leading space of a continuation line counts towards its length
+                octets = 1;
+            }
+            out.write(content, i, Character.charCount(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,24 @@
+package com.flux.calendar_service.ics.dto;
+
+import com.flux.calendar_service.ics.IcsImportStatus;
+
+import java.time.LocalDateTime;
+
+public record IcsImportJobResponse(
+        String id,
+        String calendarId,
+        IcsImportStatus status,
+        long sizeBytes,
+        long bytesRead,
+        int percentComplete,
+        int eventsInserted,
+        int eventsUpdated,
+        int exceptionsWritten,
+        int tasksWritten,
+        int skipped,
+        int googleSynced,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime finishedAt
+) {
+}
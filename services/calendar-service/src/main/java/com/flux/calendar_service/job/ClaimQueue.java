@@ -0,0 +1,105 @@
+package com.flux.calendar_service.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains a table-backed queue for one worker. Each poll first puts rows whose lease went stale back
+ * in the queue, then claims at most as many rows as there are idle threads with
+ * {@code FOR UPDATE SKIP LOCKED}, so the remaining work stays in the table where any instance can pick
+ * it up. Every row is handed to the processor with the attempt it was claimed as; workers fence their
+ * final update with {@code AND attempts = ?} on it, so a worker whose row was recovered and claimed
+ * again cannot overwrite the outcome of the newer attempt.
+ * <p>
+ * The claim statement takes the number of rows as its only parameter and returns {@code id} and
+ * {@code attempts}; the recover statement takes the stale cutoff.
+ */
+@Slf4j
+public class ClaimQueue {
+
+    @FunctionalInterface
+    public interface Processor {
+        void process(String id, int attempt);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String claimSql;
+    private final String recoverSql;
+    private final Duration staleAfter;
+    private final Processor processor;
+    private final ExecutorService executor;
+    private final Semaphore idleWorkers;
+
+    public ClaimQueue(JdbcTemplate jdbcTemplate, String claimSql, String recoverSql, Duration staleAfter,
+                      int threads, String threadPrefix, Processor processor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.claimSql = claimSql;
+        this.recoverSql = recoverSql;
+        this.staleAfter = staleAfter;
+        this.processor = processor;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, threadPrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.idleWorkers = new Semaphore(threads);
+    }
+
+    public void poll() {
+        jdbcTemplate.update(recoverSql, Timestamp.valueOf(LocalDateTime.now().minus(staleAfter)));
+
+        int idle = idleWorkers.availablePermits();
+        if (idle == 0) {
+            return;
+        }
+
+        List<Claim> claimed = jdbcTemplate.query(claimSql,
+                (rs, rowNum) -> new Claim(rs.getString("id"), rs.getInt("attempts")), idle);
+        for (Claim claim : claimed) {
+            idleWorkers.acquireUninterruptibly();
+            try {
+                executor.execute(() -> {
+                    try {
+                        processor.process(claim.id(), claim.attempt());
+                    } catch (RuntimeException e) {
+                        // Leave the row to go stale rather than lose the worker thread's permit
+                        log.error("Processing {} (attempt {}) failed unexpectedly", claim.id(), claim.attempt(), e);
+                    } finally {
+                        idleWorkers.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the row is recovered by the next instance once it goes stale
+                idleWorkers.release();
+            }
+        }
+    }
+
+    /**
+     * Lets running work finish; nothing new is claimed once the pool stops accepting tasks.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Interrupts running work, which then goes stale and is picked up again.
+     */
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    private record Claim(String id, int attempt) {
+    }
+}
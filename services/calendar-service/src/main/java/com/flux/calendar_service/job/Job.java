@@ -0,0 +1,82 @@
+package com.flux.calendar_service.job;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A long-running operation queued for {@link JobWorker}. After it is queued the row is only changed
+ * through SQL, so progress written by the worker is never overwritten by a stale entity.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "jobs")
+@EntityListeners(AuditingEntityListener.class)
+public class Job {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    // Selects the JobHandler that runs the job
+    @Column(name = "type", nullable = false, length = 64)
+    private String type;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false)
+    private Map<String, String> payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private JobStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    // Zero until the handler knows how much work there is
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "result")
+    private Map<String, String> result;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    // Heartbeat of the worker running the job, refreshed with every progress update
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,13 @@
+package com.flux.calendar_service.job;
+
+/**
+ * Lets a running handler report progress. Each call also refreshes the job's heartbeat, so handlers
+ * should report at least once per unit of work.
+ */
+public interface JobContext {
+    /**
+     * Records progress and throws {@link com.flux.calendar_service.exceptions.JobCancelledException}
+     * once the job has been cancelled, so the handler stops at the next safe point.
+     */
+    void progress(long processed, long total);
+}
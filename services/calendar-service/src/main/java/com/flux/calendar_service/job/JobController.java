@@ -0,0 +1,60 @@
+package com.flux.calendar_service.job;
+
+import com.flux.calendar_service.job.dto.JobResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Job Controller", description = "Endpoints for tracking long-running operations")
+public class JobController {
+    private final JobService jobService;
+
+    @Operation(summary = "Get job", description = "Reports the status and progress of a long-running operation")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved job"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<JobResponse> getJob(@PathVariable String id) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(jobService.getJob(id));
+    }
+
+    @Operation(summary = "Cancel job", description = "Cancels a queued job or asks a running one to stop")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Cancellation accepted"),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "400", description = "Job has already finished")
+    })
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<JobResponse> cancelJob(@PathVariable String id) {
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(jobService.cancel(id));
+    }
+
+    @Operation(summary = "Download job result", description = "Redirects to the file produced by a completed job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "302", description = "Redirect to a short-lived download URL"),
+            @ApiResponse(responseCode = "404", description = "Job not found or produced no file"),
+            @ApiResponse(responseCode = "400", description = "Job has not completed")
+    })
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Void> downloadResult(@PathVariable String id) {
+        return ResponseEntity
+                .status(HttpStatus.FOUND)
+                .location(URI.create(jobService.getResultUrl(id)))
+                .build();
+    }
+}
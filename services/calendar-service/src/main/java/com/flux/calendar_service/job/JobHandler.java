@@ -0,0 +1,16 @@
+package com.flux.calendar_service.job;
+
+import java.util.Map;
+
+/**
+ * Runs one type of job. A job may be retried or picked up again after a crash, so handlers have to
+ * be safe to run more than once for the same payload.
+ */
+public interface JobHandler {
+    String type();
+
+    /**
+     * Does the work and returns the values reported as the job's result.
+     */
+    Map<String, String> run(Job job, JobContext context) throws Exception;
+}
@@ -0,0 +1,8 @@
+package com.flux.calendar_service.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, String> {
+}
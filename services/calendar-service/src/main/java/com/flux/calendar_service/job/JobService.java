@@ -0,0 +1,101 @@
+package com.flux.calendar_service.job;
+
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.job.dto.JobResponse;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.ws.rs.NotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Queues long-running operations for {@link JobWorker} and reports on them. Callers answer with
+ * {@code 202 Accepted} and the job, and clients poll {@code /jobs/{id}} until it is finished.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobService {
+    // Handlers that produce a file report its object name under this result key
+    public static final String RESULT_OBJECT_NAME = "objectName";
+
+    private static final String CANCEL_QUEUED_SQL = "UPDATE jobs SET status = 'CANCELLED', cancel_requested = true, " +
+            "finished_at = now(), updated_at = now() WHERE id = ? AND status = 'QUEUED'";
+
+    // A running job stops at the handler's next progress report
+    private static final String CANCEL_RUNNING_SQL = "UPDATE jobs SET cancel_requested = true, updated_at = now() " +
+            "WHERE id = ? AND status = 'RUNNING'";
+
+    private final JobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MinioService minioService;
+
+    /**
+     * Queues a job. Called inside a transaction, workers only see the job once that transaction commits.
+     */
+    public JobResponse submit(String type, Map<String, String> payload) {
+        Job job = jobRepository.save(Job.builder()
+                .type(type)
+                .payload(payload)
+                .status(JobStatus.QUEUED)
+                .availableAt(LocalDateTime.now())
+                .build());
+
+        log.info("Queued {} job {}", type, job.getId());
+        return toResponse(job);
+    }
+
+    public JobResponse getJob(String id) {
+        return toResponse(findJob(id));
+    }
+
+    public JobResponse cancel(String id) {
+        if (jdbcTemplate.update(CANCEL_QUEUED_SQL, id) == 0 && jdbcTemplate.update(CANCEL_RUNNING_SQL, id) == 0) {
+            Job job = findJob(id);
+            throw new ConflictException("Job " + id + " has already finished with status " + job.getStatus());
+        }
+        log.info("Cancellation of job {} requested", id);
+        return getJob(id);
+    }
+
+    /**
+     * Short-lived download URL for the file a completed job produced.
+     */
+    public String getResultUrl(String id) {
+        Job job = findJob(id);
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new ConflictException("Job " + id + " has not completed, status is " + job.getStatus());
+        }
+        String objectName = job.getResult() == null ? null : job.getResult().get(RESULT_OBJECT_NAME);
+        if (objectName == null) {
+            throw new NotFoundException("Job " + id + " did not produce a file");
+        }
+        return minioService.presignDownload(objectName).url();
+    }
+
+    private Job findJob(String id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Job with ID " + id + " not found"));
+    }
+
+    private static JobResponse toResponse(Job job) {
+        int percent = job.getStatus() == JobStatus.COMPLETED ? 100
+                : job.getTotal() > 0 ? (int) Math.min(99, job.getProcessed() * 100 / job.getTotal()) : 0;
+        return new JobResponse(
+                job.getId(),
+                job.getType(),
+                job.getStatus(),
+                job.getProcessed(),
+                job.getTotal(),
+                percent,
+                job.isCancelRequested(),
+                job.getResult(),
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getFinishedAt());
+    }
+}
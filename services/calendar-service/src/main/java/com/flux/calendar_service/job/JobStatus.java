@@ -0,0 +1,9 @@
+package com.flux.calendar_service.job;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
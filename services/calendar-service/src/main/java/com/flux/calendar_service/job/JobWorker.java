@@ -0,0 +1,192 @@
+package com.flux.calendar_service.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flux.calendar_service.exceptions.JobCancelledException;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the job queue through a {@link ClaimQueue}, so each poll claims at most as many jobs as
+ * there are idle worker threads and the remaining work stays in the table.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "jobs.enabled", havingValue = "true", matchIfMissing = true)
+public class JobWorker {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String CLAIM_SQL = "UPDATE jobs " +
+            "SET status = 'RUNNING', locked_at = now(), attempts = attempts + 1, updated_at = now() " +
+            "WHERE id IN (SELECT id FROM jobs WHERE status = 'QUEUED' AND available_at <= now() " +
+            "ORDER BY available_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, attempts";
+
+    // Jobs whose worker died go back to the queue, unless they were cancelled meanwhile
+    private static final String RECOVER_SQL = "UPDATE jobs " +
+            "SET status = CASE WHEN cancel_requested THEN 'CANCELLED' ELSE 'QUEUED' END, " +
+            "finished_at = CASE WHEN cancel_requested THEN now() END, locked_at = NULL, updated_at = now() " +
+            "WHERE status = 'RUNNING' AND locked_at < ?";
+
+    private static final String PROGRESS_SQL = "UPDATE jobs SET processed = ?, total = ?, locked_at = now(), " +
+            "updated_at = now() WHERE id = ? RETURNING cancel_requested";
+
+    // Both match the claimed attempt, so a worker whose job was recovered and claimed again leaves it alone
+    private static final String RETRY_SQL = "UPDATE jobs " +
+            "SET status = CASE WHEN cancel_requested THEN 'CANCELLED' ELSE 'QUEUED' END, " +
+            "finished_at = CASE WHEN cancel_requested THEN now() END, " +
+            "last_error = ?, available_at = ?, locked_at = NULL, updated_at = now() " +
+            "WHERE id = ? AND status = 'RUNNING' AND attempts = ?";
+
+    private static final String FINISH_SQL = "UPDATE jobs SET status = ?, result = CAST(? AS jsonb), last_error = ?, " +
+            "locked_at = NULL, finished_at = now(), updated_at = now() " +
+            "WHERE id = ? AND status = 'RUNNING' AND attempts = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM jobs WHERE id IN " +
+            "(SELECT id FROM jobs WHERE finished_at < ? LIMIT 1000) " +
+            "RETURNING result ->> '" + JobService.RESULT_OBJECT_NAME + "'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobRepository jobRepository;
+    private final MinioService minioService;
+    private final List<JobHandler> handlers;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${jobs.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${jobs.stale-after-minutes:10}")
+    private long staleAfterMinutes;
+
+    // Finished jobs and the files they produced are deleted after this many days
+    @Value("${jobs.retention-days:7}")
+    private long retentionDays;
+
+    private Map<String, JobHandler> handlersByType;
+    private ClaimQueue queue;
+
+    @PostConstruct
+    public void start() {
+        handlersByType = handlers.stream().collect(Collectors.toMap(JobHandler::type, Function.identity()));
+        queue = new ClaimQueue(jdbcTemplate, CLAIM_SQL, RECOVER_SQL, Duration.ofMinutes(staleAfterMinutes),
+                workerThreads, "job-worker-", this::process);
+    }
+
+    @PreDestroy
+    public void stop() {
+        queue.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.poll-interval-ms:1000}")
+    public void poll() {
+        queue.poll();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.purge-interval-ms:3600000}")
+    public void purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        List<String> objectNames;
+        do {
+            objectNames = jdbcTemplate.queryForList(PURGE_SQL, String.class, cutoff);
+            List<String> files = objectNames.stream().filter(Objects::nonNull).toList();
+            if (!files.isEmpty()) {
+                minioService.deleteFiles(files);
+            }
+        } while (objectNames.size() == 1000);
+    }
+
+    void process(String jobId, int attempt) {
+        Job job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        JobHandler handler = handlersByType.get(job.getType());
+        if (handler == null) {
+            finish(job, attempt, JobStatus.FAILED, null, "No handler for job type " + job.getType());
+            return;
+        }
+        if (attempt > maxAttempts) {
+            finish(job, attempt, JobStatus.FAILED, null, "Gave up after " + maxAttempts + " attempts");
+            return;
+        }
+
+        try {
+            Map<String, String> result = handler.run(job, (processed, total) -> progress(jobId, processed, total));
+            finish(job, attempt, JobStatus.COMPLETED, result, null);
+        } catch (JobCancelledException e) {
+            log.info("Job {} cancelled", jobId);
+            finish(job, attempt, JobStatus.CANCELLED, null, null);
+        } catch (InterruptedException e) {
+            // Shutting down; the job goes stale and is picked up again
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("{} job {} failed (attempt {}): {}", job.getType(), jobId, attempt, e.getMessage());
+            if (attempt < maxAttempts) {
+                jdbcTemplate.update(RETRY_SQL, truncate(e.getMessage()),
+                        Timestamp.valueOf(LocalDateTime.now().plusSeconds(30L << (attempt - 1))), jobId, attempt);
+            } else {
+                finish(job, attempt, JobStatus.FAILED, null, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Handlers may report from inside a read-only transaction, such as an export holding its cursor
+     * open. The update runs in its own transaction, so it is allowed there and the heartbeat commits
+     * right away instead of when the handler finishes.
+     */
+    private void progress(String jobId, long processed, long total) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Boolean cancelRequested = transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject(PROGRESS_SQL, Boolean.class, processed, total, jobId));
+        if (Boolean.TRUE.equals(cancelRequested)) {
+            throw new JobCancelledException("Job " + jobId + " was cancelled");
+        }
+    }
+
+    private void finish(Job job, int attempt, JobStatus status, Map<String, String> result, String error) {
+        if (jdbcTemplate.update(FINISH_SQL, status.name(), toJson(result), truncate(error), job.getId(), attempt) == 0) {
+            log.info("Job {} was claimed again, attempt {} leaves it alone", job.getId(), attempt);
+        }
+    }
+
+    private static String toJson(Map<String, String> result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Job result is not serializable", e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1024 ? error.substring(0, 1024) : error;
+    }
+}
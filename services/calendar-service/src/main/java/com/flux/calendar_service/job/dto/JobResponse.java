@@ -0,0 +1,21 @@
+package com.flux.calendar_service.job.dto;
+
+import com.flux.calendar_service.job.JobStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record JobResponse(
+        String id,
+        String type,
+        JobStatus status,
+        long processed,
+        long total,
+        int percentComplete,
+        boolean cancelRequested,
+        Map<String, String> result,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime finishedAt
+) {
+}
@@ -1,5 +1,6 @@
 package com.flux.calendar_service.location;
 
+import com.flux.calendar_service.cache.GatewayCacheEntityListener;
 import com.flux.calendar_service.event.Event;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -17,7 +18,7 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "locations")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, GatewayCacheEntityListener.class})
 public class Location {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -71,6 +71,7 @@ public class LocationService {
         return savedLocation.getId();
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "location", key = "#id", unless = "#result == null")
     public LocationResponse findById(String id) {
         validateId(id);
@@ -81,6 +82,7 @@ public class LocationService {
                 .orElseThrow(() -> new NotFoundException("Location not found with ID: " + id));
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "eventLocations", key = "#eventId")
     public LocationResponse findByEventId(String eventId) {
         validateId(eventId);
@@ -91,6 +93,7 @@ public class LocationService {
                 .orElseThrow(() -> new NotFoundException("Location not found for event ID: " + eventId));
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "locations", 
               key = "#pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort")
     public Page<LocationResponse> findAll(Pageable pageable) {
@@ -99,6 +102,7 @@ public class LocationService {
                 .map(locationMapper::toLocationResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "locationsByCity", key = "#city + ':' + #pageable")
     public Page<LocationResponse> findByCity(String city, Pageable pageable) {
         validateString(city, "City");
@@ -108,6 +112,7 @@ public class LocationService {
                 .map(locationMapper::toLocationResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "locationsByCountry", key = "#country + ':' + #pageable")
     public Page<LocationResponse> findByCountry(String country, Pageable pageable) {
         validateString(country, "Country");
@@ -117,6 +122,7 @@ public class LocationService {
                 .map(locationMapper::toLocationResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "locationSearch", 
               key = "#query + ':' + #pageable.pageNumber + ':' + #pageable.pageSize")
     public Page<LocationResponse> searchLocations(String query, Pageable pageable) {
@@ -127,6 +133,7 @@ public class LocationService {
                 .map(locationMapper::toLocationResponse);
     }
 
+    @Transactional(readOnly = true)
     @Cacheable(value = "nearbyLocations", 
               key = "#latitude + ':' + #longitude + ':' + #radius + ':' + #pageable")
     public Page<LocationResponse> findNearbyLocations(Double latitude, Double longitude, 
@@ -140,6 +147,7 @@ public class LocationService {
                 .map(locationMapper::toLocationResponse);
     }
 
+    @Transactional(readOnly = true)
     public OpenInMapResponse openInMaps(String id) {
         validateId(id);
         
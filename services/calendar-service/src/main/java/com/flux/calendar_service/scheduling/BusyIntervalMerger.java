@@ -0,0 +1,67 @@
+package com.flux.calendar_service.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of busy interval sources that are each sorted by start. Only the head of every
+ * source is held in memory, so the gaps are found without materializing anyone's full calendar.
+ */
+public final class BusyIntervalMerger {
+
+    private record Head(TimeInterval interval, Iterator<TimeInterval> source) {
+    }
+
+    private BusyIntervalMerger() {
+    }
+
+    /**
+     * Returns up to {@code maxSlots} gaps of at least {@code minDuration} inside
+     * {@code [windowStart, windowEnd)} that no source covers, in chronological order.
+     */
+    public static List<TimeInterval> freeSlots(List<Iterator<TimeInterval>> sources, Instant windowStart,
+                                               Instant windowEnd, Duration minDuration, int maxSlots) {
+        PriorityQueue<Head> heap = new PriorityQueue<>(Math.max(1, sources.size()),
+                Comparator.comparing((Head head) -> head.interval().start()));
+        for (Iterator<TimeInterval> source : sources) {
+            pushNext(heap, source);
+        }
+
+        List<TimeInterval> free = new ArrayList<>();
+        Instant cursor = windowStart;
+        while (!heap.isEmpty() && free.size() < maxSlots && cursor.isBefore(windowEnd)) {
+            Head head = heap.poll();
+            TimeInterval busy = head.interval();
+
+            if (busy.start().isAfter(cursor)) {
+                addIfLongEnough(free, cursor, busy.start().isBefore(windowEnd) ? busy.start() : windowEnd, minDuration);
+            }
+            if (busy.end().isAfter(cursor)) {
+                cursor = busy.end();
+            }
+            pushNext(heap, head.source());
+        }
+
+        if (free.size() < maxSlots && cursor.isBefore(windowEnd)) {
+            addIfLongEnough(free, cursor, windowEnd, minDuration);
+        }
+        return free;
+    }
+
+    private static void pushNext(PriorityQueue<Head> heap, Iterator<TimeInterval> source) {
+        if (source.hasNext()) {
+            heap.add(new Head(source.next(), source));
+        }
+    }
+
+    private static void addIfLongEnough(List<TimeInterval> free, Instant start, Instant end, Duration minDuration) {
+        if (Duration.between(start, end).compareTo(minDuration) >= 0) {
+            free.add(new TimeInterval(start, end));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.flux.calendar_service.scheduling;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the time columns of an event, in the local time of its calendar.
+ */
+public record EventSpan(
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                boolean allDay) {
+}
@@ -0,0 +1,49 @@
+package com.flux.calendar_service.scheduling;
+
+import com.flux.calendar_service.scheduling.dto.SlotSearchResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/scheduling")
+@RequiredArgsConstructor
+@Tag(name = "Scheduling Controller", description = "Endpoints for finding common meeting slots")
+public class SchedulingController {
+    private final SlotFinderService slotFinderService;
+
+    /**
+     * Find the first common free slots for a group of users
+     * GET /scheduling/slots?userIds=a,b&start=...&end=...&durationMinutes=30
+     */
+    @Operation(summary = "Find common slots", description = "Returns the first free gaps long enough for a meeting of all given users")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully searched slots"),
+            @ApiResponse(responseCode = "400", description = "Invalid users, range or timezone")
+    })
+    @GetMapping("/slots")
+    public ResponseEntity<SlotSearchResponse> findSlots(
+            @Parameter(description = "Participants") @RequestParam List<String> userIds,
+            @Parameter(description = "Search start (inclusive), in the given timezone") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "Search end (exclusive), in the given timezone") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(description = "Meeting length in minutes") @RequestParam(defaultValue = "30") int durationMinutes,
+            @Parameter(description = "Maximum number of slots") @RequestParam(defaultValue = "10") int count,
+            @Parameter(description = "Timezone of start, end and the returned slots") @RequestParam(defaultValue = "UTC") String timezone) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(slotFinderService.findCommonSlots(userIds, start, end, durationMinutes, count, timezone));
+    }
+}
@@ -0,0 +1,160 @@
+package com.flux.calendar_service.scheduling;
+
+import com.flux.calendar_service.availability.dto.FreeSlot;
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
+import com.flux.calendar_service.exceptions.RequestLimitExceededException;
+import com.flux.calendar_service.scheduling.dto.SlotSearchResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Finds the first free slots shared by a group of users. Every calendar contributes a stream of busy
+ * intervals sorted by start, converted from the calendar's timezone to UTC, and the streams are merged
+ * lazily by {@link BusyIntervalMerger}. All-day events block their whole local day, so they start at
+ * midnight rather than at their stored time and get a stream of their own to keep every stream sorted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotFinderService {
+    private final CalendarRepository calendarRepository;
+    private final EventRepository eventRepository;
+    private final OccurrenceExpander occurrenceExpander;
+
+    @Value("${scheduling.max-users:100}")
+    private int maxUsers;
+
+    @Value("${scheduling.max-range-days:62}")
+    private int maxRangeDays;
+
+    @Value("${scheduling.max-slots:100}")
+    private int maxSlots;
+
+    @Transactional(readOnly = true)
+    public SlotSearchResponse findCommonSlots(List<String> userIds, LocalDateTime start, LocalDateTime end,
+                                              int durationMinutes, int count, String timezone) {
+        List<String> users = userIds == null ? List.of()
+                : userIds.stream().filter(id -> id != null && !id.isBlank()).distinct().toList();
+        if (users.isEmpty()) {
+            throw new MustNotBeEmptyException("At least one user ID is required");
+        }
+        if (users.size() > maxUsers) {
+            throw new RequestLimitExceededException("Slots can be searched for at most " + maxUsers + " users");
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IncorrectTimeException("Range start must be before range end");
+        }
+        if (Duration.between(start, end).toDays() > maxRangeDays) {
+            throw new RequestLimitExceededException("Search range cannot exceed " + maxRangeDays + " days");
+        }
+        if (durationMinutes <= 0) {
+            throw new IncorrectTimeException("Duration must be positive");
+        }
+        if (count <= 0 || count > maxSlots) {
+            throw new RequestLimitExceededException("Between 1 and " + maxSlots + " slots can be requested");
+        }
+
+        ZoneId zone = parseZone(timezone);
+        Instant windowStart = start.atZone(zone).toInstant();
+        Instant windowEnd = end.atZone(zone).toInstant();
+
+        List<Stream<?>> opened = new ArrayList<>();
+        try {
+            List<Iterator<TimeInterval>> sources = new ArrayList<>();
+            for (Calendar calendar : calendarRepository.findByUserIdInAndIsDeletedFalse(users)) {
+                addCalendarSources(calendar, windowStart, windowEnd, sources, opened);
+            }
+
+            List<TimeInterval> free = BusyIntervalMerger.freeSlots(sources, windowStart, windowEnd,
+                    Duration.ofMinutes(durationMinutes), count);
+
+            return new SlotSearchResponse(users, zone.getId(), durationMinutes, free.stream()
+                    .map(slot -> new FreeSlot(
+                            LocalDateTime.ofInstant(slot.start(), zone),
+                            LocalDateTime.ofInstant(slot.end(), zone)))
+                    .toList());
+        } finally {
+            opened.forEach(Stream::close);
+        }
+    }
+
+    private void addCalendarSources(Calendar calendar, Instant windowStart, Instant windowEnd,
+                                    List<Iterator<TimeInterval>> sources, List<Stream<?>> opened) {
+        ZoneId calendarZone = calendarZone(calendar);
+        // Event times are stored in the local time of their calendar
+        LocalDateTime localStart = LocalDateTime.ofInstant(windowStart, calendarZone);
+        LocalDateTime localEnd = LocalDateTime.ofInstant(windowEnd, calendarZone);
+
+        for (boolean allDay : new boolean[]{false, true}) {
+            Stream<EventSpan> spans = eventRepository.streamSingleEventSpans(
+                    calendar.getId(), localStart, localEnd, EventStatus.CANCELLED, allDay);
+            opened.add(spans);
+            sources.add(spans.map(span -> toInterval(span.startTime(), span.endTime(), span.allDay(), calendarZone))
+                    .iterator());
+        }
+
+        List<Event> series = eventRepository.findRecurringByCalendarIdOverlapping(calendar.getId(), localStart, localEnd)
+                .stream()
+                .filter(event -> event.getStatus() != EventStatus.CANCELLED)
+                .toList();
+        if (!series.isEmpty()) {
+            sources.add(occurrenceExpander.expand(List.of(), series, localStart, localEnd).stream()
+                    .map(o -> toInterval(o.startTime(), o.endTime(), o.allDay(), calendarZone))
+                    .sorted(Comparator.comparing(TimeInterval::start))
+                    .iterator());
+        }
+    }
+
+    private static TimeInterval toInterval(LocalDateTime start, LocalDateTime end, boolean allDay, ZoneId zone) {
+        if (allDay) {
+            LocalDateTime dayEnd = start.toLocalDate().plusDays(1).atStartOfDay();
+            return new TimeInterval(
+                    start.toLocalDate().atStartOfDay(zone).toInstant(),
+                    (end != null && end.isAfter(dayEnd) ? end : dayEnd).atZone(zone).toInstant());
+        }
+        Instant startInstant = start.atZone(zone).toInstant();
+        return new TimeInterval(startInstant, end != null && end.isAfter(start) ? end.atZone(zone).toInstant() : startInstant);
+    }
+
+    private ZoneId calendarZone(Calendar calendar) {
+        try {
+            return ZoneId.of(calendar.getTimezone());
+        } catch (DateTimeException | NullPointerException e) {
+            log.warn("Calendar {} has an invalid timezone '{}', assuming UTC", calendar.getId(), calendar.getTimezone());
+            return ZoneOffset.UTC;
+        }
+    }
+
+    private static ZoneId parseZone(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            throw new IncorrectTimeException("Unknown timezone: " + timezone);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.flux.calendar_service.scheduling;
+
+import java.time.Instant;
+
+public record TimeInterval(
+                Instant start,
+                Instant end) {
+}
@@ -0,0 +1,12 @@
+package com.flux.calendar_service.scheduling.dto;
+
+import com.flux.calendar_service.availability.dto.FreeSlot;
+
+import java.util.List;
+
+public record SlotSearchResponse(
+                List<String> userIds,
+                String timezone,
+                int durationMinutes,
+                List<FreeSlot> slots) {
+}
@@ -0,0 +1,71 @@
+package com.flux.calendar_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Remembers tokens that already passed signature and claim validation, keyed by their SHA-256, until
+ * they expire. A client sends the same access token with every call for its whole lifetime, so only
+ * the first call pays for the RSA verification.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> validated;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxEntries) {
+        this.delegate = delegate;
+        this.validated = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        Instant expiresAt = jwt.getExpiresAt();
+                        return expiresAt == null ? 0 : Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, jwt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = tokenHash(token);
+        Jwt cached = validated.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Failures are not cached, a rejected token costs a verification every time
+        Jwt jwt = delegate.decode(token);
+        validated.put(key, jwt);
+        return jwt;
+    }
+
+    public static String tokenHash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
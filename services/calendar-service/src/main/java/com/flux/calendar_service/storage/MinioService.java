@@ -1,9 +1,21 @@
 package com.flux.calendar_service.storage;
 
 import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
 import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,18 +28,64 @@ import com.flux.calendar_service.exceptions.MinIoRetrievingErrorException;
 import com.flux.calendar_service.exceptions.MinIoUploadingErrorException;
 
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MinioService {
+    // Uploads are content-addressed afterwards and may be shared between events, so no event prefix
+    private static final String UPLOAD_PREFIX = "uploads";
 
     private final MinioClient minioClient;
 
     @Value("${minio.bucket}")
     private String bucketName;
 
+    // Size of each MinIO multipart chunk, and therefore the heap held per streaming upload
+    @Value("${minio.upload.part-size:10485760}")
+    private long uploadPartSize;
+
+    @Value("${minio.presign.upload-expiry-minutes:15}")
+    private long uploadExpiryMinutes;
+
+    @Value("${minio.presign.download-expiry-minutes:15}")
+    private long downloadExpiryMinutes;
+
+    // Upper bound on concurrent requests issued by one batch operation
+    @Value("${minio.batch.concurrency:8}")
+    private int batchConcurrency;
+
+    public record StoredObject(String objectName, long size, String etag, String sha256) {
+    }
+
+    public record PresignedUrl(String url, Instant expiresAt) {
+    }
+
     @PostConstruct
     public void init() {
         try {
@@ -41,25 +99,158 @@ public class MinioService {
         }
     }
 
-    public String uploadFile(MultipartFile file) {
-        String fileName = (System.currentTimeMillis() + "_" + file.getOriginalFilename()).replace(" ", "");
+    public StoredObject uploadFile(MultipartFile file) {
+        String fileName = newObjectName(UPLOAD_PREFIX, file.getOriginalFilename());
         try (InputStream is = file.getInputStream()) {
-            minioClient.putObject(
+            DigestInputStream hashed = new DigestInputStream(is, MessageDigest.getInstance("SHA-256"));
+            ObjectWriteResponse response = minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
                             .object(fileName)
-                            .stream(is, file.getSize(), -1)
+                            .stream(hashed, file.getSize(), -1)
                             .contentType(file.getContentType())
                             .build());
-            return fileName;
+            return new StoredObject(fileName, file.getSize(), response.etag(),
+                    HexFormat.of().formatHex(hashed.getMessageDigest().digest()));
         } catch (Exception e) {
             log.error("Error uploading file to MinIO", e);
             throw new MinIoUploadingErrorException("Failed to upload file: " + e.getMessage());
         }
     }
 
+    /**
+     * Uploads a stream of unknown length as a MinIO multipart upload, buffering one part at a time.
+     * The SHA-256 of the content is computed on the way through.
+     */
+    public StoredObject uploadStream(InputStream stream, String originalFilename, String contentType) {
+        String fileName = newObjectName(UPLOAD_PREFIX, originalFilename);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            CountingInputStream counted = new CountingInputStream(new DigestInputStream(stream, digest));
+            ObjectWriteResponse response = minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(fileName)
+                            .stream(counted, -1, uploadPartSize)
+                            .contentType(contentType != null ? contentType : "application/octet-stream")
+                            .build());
+            return new StoredObject(fileName, counted.getCount(), response.etag(), HexFormat.of().formatHex(digest.digest()));
+        } catch (Exception e) {
+            log.error("Error streaming file to MinIO", e);
+            throw new MinIoUploadingErrorException("Failed to upload file: " + e.getMessage());
+        }
+    }
+
+    public void uploadBytes(String objectName, byte[] content, String contentType) {
+        try (InputStream is = new java.io.ByteArrayInputStream(content)) {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .stream(is, content.length, -1)
+                            .contentType(contentType)
+                            .build());
+        } catch (Exception e) {
+            log.error("Error uploading {} to MinIO", objectName, e);
+            throw new MinIoUploadingErrorException("Failed to upload file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Time-limited URL the client can download the object from without going through this service.
+     */
     public String getFileUrl(String fileName) {
-        return String.format("%s/%s/%s", "https://flux-minios3.onrender.com", bucketName, fileName);
+        return presign(Method.GET, fileName, downloadExpiryMinutes).url();
+    }
+
+    /**
+     * Time-limited URL the client can PUT the object body to directly.
+     */
+    public PresignedUrl presignUpload(String objectName) {
+        return presign(Method.PUT, objectName, uploadExpiryMinutes);
+    }
+
+    public PresignedUrl presignDownload(String objectName) {
+        return presign(Method.GET, objectName, downloadExpiryMinutes);
+    }
+
+    /**
+     * Builds a collision-free object name under the given prefix.
+     */
+    public static String newObjectName(String prefix, String originalFilename) {
+        String name = originalFilename == null ? "file" : originalFilename.replace(" ", "").replace("/", "_");
+        return prefix + "/" + UUID.randomUUID() + "_" + name;
+    }
+
+    /**
+     * Reads an object through SHA-256, for content that reached storage without passing through this service.
+     */
+    public String sha256(String objectName) {
+        try (InputStream in = getFile(objectName)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            new DigestInputStream(in, digest).transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            log.error("Error hashing object in MinIO: {}", objectName, e);
+            throw new MinIoRetrievingErrorException("Failed to hash file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Looks up an uploaded object, returning empty if it does not exist.
+     */
+    public Optional<StatObjectResponse> findObject(String objectName) {
+        try {
+            return Optional.of(minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            log.error("Error reading object metadata from MinIO: {}", objectName, e);
+            throw new MinIoRetrievingErrorException("Failed to read object metadata: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading object metadata from MinIO: {}", objectName, e);
+            throw new MinIoRetrievingErrorException("Failed to read object metadata: " + e.getMessage());
+        }
+    }
+
+    private PresignedUrl presign(Method method, String objectName, long expiryMinutes) {
+        Duration expiry = Duration.ofMinutes(expiryMinutes);
+        try {
+            String url = minioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(method)
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .expiry((int) expiry.toSeconds())
+                            .build());
+            return new PresignedUrl(url, Instant.now().plus(expiry));
+        } catch (Exception e) {
+            log.error("Error presigning MinIO URL for: {}", objectName, e);
+            throw new MinIoRetrievingErrorException("Failed to create file URL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads {@code length} bytes starting at {@code offset}, letting MinIO serve only the requested range.
+     */
+    public InputStream getFileRange(String fileName, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                    io.minio.GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(fileName)
+                            .offset(offset)
+                            .length(length)
+                            .build());
+        } catch (Exception e) {
+            log.error("Error retrieving file range from MinIO: {}", fileName, e);
+            throw new MinIoRetrievingErrorException("Failed to retrieve file" + e.getMessage());
+        }
     }
 
     public InputStream getFile(String fileName) {
@@ -87,4 +278,168 @@ public class MinioService {
             throw new MinIoDeleteErrorException("Failed to delete file" + e.getMessage()    );
         }
     }
+
+    public record ZipSource(String entryName, String objectName) {
+    }
+
+    /**
+     * Deletes many objects with multi-object delete requests. Returns the names that could not be removed.
+     */
+    public List<String> deleteFiles(Collection<String> fileNames) {
+        if (fileNames.isEmpty()) {
+            return List.of();
+        }
+
+        List<DeleteObject> objects = fileNames.stream().distinct().map(DeleteObject::new).toList();
+        List<String> failed = new ArrayList<>();
+        try {
+            // The result is lazy: requests are only sent while it is being iterated
+            for (Result<DeleteError> result : minioClient.removeObjects(
+                    RemoveObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .objects(objects)
+                            .build())) {
+                DeleteError error = result.get();
+                log.error("Error deleting file from MinIO: {} ({})", error.objectName(), error.message());
+                failed.add(error.objectName());
+            }
+        } catch (Exception e) {
+            log.error("Error deleting files from MinIO", e);
+            throw new MinIoDeleteErrorException("Failed to delete files: " + e.getMessage());
+        }
+        return failed;
+    }
+
+    /**
+     * Server-side copies of several objects, at most {@code minio.batch.concurrency} at a time.
+     * Keys of the map are source names, values the target names.
+     */
+    public void copyFiles(Map<String, String> sourceToTarget) {
+        runBounded(sourceToTarget.entrySet().stream()
+                .map(entry -> (Callable<Void>) () -> {
+                    minioClient.copyObject(
+                            CopyObjectArgs.builder()
+                                    .bucket(bucketName)
+                                    .object(entry.getValue())
+                                    .source(CopySource.builder()
+                                            .bucket(bucketName)
+                                            .object(entry.getKey())
+                                            .build())
+                                    .build());
+                    return null;
+                })
+                .toList(), "copy");
+    }
+
+    /**
+     * Streams the given objects into a zip archive. Downloads of the next {@code minio.batch.concurrency}
+     * entries are opened ahead of the one being written so per-object latency overlaps, while the
+     * archive itself is still written sequentially.
+     */
+    public void writeZip(List<ZipSource> sources, OutputStream out) throws IOException {
+        List<Future<InputStream>> opened = new ArrayList<>(sources.size());
+        int written = 0;
+        try {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                // Opening in entry order keeps the window from ever waiting on a later entry
+                while (opened.size() < Math.min(batchConcurrency, sources.size())) {
+                    String objectName = sources.get(opened.size()).objectName();
+                    opened.add(executor.submit(() -> getFile(objectName)));
+                }
+
+                ZipOutputStream zip = new ZipOutputStream(out);
+                // Attachments are mostly compressed formats already
+                zip.setLevel(Deflater.BEST_SPEED);
+                Set<String> usedNames = new HashSet<>();
+                for (; written < sources.size(); written++) {
+                    try (InputStream in = awaitOpened(opened.get(written))) {
+                        zip.putNextEntry(new ZipEntry(uniqueEntryName(sources.get(written).entryName(), usedNames)));
+                        in.transferTo(zip);
+                        zip.closeEntry();
+                    }
+                    if (opened.size() < sources.size()) {
+                        String objectName = sources.get(opened.size()).objectName();
+                        opened.add(executor.submit(() -> getFile(objectName)));
+                    }
+                }
+                zip.finish();
+            }
+        } finally {
+            // The executor has drained by now; close bodies that were opened but never written
+            for (int i = written + 1; i < opened.size(); i++) {
+                Future<InputStream> future = opened.get(i);
+                if (future.state() == Future.State.SUCCESS) {
+                    closeQuietly(future.resultNow());
+                }
+            }
+        }
+    }
+
+    private static InputStream awaitOpened(Future<InputStream> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new MinIoRetrievingErrorException("Failed to retrieve file" + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing zip", e);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Failed to close MinIO stream: {}", e.getMessage());
+        }
+    }
+
+    private void runBounded(List<Callable<Void>> tasks, String operation) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        Semaphore slots = new Semaphore(batchConcurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Void>> futures = new ArrayList<>(tasks.size());
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    slots.acquire();
+                    try {
+                        return task.call();
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+
+            List<String> errors = new ArrayList<>();
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    errors.add(e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    errors.add("interrupted");
+                }
+            }
+            if (!errors.isEmpty()) {
+                log.error("Failed to {} {} of {} objects in MinIO: {}", operation, errors.size(), tasks.size(), errors);
+                throw new MinIoUploadingErrorException("Failed to " + operation + " files: " + errors.get(0));
+            }
+        }
+    }
+
+    private static String uniqueEntryName(String name, Set<String> usedNames) {
+        String base = name == null || name.isBlank() ? "file" : name.replace("/", "_");
+        String candidate = base;
+        int extension = base.lastIndexOf('.');
+        for (int copy = 2; !usedNames.add(candidate); copy++) {
+            candidate = extension > 0
+                    ? base.substring(0, extension) + " (" + copy + ")" + base.substring(extension)
+                    : base + " (" + copy + ")";
+        }
+        return candidate;
+    }
 }
@@ -0,0 +1,297 @@
+package com.flux.calendar_service.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Incremental multipart/form-data parser. Parts are exposed as streams over a single fixed-size buffer,
+ * so a request body of any size is read exactly once and never held in memory or spooled to disk.
+ */
+public final class MultipartStreamReader {
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+
+    public record Part(
+                    String name,
+                    String filename,
+                    String contentType,
+                    InputStream body) {
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;
+    private int tail;
+    private PartInputStream current;
+    private boolean finished;
+
+    public MultipartStreamReader(InputStream in, String boundary, int bufferSize) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // Room for a whole header block and a delimiter, so oversized headers fail the header check, not the buffer
+        this.buffer = new byte[Math.max(bufferSize, MAX_HEADER_BYTES + delimiter.length * 4)];
+        // The body starts with "--boundary" without a leading CRLF; pretend there was one
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+        // Anything before the first boundary is preamble and gets skipped like a part body
+        current = new PartInputStream();
+    }
+
+    /**
+     * Extracts the boundary parameter of a multipart Content-Type header, or {@code null} if there is none.
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "boundary=", 0, 9)) {
+                String value = trimmed.substring(9);
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Advances to the next part, skipping whatever is left of the previous one. Returns {@code null}
+     * after the closing boundary.
+     */
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        current.skipRemaining();
+
+        if (!ensure(2)) {
+            throw new EOFException("Multipart stream ended after a boundary");
+        }
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        if (buffer[head] != '\r' || buffer[head + 1] != '\n') {
+            throw new IOException("Malformed multipart boundary line");
+        }
+        head += 2;
+
+        Map<String, String> headers = readHeaders();
+        current = new PartInputStream();
+
+        String disposition = headers.getOrDefault("content-disposition", "");
+        return new Part(
+                dispositionParameter(disposition, "name"),
+                dispositionParameter(disposition, "filename"),
+                headers.get("content-type"),
+                current);
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        int consumed = 0;
+        while (true) {
+            int lineEnd = indexOfCrlf();
+            while (lineEnd < 0) {
+                if (tail - head > MAX_HEADER_BYTES || !fill()) {
+                    throw new IOException("Multipart part headers are too large or truncated");
+                }
+                lineEnd = indexOfCrlf();
+            }
+
+            String line = new String(buffer, head, lineEnd - head, StandardCharsets.UTF_8);
+            consumed += lineEnd + 2 - head;
+            head = lineEnd + 2;
+            if (consumed > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart part headers are too large");
+            }
+            if (line.isEmpty()) {
+                return headers;
+            }
+
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+    }
+
+    private int indexOfCrlf() {
+        for (int i = head; i + 1 < tail; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String dispositionParameter(String disposition, String name) {
+        for (String parameter : disposition.split(";")) {
+            String trimmed = parameter.trim();
+            int equals = trimmed.indexOf('=');
+            if (equals > 0 && trimmed.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                String value = trimmed.substring(equals + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private boolean ensure(int bytes) throws IOException {
+        while (tail - head < bytes) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compacts the buffer and reads more input. Returns {@code false} at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            if (current != null) {
+                current.shift(head);
+            }
+            tail -= head;
+            head = 0;
+        }
+        if (tail == buffer.length) {
+            throw new IOException("Multipart buffer is full");
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            return false;
+        }
+        tail += read;
+        return true;
+    }
+
+    private final class PartInputStream extends InputStream {
+        private boolean done;
+        // Position of the next delimiter in the buffer, or -1 while it has not been seen yet
+        private int delimiterAt = -1;
+        // Every delimiter start before this position has already been ruled out
+        private int scannedTo;
+
+        PartInputStream() {
+            scannedTo = head;
+        }
+
+        void shift(int offset) {
+            if (delimiterAt >= 0) {
+                delimiterAt -= offset;
+            }
+            scannedTo = Math.max(0, scannedTo - offset);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+
+            while (true) {
+                int available = available();
+                if (available > 0) {
+                    int count = Math.min(length, available);
+                    System.arraycopy(buffer, head, target, offset, count);
+                    head += count;
+                    return count;
+                }
+                if (delimiterAt >= 0) {
+                    head = delimiterAt + delimiter.length;
+                    done = true;
+                    return -1;
+                }
+                if (!fill()) {
+                    throw new EOFException("Multipart stream ended inside a part");
+                }
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && !done) {
+                int available = available();
+                if (available > 0) {
+                    int count = (int) Math.min(n - skipped, available);
+                    head += count;
+                    skipped += count;
+                } else if (read() < 0) {
+                    break;
+                } else {
+                    skipped++;
+                }
+            }
+            return skipped;
+        }
+
+        /**
+         * Bytes that can be returned without crossing the delimiter.
+         */
+        @Override
+        public int available() {
+            if (done) {
+                return 0;
+            }
+            if (delimiterAt < 0) {
+                int lastStart = tail - delimiter.length;
+                for (int i = Math.max(scannedTo, head); i <= lastStart; i++) {
+                    if (matchesDelimiter(i)) {
+                        delimiterAt = i;
+                        break;
+                    }
+                }
+                if (delimiterAt < 0) {
+                    scannedTo = Math.max(scannedTo, lastStart + 1);
+                }
+            }
+            int safeEnd = delimiterAt >= 0 ? delimiterAt : Math.max(head, tail - delimiter.length + 1);
+            return safeEnd - head;
+        }
+
+        void skipRemaining() throws IOException {
+            while (skip(Long.MAX_VALUE) > 0) {
+                // keep skipping until the delimiter is reached
+            }
+            if (!done) {
+                read();
+            }
+        }
+
+        private boolean matchesDelimiter(int position) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[position + j] != delimiter[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.flux.calendar_service.task;
 
+import com.flux.calendar_service.cache.GatewayCacheEntityListener;
 import com.flux.calendar_service.event.Event;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -13,6 +14,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity
 @Table(name = "tasks")
+@EntityListeners(GatewayCacheEntityListener.class)
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -0,0 +1,10 @@
+-- Stored attachments are addressed by their MinIO object name and served through presigned URLs,
+-- so the public URL no longer needs to be persisted
+ALTER TABLE attachments ADD COLUMN object_name VARCHAR(512);
+ALTER TABLE attachments ALTER COLUMN file_url DROP NOT NULL;
+
+UPDATE attachments
+SET object_name = regexp_replace(file_url, '^.*/', '')
+WHERE file_url LIKE 'https://flux-minios3.onrender.com/%';
+
+CREATE INDEX idx_attachments_object_name ON attachments (object_name) WHERE object_name IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Storage ETag of the attachment object, used for conditional and ranged downloads.
+-- Existing rows are filled in lazily on their first download.
+ALTER TABLE attachments ADD COLUMN etag VARCHAR(255);
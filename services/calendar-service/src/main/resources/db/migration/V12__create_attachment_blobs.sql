@@ -0,0 +1,14 @@
+-- Content-addressed attachment storage: one object per distinct SHA-256, shared by reference count
+CREATE TABLE attachment_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    object_name VARCHAR(512) NOT NULL,
+    size BIGINT NOT NULL,
+    etag VARCHAR(255),
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Attachments created before deduplication keep a NULL hash and own their object outright
+ALTER TABLE attachments ADD COLUMN content_hash VARCHAR(64);
+CREATE INDEX idx_attachments_content_hash ON attachments (content_hash) WHERE content_hash IS NOT NULL;
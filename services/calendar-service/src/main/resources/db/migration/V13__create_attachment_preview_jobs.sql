@@ -0,0 +1,17 @@
+-- Work queue for thumbnail/preview rendering. Workers claim rows with FOR UPDATE SKIP LOCKED,
+-- so several instances can drain the queue without handing out the same job twice.
+CREATE TABLE attachment_preview_jobs (
+    id VARCHAR(255) PRIMARY KEY,
+    attachment_id VARCHAR(255) NOT NULL UNIQUE,
+    status VARCHAR(32) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    preview_object_name VARCHAR(512),
+    last_error VARCHAR(1024),
+    available_at TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (attachment_id) REFERENCES attachments(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_attachment_preview_jobs_pending ON attachment_preview_jobs (available_at) WHERE status = 'PENDING';
@@ -0,0 +1,36 @@
+-- UID of events imported from iCalendar files, so re-importing the same file updates them
+-- instead of creating duplicates. It cannot be a unique constraint on the partitioned table
+-- (see V8); imports of one calendar are serialized instead.
+ALTER TABLE events ADD COLUMN ical_uid VARCHAR(512);
+
+CREATE INDEX idx_events_calendar_ical_uid ON events (calendar_id, ical_uid) WHERE ical_uid IS NOT NULL;
+
+-- Uploaded .ics files waiting for or being processed by the import worker. Progress counters are
+-- updated in the same transaction as every written batch.
+CREATE TABLE ics_import_jobs (
+    id VARCHAR(255) PRIMARY KEY,
+    calendar_id VARCHAR(255) NOT NULL,
+    object_name VARCHAR(512) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    bytes_read BIGINT NOT NULL DEFAULT 0,
+    sync_to_google BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(32) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    events_inserted INTEGER NOT NULL DEFAULT 0,
+    events_updated INTEGER NOT NULL DEFAULT 0,
+    exceptions_written INTEGER NOT NULL DEFAULT 0,
+    tasks_written INTEGER NOT NULL DEFAULT 0,
+    skipped INTEGER NOT NULL DEFAULT 0,
+    google_synced INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1024),
+    locked_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (calendar_id) REFERENCES calendars(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_ics_import_jobs_queued ON ics_import_jobs (created_at) WHERE status = 'QUEUED';
+-- At most one active import per calendar, since the UID lookups of two imports would race
+CREATE UNIQUE INDEX uk_ics_import_jobs_active ON ics_import_jobs (calendar_id)
+    WHERE status IN ('QUEUED', 'RUNNING', 'SYNCING');
@@ -0,0 +1,23 @@
+-- Generic queue for long-running operations (calendar deletion, Google clean-up, exports).
+-- Workers claim rows with FOR UPDATE SKIP LOCKED; clients poll the row for progress.
+CREATE TABLE jobs (
+    id VARCHAR(255) PRIMARY KEY,
+    type VARCHAR(64) NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    processed BIGINT NOT NULL DEFAULT 0,
+    total BIGINT NOT NULL DEFAULT 0,
+    cancel_requested BOOLEAN NOT NULL DEFAULT FALSE,
+    result JSONB,
+    last_error VARCHAR(1024),
+    available_at TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_jobs_queued ON jobs (available_at) WHERE status = 'QUEUED';
+CREATE INDEX idx_jobs_running ON jobs (locked_at) WHERE status = 'RUNNING';
+CREATE INDEX idx_jobs_finished ON jobs (finished_at) WHERE finished_at IS NOT NULL;
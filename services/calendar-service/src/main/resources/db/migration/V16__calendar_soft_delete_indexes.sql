@@ -0,0 +1,14 @@
+-- When a calendar was soft-deleted, so the purge worker can hard-delete it after the retention window.
+-- Calendars deleted before this migration start their retention window from their last update.
+ALTER TABLE calendars ADD COLUMN deleted_at TIMESTAMP;
+UPDATE calendars SET deleted_at = COALESCE(updated_at, now()) WHERE is_deleted;
+
+-- Every read filters on is_deleted = false, which the planner matches against NOT is_deleted,
+-- so these only hold live calendars. (user_id, title) also serves the lookups by user alone.
+CREATE INDEX idx_calendars_user_title_active ON calendars (user_id, title) WHERE NOT is_deleted;
+CREATE INDEX idx_calendars_user_primary ON calendars (user_id) WHERE is_primary AND NOT is_deleted;
+CREATE INDEX idx_calendars_deleted_at ON calendars (deleted_at) WHERE is_deleted;
+
+-- The purge deletes the children of a batch of events by event_id, which had no index since V8
+CREATE INDEX idx_tasks_event_id ON tasks (event_id);
+CREATE INDEX idx_attachments_event_id ON attachments (event_id);
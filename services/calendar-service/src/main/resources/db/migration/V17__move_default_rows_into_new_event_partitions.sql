@@ -0,0 +1,33 @@
+-- Events beyond the months the maintenance job creates ahead land in events_default. Creating the
+-- partition for such a month later failed, because the default partition already held rows for its
+-- range. The function now detaches the default partition, creates the new one, moves the month's rows
+-- over and attaches the default partition again, all in one transaction. DETACH locks events, so
+-- writes wait for the move instead of landing in the detached table.
+CREATE OR REPLACE FUNCTION create_events_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    partition_name TEXT := 'events_' || to_char(month_start, 'YYYY_MM');
+    month_end DATE := (month_start + INTERVAL '1 month')::DATE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM events_default WHERE start_time >= month_start AND start_time < month_end) THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF events FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, month_start, month_end);
+        RETURN;
+    END IF;
+
+    ALTER TABLE events DETACH PARTITION events_default;
+    EXECUTE format('CREATE TABLE %I PARTITION OF events FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_end);
+    INSERT INTO events SELECT * FROM events_default WHERE start_time >= month_start AND start_time < month_end;
+    DELETE FROM events_default WHERE start_time >= month_start AND start_time < month_end;
+    ALTER TABLE events ATTACH PARTITION events_default DEFAULT;
+END;
+$$ LANGUAGE plpgsql;
+
+-- V4 made conference_id UNIQUE, and V8 lost that: a unique constraint on a partitioned table must
+-- contain the partition key. This restores it for each start_time; EventService.attachConference
+-- still rejects a conference that is attached to another event at any other time.
+CREATE UNIQUE INDEX uq_events_conference_start ON events (conference_id, start_time);
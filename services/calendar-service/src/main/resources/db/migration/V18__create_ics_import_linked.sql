@@ -0,0 +1,19 @@
+-- Overridden occurrences (RECURRENCE-ID) and tasks (VTODO) of a running import. They point at
+-- events by UID, so they wait here until every event of the file is written instead of being held
+-- in memory. Rows are keyed by attempt, so leftovers of a restarted attempt are never read again.
+CREATE TABLE ics_import_linked (
+    seq BIGSERIAL PRIMARY KEY,
+    job_id VARCHAR(255) NOT NULL,
+    attempt INTEGER NOT NULL,
+    uid VARCHAR(512) NOT NULL,
+    event_uid VARCHAR(512),
+    recurrence_id TIMESTAMP,
+    start_time TIMESTAMP,
+    end_time TIMESTAMP,
+    title VARCHAR(255),
+    status VARCHAR(32),
+    done BOOLEAN NOT NULL DEFAULT FALSE,
+    FOREIGN KEY (job_id) REFERENCES ics_import_jobs(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_ics_import_linked_job ON ics_import_linked (job_id, attempt, seq);
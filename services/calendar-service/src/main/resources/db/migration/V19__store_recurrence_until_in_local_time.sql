@@ -0,0 +1,5 @@
+-- UNTIL used to be written with a trailing Z although it held the calendar's local time; drop the Z
+-- so stored rules are no longer read as UTC
+UPDATE events
+SET recurrence_rule = regexp_replace(recurrence_rule, '(UNTIL=[0-9]{8}T[0-9]{6})Z', '\1')
+WHERE recurrence_rule LIKE '%UNTIL=%Z%';
@@ -0,0 +1,81 @@
+-- Converts events into a table range-partitioned by month on start_time.
+-- The partition key must be part of every unique constraint, so the primary key becomes
+-- (id, start_time), start_time becomes NOT NULL and the foreign keys pointing at events(id)
+-- are dropped. Deletes still cascade to tasks and attachments through the JPA mappings.
+
+ALTER TABLE tasks DROP CONSTRAINT IF EXISTS tasks_event_id_fkey;
+ALTER TABLE attachments DROP CONSTRAINT IF EXISTS attachments_event_id_fkey;
+
+ALTER TABLE events RENAME TO events_legacy;
+ALTER INDEX idx_events_google_calendar_id RENAME TO idx_events_legacy_google_calendar_id;
+
+CREATE TABLE events (
+    id VARCHAR(255) NOT NULL,
+    calendar_id VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    color_hex VARCHAR(255) NOT NULL,
+    location_id VARCHAR(255),
+    conference_id VARCHAR(255),
+    google_calendar_id VARCHAR(255),
+    type VARCHAR(50) NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP,
+    all_day BOOLEAN DEFAULT FALSE,
+    sync_status VARCHAR(50) DEFAULT 'SYNCED',
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (calendar_id) REFERENCES calendars(id) ON DELETE CASCADE,
+    FOREIGN KEY (location_id) REFERENCES locations(id) ON DELETE SET NULL,
+    FOREIGN KEY (conference_id) REFERENCES conferences(id) ON DELETE SET NULL
+) PARTITION BY RANGE (start_time);
+
+-- Catches rows outside of any monthly partition so inserts never fail
+CREATE TABLE events_default PARTITION OF events DEFAULT;
+
+CREATE OR REPLACE FUNCTION create_events_partition(month_start DATE) RETURNS VOID AS $$
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF events FOR VALUES FROM (%L) TO (%L)',
+                   'events_' || to_char(month_start, 'YYYY_MM'),
+                   month_start,
+                   (month_start + INTERVAL '1 month')::DATE);
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE;
+    current_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(COALESCE(start_time, created_at)), now()))::DATE,
+           (GREATEST(date_trunc('month', COALESCE(MAX(COALESCE(start_time, created_at)), now())),
+                     date_trunc('month', now())) + INTERVAL '3 months')::DATE
+    INTO first_month, last_month
+    FROM events_legacy;
+
+    current_month := first_month;
+    WHILE current_month <= last_month LOOP
+        PERFORM create_events_partition(current_month);
+        current_month := (current_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO events (id, calendar_id, title, description, color_hex, location_id, conference_id,
+                    google_calendar_id, type, start_time, end_time, all_day, sync_status, status,
+                    created_at, updated_at)
+SELECT id, calendar_id, title, description, color_hex, location_id, conference_id,
+       google_calendar_id, type, COALESCE(start_time, created_at), end_time, all_day, sync_status, status,
+       created_at, updated_at
+FROM events_legacy;
+
+DROP TABLE events_legacy;
+
+-- Lookups by id alone cannot be pruned, but stay index scans on every partition
+CREATE INDEX idx_events_id ON events(id);
+CREATE INDEX idx_events_calendar_start ON events(calendar_id, start_time);
+CREATE INDEX idx_events_google_calendar_id ON events(google_calendar_id);
+CREATE INDEX idx_events_location_id ON events(location_id);
+CREATE INDEX idx_events_conference_id ON events(conference_id);
@@ -0,0 +1,20 @@
+-- Recurring series are stored as a single row carrying the RRULE; instances are expanded on read.
+ALTER TABLE events ADD COLUMN recurrence_rule VARCHAR(512);
+ALTER TABLE events ADD COLUMN recurrence_end TIMESTAMP;
+
+CREATE INDEX idx_events_recurring ON events (calendar_id, start_time) WHERE recurrence_rule IS NOT NULL;
+
+-- Cancelled or modified occurrences of a series, keyed by the original occurrence start.
+-- No foreign key to events since its primary key includes the partition column (see V8).
+CREATE TABLE event_occurrence_exceptions (
+    id VARCHAR(255) PRIMARY KEY,
+    event_id VARCHAR(255) NOT NULL,
+    original_start_time TIMESTAMP NOT NULL,
+    cancelled BOOLEAN NOT NULL DEFAULT FALSE,
+    start_time TIMESTAMP,
+    end_time TIMESTAMP,
+    title VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_event_occurrence_exceptions UNIQUE (event_id, original_start_time)
+);
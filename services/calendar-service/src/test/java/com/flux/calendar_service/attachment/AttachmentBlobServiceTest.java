@@ -0,0 +1,123 @@
+package com.flux.calendar_service.attachment;
+
+import com.flux.calendar_service.attachment.dto.StorageStatsResponse;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentBlobServiceTest {
+
+    @Mock
+    private AttachmentBlobRepository attachmentBlobRepository;
+    @Mock
+    private MinioService minioService;
+
+    @InjectMocks
+    private AttachmentBlobService attachmentBlobService;
+
+    @Test
+    void acquire_NewContentKeepsUpload() {
+        MinioService.StoredObject stored = new MinioService.StoredObject("1_a.pdf", 100, "etag", "hash");
+        when(attachmentBlobRepository.findById("hash")).thenReturn(Optional.of(blob("1_a.pdf", 1)));
+
+        AttachmentBlob blob = attachmentBlobService.acquire(stored);
+
+        assertEquals("1_a.pdf", blob.getObjectName());
+        verify(attachmentBlobRepository).acquire("hash", "1_a.pdf", 100, "etag");
+        verify(minioService, never()).deleteFile(any());
+    }
+
+    @Test
+    void acquire_DuplicateContentDeletesUpload() {
+        MinioService.StoredObject stored = new MinioService.StoredObject("2_copy.pdf", 100, "etag", "hash");
+        when(attachmentBlobRepository.findById("hash")).thenReturn(Optional.of(blob("1_a.pdf", 2)));
+
+        AttachmentBlob blob = attachmentBlobService.acquire(stored);
+
+        assertEquals("1_a.pdf", blob.getObjectName());
+        verify(minioService).deleteFile("2_copy.pdf");
+    }
+
+    @Test
+    void release_LastReferenceDeletesObject() {
+        when(attachmentBlobRepository.findById("hash")).thenReturn(Optional.of(blob("1_a.pdf", 1)));
+        when(attachmentBlobRepository.deleteIfUnreferenced("hash")).thenReturn(1);
+
+        attachmentBlobService.release("hash");
+
+        verify(attachmentBlobRepository).release("hash");
+        verify(minioService).deleteFile("1_a.pdf");
+    }
+
+    @Test
+    void release_SharedBlobKeepsObject() {
+        when(attachmentBlobRepository.findById("hash")).thenReturn(Optional.of(blob("1_a.pdf", 3)));
+        when(attachmentBlobRepository.deleteIfUnreferenced("hash")).thenReturn(0);
+
+        attachmentBlobService.release("hash");
+
+        verify(attachmentBlobRepository).release("hash");
+        verify(minioService, never()).deleteFile(any());
+    }
+
+    @Test
+    void releaseAll_ReturnsUnreferencedObjectsWithoutDeleting() {
+        when(attachmentBlobRepository.findById("a-hash")).thenReturn(Optional.of(blob("1_a.pdf", 1)));
+        when(attachmentBlobRepository.findById("b-hash")).thenReturn(Optional.of(blob("2_b.pdf", 2)));
+        when(attachmentBlobRepository.deleteIfUnreferenced("a-hash")).thenReturn(1);
+        when(attachmentBlobRepository.deleteIfUnreferenced("b-hash")).thenReturn(0, 1);
+
+        List<String> unreferenced = attachmentBlobService.releaseAll(List.of("b-hash", "a-hash", "b-hash"));
+
+        assertEquals(List.of("1_a.pdf", "2_b.pdf"), unreferenced);
+        InOrder order = inOrder(attachmentBlobRepository);
+        order.verify(attachmentBlobRepository).release("a-hash");
+        order.verify(attachmentBlobRepository, times(2)).release("b-hash");
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    void addReference_UnknownContent() {
+        when(attachmentBlobRepository.addReference("hash")).thenReturn(0);
+
+        assertThrows(NotFoundException.class, () -> attachmentBlobService.addReference("hash"));
+    }
+
+    @Test
+    void getStorageStats_ReportsSavings() {
+        when(attachmentBlobRepository.getStorageStats()).thenReturn(new AttachmentBlobRepository.StorageStats() {
+            public long getBlobs() { return 2; }
+            public long getReferences() { return 5; }
+            public long getStoredBytes() { return 300; }
+            public long getLogicalBytes() { return 1200; }
+        });
+
+        StorageStatsResponse stats = attachmentBlobService.getStorageStats();
+
+        assertEquals(900, stats.savedBytes());
+        assertEquals(0.75, stats.savedRatio(), 1e-9);
+    }
+
+    private static AttachmentBlob blob(String objectName, int refCount) {
+        return AttachmentBlob.builder()
+                .contentHash("hash")
+                .objectName(objectName)
+                .size(100)
+                .etag("etag")
+                .refCount(refCount)
+                .build();
+    }
+}
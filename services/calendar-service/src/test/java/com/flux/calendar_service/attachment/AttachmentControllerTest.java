@@ -2,7 +2,13 @@ package com.flux.calendar_service.attachment;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flux.calendar_service.attachment.dto.AttachmentResponse;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadRequest;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadResponse;
+import com.flux.calendar_service.attachment.preview.AttachmentPreviewService;
+import com.flux.calendar_service.attachment.preview.PreviewJob;
+import com.flux.calendar_service.attachment.preview.PreviewStatus;
 import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.storage.MinioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,13 +18,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +43,9 @@ class AttachmentControllerTest {
     @Mock
     private AttachmentService attachmentService;
 
+    @Mock
+    private AttachmentPreviewService attachmentPreviewService;
+
     @InjectMocks
     private AttachmentController attachmentController;
 
@@ -55,22 +71,136 @@ class AttachmentControllerTest {
 
     @Test
     void getFile_Success() throws Exception {
-        Attachment attachment = Attachment.builder()
-                .id("att-1")
-                .title("test.txt")
-                .mimeType("text/plain")
-                .fileUrl("http://url")
-                .build();
-        
+        Attachment attachment = textAttachment();
         when(attachmentService.getAttachment("att-1")).thenReturn(attachment);
+        when(attachmentService.getETag(attachment)).thenReturn("abc");
         when(attachmentService.downloadAttachment("att-1")).thenReturn(new ByteArrayInputStream("content".getBytes()));
 
         mockMvc.perform(get("/attachments/att-1/file"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("content"))
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"test.txt\""));
     }
 
+    @Test
+    void getFile_Range() throws Exception {
+        Attachment attachment = textAttachment();
+        when(attachmentService.getAttachment("att-1")).thenReturn(attachment);
+        when(attachmentService.getETag(attachment)).thenReturn("abc");
+        when(attachmentService.downloadAttachmentRange(attachment, 2, 3)).thenReturn(new ByteArrayInputStream("nte".getBytes()));
+
+        mockMvc.perform(get("/attachments/att-1/file").header("Range", "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("nte"))
+                .andExpect(header().string("Content-Range", "bytes 2-4/7"))
+                .andExpect(header().longValue("Content-Length", 3));
+    }
+
+    @Test
+    void getFile_SuffixRangeWithMatchingIfRange() throws Exception {
+        Attachment attachment = textAttachment();
+        when(attachmentService.getAttachment("att-1")).thenReturn(attachment);
+        when(attachmentService.getETag(attachment)).thenReturn("abc");
+        when(attachmentService.downloadAttachmentRange(attachment, 4, 3)).thenReturn(new ByteArrayInputStream("ent".getBytes()));
+
+        mockMvc.perform(get("/attachments/att-1/file")
+                        .header("Range", "bytes=-3")
+                        .header("If-Range", "\"abc\""))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 4-6/7"));
+    }
+
+    @Test
+    void getFile_StaleIfRangeReturnsWholeFile() throws Exception {
+        Attachment attachment = textAttachment();
+        when(attachmentService.getAttachment("att-1")).thenReturn(attachment);
+        when(attachmentService.getETag(attachment)).thenReturn("abc");
+        when(attachmentService.downloadAttachment("att-1")).thenReturn(new ByteArrayInputStream("content".getBytes()));
+
+        mockMvc.perform(get("/attachments/att-1/file")
+                        .header("Range", "bytes=2-4")
+                        .header("If-Range", "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("content"));
+
+        verify(attachmentService, never()).downloadAttachmentRange(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void getFile_UnsatisfiableRange() throws Exception {
+        Attachment attachment = textAttachment();
+        when(attachmentService.getAttachment("att-1")).thenReturn(attachment);
+        when(attachmentService.getETag(attachment)).thenReturn("abc");
+
+        mockMvc.perform(get("/attachments/att-1/file").header("Range", "bytes=10-20"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */7"));
+    }
+
+    @Test
+    void getFile_NotModified() throws Exception {
+        Attachment attachment = textAttachment();
+        when(attachmentService.getAttachment("att-1")).thenReturn(attachment);
+        when(attachmentService.getETag(attachment)).thenReturn("abc");
+
+        mockMvc.perform(get("/attachments/att-1/file").header("If-None-Match", "\"xyz\", W/\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc\""));
+
+        verify(attachmentService, never()).downloadAttachment(any());
+    }
+
+    @Test
+    void createUploadUrl_Success() throws Exception {
+        AttachmentUploadResponse response = new AttachmentUploadResponse("evt-1/abc_test.txt", "http://minio/put", Instant.now());
+        when(attachmentService.createUploadUrl(eq("evt-1"), any(AttachmentUploadRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/attachments/event/evt-1/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fileName\":\"test.txt\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.objectName").value("evt-1/abc_test.txt"))
+                .andExpect(jsonPath("$.uploadUrl").value("http://minio/put"));
+    }
+
+    @Test
+    void redirectToFile_Success() throws Exception {
+        when(attachmentService.getDownloadUrl("att-1"))
+                .thenReturn(new MinioService.PresignedUrl("http://minio/get?sig=1", Instant.now()));
+
+        mockMvc.perform(get("/attachments/att-1/download"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "http://minio/get?sig=1"));
+    }
+
+    @Test
+    void getPreview_Ready() throws Exception {
+        PreviewJob job = PreviewJob.builder()
+                .attachmentId("att-1")
+                .status(PreviewStatus.DONE)
+                .previewObjectName("previews/att-1.png")
+                .build();
+        when(attachmentPreviewService.getPreviewJob("att-1")).thenReturn(job);
+        when(attachmentPreviewService.openPreview(job)).thenReturn(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        mockMvc.perform(get("/attachments/att-1/preview"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void getPreview_Pending() throws Exception {
+        when(attachmentPreviewService.getPreviewJob("att-1"))
+                .thenReturn(PreviewJob.builder().attachmentId("att-1").status(PreviewStatus.PENDING).build());
+
+        mockMvc.perform(get("/attachments/att-1/preview"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
     @Test
     void deleteAttachment_Success() throws Exception {
         mockMvc.perform(delete("/attachments/att-1"))
@@ -78,4 +208,52 @@ class AttachmentControllerTest {
 
         verify(attachmentService).deleteAttachment("att-1");
     }
+
+    @Test
+    void deleteEventAttachments_Success() throws Exception {
+        mockMvc.perform(delete("/attachments/event/evt-1"))
+                .andExpect(status().isNoContent());
+
+        verify(attachmentService).deleteEventAttachments("evt-1");
+    }
+
+    @Test
+    void copyAttachments_Success() throws Exception {
+        when(attachmentService.copyAttachments("evt-1", "evt-2")).thenReturn(List.of(
+                new AttachmentResponse("att-2", "http://minio/test.txt", "test.txt", "text/plain", 7L, null, null)));
+
+        mockMvc.perform(post("/attachments/event/evt-1/copy-to/evt-2"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value("att-2"));
+    }
+
+    @Test
+    void downloadEventAttachments_StreamsZip() throws Exception {
+        List<Attachment> attachments = List.of(textAttachment());
+        when(attachmentService.getEventAttachments("evt-1")).thenReturn(attachments);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(new byte[]{'P', 'K'});
+            return null;
+        }).when(attachmentService).writeZip(eq(attachments), any());
+
+        MvcResult result = mockMvc.perform(get("/attachments/event/evt-1/zip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/zip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"attachments-evt-1.zip\""))
+                .andExpect(content().bytes(new byte[]{'P', 'K'}));
+    }
+
+    private static Attachment textAttachment() {
+        return Attachment.builder()
+                .id("att-1")
+                .title("test.txt")
+                .mimeType("text/plain")
+                .objectName("evt-1/test.txt")
+                .fileSize(7)
+                .build();
+    }
 }
@@ -0,0 +1,35 @@
+package com.flux.calendar_service.attachment;
+
+import com.flux.calendar_service.attachment.dto.AttachmentResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentMapperTest {
+
+    private final AttachmentMapper attachmentMapper = new AttachmentMapper();
+
+    @Test
+    void toAttachmentResponse_StoredFileLinksToStableDownload() {
+        Attachment attachment = Attachment.builder()
+                .id("att-1")
+                .objectName("evt-1/abc_doc.pdf")
+                .build();
+
+        AttachmentResponse response = attachmentMapper.toAttachmentResponse(attachment);
+
+        assertEquals("/attachments/att-1/download", response.fileUrl());
+    }
+
+    @Test
+    void toAttachmentResponse_ExternalLinkKept() {
+        Attachment attachment = Attachment.builder()
+                .id("att-2")
+                .fileUrl("https://example.com/agenda.pdf")
+                .build();
+
+        AttachmentResponse response = attachmentMapper.toAttachmentResponse(attachment);
+
+        assertEquals("https://example.com/agenda.pdf", response.fileUrl());
+    }
+}
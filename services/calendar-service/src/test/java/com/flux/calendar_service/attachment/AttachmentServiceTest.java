@@ -1,9 +1,16 @@
 package com.flux.calendar_service.attachment;
 
 import com.flux.calendar_service.attachment.dto.AttachmentResponse;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadCompleteRequest;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadRequest;
+import com.flux.calendar_service.attachment.dto.AttachmentUploadResponse;
+import com.flux.calendar_service.attachment.preview.AttachmentPreviewService;
 import com.flux.calendar_service.event.Event;
 import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
 import com.flux.calendar_service.storage.MinioService;
+import io.minio.StatObjectResponse;
 import jakarta.ws.rs.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,15 +19,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +48,10 @@ class AttachmentServiceTest {
     private AttachmentMapper attachmentMapper;
     @Mock
     private MinioService minioService;
+    @Mock
+    private AttachmentBlobService attachmentBlobService;
+    @Mock
+    private AttachmentPreviewService attachmentPreviewService;
 
     @InjectMocks
     private AttachmentService attachmentService;
@@ -43,6 +61,7 @@ class AttachmentServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(attachmentService, "streamBufferSize", 65536);
         event = Event.builder()
                 .id("evt-1")
                 .attachments(new ArrayList<>())
@@ -61,8 +80,9 @@ class AttachmentServiceTest {
         // Arrange
         MockMultipartFile file = new MockMultipartFile("file", "file.txt", "text/plain", "content".getBytes());
         when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
-        when(minioService.uploadFile(file)).thenReturn("file.txt");
-        when(minioService.getFileUrl("file.txt")).thenReturn("http://minio/bucket/file.txt");
+        MinioService.StoredObject stored = new MinioService.StoredObject("file.txt", 7, "etag", "hash");
+        when(minioService.uploadFile(file)).thenReturn(stored);
+        when(attachmentBlobService.acquire(stored)).thenReturn(blob(stored));
         when(attachmentRepository.save(any(Attachment.class))).thenReturn(attachment);
         
         AttachmentResponse response = new AttachmentResponse("att-1", "http://minio/bucket/file.txt", "file.txt", "text/plain", 7L, LocalDateTime.now(), null);
@@ -75,6 +95,119 @@ class AttachmentServiceTest {
         assertEquals("att-1", result.id());
         verify(minioService).uploadFile(file);
         verify(attachmentRepository).save(any(Attachment.class));
+        verify(attachmentPreviewService).enqueue(attachment);
+    }
+
+    @Test
+    void uploadAttachmentStream_Success() {
+        String body = "--b0und\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "content\r\n"
+                + "--b0und--\r\n";
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+        when(minioService.uploadStream(any(InputStream.class), eq("file.txt"), eq("text/plain"))).thenAnswer(invocation -> {
+            InputStream stream = invocation.getArgument(0);
+            return new MinioService.StoredObject("file.txt", stream.readAllBytes().length, "etag", "hash");
+        });
+        when(attachmentBlobService.acquire(any())).thenAnswer(invocation -> blob(invocation.getArgument(0)));
+        when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(attachmentMapper.toAttachmentResponse(any(Attachment.class))).thenAnswer(invocation -> {
+            Attachment saved = invocation.getArgument(0);
+            return new AttachmentResponse("att-1", saved.getObjectName(), saved.getTitle(), saved.getMimeType(), saved.getFileSize(), null, null);
+        });
+
+        AttachmentResponse result = attachmentService.uploadAttachmentStream("evt-1",
+                "multipart/form-data; boundary=b0und", new ByteArrayInputStream(body.getBytes()));
+
+        assertEquals("file.txt", result.title());
+        assertEquals(Long.valueOf(7), result.fileSize());
+    }
+
+    @Test
+    void uploadAttachmentStream_MissingFilePart() {
+        String body = "--b0und\r\n"
+                + "Content-Disposition: form-data; name=\"note\"\r\n\r\n"
+                + "hello\r\n"
+                + "--b0und--\r\n";
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+
+        assertThrows(MustNotBeEmptyException.class, () -> attachmentService.uploadAttachmentStream("evt-1",
+                "multipart/form-data; boundary=b0und", new ByteArrayInputStream(body.getBytes())));
+        verify(minioService, never()).uploadStream(any(), any(), any());
+    }
+
+    @Test
+    void createUploadUrl_Success() {
+        Instant expiresAt = Instant.now().plusSeconds(900);
+        when(eventRepository.existsById("evt-1")).thenReturn(true);
+        when(minioService.presignUpload(startsWith("evt-1/")))
+                .thenReturn(new MinioService.PresignedUrl("http://minio/upload", expiresAt));
+
+        AttachmentUploadResponse result = attachmentService.createUploadUrl("evt-1", new AttachmentUploadRequest("my file.pdf"));
+
+        assertTrue(result.objectName().startsWith("evt-1/"));
+        assertTrue(result.objectName().endsWith("_myfile.pdf"));
+        assertEquals("http://minio/upload", result.uploadUrl());
+        assertEquals(expiresAt, result.expiresAt());
+    }
+
+    @Test
+    void completeUpload_RecordsStoredSize() {
+        StatObjectResponse object = mock(StatObjectResponse.class);
+        when(object.size()).thenReturn(2048L);
+        when(object.contentType()).thenReturn("application/pdf");
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+        when(attachmentRepository.findByObjectName("evt-1/abc_doc.pdf")).thenReturn(Optional.empty());
+        when(minioService.findObject("evt-1/abc_doc.pdf")).thenReturn(Optional.of(object));
+        when(minioService.sha256("evt-1/abc_doc.pdf")).thenReturn("hash-1");
+        when(attachmentBlobService.acquire(any())).thenAnswer(invocation -> blob(invocation.getArgument(0)));
+        when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        attachmentService.completeUpload("evt-1", new AttachmentUploadCompleteRequest("evt-1/abc_doc.pdf", "doc.pdf"));
+
+        verify(attachmentRepository).save(argThat(saved -> saved.getFileSize() == 2048L
+                && "application/pdf".equals(saved.getMimeType())
+                && "evt-1/abc_doc.pdf".equals(saved.getObjectName())
+                && "hash-1".equals(saved.getContentHash())));
+    }
+
+    @Test
+    void completeUpload_DeduplicatesKnownContent() {
+        StatObjectResponse object = mock(StatObjectResponse.class);
+        when(object.size()).thenReturn(2048L);
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+        when(attachmentRepository.findByObjectName("evt-1/abc_doc.pdf")).thenReturn(Optional.empty());
+        when(minioService.findObject("evt-1/abc_doc.pdf")).thenReturn(Optional.of(object));
+        when(minioService.sha256("evt-1/abc_doc.pdf")).thenReturn("hash-1");
+        AttachmentBlob existing = AttachmentBlob.builder()
+                .contentHash("hash-1").objectName("uploads/first_doc.pdf").etag("etag-1").size(2048L).refCount(2).build();
+        when(attachmentBlobService.acquire(argThat(stored -> "hash-1".equals(stored.sha256())))).thenReturn(existing);
+        when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        attachmentService.completeUpload("evt-1", new AttachmentUploadCompleteRequest("evt-1/abc_doc.pdf", "doc.pdf"));
+
+        verify(attachmentRepository).save(argThat(saved -> "uploads/first_doc.pdf".equals(saved.getObjectName())
+                && "hash-1".equals(saved.getContentHash())));
+    }
+
+    @Test
+    void completeUpload_ObjectFromOtherEvent() {
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+
+        assertThrows(ConflictException.class, () -> attachmentService.completeUpload("evt-1",
+                new AttachmentUploadCompleteRequest("evt-2/abc_doc.pdf", "doc.pdf")));
+        verify(attachmentRepository, never()).save(any());
+    }
+
+    @Test
+    void completeUpload_MissingObject() {
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+        when(attachmentRepository.findByObjectName("evt-1/abc_doc.pdf")).thenReturn(Optional.empty());
+        when(minioService.findObject("evt-1/abc_doc.pdf")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> attachmentService.completeUpload("evt-1",
+                new AttachmentUploadCompleteRequest("evt-1/abc_doc.pdf", "doc.pdf")));
     }
 
     @Test
@@ -91,6 +224,25 @@ class AttachmentServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void getETag_FillsMissingETagFromStorage() {
+        StatObjectResponse object = mock(StatObjectResponse.class);
+        when(object.etag()).thenReturn("d41d8cd9");
+        when(minioService.findObject("file.txt")).thenReturn(Optional.of(object));
+
+        assertEquals("d41d8cd9", attachmentService.getETag(attachment));
+        assertEquals("d41d8cd9", attachment.getEtag());
+        verify(attachmentRepository).save(attachment);
+    }
+
+    @Test
+    void getETag_UsesStoredETag() {
+        attachment.setEtag("cached");
+
+        assertEquals("cached", attachmentService.getETag(attachment));
+        verifyNoInteractions(minioService);
+    }
+
     @Test
     void deleteAttachment_Success() {
         // Arrange
@@ -100,10 +252,95 @@ class AttachmentServiceTest {
         attachmentService.deleteAttachment("att-1");
 
         // Assert
-        verify(minioService).deleteFile("file.txt");
+        verify(minioService).deleteFiles(List.of("file.txt"));
+        verify(attachmentRepository).delete(attachment);
+    }
+
+    @Test
+    void uploadAttachment_DuplicateContentReusesBlob() {
+        MockMultipartFile file = new MockMultipartFile("file", "copy.txt", "text/plain", "content".getBytes());
+        MinioService.StoredObject stored = new MinioService.StoredObject("2_copy.txt", 7, "etag", "hash");
+        AttachmentBlob existing = AttachmentBlob.builder()
+                .contentHash("hash")
+                .objectName("1_file.txt")
+                .etag("etag")
+                .size(7)
+                .refCount(2)
+                .build();
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+        when(minioService.uploadFile(file)).thenReturn(stored);
+        when(attachmentBlobService.acquire(stored)).thenReturn(existing);
+        when(attachmentRepository.save(any(Attachment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        attachmentService.uploadAttachment("evt-1", file);
+
+        verify(attachmentRepository).save(argThat(saved -> "1_file.txt".equals(saved.getObjectName())
+                && "hash".equals(saved.getContentHash())));
+    }
+
+    @Test
+    void deleteAttachment_ReleasesSharedBlob() {
+        attachment.setObjectName("1_file.txt");
+        attachment.setContentHash("hash");
+        when(attachmentRepository.findById("att-1")).thenReturn(Optional.of(attachment));
+
+        attachmentService.deleteAttachment("att-1");
+
+        verify(attachmentBlobService).releaseAll(List.of("hash"));
+        verify(minioService, never()).deleteFiles(any());
         verify(attachmentRepository).delete(attachment);
     }
 
+    @Test
+    void deleteEventAttachments_RemovesFilesInOneBatch() {
+        Attachment shared = Attachment.builder().id("att-2").title("b.png").objectName("1_b.png").contentHash("hash").event(event).build();
+        event.getAttachments().addAll(List.of(attachment, shared));
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
+        when(attachmentBlobService.releaseAll(List.of("hash"))).thenReturn(List.of("1_b.png"));
+        when(attachmentPreviewService.detachPreviews(List.of("att-1", "att-2"))).thenReturn(List.of("previews/att-2.png"));
+
+        int deleted = attachmentService.deleteEventAttachments("evt-1");
+
+        assertEquals(2, deleted);
+        assertTrue(event.getAttachments().isEmpty());
+        verify(minioService).deleteFiles(List.of("file.txt", "1_b.png", "previews/att-2.png"));
+        verify(minioService, never()).deleteFile(any());
+    }
+
+    @Test
+    void copyAttachments_SharesBlobsAndCopiesLegacyFiles() {
+        Event target = Event.builder().id("evt-2").attachments(new ArrayList<>()).build();
+        Attachment deduplicated = Attachment.builder().id("att-2").title("b.png").mimeType("image/png")
+                .fileSize(10).objectName("evt-1/1_b.png").contentHash("hash").event(event).build();
+        AttachmentBlob shared = AttachmentBlob.builder().contentHash("hash").objectName("evt-1/1_b.png")
+                .etag("etag").size(10).refCount(2).build();
+        when(eventRepository.existsById("evt-1")).thenReturn(true);
+        when(eventRepository.findById("evt-2")).thenReturn(Optional.of(target));
+        when(attachmentRepository.findByEventId("evt-1")).thenReturn(List.of(attachment, deduplicated));
+        when(attachmentBlobService.addReference("hash")).thenReturn(shared);
+        when(attachmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        attachmentService.copyAttachments("evt-1", "evt-2");
+
+        verify(minioService).copyFiles(argThat(copies -> copies.size() == 1
+                && copies.get("file.txt") != null && copies.get("file.txt").startsWith("evt-2/")));
+        assertEquals(2, target.getAttachments().size());
+        Attachment copiedBlob = target.getAttachments().get(1);
+        assertEquals("evt-1/1_b.png", copiedBlob.getObjectName());
+        assertEquals("hash", copiedBlob.getContentHash());
+        assertSame(target, copiedBlob.getEvent());
+        verify(attachmentPreviewService, times(2)).enqueue(any());
+    }
+
+    @Test
+    void copyAttachments_TargetNotFound() {
+        when(eventRepository.existsById("evt-1")).thenReturn(true);
+        when(eventRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> attachmentService.copyAttachments("evt-1", "missing"));
+        verifyNoInteractions(minioService);
+    }
+
     @Test
     void getAttachment_NotFound() {
         when(attachmentRepository.findById("invalid")).thenReturn(Optional.empty());
@@ -112,4 +349,14 @@ class AttachmentServiceTest {
             attachmentService.getAttachment("invalid")
         );
     }
+
+    private static AttachmentBlob blob(MinioService.StoredObject stored) {
+        return AttachmentBlob.builder()
+                .contentHash(stored.sha256())
+                .objectName(stored.objectName())
+                .etag(stored.etag())
+                .size(stored.size())
+                .refCount(1)
+                .build();
+    }
 }
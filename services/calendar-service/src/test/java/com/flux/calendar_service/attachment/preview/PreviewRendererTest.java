@@ -0,0 +1,90 @@
+package com.flux.calendar_service.attachment.preview;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreviewRendererTest {
+
+    private PreviewRenderer previewRenderer;
+
+    @BeforeEach
+    void setUp() {
+        previewRenderer = new PreviewRenderer();
+        ReflectionTestUtils.setField(previewRenderer, "maxDimension", 320);
+        ReflectionTestUtils.setField(previewRenderer, "pdfDpi", 72f);
+    }
+
+    @Test
+    void supports_ImagesAndPdfOnly() {
+        assertTrue(previewRenderer.supports("image/jpeg"));
+        assertTrue(previewRenderer.supports("application/pdf; charset=binary"));
+        assertFalse(previewRenderer.supports("text/plain"));
+        assertFalse(previewRenderer.supports(null));
+    }
+
+    @Test
+    void render_ScalesLargeImageDown() throws IOException {
+        BufferedImage source = new BufferedImage(4000, 2000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = source.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 4000, 2000);
+        graphics.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(source, "jpg", jpeg);
+
+        BufferedImage preview = ImageIO.read(new ByteArrayInputStream(
+                previewRenderer.render(new ByteArrayInputStream(jpeg.toByteArray()), "image/jpeg")));
+
+        assertEquals(320, preview.getWidth());
+        assertEquals(160, preview.getHeight());
+    }
+
+    @Test
+    void render_KeepsSmallImageSize() throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB), "png", png);
+
+        BufferedImage preview = ImageIO.read(new ByteArrayInputStream(
+                previewRenderer.render(new ByteArrayInputStream(png.toByteArray()), "image/png")));
+
+        assertEquals(40, preview.getWidth());
+        assertEquals(30, preview.getHeight());
+    }
+
+    @Test
+    void render_FirstPdfPage() throws IOException {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(pdf);
+        }
+
+        BufferedImage preview = ImageIO.read(new ByteArrayInputStream(
+                previewRenderer.render(new ByteArrayInputStream(pdf.toByteArray()), "application/pdf")));
+
+        // A4 is taller than wide
+        assertEquals(320, preview.getHeight());
+        assertTrue(preview.getWidth() < 320);
+    }
+
+    @Test
+    void render_RejectsCorruptImage() {
+        assertThrows(IOException.class, () ->
+                previewRenderer.render(new ByteArrayInputStream("not an image".getBytes()), "image/png"));
+    }
+}
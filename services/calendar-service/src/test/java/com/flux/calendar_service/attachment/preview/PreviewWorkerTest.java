@@ -0,0 +1,154 @@
+package com.flux.calendar_service.attachment.preview;
+
+import com.flux.calendar_service.attachment.Attachment;
+import com.flux.calendar_service.attachment.AttachmentRepository;
+import com.flux.calendar_service.attachment.AttachmentService;
+import com.flux.calendar_service.storage.MinioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PreviewWorkerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PreviewJobRepository previewJobRepository;
+    @Mock
+    private AttachmentRepository attachmentRepository;
+    @Mock
+    private AttachmentService attachmentService;
+    @Mock
+    private MinioService minioService;
+    @Mock
+    private PreviewRenderer previewRenderer;
+
+    @InjectMocks
+    private PreviewWorker previewWorker;
+
+    private PreviewJob job;
+    private Attachment attachment;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(previewWorker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(previewWorker, "maxSourceBytes", 1024L);
+
+        job = PreviewJob.builder()
+                .id("job-1")
+                .attachmentId("att-1")
+                .status(PreviewStatus.PROCESSING)
+                .attempts(1)
+                .availableAt(LocalDateTime.now())
+                .lockedAt(LocalDateTime.now())
+                .build();
+        attachment = Attachment.builder()
+                .id("att-1")
+                .mimeType("image/png")
+                .fileSize(100)
+                .build();
+        when(previewJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(attachmentRepository.findById("att-1")).thenReturn(Optional.of(attachment));
+        lenient().when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+    }
+
+    @Test
+    void process_StoresPreview() throws IOException {
+        when(previewRenderer.supports("image/png")).thenReturn(true);
+        when(attachmentService.downloadAttachment("att-1")).thenReturn(new ByteArrayInputStream(new byte[10]));
+        when(previewRenderer.render(any(), eq("image/png"))).thenReturn(new byte[]{1});
+
+        previewWorker.process("job-1", job.getAttempts());
+
+        verify(minioService).uploadBytes("previews/att-1-1.png", new byte[]{1}, "image/png");
+        assertEquals(PreviewStatus.DONE, job.getStatus());
+        assertEquals("previews/att-1-1.png", job.getPreviewObjectName());
+        assertNull(job.getLockedAt());
+        verify(jdbcTemplate).update(anyString(), eq("DONE"), eq("previews/att-1-1.png"), isNull(), any(), eq("job-1"), eq(1));
+        verify(minioService, never()).deleteFile(any());
+    }
+
+    @Test
+    void process_DeletesPreviewWhenAttachmentWasRemoved() throws IOException {
+        when(previewRenderer.supports("image/png")).thenReturn(true);
+        when(attachmentService.downloadAttachment("att-1")).thenReturn(new ByteArrayInputStream(new byte[10]));
+        when(previewRenderer.render(any(), eq("image/png"))).thenReturn(new byte[]{1});
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        previewWorker.process("job-1", job.getAttempts());
+
+        verify(minioService).deleteFile("previews/att-1-1.png");
+        verify(previewJobRepository, never()).save(any());
+    }
+
+    @Test
+    void process_LateFailureDoesNotOverwriteAReclaimedJob() throws IOException {
+        // Recovered as stale and claimed again while this worker was still rendering attempt 1
+        job.setAttempts(2);
+        when(previewRenderer.supports("image/png")).thenReturn(true);
+        when(attachmentService.downloadAttachment("att-1")).thenReturn(new ByteArrayInputStream(new byte[10]));
+        when(previewRenderer.render(any(), any())).thenThrow(new IOException("timeout"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        previewWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).update(argThat((String sql) -> sql.contains("status = 'PROCESSING' AND attempts = ?")),
+                eq("PENDING"), isNull(), eq("timeout"), any(), eq("job-1"), eq(1));
+        verify(minioService, never()).uploadBytes(any(), any(), any());
+    }
+
+    @Test
+    void process_RetriesWithBackoff() throws IOException {
+        when(previewRenderer.supports("image/png")).thenReturn(true);
+        when(attachmentService.downloadAttachment("att-1")).thenReturn(new ByteArrayInputStream(new byte[10]));
+        when(previewRenderer.render(any(), any())).thenThrow(new IOException("broken"));
+
+        previewWorker.process("job-1", job.getAttempts());
+
+        assertEquals(PreviewStatus.PENDING, job.getStatus());
+        assertEquals("broken", job.getLastError());
+        assertTrue(job.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+
+    @Test
+    void process_FailsAfterLastAttempt() throws IOException {
+        job.setAttempts(3);
+        when(previewRenderer.supports("image/png")).thenReturn(true);
+        when(attachmentService.downloadAttachment("att-1")).thenReturn(new ByteArrayInputStream(new byte[10]));
+        when(previewRenderer.render(any(), any())).thenThrow(new IOException("broken"));
+
+        previewWorker.process("job-1", job.getAttempts());
+
+        assertEquals(PreviewStatus.FAILED, job.getStatus());
+    }
+
+    @Test
+    void process_SkipsOversizedSource() {
+        attachment.setFileSize(4096);
+        when(previewRenderer.supports("image/png")).thenReturn(true);
+
+        previewWorker.process("job-1", job.getAttempts());
+
+        assertEquals(PreviewStatus.UNSUPPORTED, job.getStatus());
+        verifyNoInteractions(attachmentService);
+    }
+}
@@ -0,0 +1,142 @@
+package com.flux.calendar_service.availability;
+
+import com.flux.calendar_service.availability.dto.AvailabilityResponse;
+import com.flux.calendar_service.availability.dto.FreeSlot;
+import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.exceptions.RequestLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private OccurrenceExceptionRepository occurrenceExceptionRepository;
+    @Mock
+    private RedisConnectionFactory redisConnectionFactory;
+    @Mock
+    private RedisConnection redisConnection;
+    @Mock
+    private RedisStringCommands stringCommands;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AvailabilityService availabilityService;
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @BeforeEach
+    void setUp() {
+        availabilityService = new AvailabilityService(eventRepository,
+                new OccurrenceExpander(occurrenceExceptionRepository), redisConnectionFactory, transactionManager);
+        ReflectionTestUtils.setField(availabilityService, "ttlDays", 7L);
+        ReflectionTestUtils.setField(availabilityService, "maxRangeDays", 31);
+        ReflectionTestUtils.setField(availabilityService, "maxUsers", 2);
+
+        lenient().when(redisConnectionFactory.getConnection()).thenReturn(redisConnection);
+        lenient().when(redisConnection.stringCommands()).thenReturn(stringCommands);
+    }
+
+    @Test
+    void getAvailability_IntersectsCachedBitmaps() {
+        byte[] alice = BusyBitmap.emptyDay();
+        BusyBitmap.markBusy(alice, DAY, DAY.atTime(9, 0), DAY.atTime(10, 0));
+        byte[] bob = BusyBitmap.emptyDay();
+        BusyBitmap.markBusy(bob, DAY, DAY.atTime(10, 30), DAY.atTime(11, 0));
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(Arrays.asList(alice, bob));
+
+        AvailabilityResponse response = availabilityService.getAvailability(
+                List.of("alice", "bob"), DAY.atTime(9, 0), DAY.atTime(12, 0));
+
+        assertEquals(List.of(
+                new FreeSlot(DAY.atTime(10, 0), DAY.atTime(10, 30)),
+                new FreeSlot(DAY.atTime(11, 0), DAY.atTime(12, 0))), response.freeSlots());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void getAvailability_RebuildsMissingDaysFromEvents() {
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(Arrays.asList((byte[]) null));
+        Event meeting = Event.builder()
+                .id("evt-1")
+                .startTime(DAY.atTime(9, 0))
+                .endTime(DAY.atTime(9, 45))
+                .build();
+        when(eventRepository.findSingleByUserIdOverlapping("alice", DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(meeting));
+        when(eventRepository.findRecurringByUserIdOverlapping("alice", DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of());
+
+        AvailabilityResponse response = availabilityService.getAvailability(
+                List.of("alice"), DAY.atTime(8, 0), DAY.atTime(10, 0));
+
+        assertEquals(List.of(
+                new FreeSlot(DAY.atTime(8, 0), DAY.atTime(9, 0)),
+                new FreeSlot(DAY.atTime(9, 45), DAY.atTime(10, 0))), response.freeSlots());
+        verify(stringCommands).set(eq("availability:alice:2025-03-10".getBytes(StandardCharsets.UTF_8)),
+                any(byte[].class), any(), eq(RedisStringCommands.SetOption.ifAbsent()));
+    }
+
+    @Test
+    void getAvailability_TooManyUsers() {
+        assertThrows(RequestLimitExceededException.class, () -> availabilityService.getAvailability(
+                List.of("a", "b", "c"), DAY.atTime(9, 0), DAY.atTime(10, 0)));
+    }
+
+    @Test
+    void onEventChanged_RebuildsTouchedDaysOutsideTransaction() {
+        when(eventRepository.findSingleByUserIdOverlapping(eq("alice"), any(), any())).thenReturn(List.of());
+        when(eventRepository.findRecurringByUserIdOverlapping(eq("alice"), any(), any())).thenReturn(List.of());
+
+        availabilityService.onEventChanged("alice", DAY.atTime(23, 0), DAY.plusDays(1).atTime(1, 0), false);
+
+        verify(eventRepository).findSingleByUserIdOverlapping("alice", DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay());
+        verify(stringCommands, times(2)).set(any(byte[].class), any(byte[].class), any(), eq(RedisStringCommands.SetOption.upsert()));
+    }
+
+    @Test
+    void onCalendarChanged_EvictsAllBitmapsOfUser() {
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        @SuppressWarnings("unchecked")
+        Cursor<byte[]> cursor = mock(Cursor.class);
+        byte[] key = "availability:alice:2025-03-10".getBytes(StandardCharsets.UTF_8);
+        when(redisConnection.keyCommands()).thenReturn(keyCommands);
+        when(keyCommands.scan(any(ScanOptions.class))).thenReturn(cursor);
+        doAnswer(invocation -> {
+            invocation.<Consumer<byte[]>>getArgument(0).accept(key);
+            return null;
+        }).when(cursor).forEachRemaining(any());
+
+        availabilityService.onCalendarChanged("alice");
+
+        verify(keyCommands).del(key);
+        verifyNoInteractions(eventRepository);
+    }
+}
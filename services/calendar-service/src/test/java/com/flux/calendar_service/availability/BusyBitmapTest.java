@@ -0,0 +1,58 @@
+package com.flux.calendar_service.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusyBitmapTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void markBusy_CoversPartiallyOccupiedSlots() {
+        byte[] bitmap = BusyBitmap.emptyDay();
+
+        BusyBitmap.markBusy(bitmap, DAY, DAY.atTime(9, 10), DAY.atTime(9, 31));
+
+        assertFalse(BusyBitmap.isBusy(bitmap, 35));
+        assertTrue(BusyBitmap.isBusy(bitmap, 36));
+        assertTrue(BusyBitmap.isBusy(bitmap, 37));
+        assertTrue(BusyBitmap.isBusy(bitmap, 38));
+        assertFalse(BusyBitmap.isBusy(bitmap, 39));
+    }
+
+    @Test
+    void markBusy_ClipsEventsSpanningMidnight() {
+        byte[] today = BusyBitmap.emptyDay();
+        byte[] tomorrow = BusyBitmap.emptyDay();
+        LocalDateTime start = DAY.atTime(23, 30);
+        LocalDateTime end = DAY.plusDays(1).atTime(0, 15);
+
+        BusyBitmap.markBusy(today, DAY, start, end);
+        BusyBitmap.markBusy(tomorrow, DAY.plusDays(1), start, end);
+
+        assertTrue(BusyBitmap.isBusy(today, 94));
+        assertTrue(BusyBitmap.isBusy(today, 95));
+        assertTrue(BusyBitmap.isBusy(tomorrow, 0));
+        assertFalse(BusyBitmap.isBusy(tomorrow, 1));
+    }
+
+    @Test
+    void markBusy_UsesRedisBitOrder() {
+        byte[] bitmap = BusyBitmap.emptyDay();
+
+        BusyBitmap.markBusy(bitmap, DAY, DAY.atStartOfDay(), DAY.atTime(0, 15));
+
+        assertEquals((byte) 0x80, bitmap[0]);
+    }
+
+    @Test
+    void slotRounding() {
+        assertEquals(DAY.atTime(9, 0), BusyBitmap.floorToSlot(DAY.atTime(9, 14, 59)));
+        assertEquals(DAY.atTime(9, 15), BusyBitmap.ceilToSlot(DAY.atTime(9, 0, 1)));
+        assertEquals(DAY.atTime(9, 15), BusyBitmap.ceilToSlot(DAY.atTime(9, 15)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.flux.calendar_service.cache;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.conference.Conference;
+import com.flux.calendar_service.event.Event;
+import com.flux.calendar_service.event.recurrence.OccurrenceException;
+import com.flux.calendar_service.location.Location;
+import com.flux.calendar_service.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayCacheEntityListenerTest {
+
+    @Mock
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private GatewayCacheEntityListener listener;
+
+    private Calendar calendar;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        calendar = Calendar.builder().id("cal-1").userId("user-1").build();
+        event = Event.builder().id("event-1").calendar(calendar).build();
+    }
+
+    @Test
+    void changed_Calendar() {
+        listener.changed(calendar);
+
+        verify(gatewayCacheInvalidator).invalidate(List.of("calendars", "cal-1", "user-1"));
+    }
+
+    @Test
+    void changed_Event() {
+        listener.changed(event);
+
+        verify(gatewayCacheInvalidator).invalidate(List.of("events", "event-1", "cal-1", "user-1"));
+    }
+
+    @Test
+    void changed_Task() {
+        listener.changed(Task.builder().id("task-1").event(event).build());
+
+        verify(gatewayCacheInvalidator).invalidate(List.of("tasks", "task-1", "event-1", "cal-1", "user-1"));
+    }
+
+    @Test
+    void changed_OccurrenceException_InvalidatesItsSeries() {
+        listener.changed(OccurrenceException.builder().id("exc-1").event(event).build());
+
+        verify(gatewayCacheInvalidator).invalidate(List.of("events", "exc-1", "event-1", "cal-1", "user-1"));
+    }
+
+    @Test
+    void changed_Location_InvalidatesEventsUsingIt() {
+        when(jdbcTemplate.queryForList(contains("e.location_id = ?"), eq("loc-1"))).thenReturn(List.of(
+                Map.of("id", "event-1", "calendar_id", "cal-1", "user_id", "user-1")));
+
+        listener.changed(Location.builder().id("loc-1").build());
+
+        verify(gatewayCacheInvalidator).invalidate(List.of("loc-1", "events", "event-1", "cal-1", "user-1"));
+    }
+
+    @Test
+    void changed_Conference_InvalidatesEventsUsingIt() {
+        when(jdbcTemplate.queryForList(contains("e.conference_id = ?"), eq("conf-1"))).thenReturn(List.of(
+                Map.of("id", "event-1", "calendar_id", "cal-1", "user_id", "user-1"),
+                Map.of("id", "event-2", "calendar_id", "cal-2", "user_id", "user-1")));
+
+        listener.changed(Conference.builder().id("conf-1").build());
+
+        verify(gatewayCacheInvalidator).invalidate(List.of("conf-1", "events",
+                "event-1", "cal-1", "user-1", "event-2", "cal-2", "user-1"));
+    }
+
+    @Test
+    void changed_UnusedLocation_InvalidatesOnlyItself() {
+        when(jdbcTemplate.queryForList(anyString(), eq("loc-2"))).thenReturn(List.of());
+
+        listener.changed(Location.builder().id("loc-2").build());
+
+        verify(gatewayCacheInvalidator).invalidate(List.of("loc-2"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.flux.calendar_service.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the filter in front of Spring Security's own cache header writer, as in the application.
+ */
+class GatewayCacheHeadersFilterTest {
+    private static final String SECURITY_CACHE_CONTROL = "no-cache, no-store, max-age=0, must-revalidate";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StubController())
+                .addFilters(
+                        new GatewayCacheHeadersFilter(List.of("/calendars/**", "/events/**"),
+                                List.of("/calendars/*/export.ics"), 30),
+                        new HeaderWriterFilter(List.of(new CacheControlHeadersWriter())))
+                .build();
+    }
+
+    @Test
+    void cachedPath_SendsSharedMaxAgeAndEtag() throws Exception {
+        mockMvc.perform(get("/calendars/cal-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=30"))
+                .andExpect(header().string(HttpHeaders.ETAG, notNullValue()))
+                .andExpect(header().doesNotExist(HttpHeaders.PRAGMA));
+    }
+
+    @Test
+    void cachedPath_AnswersMatchingIfNoneMatchWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/calendars/cal-1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/calendars/cal-1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void excludedPath_KeepsSecurityDefaults() throws Exception {
+        mockMvc.perform(get("/calendars/cal-1/export.ics"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, SECURITY_CACHE_CONTROL))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void uncachedPath_KeepsSecurityDefaults() throws Exception {
+        mockMvc.perform(get("/users/user-1"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, SECURITY_CACHE_CONTROL));
+    }
+
+    @RestController
+    static class StubController {
+        @GetMapping("/calendars/{id}")
+        String calendar(@PathVariable String id) {
+            return "{\"id\":\"" + id + "\"}";
+        }
+
+        @GetMapping("/calendars/{id}/export.ics")
+        String export(@PathVariable String id) {
+            return "BEGIN:VCALENDAR";
+        }
+
+        @GetMapping("/users/{id}")
+        String user(@PathVariable String id) {
+            return "{\"id\":\"" + id + "\"}";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.flux.calendar_service.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayCacheInvalidatorTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @InjectMocks
+    private GatewayCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(invalidator, "channel", "gateway:cache:invalidate");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(invalidator);
+    }
+
+    @Test
+    void invalidate_PublishesImmediatelyOutsideTransaction() {
+        invalidator.invalidate(Arrays.asList("events", "event-1", null));
+
+        verify(stringRedisTemplate).convertAndSend("gateway:cache:invalidate", "events,event-1");
+    }
+
+    @Test
+    void invalidate_PublishesOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.invalidate(List.of("calendars", "cal-1", "user-1"));
+        invalidator.invalidate(List.of("events", "event-1", "cal-1"));
+        verifyNoInteractions(stringRedisTemplate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        verify(stringRedisTemplate).convertAndSend("gateway:cache:invalidate", "calendars,cal-1,user-1,events,event-1");
+        assertNull(TransactionSynchronizationManager.getResource(invalidator));
+    }
+
+    @Test
+    void invalidate_SendsNothingOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.invalidate(List.of("events", "event-1"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertNull(TransactionSynchronizationManager.getResource(invalidator));
+    }
+}
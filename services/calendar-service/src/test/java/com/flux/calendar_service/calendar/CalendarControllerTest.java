@@ -6,6 +6,14 @@ import com.flux.calendar_service.calendar.dto.CalendarRequest;
 import com.flux.calendar_service.calendar.dto.CalendarResponse;
 import com.flux.calendar_service.calendar.dto.CalendarUpdateRequest;
 import com.flux.calendar_service.calendar.dto.PrimaryRequest;
+import com.flux.calendar_service.ics.IcsExportJobHandler;
+import com.flux.calendar_service.ics.IcsExportService;
+import com.flux.calendar_service.ics.IcsImportService;
+import com.flux.calendar_service.ics.IcsImportStatus;
+import com.flux.calendar_service.ics.dto.IcsImportJobResponse;
+import com.flux.calendar_service.job.JobStatus;
+import com.flux.calendar_service.job.dto.JobResponse;
+import jakarta.ws.rs.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,16 +22,28 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +51,10 @@ class CalendarControllerTest {
 
     @Mock
     private CalendarService calendarService;
+    @Mock
+    private IcsExportService icsExportService;
+    @Mock
+    private IcsImportService icsImportService;
 
     @InjectMocks
     private CalendarController calendarController;
@@ -119,8 +143,12 @@ class CalendarControllerTest {
 
     @Test
     void deleteCalendar_Success() throws Exception {
+        when(calendarService.deleteCalendar("cal-1")).thenReturn(job(CalendarDeleteJobHandler.TYPE));
+
         mockMvc.perform(delete("/calendars/cal-1"))
-                .andExpect(status().isAccepted());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/jobs/job-2"))
+                .andExpect(jsonPath("$.type").value(CalendarDeleteJobHandler.TYPE));
 
         verify(calendarService).deleteCalendar("cal-1");
     }
@@ -132,4 +160,109 @@ class CalendarControllerTest {
 
         verify(calendarService).recoverCalendar("cal-1");
     }
+
+    @Test
+    void exportCalendar_StreamsIcs() throws Exception {
+        when(icsExportService.getExportFileName("cal-1")).thenReturn("Work.ics");
+        when(icsExportService.exportCalendar(eq("cal-1"), any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("BEGIN:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/calendars/cal-1/export.ics"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/calendar;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"Work.ics\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("BEGIN:VCALENDAR\r\n"));
+    }
+
+    @Test
+    void exportCalendar_NonAsciiNameAddsEncodedFilename() throws Exception {
+        when(icsExportService.getExportFileName("cal-1")).thenReturn("Réunions.ics");
+
+        MvcResult result = mockMvc.perform(get("/calendars/cal-1/export.ics"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"R_unions.ics\"; filename*=UTF-8''R%C3%A9unions.ics"));
+    }
+
+    @Test
+    void exportCalendar_GzipWhenAccepted() throws Exception {
+        when(icsExportService.getExportFileName("cal-1")).thenReturn("Work.ics");
+        when(icsExportService.exportCalendar(eq("cal-1"), any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("BEGIN:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/calendars/cal-1/export.ics").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("BEGIN:VCALENDAR\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void exportCalendar_NotFound() throws Exception {
+        when(icsExportService.getExportFileName("missing")).thenThrow(new NotFoundException("Calendar with ID missing not found"));
+
+        assertThrows(Exception.class, () -> mockMvc.perform(get("/calendars/missing/export.ics")));
+        verify(icsExportService, never()).exportCalendar(any(), any());
+    }
+
+    @Test
+    void importCalendar_Accepted() throws Exception {
+        when(icsImportService.startImport(eq("cal-1"), any(), eq(true))).thenReturn(importJob(IcsImportStatus.QUEUED));
+
+        mockMvc.perform(post("/calendars/cal-1/import")
+                        .param("syncToGoogle", "true")
+                        .contentType("text/calendar")
+                        .content("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/calendars/imports/job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void getImportJob_Success() throws Exception {
+        when(icsImportService.getImportJob("job-1")).thenReturn(importJob(IcsImportStatus.RUNNING));
+
+        mockMvc.perform(get("/calendars/imports/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.percentComplete").value(40))
+                .andExpect(jsonPath("$.eventsInserted").value(1000));
+    }
+
+    @Test
+    void startExport_Accepted() throws Exception {
+        when(icsExportService.startExport("cal-1")).thenReturn(job(IcsExportJobHandler.TYPE));
+
+        mockMvc.perform(post("/calendars/cal-1/export"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/jobs/job-2"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    private static JobResponse job(String type) {
+        return new JobResponse("job-2", type, JobStatus.QUEUED, 0, 0, 0, false, null, null, null, null);
+    }
+
+    private static IcsImportJobResponse importJob(IcsImportStatus status) {
+        return new IcsImportJobResponse("job-1", "cal-1", status, 1000, 400, 40, 1000, 0, 0, 0, 0, 0,
+                null, null, null);
+    }
 }
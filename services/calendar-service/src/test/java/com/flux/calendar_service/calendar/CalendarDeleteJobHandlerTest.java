@@ -0,0 +1,98 @@
+package com.flux.calendar_service.calendar;
+
+import com.flux.calendar_service.cache.GatewayCacheInvalidator;
+import com.flux.calendar_service.google.GoogleCalendarApiService;
+import com.flux.calendar_service.job.Job;
+import com.flux.calendar_service.job.JobContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarDeleteJobHandlerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private CalendarRepository calendarRepository;
+    @Mock
+    private GoogleCalendarApiService googleCalendarApiService;
+    @Mock
+    private GatewayCacheInvalidator gatewayCacheInvalidator;
+    @Mock
+    private JobContext context;
+
+    @InjectMocks
+    private CalendarDeleteJobHandler handler;
+
+    private final Job job = Job.builder()
+            .id("job-1")
+            .type(CalendarDeleteJobHandler.TYPE)
+            .payload(Map.of("calendarId", "cal-1", "userId", "user-1"))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(handler, "googleCalendarApiService", googleCalendarApiService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_DeletesGoogleCopiesPageByPage() throws Exception {
+        Calendar deleted = Calendar.builder().id("cal-1").isDeleted(true).build();
+        when(calendarRepository.findCalendarByIdAndIsDeletedTrue("cal-1")).thenReturn(Optional.of(deleted));
+        when(jdbcTemplate.queryForObject(contains("count(*)"), eq(Long.class), eq("cal-1"))).thenReturn(2L);
+        List<CalendarDeleteJobHandler.LinkedEvent> page = List.of(
+                new CalendarDeleteJobHandler.LinkedEvent("e1", LocalDateTime.of(2026, 3, 1, 10, 0), "g1"),
+                new CalendarDeleteJobHandler.LinkedEvent("e2", LocalDateTime.of(2026, 3, 2, 10, 0), "g2"));
+        when(jdbcTemplate.query(contains("ORDER BY id"), any(RowMapper.class), eq("cal-1"), eq(""), eq(50))).thenReturn(page);
+        when(jdbcTemplate.query(contains("ORDER BY id"), any(RowMapper.class), eq("cal-1"), eq("e2"), eq(50))).thenReturn(List.of());
+        // g2 could not be deleted and keeps its link
+        when(googleCalendarApiService.deleteEventsInBatch("user-1", List.of("g1", "g2"))).thenReturn(List.of("g1"));
+
+        Map<String, String> result = handler.run(job, context);
+
+        assertEquals(Map.of("googleDeleted", "1", "googleFailed", "1"), result);
+        verify(jdbcTemplate).batchUpdate(contains("google_calendar_id = NULL"),
+                ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1 && rows.get(0)[0].equals("e1")));
+        verify(gatewayCacheInvalidator).invalidate(List.of("events", "cal-1", "user-1", "e1"));
+        verify(context).progress(2, 2);
+    }
+
+    @Test
+    void run_StopsWhenCalendarIsRecovered() throws Exception {
+        when(calendarRepository.findCalendarByIdAndIsDeletedTrue("cal-1")).thenReturn(Optional.empty());
+        when(jdbcTemplate.queryForObject(contains("count(*)"), eq(Long.class), eq("cal-1"))).thenReturn(10L);
+
+        Map<String, String> result = handler.run(job, context);
+
+        assertEquals("0", result.get("googleDeleted"));
+        verifyNoInteractions(googleCalendarApiService);
+    }
+
+    @Test
+    void run_WithoutGoogleIntegrationDoesNothing() throws Exception {
+        ReflectionTestUtils.setField(handler, "googleCalendarApiService", null);
+
+        assertEquals("0", handler.run(job, context).get("googleDeleted"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,103 @@
+package com.flux.calendar_service.calendar;
+
+import com.flux.calendar_service.attachment.Attachment;
+import com.flux.calendar_service.attachment.AttachmentRepository;
+import com.flux.calendar_service.attachment.AttachmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarPurgeWorkerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private AttachmentRepository attachmentRepository;
+    @Mock
+    private AttachmentService attachmentService;
+
+    private CalendarPurgeWorker purgeWorker;
+
+    @BeforeEach
+    void setUp() {
+        purgeWorker = new CalendarPurgeWorker(jdbcTemplate, transactionManager, attachmentRepository, attachmentService);
+        ReflectionTestUtils.setField(purgeWorker, "retentionDays", 30L);
+        ReflectionTestUtils.setField(purgeWorker, "calendarsPerRun", 20);
+        ReflectionTestUtils.setField(purgeWorker, "batchSize", 2);
+    }
+
+    @Test
+    void purge_DeletesEventsInBatchesThenCalendar() {
+        Attachment attachment = Attachment.builder().id("att-1").contentHash("hash").build();
+        when(jdbcTemplate.queryForList(contains("ORDER BY deleted_at"), eq(String.class), any(), eq(20)))
+                .thenReturn(List.of("cal-1"));
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"), eq(String.class), eq("cal-1"), any()))
+                .thenReturn(List.of("cal-1"));
+        when(jdbcTemplate.queryForList(contains("SELECT id FROM events"), eq(String.class), eq("cal-1"), eq(2)))
+                .thenReturn(List.of("event-1", "event-2"), List.of());
+        when(jdbcTemplate.queryForList(contains("RETURNING conference_id"), eq(String.class), eq("cal-1"), any()))
+                .thenReturn(Arrays.asList("conf-1", null));
+        when(attachmentRepository.findByEventIdIn(List.of("event-1", "event-2"))).thenReturn(List.of(attachment));
+
+        purgeWorker.purge();
+
+        verify(attachmentService).releaseFiles(List.of(attachment));
+        verify(jdbcTemplate).update(contains("DELETE FROM attachments"), (Object) any());
+        verify(jdbcTemplate).update(contains("DELETE FROM tasks"), (Object) any());
+        verify(jdbcTemplate).update(contains("DELETE FROM event_occurrence_exceptions"), (Object) any());
+        verify(jdbcTemplate).update(contains("DELETE FROM conferences"),
+                (Object) argThat(ids -> Arrays.equals((Object[]) ids, new String[]{"conf-1"})));
+        verify(jdbcTemplate).update(contains("DELETE FROM calendars"), eq("cal-1"));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void purge_SkipsCalendarRecoveredMeanwhile() {
+        when(jdbcTemplate.queryForList(contains("ORDER BY deleted_at"), eq(String.class), any(), eq(20)))
+                .thenReturn(List.of("cal-1"));
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"), eq(String.class), eq("cal-1"), any()))
+                .thenReturn(List.of());
+
+        purgeWorker.purge();
+
+        verify(jdbcTemplate, never()).queryForList(contains("SELECT id FROM events"), eq(String.class), any(), any());
+        verify(jdbcTemplate, never()).update(contains("DELETE FROM calendars"), eq("cal-1"));
+        verifyNoInteractions(attachmentRepository, attachmentService);
+    }
+
+    @Test
+    void purge_ContinuesWithNextCalendarAfterFailure() {
+        when(jdbcTemplate.queryForList(contains("ORDER BY deleted_at"), eq(String.class), any(), eq(20)))
+                .thenReturn(List.of("cal-1", "cal-2"));
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"), eq(String.class), anyString(), any()))
+                .thenReturn(List.of("locked"));
+        when(jdbcTemplate.queryForList(contains("SELECT id FROM events"), eq(String.class), eq("cal-1"), eq(2)))
+                .thenThrow(new RuntimeException("connection reset"));
+        when(jdbcTemplate.queryForList(contains("SELECT id FROM events"), eq(String.class), eq("cal-2"), eq(2)))
+                .thenReturn(List.of());
+
+        purgeWorker.purge();
+
+        verify(transactionManager).rollback(any());
+        verify(jdbcTemplate, never()).update(contains("DELETE FROM calendars"), eq("cal-1"));
+        verify(jdbcTemplate).update(contains("DELETE FROM calendars"), eq("cal-2"));
+    }
+}
@@ -1,10 +1,12 @@
 package com.flux.calendar_service.calendar;
 
+import com.flux.calendar_service.availability.AvailabilityService;
 import com.flux.calendar_service.calendar.dto.CalendarRequest;
 import com.flux.calendar_service.calendar.dto.CalendarResponse;
 import com.flux.calendar_service.calendar.dto.CalendarUpdateRequest;
 import com.flux.calendar_service.exceptions.MustBeUniqueException;
 import com.flux.calendar_service.exceptions.MustNotBeEmptyException;
+import com.flux.calendar_service.job.JobService;
 import jakarta.ws.rs.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,8 +15,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +32,10 @@ class CalendarServiceTest {
     private CalendarRepository calendarRepository;
     @Mock
     private CalendarMapper calendarMapper;
+    @Mock
+    private JobService jobService;
+    @Mock
+    private AvailabilityService availabilityService;
 
     @InjectMocks
     private CalendarService calendarService;
@@ -108,13 +116,17 @@ class CalendarServiceTest {
 
         // Assert
         assertTrue(calendar.isDeleted());
+        assertNotNull(calendar.getDeletedAt());
         verify(calendarRepository).save(calendar);
+        verify(jobService).submit(CalendarDeleteJobHandler.TYPE, Map.of("calendarId", "cal-1", "userId", "user-1"));
+        verify(availabilityService).onCalendarChanged("user-1");
     }
 
     @Test
     void recoverCalendar_Success() {
         // Arrange
         calendar.setDeleted(true);
+        calendar.setDeletedAt(LocalDateTime.now());
         when(calendarRepository.findCalendarByIdAndIsDeletedTrue("cal-1")).thenReturn(Optional.of(calendar));
 
         // Act
@@ -122,7 +134,9 @@ class CalendarServiceTest {
 
         // Assert
         assertFalse(calendar.isDeleted());
+        assertNull(calendar.getDeletedAt());
         verify(calendarRepository).save(calendar);
+        verify(availabilityService).onCalendarChanged("user-1");
     }
 
     @Test
@@ -0,0 +1,180 @@
+package com.flux.calendar_service.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Just enough of the Redis protocol (RESP2) for GET, SET, DEL and MULTI/EXEC, to benchmark client
+ * settings without a Redis server. Every batch of commands that arrives together is answered after
+ * {@code roundTripMillis}, which stands in for the network: pipelined commands share one round
+ * trip, commands sent one by one pay one each.
+ */
+class FakeRedisServer implements AutoCloseable {
+    private static final byte[] OK = "+OK\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] QUEUED = "+QUEUED\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocket serverSocket;
+    private final long roundTripMillis;
+    private final Map<String, String> data = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger commands = new AtomicInteger();
+
+    FakeRedisServer(long roundTripMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        this.roundTripMillis = roundTripMillis;
+        Thread.ofVirtual().start(this::accept);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Connections accepted so far, including closed ones. */
+    int connections() {
+        return connections.get();
+    }
+
+    int commands() {
+        return commands.get();
+    }
+
+    void put(String key, String value) {
+        data.put(key, value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            List<byte[]> transaction = null;
+            List<String> command;
+            while ((command = readCommand(in)) != null) {
+                commands.incrementAndGet();
+                String name = command.get(0).toUpperCase(Locale.ROOT);
+                if (name.equals("MULTI")) {
+                    transaction = new ArrayList<>();
+                    out.write(OK);
+                } else if (name.equals("EXEC") && transaction != null) {
+                    out.write(("*" + transaction.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                    for (byte[] reply : transaction) {
+                        out.write(reply);
+                    }
+                    transaction = null;
+                } else if (name.equals("DISCARD")) {
+                    transaction = null;
+                    out.write(OK);
+                } else if (transaction != null) {
+                    transaction.add(execute(name, command));
+                    out.write(QUEUED);
+                } else {
+                    out.write(execute(name, command));
+                }
+                if (in.available() == 0) {
+                    Thread.sleep(roundTripMillis);
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] execute(String name, List<String> command) {
+        return switch (name) {
+            case "PING" -> "+PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+            case "CLIENT", "SELECT", "AUTH" -> OK;
+            case "GET" -> bulk(data.get(command.get(1)));
+            case "SET" -> {
+                data.put(command.get(1), command.get(2));
+                yield OK;
+            }
+            case "DEL" -> {
+                long removed = command.stream().skip(1).filter(key -> data.remove(key) != null).count();
+                yield (":" + removed + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            }
+            // HELLO included, so Lettuce falls back to RESP2
+            default -> ("-ERR unknown command '" + name + "'\r\n").getBytes(StandardCharsets.US_ASCII);
+        };
+    }
+
+    private static byte[] bulk(String value) {
+        if (value == null) {
+            return "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream reply = new ByteArrayOutputStream(bytes.length + 16);
+        reply.writeBytes(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        reply.writeBytes(bytes);
+        reply.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+        return reply.toByteArray();
+    }
+
+    private static List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        if (header.charAt(0) != '*') {
+            throw new IOException("Expected a command array, got " + header);
+        }
+        int count = Integer.parseInt(header.substring(1));
+        List<String> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String length = readLine(in);
+            if (length == null) {
+                throw new EOFException();
+            }
+            byte[] argument = in.readNBytes(Integer.parseInt(length.substring(1)));
+            in.readNBytes(2);
+            command.add(new String(argument, StandardCharsets.UTF_8));
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\r') {
+                in.read();
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.isEmpty() ? null : line.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package com.flux.calendar_service.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The previous client setup against the one from {@link RedisConnectionConfig}, on a fake server
+ * with a 1 ms round trip. The workload is what the services do inside {@code @Transactional}
+ * methods: read one cached entry and evict another. Before, the template was bound to the
+ * transaction, so every transaction opened its own connection to queue the eviction in MULTI/EXEC.
+ */
+class RedisClientBenchmarkTest {
+    private static final long ROUND_TRIP_MILLIS = 1;
+    private static final int THREADS = 16;
+    private static final int TRANSACTIONS_PER_THREAD = 50;
+    private static final int TRANSACTIONS = THREADS * TRANSACTIONS_PER_THREAD;
+
+    private FakeRedisServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new FakeRedisServer(ROUND_TRIP_MILLIS);
+        IntStream.range(0, TRANSACTIONS).forEach(i -> server.put("event:" + i, "{}"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void compareTransactionBoundAndSharedConnections() throws Exception {
+        LettuceConnectionFactory bare = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", server.getPort()));
+        bare.afterPropertiesSet();
+        bare.start();
+        Result before;
+        try {
+            before = run(bare, true);
+        } finally {
+            bare.destroy();
+        }
+        int connectionsBefore = server.connections();
+        int commandsBefore = server.commands();
+
+        Result after;
+        try (AnnotationConfigApplicationContext context = tunedContext()) {
+            after = run(context.getBean(LettuceConnectionFactory.class), false);
+        }
+        int connectionsAfter = server.connections() - connectionsBefore;
+        int commandsAfter = server.commands() - commandsBefore;
+
+        System.out.printf("%d transactions from %d threads, %d ms round trip:%n", TRANSACTIONS, THREADS, ROUND_TRIP_MILLIS);
+        System.out.printf("  bound to transaction, no pool: %.0f tx/s, %d connections, %d commands%n",
+                before.transactionsPerSecond(), connectionsBefore, commandsBefore);
+        System.out.printf("  shared connection, pooled:     %.0f tx/s, %d connections, %d commands%n",
+                after.transactionsPerSecond(), connectionsAfter, commandsAfter);
+        assertEquals(TRANSACTIONS, before.hits());
+        assertEquals(TRANSACTIONS, after.hits());
+        assertTrue(connectionsBefore >= TRANSACTIONS, "one dedicated connection per transaction before");
+        assertTrue(connectionsAfter <= 2, "commands share the native connection after, got " + connectionsAfter);
+        assertTrue(after.transactionsPerSecond() > before.transactionsPerSecond());
+    }
+
+    private record Result(double transactionsPerSecond, int hits) {
+    }
+
+    private Result run(RedisConnectionFactory factory, boolean transactionSupport) throws Exception {
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new StringRedisSerializer());
+        template.setEnableTransactionSupport(transactionSupport);
+        template.afterPropertiesSet();
+        TransactionTemplate transactions = new TransactionTemplate(new NoOpTransactionManager());
+
+        AtomicInteger hits = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> workers = IntStream.range(0, THREADS)
+                    .<Future<?>>mapToObj(thread -> threads.submit(() -> {
+                        for (int i = 0; i < TRANSACTIONS_PER_THREAD; i++) {
+                            int n = thread * TRANSACTIONS_PER_THREAD + i;
+                            transactions.executeWithoutResult(status -> {
+                                if (template.opsForValue().get("event:" + n) != null) {
+                                    hits.incrementAndGet();
+                                }
+                                template.delete("events:" + n);
+                            });
+                        }
+                    }))
+                    .toList();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        return new Result(TRANSACTIONS / ((System.nanoTime() - started) / 1e9), hits.get());
+    }
+
+    private AnnotationConfigApplicationContext tunedContext() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        // Boot installs a conversion service for @Value; the list properties need one here too
+        context.getBeanFactory().setConversionService(new DefaultConversionService());
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("benchmark", Map.of("spring.data.redis.port", server.getPort())));
+        context.register(RedisConnectionConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    // Transactions without a resource, so only Spring's synchronization, which the template binds to, is in play
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
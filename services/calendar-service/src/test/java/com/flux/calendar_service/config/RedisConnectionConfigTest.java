@@ -0,0 +1,70 @@
+package com.flux.calendar_service.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisConnectionConfigTest {
+
+    private RedisConnectionConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new RedisConnectionConfig();
+        ReflectionTestUtils.setField(config, "host", "redis.internal");
+        ReflectionTestUtils.setField(config, "port", 6380);
+        ReflectionTestUtils.setField(config, "password", "");
+        ReflectionTestUtils.setField(config, "database", 2);
+        ReflectionTestUtils.setField(config, "sentinelMaster", "");
+        ReflectionTestUtils.setField(config, "sentinelNodes", List.of());
+        ReflectionTestUtils.setField(config, "clusterNodes", List.of());
+        ReflectionTestUtils.setField(config, "clusterMaxRedirects", 3);
+    }
+
+    @Test
+    void usesSingleServerByDefault() {
+        RedisStandaloneConfiguration standalone =
+                assertInstanceOf(RedisStandaloneConfiguration.class, config.serverConfiguration());
+
+        assertEquals("redis.internal", standalone.getHostName());
+        assertEquals(6380, standalone.getPort());
+        assertEquals(2, standalone.getDatabase());
+        assertFalse(standalone.getPassword().isPresent());
+    }
+
+    @Test
+    void usesSentinelWhenMasterIsSet() {
+        ReflectionTestUtils.setField(config, "sentinelMaster", "mymaster");
+        ReflectionTestUtils.setField(config, "sentinelNodes", List.of("s1:26379", " s2:26379"));
+        ReflectionTestUtils.setField(config, "password", "secret");
+
+        RedisSentinelConfiguration sentinel =
+                assertInstanceOf(RedisSentinelConfiguration.class, config.serverConfiguration());
+
+        assertEquals("mymaster", sentinel.getMaster().getName());
+        assertEquals(2, sentinel.getSentinels().size());
+        assertTrue(sentinel.getPassword().isPresent());
+    }
+
+    @Test
+    void clusterNodesTakePrecedence() {
+        ReflectionTestUtils.setField(config, "sentinelMaster", "mymaster");
+        ReflectionTestUtils.setField(config, "clusterNodes", List.of("c1:7000", "c2:7000", ""));
+
+        RedisClusterConfiguration cluster =
+                assertInstanceOf(RedisClusterConfiguration.class, config.serverConfiguration());
+
+        assertEquals(Set.of("c1", "c2"), cluster.getClusterNodes().stream().map(RedisNode::getHost).collect(Collectors.toSet()));
+        assertEquals(3, cluster.getMaxRedirects());
+    }
+}
@@ -0,0 +1,113 @@
+package com.flux.calendar_service.datasource;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replicaA;
+    @Mock
+    private DataSource replicaB;
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaA);
+        replicas.put("replica-1", replicaB);
+
+        lagMonitor = new ReplicaLagMonitor(replicas, 1000);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, lagMonitor);
+    }
+
+    @Test
+    void routesToPrimary_WhenNoLagMeasured() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void balancesAcrossHealthyReplicas() {
+        lagMonitor.recordLag("replica-0", 10);
+        lagMonitor.recordLag("replica-1", 20);
+
+        Set<Object> keys = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(routingDataSource.determineCurrentLookupKey());
+        }
+
+        assertEquals(Set.of("replica-0", "replica-1"), keys);
+    }
+
+    @Test
+    void skipsLaggingReplica() {
+        lagMonitor.recordLag("replica-0", 5000);
+        lagMonitor.recordLag("replica-1", 20);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+        }
+    }
+
+    @Test
+    void fallsBackToPrimary_WhenAllReplicasLag() {
+        lagMonitor.recordLag("replica-0", 5000);
+        lagMonitor.recordLag("replica-1", 8000);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void routesCacheFillingReadsToPrimary() throws Throwable {
+        lagMonitor.recordLag("replica-0", 10);
+        lagMonitor.recordLag("replica-1", 20);
+        MethodInvocation cacheableMethod = mock(MethodInvocation.class);
+        when(cacheableMethod.proceed()).thenAnswer(invocation -> routingDataSource.determineCurrentLookupKey());
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, new PrimaryReadInterceptor().invoke(cacheableMethod));
+        assertFalse(PrimaryReadInterceptor.isActive());
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void refresh_MarksReplicaUnhealthy_WhenCheckFails() throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replicaA.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(50L);
+        when(replicaB.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        lagMonitor.refresh();
+
+        assertTrue(lagMonitor.isHealthy("replica-0"));
+        assertFalse(lagMonitor.isHealthy("replica-1"));
+        assertEquals(50L, lagMonitor.getLagMillis("replica-0"));
+    }
+}
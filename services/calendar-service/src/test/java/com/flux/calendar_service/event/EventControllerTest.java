@@ -2,6 +2,7 @@ package com.flux.calendar_service.event;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
 import com.flux.calendar_service.event.dto.EventRequest;
 import com.flux.calendar_service.event.dto.EventResponse;
 import com.flux.calendar_service.event.dto.EventUpdateRequest;
@@ -22,6 +23,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,6 +36,9 @@ class EventControllerTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private EventOccurrenceService eventOccurrenceService;
+
     @InjectMocks
     private EventController eventController;
 
@@ -52,7 +57,7 @@ class EventControllerTest {
         EventRequest request = new EventRequest(
                 "Title", "Desc", "#fff", EventType.MEETING, LocalDate.now(),
                 LocalDateTime.now(), LocalDateTime.now().plusHours(1),
-                false, null, null, null
+                false, null, null, null, null
         );
 
         when(eventService.createEvent(eq("cal-1"), any(EventRequest.class))).thenReturn("evt-1");
@@ -69,7 +74,7 @@ class EventControllerTest {
         EventRequest request = new EventRequest(
                 "Title", "Desc", "#fff", EventType.MEETING, LocalDate.now(),
                 LocalDateTime.now(), LocalDateTime.now().plusHours(1),
-                false, null, null, null
+                false, null, null, null, null
         );
 
         when(eventService.createEventWithGoogleMeet(eq("cal-1"), any(EventRequest.class))).thenReturn("evt-1");
@@ -90,9 +95,20 @@ class EventControllerTest {
                 .andExpect(content().json("[]"));
     }
 
+    @Test
+    void getEventsByIds_Success() throws Exception {
+        EventResponse response = new EventResponse("evt-1", null, "Title", null, null, null, null, null, null, null, false, null, null, null, null, null, null, null);
+        when(eventService.getEventsByIds(List.of("evt-1", "evt-2"))).thenReturn(List.of(response));
+
+        mockMvc.perform(get("/events").param("ids", "evt-1,evt-2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":\"evt-1\"}]"));
+        verify(eventService, never()).getAllEvents();
+    }
+
     @Test
     void getEventById_Success() throws Exception {
-        EventResponse response = new EventResponse("evt-1", null, "Title", null, null, null, null, null, null, null, false, null, null, null, null, null, null);
+        EventResponse response = new EventResponse("evt-1", null, "Title", null, null, null, null, null, null, null, false, null, null, null, null, null, null, null);
         when(eventService.getEventById("evt-1")).thenReturn(response);
 
         mockMvc.perform(get("/events/evt-1"))
@@ -110,7 +126,7 @@ class EventControllerTest {
 
     @Test
     void updateEvent_Success() throws Exception {
-        EventUpdateRequest request = new EventUpdateRequest("Updated", null, null, null, null, null, null, null, null, null, null);
+        EventUpdateRequest request = new EventUpdateRequest("Updated", null, null, null, null, null, null, null, null, null, null, null);
 
         mockMvc.perform(put("/events/evt-1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -135,4 +151,21 @@ class EventControllerTest {
 
         verify(eventService).attachLocation("evt-1", "loc-1");
     }
+
+    @Test
+    void getOccurrencesByCalendar_Success() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 4, 1, 0, 0);
+        EventOccurrenceResponse occurrence = new EventOccurrenceResponse("evt-1", "Standup", "#fff", EventType.MEETING,
+                start.plusHours(9), start.plusHours(9).plusMinutes(15), false, true, false);
+
+        when(eventOccurrenceService.getOccurrences("cal-1", start, end)).thenReturn(List.of(occurrence));
+
+        mockMvc.perform(get("/events/calendar/cal-1/occurrences")
+                        .param("start", "2025-03-01T00:00:00")
+                        .param("end", "2025-04-01T00:00:00"))
+                .andExpect(status().isOk());
+
+        verify(eventOccurrenceService).getOccurrences("cal-1", start, end);
+    }
 }
@@ -0,0 +1,123 @@
+package com.flux.calendar_service.event;
+
+import com.flux.calendar_service.availability.AvailabilityService;
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
+import com.flux.calendar_service.event.dto.OccurrenceExceptionRequest;
+import com.flux.calendar_service.event.recurrence.OccurrenceException;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventOccurrenceServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private OccurrenceExceptionRepository occurrenceExceptionRepository;
+    @Mock
+    private AvailabilityService availabilityService;
+
+    private EventOccurrenceService eventOccurrenceService;
+
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2025, 3, 10, 0, 0);
+    private static final LocalDateTime WINDOW_END = LocalDateTime.of(2025, 3, 13, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        eventOccurrenceService = new EventOccurrenceService(eventRepository, occurrenceExceptionRepository,
+                new OccurrenceExpander(occurrenceExceptionRepository), availabilityService);
+    }
+
+    private Event series() {
+        return Event.builder()
+                .id("series-1")
+                .title("Standup")
+                .type(EventType.MEETING)
+                .startTime(LocalDateTime.of(2025, 1, 1, 9, 0))
+                .endTime(LocalDateTime.of(2025, 1, 1, 9, 15))
+                .recurrenceRule("FREQ=DAILY")
+                .build();
+    }
+
+    @Test
+    void getOccurrences_MergesSingleEventsAndExpandedSeries() {
+        Event single = Event.builder()
+                .id("evt-1")
+                .title("Review")
+                .startTime(LocalDateTime.of(2025, 3, 11, 8, 0))
+                .endTime(LocalDateTime.of(2025, 3, 11, 8, 30))
+                .build();
+        Event series = series();
+        OccurrenceException cancelled = OccurrenceException.builder()
+                .event(series)
+                .originalStartTime(LocalDateTime.of(2025, 3, 12, 9, 0))
+                .cancelled(true)
+                .build();
+
+        when(eventRepository.findSingleByCalendarIdOverlapping("cal-1", WINDOW_START, WINDOW_END)).thenReturn(List.of(single));
+        when(eventRepository.findRecurringByCalendarIdOverlapping("cal-1", WINDOW_START, WINDOW_END)).thenReturn(List.of(series));
+        when(occurrenceExceptionRepository.findByEventIdIn(anyList())).thenReturn(List.of(cancelled));
+
+        List<EventOccurrenceResponse> result = eventOccurrenceService.getOccurrences("cal-1", WINDOW_START, WINDOW_END);
+
+        assertEquals(3, result.size());
+        assertEquals("series-1", result.get(0).eventId());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 9, 0), result.get(0).startTime());
+        assertEquals("evt-1", result.get(1).eventId());
+        assertFalse(result.get(1).recurring());
+        assertEquals(LocalDateTime.of(2025, 3, 11, 9, 15), result.get(2).endTime());
+    }
+
+    @Test
+    void getOccurrences_InvalidRange() {
+        assertThrows(IncorrectTimeException.class, () ->
+                eventOccurrenceService.getOccurrences("cal-1", WINDOW_END, WINDOW_START));
+    }
+
+    @Test
+    void addException_RejectsSingleEvent() {
+        Event single = Event.builder().id("evt-1").build();
+        when(eventRepository.findById("evt-1")).thenReturn(Optional.of(single));
+
+        OccurrenceExceptionRequest request = new OccurrenceExceptionRequest(
+                LocalDateTime.of(2025, 3, 10, 9, 0), true, null, null, null);
+
+        assertThrows(ConflictException.class, () -> eventOccurrenceService.addException("evt-1", request));
+        verify(occurrenceExceptionRepository, never()).save(any());
+    }
+
+    @Test
+    void addException_Success() {
+        Event series = series();
+        LocalDateTime original = LocalDateTime.of(2025, 3, 10, 9, 0);
+        when(eventRepository.findById("series-1")).thenReturn(Optional.of(series));
+        when(occurrenceExceptionRepository.findByEventIdAndOriginalStartTime("series-1", original)).thenReturn(Optional.empty());
+        when(occurrenceExceptionRepository.save(any(OccurrenceException.class))).thenAnswer(invocation -> {
+            OccurrenceException saved = invocation.getArgument(0);
+            saved.setId("exc-1");
+            return saved;
+        });
+
+        String id = eventOccurrenceService.addException("series-1",
+                new OccurrenceExceptionRequest(original, false, original.plusHours(1), null, "Moved standup"));
+
+        assertEquals("exc-1", id);
+        verify(availabilityService).onEventChanged(series);
+    }
+}
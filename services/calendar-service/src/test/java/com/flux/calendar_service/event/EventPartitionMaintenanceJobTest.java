@@ -0,0 +1,82 @@
+package com.flux.calendar_service.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventPartitionMaintenanceJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private EventPartitionMaintenanceJob job;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(job, "monthsAhead", 2);
+        ReflectionTestUtils.setField(job, "archiveSchema", "events_archive");
+    }
+
+    @Test
+    void createFuturePartitions_CreatesCurrentAndUpcomingMonths() {
+        job.createFuturePartitions(YearMonth.of(2025, 11));
+
+        verify(jdbcTemplate).execute("SELECT create_events_partition(DATE '2025-11-01')");
+        verify(jdbcTemplate).execute("SELECT create_events_partition(DATE '2025-12-01')");
+        verify(jdbcTemplate).execute("SELECT create_events_partition(DATE '2026-01-01')");
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void archiveExpiredPartitions_DetachesOnlyOlderMonths() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("events_default", "events_2024_12", "events_2025_01", "events_2025_02"));
+
+        job.archiveExpiredPartitions(YearMonth.of(2025, 2));
+
+        verify(jdbcTemplate).execute("ALTER TABLE events DETACH PARTITION events_2024_12");
+        verify(jdbcTemplate).execute("ALTER TABLE events DETACH PARTITION events_2025_01");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE events DETACH PARTITION events_2025_02");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE events DETACH PARTITION events_default");
+        verify(jdbcTemplate).execute("ALTER TABLE events_2024_12 SET SCHEMA events_archive");
+    }
+
+    @Test
+    void archiveExpiredPartitions_KeepsMonthsWithRunningSeries() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("events_2024_11", "events_2024_12"));
+        when(jdbcTemplate.queryForObject(contains("FROM events_2024_11 WHERE recurrence_rule IS NOT NULL"),
+                eq(Boolean.class), any())).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("FROM events_2024_12 WHERE recurrence_rule IS NOT NULL"),
+                eq(Boolean.class), any())).thenReturn(false);
+
+        job.archiveExpiredPartitions(YearMonth.of(2025, 2));
+
+        verify(jdbcTemplate, never()).execute("ALTER TABLE events DETACH PARTITION events_2024_11");
+        verify(jdbcTemplate).execute("ALTER TABLE events DETACH PARTITION events_2024_12");
+    }
+
+    @Test
+    void parseMonth_IgnoresNonMonthlyPartitions() {
+        assertEquals(YearMonth.of(2025, 3), EventPartitionMaintenanceJob.parseMonth("events_2025_03"));
+        assertNull(EventPartitionMaintenanceJob.parseMonth("events_default"));
+        assertNull(EventPartitionMaintenanceJob.parseMonth("tasks_2025_03"));
+    }
+}
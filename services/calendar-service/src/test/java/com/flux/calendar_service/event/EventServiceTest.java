@@ -1,5 +1,7 @@
 package com.flux.calendar_service.event;
 
+import com.flux.calendar_service.attachment.AttachmentService;
+import com.flux.calendar_service.availability.AvailabilityService;
 import com.flux.calendar_service.calendar.Calendar;
 import com.flux.calendar_service.calendar.CalendarRepository;
 import com.flux.calendar_service.conference.Conference;
@@ -11,6 +13,8 @@ import com.flux.calendar_service.event.dto.EventUpdateRequest;
 import com.flux.calendar_service.exceptions.GoogleCalendarDisabledException;
 import com.flux.calendar_service.exceptions.IncorrectTimeException;
 import com.flux.calendar_service.google.GoogleCalendarApiService;
+import com.flux.calendar_service.google.GoogleEventsDeleteJobHandler;
+import com.flux.calendar_service.job.JobService;
 import com.flux.calendar_service.location.LocationMapper;
 import com.flux.calendar_service.location.LocationRepository;
 import com.flux.calendar_service.zoom.ZoomApiService;
@@ -26,6 +30,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,6 +58,12 @@ class EventServiceTest {
     private ZoomApiService zoomApiService;
     @Mock
     private GoogleCalendarApiService googleCalendarApiService;
+    @Mock
+    private AvailabilityService availabilityService;
+    @Mock
+    private AttachmentService attachmentService;
+    @Mock
+    private JobService jobService;
 
     @InjectMocks
     private EventService eventService;
@@ -93,6 +104,7 @@ class EventServiceTest {
                 false,
                 null,
                 null,
+                null,
                 null
         );
     }
@@ -143,7 +155,7 @@ class EventServiceTest {
                 "Test", "Desc", "#ffffff", EventType.MEETING, LocalDate.now(),
                 LocalDateTime.now().plusHours(2), 
                 LocalDateTime.now(), // End before start
-                false, null, null, null
+                false, null, null, null, null
         );
         
         when(calendarRepository.findById("cal-1")).thenReturn(Optional.of(calendar));
@@ -195,7 +207,7 @@ class EventServiceTest {
     void updateEvent_Success() throws IOException {
         // Arrange
         EventUpdateRequest updateRequest = new EventUpdateRequest(
-                "Updated Title", null, null, null, null, null, null, null, null, null, null
+                "Updated Title", null, null, null, null, null, null, null, null, null, null, null
         );
         event.setGoogleCalendarId("g-id");
         
@@ -221,6 +233,7 @@ class EventServiceTest {
 
         // Assert
         verify(googleCalendarApiService).deleteEvent(any(), any());
+        verify(attachmentService).releaseFiles(event.getAttachments());
         verify(eventRepository).delete(event);
     }
 
@@ -228,7 +241,7 @@ class EventServiceTest {
     void getEventById_Success() {
         // Arrange
         when(eventRepository.findById("evt-1")).thenReturn(Optional.of(event));
-        EventResponse response = new EventResponse(event.getId(), null, event.getTitle(), null, null, null, null, null, null, null, false, null, null, null, null, null, null);
+        EventResponse response = new EventResponse(event.getId(), null, event.getTitle(), null, null, null, null, null, null, null, false, null, null, null, null, null, null, null);
         when(eventMapper.toEventResponse(event)).thenReturn(response);
 
         // Act
@@ -247,4 +260,24 @@ class EventServiceTest {
         // so we accept any Exception here to be safe and verify the result is not returned.
         assertThrows(Exception.class, () -> eventService.getEventById("invalid"));
     }
+
+    @Test
+    void deleteGoogleEventsByDateRange_QueuesJob() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 2, 1, 0, 0);
+
+        eventService.deleteGoogleEventsByDateRange("user-1", start, end);
+
+        verify(jobService).submit(GoogleEventsDeleteJobHandler.TYPE,
+                Map.of("userId", "user-1", "start", "2026-01-01T00:00", "end", "2026-02-01T00:00"));
+        verifyNoInteractions(googleCalendarApiService);
+    }
+
+    @Test
+    void deleteGoogleEventsByDateRange_EmptyRange() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        assertThrows(IncorrectTimeException.class, () -> eventService.deleteGoogleEventsByDateRange("user-1", start, start));
+        verifyNoInteractions(jobService);
+    }
 }
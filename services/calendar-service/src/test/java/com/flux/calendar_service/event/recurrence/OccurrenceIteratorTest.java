@@ -0,0 +1,93 @@
+package com.flux.calendar_service.event.recurrence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccurrenceIteratorTest {
+
+    private static List<LocalDateTime> expand(String rule, LocalDateTime seriesStart, long durationSeconds,
+                                              LocalDateTime windowStart, LocalDateTime windowEnd) {
+        OccurrenceIterator iterator = new OccurrenceIterator(RecurrenceRule.parse(rule), seriesStart,
+                durationSeconds, windowStart, windowEnd);
+        List<LocalDateTime> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    void daily_TenYearSeries_OnlyExpandsMonthWindow() {
+        LocalDateTime seriesStart = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+        List<LocalDateTime> occurrences = expand("FREQ=DAILY;UNTIL=20291231T235959Z", seriesStart, 1800,
+                LocalDateTime.of(2027, 6, 1, 0, 0), LocalDateTime.of(2027, 7, 1, 0, 0));
+
+        assertEquals(30, occurrences.size());
+        assertEquals(LocalDateTime.of(2027, 6, 1, 9, 0), occurrences.get(0));
+        assertEquals(LocalDateTime.of(2027, 6, 30, 9, 0), occurrences.get(29));
+    }
+
+    @Test
+    void daily_IncludesOccurrenceRunningIntoWindow() {
+        List<LocalDateTime> occurrences = expand("FREQ=DAILY", LocalDateTime.of(2025, 1, 1, 23, 0), 7200,
+                LocalDateTime.of(2025, 1, 5, 0, 0), LocalDateTime.of(2025, 1, 6, 0, 0));
+
+        assertEquals(List.of(LocalDateTime.of(2025, 1, 4, 23, 0), LocalDateTime.of(2025, 1, 5, 23, 0)), occurrences);
+    }
+
+    @Test
+    void daily_CountIsHonouredAfterSkipAhead() {
+        List<LocalDateTime> occurrences = expand("FREQ=DAILY;COUNT=10", LocalDateTime.of(2025, 1, 1, 9, 0), 0,
+                LocalDateTime.of(2025, 1, 8, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0));
+
+        assertEquals(3, occurrences.size());
+        assertEquals(LocalDateTime.of(2025, 1, 10, 9, 0), occurrences.get(2));
+    }
+
+    @Test
+    void weekly_ByDayWithCountAcrossSkipAhead() {
+        // 2025-01-01 is a Wednesday: occurrences are We, Fr, Mo, We, Fr, Mo, ...
+        List<LocalDateTime> occurrences = expand("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=7",
+                LocalDateTime.of(2025, 1, 1, 10, 0), 3600,
+                LocalDateTime.of(2025, 1, 13, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0));
+
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 1, 13, 10, 0),
+                LocalDateTime.of(2025, 1, 15, 10, 0)), occurrences);
+    }
+
+    @Test
+    void weekly_IntervalSkipsWeeks() {
+        List<LocalDateTime> occurrences = expand("FREQ=WEEKLY;INTERVAL=2", LocalDateTime.of(2025, 1, 6, 8, 0), 0,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 15, 0, 0));
+
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 1, 6, 8, 0),
+                LocalDateTime.of(2025, 1, 20, 8, 0),
+                LocalDateTime.of(2025, 2, 3, 8, 0)), occurrences);
+    }
+
+    @Test
+    void monthly_SkipsMonthsWithoutStartDay() {
+        List<LocalDateTime> occurrences = expand("FREQ=MONTHLY;COUNT=3", LocalDateTime.of(2025, 1, 31, 12, 0), 0,
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        assertEquals(List.of(
+                LocalDateTime.of(2025, 1, 31, 12, 0),
+                LocalDateTime.of(2025, 3, 31, 12, 0),
+                LocalDateTime.of(2025, 5, 31, 12, 0)), occurrences);
+    }
+
+    @Test
+    void seriesEnd_ComputedFromCount() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=WEEKLY;BYDAY=TU,TH;COUNT=4");
+
+        LocalDateTime end = rule.seriesEnd(LocalDateTime.of(2025, 1, 7, 9, 0), LocalDateTime.of(2025, 1, 7, 10, 0));
+
+        assertEquals(LocalDateTime.of(2025, 1, 16, 10, 0), end);
+    }
+}
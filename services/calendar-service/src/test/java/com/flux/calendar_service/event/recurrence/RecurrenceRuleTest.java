@@ -0,0 +1,56 @@
+package com.flux.calendar_service.event.recurrence;
+
+import com.flux.calendar_service.exceptions.InvalidRecurrenceRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    @Test
+    void parse_NormalizesRule() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:freq=weekly;byday=FR,MO;interval=1;until=20251231");
+
+        assertEquals(RecurrenceRule.Frequency.WEEKLY, rule.getFrequency());
+        assertTrue(rule.includesDay(DayOfWeek.MONDAY));
+        assertFalse(rule.includesDay(DayOfWeek.TUESDAY));
+        assertEquals(LocalDateTime.of(2025, 12, 31, 23, 59, 59), rule.getUntil());
+        assertEquals("FREQ=WEEKLY;UNTIL=20251231T235959;BYDAY=MO,FR", rule.toString());
+        assertEquals("RRULE:FREQ=WEEKLY;UNTIL=20251231T235959Z;BYDAY=MO,FR", rule.toICalProperty(ZoneOffset.UTC));
+    }
+
+    @Test
+    void parse_ConvertsUtcUntilIntoCalendarZone() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20251231T230000Z", berlin);
+
+        assertEquals(LocalDateTime.of(2026, 1, 1, 0, 0), rule.getUntil());
+        assertEquals("FREQ=DAILY;UNTIL=20260101T000000", rule.toString());
+        assertEquals("RRULE:FREQ=DAILY;UNTIL=20251231T230000Z", rule.toICalProperty(berlin));
+        // The stored form is already local and read back unchanged
+        assertEquals(rule.getUntil(), RecurrenceRule.parse(rule.toString()).getUntil());
+    }
+
+    @Test
+    void parse_RejectsUnsupportedRules() {
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=HOURLY"));
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=0"));
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=2147483647"));
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=" + (RecurrenceRule.MAX_COUNT + 1)));
+        assertEquals(RecurrenceRule.MAX_COUNT, RecurrenceRule.parse("FREQ=DAILY;COUNT=" + RecurrenceRule.MAX_COUNT).getCount());
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=2;UNTIL=20250101"));
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=MO"));
+        assertThrows(InvalidRecurrenceRuleException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYSETPOS=1"));
+    }
+
+    @Test
+    void seriesEnd_NullForUnboundedRule() {
+        assertNull(RecurrenceRule.parse("FREQ=DAILY").seriesEnd(LocalDateTime.now(), LocalDateTime.now().plusHours(1)));
+    }
+}
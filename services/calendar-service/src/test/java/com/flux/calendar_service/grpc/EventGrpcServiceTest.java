@@ -0,0 +1,254 @@
+package com.flux.calendar_service.grpc;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.dto.CalendarResponse;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventService;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.EventType;
+import com.flux.calendar_service.event.SyncStatus;
+import com.flux.calendar_service.event.dto.EventRequest;
+import com.flux.calendar_service.event.dto.EventResponse;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.grpc.v1.CreateEventRequest;
+import com.flux.calendar_service.grpc.v1.Event;
+import com.flux.calendar_service.grpc.v1.EventDataGrpc;
+import com.flux.calendar_service.grpc.v1.EventRangeRequest;
+import com.flux.calendar_service.grpc.v1.GetEventRequest;
+import com.flux.calendar_service.grpc.v1.GetEventsRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import jakarta.validation.Validation;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventGrpcServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    private final EventService eventService = mock(EventService.class);
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final JwtDecoder jwtDecoder = mock(JwtDecoder.class);
+    private final GrpcMapper grpcMapper = new GrpcMapper();
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        EventGrpcService service = new EventGrpcService(eventService, eventRepository,
+                new OccurrenceExpander(mock(OccurrenceExceptionRepository.class)), grpcMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(PlatformTransactionManager.class));
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service,
+                        new GrpcExceptionInterceptor(), new GrpcAuthInterceptor(jwtDecoder)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        when(jwtDecoder.decode("good-token")).thenReturn(mock(Jwt.class));
+        when(jwtDecoder.decode("bad-token")).thenThrow(new BadJwtException("expired"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void getsEventThroughTheService() {
+        when(eventService.getEventById("evt-1")).thenReturn(eventResponse("evt-1"));
+
+        Event event = stub("good-token").getEvent(GetEventRequest.newBuilder().setId("evt-1").build());
+
+        assertEquals("evt-1", event.getId());
+        assertEquals("cal-1", event.getCalendarId());
+        assertEquals("MEETING", event.getType());
+        assertEquals(START, grpcMapper.toLocalDateTime(event.getStartTime()));
+        assertFalse(event.hasEndTime());
+    }
+
+    @Test
+    void bulkGetReturnsWhatTheServiceFound() {
+        when(eventService.getEventsByIds(List.of("evt-1", "evt-2"))).thenReturn(List.of(eventResponse("evt-1")));
+
+        List<Event> events = stub("good-token")
+                .getEvents(GetEventsRequest.newBuilder().addIds("evt-1").addIds("evt-2").build())
+                .getEventsList();
+
+        assertEquals(1, events.size());
+        assertEquals("evt-1", events.get(0).getId());
+    }
+
+    @Test
+    void missingEventIsNotFound() {
+        when(eventService.getEventById("evt-404")).thenThrow(new NotFoundException("Event not found with ID: evt-404"));
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub("good-token").getEvent(GetEventRequest.newBuilder().setId("evt-404").build()));
+
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void callsWithoutAValidTokenAreRejected() {
+        GetEventRequest request = GetEventRequest.newBuilder().setId("evt-1").build();
+
+        StatusRuntimeException missing = assertThrows(StatusRuntimeException.class,
+                () -> EventDataGrpc.newBlockingStub(channel).getEvent(request));
+        StatusRuntimeException invalid = assertThrows(StatusRuntimeException.class,
+                () -> stub("bad-token").getEvent(request));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, missing.getStatus().getCode());
+        assertEquals(Status.Code.UNAUTHENTICATED, invalid.getStatus().getCode());
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void streamsTheRangeInOrder() {
+        when(eventRepository.streamSingleByCalendarIdOverlapping(eq("cal-1"), any(), any()))
+                .thenReturn(IntStream.range(0, 1_000).mapToObj(i -> eventRow("evt-" + i, START.plusMinutes(i))));
+
+        Iterator<Event> stream = stub("good-token").listEventsInRange(EventRangeRequest.newBuilder()
+                .setCalendarId("cal-1")
+                .setStart(grpcMapper.toTimestamp(START))
+                .setEnd(grpcMapper.toTimestamp(START.plusDays(1)))
+                .build());
+        List<String> ids = new ArrayList<>();
+        stream.forEachRemaining(event -> ids.add(event.getId()));
+
+        assertEquals(1_000, ids.size());
+        assertEquals("evt-0", ids.get(0));
+        assertEquals("evt-999", ids.get(999));
+        verify(eventRepository).streamSingleByCalendarIdOverlapping("cal-1", START, START.plusDays(1));
+    }
+
+    @Test
+    void mergesOccurrencesOfSeriesStartedBeforeTheRange() {
+        com.flux.calendar_service.event.Event series = com.flux.calendar_service.event.Event.builder()
+                .id("series-1")
+                .calendar(Calendar.builder().id("cal-1").userId("user-1").build())
+                .title("Standup")
+                .type(EventType.MEETING)
+                .startTime(START.minusDays(30).withHour(10))
+                .endTime(START.minusDays(30).withHour(10).withMinute(15))
+                .recurrenceRule("FREQ=DAILY")
+                .build();
+        when(eventRepository.streamSingleByUserIdOverlapping(eq("user-1"), any(), any()))
+                .thenReturn(Stream.of(
+                        eventRow("evt-9", START.withHour(9)), eventRow("evt-11", START.withHour(11))));
+        when(eventRepository.findRecurringByUserIdOverlapping(eq("user-1"), any(), any())).thenReturn(List.of(series));
+
+        List<Event> events = new ArrayList<>();
+        stub("good-token").listEventsInRange(EventRangeRequest.newBuilder()
+                        .setUserId("user-1")
+                        .setStart(grpcMapper.toTimestamp(START))
+                        .setEnd(grpcMapper.toTimestamp(START.plusDays(1)))
+                        .build())
+                .forEachRemaining(events::add);
+
+        assertEquals(List.of("evt-9", "series-1", "evt-11"), events.stream().map(Event::getId).toList());
+        Event occurrence = events.get(1);
+        assertEquals(START.withHour(10), grpcMapper.toLocalDateTime(occurrence.getStartTime()));
+        assertEquals(START.withHour(10).withMinute(15), grpcMapper.toLocalDateTime(occurrence.getEndTime()));
+        assertEquals("cal-1", occurrence.getCalendarId());
+        assertEquals("FREQ=DAILY", occurrence.getRecurrenceRule());
+    }
+
+    @Test
+    void rangeWithoutOwnerOrWithEndFirstIsInvalid() {
+        EventDataGrpc.EventDataBlockingStub stub = stub("good-token");
+        EventRangeRequest noOwner = EventRangeRequest.newBuilder()
+                .setStart(grpcMapper.toTimestamp(START))
+                .setEnd(grpcMapper.toTimestamp(START.plusDays(1)))
+                .build();
+        EventRangeRequest reversed = EventRangeRequest.newBuilder()
+                .setUserId("user-1")
+                .setStart(grpcMapper.toTimestamp(START.plusDays(1)))
+                .setEnd(grpcMapper.toTimestamp(START))
+                .build();
+
+        StatusRuntimeException e1 = assertThrows(StatusRuntimeException.class, () -> stub.listEventsInRange(noOwner).hasNext());
+        StatusRuntimeException e2 = assertThrows(StatusRuntimeException.class, () -> stub.listEventsInRange(reversed).hasNext());
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e1.getStatus().getCode());
+        assertEquals(Status.Code.INVALID_ARGUMENT, e2.getStatus().getCode());
+    }
+
+    @Test
+    void createsValidEvents() {
+        when(eventService.createEvent(eq("cal-1"), any(EventRequest.class))).thenReturn("evt-new");
+
+        String id = stub("good-token").createEvent(createRequest("Standup").build()).getId();
+
+        assertEquals("evt-new", id);
+        verify(eventService).createEvent(eq("cal-1"), argThat(request ->
+                request.title().equals("Standup") && request.type() == EventType.MEETING
+                        && request.startTime().equals(START) && request.endTime() == null));
+    }
+
+    @Test
+    void rejectsEventsFailingValidation() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub("good-token").createEvent(createRequest("").build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        verifyNoInteractions(eventService);
+    }
+
+    private EventDataGrpc.EventDataBlockingStub stub(String token) {
+        Metadata headers = new Metadata();
+        headers.put(GrpcAuthInterceptor.AUTHORIZATION, "Bearer " + token);
+        return EventDataGrpc.newBlockingStub(channel).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private CreateEventRequest.Builder createRequest(String title) {
+        return CreateEventRequest.newBuilder()
+                .setCalendarId("cal-1")
+                .setTitle(title)
+                .setDescription("Daily")
+                .setColorHex("#fff")
+                .setType("MEETING")
+                .setStartTime(grpcMapper.toTimestamp(START));
+    }
+
+    static EventResponse eventResponse(String id) {
+        CalendarResponse calendar = new CalendarResponse("cal-1", "user-1", "Work", "", "#000", "Europe/Berlin",
+                true, false, START, START);
+        return new EventResponse(id, calendar, "Planning", "Quarterly planning", "#fff", null, null,
+                EventType.MEETING, START, null, false, SyncStatus.SYNCED, EventStatus.NOTSTARTED,
+                List.of(), List.of(), START, START, null);
+    }
+
+    static EventRow eventRow(String id, LocalDateTime start) {
+        return new EventRow(id, "cal-1", "Planning", "Quarterly planning", "#fff", EventType.MEETING, start,
+                start.plusMinutes(30), false, EventStatus.NOTSTARTED, SyncStatus.SYNCED, null, START, START);
+    }
+}
@@ -0,0 +1,231 @@
+package com.flux.calendar_service.grpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventService;
+import com.flux.calendar_service.event.dto.EventOccurrenceResponse;
+import com.flux.calendar_service.event.dto.EventResponse;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.grpc.v1.Event;
+import com.flux.calendar_service.grpc.v1.EventDataGrpc;
+import com.flux.calendar_service.grpc.v1.EventList;
+import com.flux.calendar_service.grpc.v1.EventRangeRequest;
+import com.flux.calendar_service.grpc.v1.GetEventsRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Same data over both internal transports on loopback: JSON over HTTP/1.1 with a connection pool,
+ * as other services call the REST API today, and protobuf over one multiplexed HTTP/2 channel.
+ * Covers a 50-event bulk get from 16 concurrent callers and a 10,000-event range listing. The
+ * services are mocked on both sides, so this measures encoding and transport, not the database.
+ */
+class GrpcVsRestThroughputBenchmarkTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final int BULK_SIZE = 50;
+    private static final int RANGE_SIZE = 10_000;
+    private static final int CONCURRENCY = 16;
+    private static final int WARMUP_CALLS = 1_000;
+    private static final int CALLS = 4_000;
+    private static final int RANGE_RUNS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<EventResponse> bulk = IntStream.range(0, BULK_SIZE)
+            .mapToObj(i -> EventGrpcServiceTest.eventResponse("evt-" + i))
+            .toList();
+
+    private HttpServer restServer;
+    private Server grpcServer;
+    private ManagedChannel channel;
+    private HttpClient httpClient;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        EventService eventService = mock(EventService.class, withSettings().stubOnly());
+        EventRepository eventRepository = mock(EventRepository.class, withSettings().stubOnly());
+        JwtDecoder jwtDecoder = mock(JwtDecoder.class, withSettings().stubOnly());
+        when(eventService.getEventsByIds(anyList())).thenReturn(bulk);
+        when(eventRepository.streamSingleByCalendarIdOverlapping(any(), any(), any()))
+                .thenAnswer(invocation -> IntStream.range(0, RANGE_SIZE)
+                        .mapToObj(i -> EventGrpcServiceTest.eventRow("evt-" + i, START.plusMinutes(i))));
+        when(jwtDecoder.decode(any())).thenReturn(mock(Jwt.class));
+
+        EventGrpcService service = new EventGrpcService(eventService, eventRepository,
+                new OccurrenceExpander(mock(OccurrenceExceptionRepository.class)), new GrpcMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(PlatformTransactionManager.class));
+        grpcServer = NettyServerBuilder.forPort(0)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .addService(ServerInterceptors.intercept(service,
+                        new GrpcExceptionInterceptor(), new GrpcAuthInterceptor(jwtDecoder)))
+                .build()
+                .start();
+        channel = NettyChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+
+        List<EventOccurrenceResponse> range = IntStream.range(0, RANGE_SIZE)
+                .mapToObj(i -> new EventOccurrenceResponse("evt-" + i, "Planning", "#fff", null,
+                        START.plusMinutes(i), START.plusMinutes(i + 30), false, false, false))
+                .toList();
+        restServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        restServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        restServer.createContext("/events/bulk", exchange -> respond(exchange, objectMapper.writeValueAsBytes(bulk)));
+        restServer.createContext("/events/range", exchange -> respond(exchange, objectMapper.writeValueAsBytes(range)));
+        restServer.start();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        callers = Executors.newFixedThreadPool(CONCURRENCY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        channel.shutdownNow();
+        grpcServer.shutdownNow();
+        restServer.stop(0);
+    }
+
+    @Test
+    void compareBulkGetAndRangeListing() throws Exception {
+        EventDataGrpc.EventDataBlockingStub stub = stub();
+        GetEventsRequest bulkRequest = GetEventsRequest.newBuilder()
+                .addAllIds(bulk.stream().map(EventResponse::id).toList())
+                .build();
+        HttpRequest restBulk = HttpRequest.newBuilder(restUri("/events/bulk")).build();
+
+        Runnable grpcBulkCall = () -> assertEquals(BULK_SIZE, stub.getEvents(bulkRequest).getEventsCount());
+        Runnable restBulkCall = () -> assertEquals(BULK_SIZE, readJson(restBulk).size());
+        run(grpcBulkCall, WARMUP_CALLS);
+        run(restBulkCall, WARMUP_CALLS);
+        double grpcCallsPerSecond = run(grpcBulkCall, CALLS);
+        double restCallsPerSecond = run(restBulkCall, CALLS);
+
+        EventList grpcBody = stub.getEvents(bulkRequest);
+        byte[] restBody = objectMapper.writeValueAsBytes(bulk);
+
+        RangeTiming grpcRange = null;
+        RangeTiming restRange = null;
+        for (int i = 0; i < RANGE_RUNS; i++) {
+            grpcRange = grpcRange(stub);
+            restRange = restRange();
+        }
+
+        System.out.printf("Bulk get of %d events, %d callers: REST/JSON %.0f calls/s (%d bytes), gRPC %.0f calls/s (%d bytes)%n",
+                BULK_SIZE, CONCURRENCY, restCallsPerSecond, restBody.length, grpcCallsPerSecond, grpcBody.getSerializedSize());
+        System.out.printf("Range of %d events: REST/JSON first after %d ms, all after %d ms; gRPC stream first after %d ms, all after %d ms%n",
+                RANGE_SIZE, restRange.firstMillis(), restRange.totalMillis(), grpcRange.firstMillis(), grpcRange.totalMillis());
+        assertTrue(grpcBody.getSerializedSize() < restBody.length,
+                "protobuf " + grpcBody.getSerializedSize() + " bytes vs JSON " + restBody.length + " bytes");
+        assertTrue(grpcRange.firstMillis() <= grpcRange.totalMillis());
+    }
+
+    private record RangeTiming(long firstMillis, long totalMillis) {
+    }
+
+    private RangeTiming grpcRange(EventDataGrpc.EventDataBlockingStub stub) {
+        long started = System.nanoTime();
+        Iterator<Event> events = stub.listEventsInRange(EventRangeRequest.newBuilder()
+                .setCalendarId("cal-1")
+                .setStart(new GrpcMapper().toTimestamp(START))
+                .setEnd(new GrpcMapper().toTimestamp(START.plusYears(1)))
+                .build());
+        events.next();
+        long first = System.nanoTime() - started;
+        int count = 1;
+        while (events.hasNext()) {
+            events.next();
+            count++;
+        }
+        assertEquals(RANGE_SIZE, count);
+        return new RangeTiming(first / 1_000_000, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // A JSON array is only usable once it has been read and parsed to the end
+    private RangeTiming restRange() {
+        long started = System.nanoTime();
+        JsonNode events = readJson(HttpRequest.newBuilder(restUri("/events/range")).build());
+        long total = (System.nanoTime() - started) / 1_000_000;
+        assertEquals(RANGE_SIZE, events.size());
+        return new RangeTiming(total, total);
+    }
+
+    private double run(Runnable call, int calls) throws Exception {
+        long started = System.nanoTime();
+        List<Future<?>> workers = IntStream.range(0, CONCURRENCY)
+                .<Future<?>>mapToObj(worker -> callers.submit(() -> {
+                    for (int i = 0; i < calls / CONCURRENCY; i++) {
+                        call.run();
+                    }
+                }))
+                .toList();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return calls / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private JsonNode readJson(HttpRequest request) {
+        try (InputStream body = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+
+    private EventDataGrpc.EventDataBlockingStub stub() {
+        Metadata headers = new Metadata();
+        headers.put(GrpcAuthInterceptor.AUTHORIZATION, "Bearer token");
+        return EventDataGrpc.newBlockingStub(channel).withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private URI restUri(String path) {
+        return URI.create("http://localhost:" + restServer.getAddress().getPort() + path);
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
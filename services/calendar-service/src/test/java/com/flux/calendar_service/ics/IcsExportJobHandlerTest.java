@@ -0,0 +1,93 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.job.Job;
+import com.flux.calendar_service.job.JobContext;
+import com.flux.calendar_service.job.JobService;
+import com.flux.calendar_service.storage.MinioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IcsExportJobHandlerTest {
+    private static final int EVENTS = 2500;
+
+    @Mock
+    private CalendarRepository calendarRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private OccurrenceExceptionRepository occurrenceExceptionRepository;
+    @Mock
+    private JobService jobService;
+    @Mock
+    private MinioService minioService;
+    @Mock
+    private JobContext context;
+
+    private IcsExportJobHandler handler;
+
+    private final Job job = Job.builder()
+            .id("job-1")
+            .type(IcsExportJobHandler.TYPE)
+            .payload(Map.of("calendarId", "cal-1", "fileName", "Team.ics"))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        IcsExportService icsExportService = new IcsExportService(calendarRepository, eventRepository,
+                occurrenceExceptionRepository, jobService);
+        ReflectionTestUtils.setField(icsExportService, "bufferSize", 8192);
+        handler = new IcsExportJobHandler(icsExportService, eventRepository, minioService);
+    }
+
+    @Test
+    void run_ReportsProgressWhileStreamingAndUploadsFile() throws Exception {
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.of(
+                Calendar.builder().id("cal-1").title("Team").timezone("Europe/Berlin").build()));
+        when(occurrenceExceptionRepository.findExportRowsByCalendarId("cal-1")).thenReturn(List.of());
+        when(eventRepository.countByCalendarId("cal-1")).thenReturn((long) EVENTS);
+        when(eventRepository.streamForExport("cal-1")).thenReturn(IntStream.range(0, EVENTS)
+                .mapToObj(i -> new IcsEventRow("evt-" + i, null, "Event " + i, "", LocalDateTime.of(2026, 1, 1, 9, 0),
+                        null, false, null, EventStatus.NOTSTARTED, null, null, null, null, null, null)));
+        String[] uploaded = new String[1];
+        when(minioService.uploadStream(any(InputStream.class), eq("Team.ics"), eq("text/calendar"))).thenAnswer(invocation -> {
+            uploaded[0] = new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8);
+            return new MinioService.StoredObject("exports/Team.ics", uploaded[0].length(), "etag", "hash");
+        });
+
+        Map<String, String> result = handler.run(job, context);
+
+        InOrder inOrder = inOrder(context);
+        inOrder.verify(context).progress(0, EVENTS);
+        inOrder.verify(context).progress(1000, EVENTS);
+        inOrder.verify(context).progress(2000, EVENTS);
+        verify(context, times(3)).progress(anyLong(), anyLong());
+        assertEquals(EVENTS, uploaded[0].split("BEGIN:VEVENT", -1).length - 1);
+        assertEquals(String.valueOf(EVENTS), result.get("events"));
+        assertEquals("exports/Team.ics", result.get(JobService.RESULT_OBJECT_NAME));
+    }
+}
@@ -0,0 +1,130 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.recurrence.OccurrenceExceptionRepository;
+import com.flux.calendar_service.job.JobService;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IcsExportServiceTest {
+
+    @Mock
+    private CalendarRepository calendarRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private OccurrenceExceptionRepository occurrenceExceptionRepository;
+    @Mock
+    private JobService jobService;
+
+    @InjectMocks
+    private IcsExportService icsExportService;
+
+    private Calendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(icsExportService, "bufferSize", 8192);
+        calendar = Calendar.builder()
+                .id("cal-1")
+                .title("Team: Ops/Infra")
+                .timezone("Europe/Berlin")
+                .build();
+    }
+
+    @Test
+    void exportCalendar_StreamsEveryEventAndClosesCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.of(calendar));
+        when(occurrenceExceptionRepository.findExportRowsByCalendarId("cal-1")).thenReturn(List.of(
+                new IcsExceptionRow("evt-0", LocalDateTime.of(2026, 1, 8, 9, 0), true, null, null, null)));
+        when(eventRepository.streamForExport("cal-1")).thenReturn(IntStream.range(0, 1000)
+                .mapToObj(i -> new IcsEventRow("evt-" + i, null, "Event " + i, "", LocalDateTime.of(2026, 1, 1, 9, 0).plusHours(i),
+                        null, false, i == 0 ? "FREQ=WEEKLY" : null, EventStatus.NOTSTARTED, null, null, null, null, null, null))
+                .onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = icsExportService.exportCalendar("cal-1", out);
+
+        String ics = out.toString(StandardCharsets.UTF_8);
+        assertEquals(1000, count);
+        assertEquals(1000, ics.split("BEGIN:VEVENT", -1).length - 1);
+        assertTrue(ics.contains("TZID:Europe/Berlin\r\n"));
+        assertTrue(ics.contains("EXDATE;TZID=Europe/Berlin:20260108T090000\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportCalendar_InvalidTimezoneFallsBackToUtc() throws Exception {
+        calendar.setTimezone("Mars/Olympus");
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.of(calendar));
+        when(eventRepository.streamForExport("cal-1")).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        icsExportService.exportCalendar("cal-1", out);
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("X-WR-TIMEZONE:UTC\r\n"));
+    }
+
+    @Test
+    void exportCalendar_DeletedCalendarNotFound() {
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> icsExportService.exportCalendar("cal-1", new ByteArrayOutputStream()));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void getExportFileName_SanitizesTitle() {
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.of(calendar));
+
+        assertEquals("Team_ Ops_Infra.ics", icsExportService.getExportFileName("cal-1"));
+    }
+
+    @Test
+    void exportCalendar_ReportsProgress() throws Exception {
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.of(calendar));
+        when(eventRepository.streamForExport("cal-1")).thenReturn(IntStream.range(0, 2500)
+                .mapToObj(i -> new IcsEventRow("evt-" + i, null, "Event " + i, "", LocalDateTime.of(2026, 1, 1, 9, 0),
+                        null, false, null, EventStatus.NOTSTARTED, null, null, null, null, null, null)));
+        List<Long> progress = new ArrayList<>();
+
+        icsExportService.exportCalendar("cal-1", new ByteArrayOutputStream(), progress::add);
+
+        assertEquals(List.of(1000L, 2000L), progress);
+    }
+
+    @Test
+    void startExport_QueuesJobWithFileName() {
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.of(calendar));
+
+        icsExportService.startExport("cal-1");
+
+        verify(jobService).submit(IcsExportJobHandler.TYPE, Map.of("calendarId", "cal-1", "fileName", "Team_ Ops_Infra.ics"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.event.EventStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcsImportMapperTest {
+
+    private final IcsImportMapper mapper = new IcsImportMapper(ZoneId.of("Europe/Berlin"));
+
+    @Test
+    void toEvent_ConvertsTimesToCalendarZone() throws IOException {
+        IcsImportedEvent utc = mapper.toEvent(component("UID:e1",
+                "DTSTART:20260301T090000Z", "DTEND:20260301T100000Z", "SUMMARY:Standup\\, daily"));
+        assertEquals(LocalDateTime.of(2026, 3, 1, 10, 0), utc.startTime());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 11, 0), utc.endTime());
+        assertEquals("Standup, daily", utc.title());
+        assertEquals("", utc.description());
+
+        IcsImportedEvent newYork = mapper.toEvent(component("UID:e2",
+                "DTSTART;TZID=/mozilla.org/20070129_1/America/New_York:20260301T090000", "DURATION:PT90M"));
+        assertEquals(LocalDateTime.of(2026, 3, 1, 15, 0), newYork.startTime());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 16, 30), newYork.endTime());
+
+        IcsImportedEvent floating = mapper.toEvent(component("UID:e3", "DTSTART;TZID=Unknown Standard Time:20260301T090000"));
+        assertEquals(LocalDateTime.of(2026, 3, 1, 9, 0), floating.startTime());
+    }
+
+    @Test
+    void toEvent_AllDayEndsAtExclusiveDate() throws IOException {
+        IcsImportedEvent event = mapper.toEvent(component("UID:e1", "DTSTART;VALUE=DATE:20260302"));
+
+        assertTrue(event.allDay());
+        assertEquals(LocalDateTime.of(2026, 3, 2, 0, 0), event.startTime());
+        assertEquals(LocalDateTime.of(2026, 3, 3, 0, 0), event.endTime());
+    }
+
+    @Test
+    void toEvent_KeepsSupportedRulesWithExdates() throws IOException {
+        IcsImportedEvent series = mapper.toEvent(component("UID:s1",
+                "DTSTART;TZID=Europe/Berlin:20260302T100000", "DTEND;TZID=Europe/Berlin:20260302T110000",
+                "RRULE:FREQ=WEEKLY;COUNT=3;BYDAY=MO", "EXDATE;TZID=Europe/Berlin:20260309T100000,20260316T100000",
+                "STATUS:TENTATIVE"));
+
+        assertEquals("FREQ=WEEKLY;COUNT=3;BYDAY=MO", series.recurrenceRule());
+        assertEquals(LocalDateTime.of(2026, 3, 16, 11, 0), series.recurrenceEnd());
+        assertEquals(List.of(LocalDateTime.of(2026, 3, 9, 10, 0), LocalDateTime.of(2026, 3, 16, 10, 0)), series.exdates());
+        assertEquals(EventStatus.POSTPONED, series.status());
+
+        IcsImportedEvent unsupported = mapper.toEvent(component("UID:s2",
+                "DTSTART:20260302T100000Z", "RRULE:FREQ=MONTHLY;BYSETPOS=-1;BYDAY=FR"));
+        assertNull(unsupported.recurrenceRule());
+        assertTrue(unsupported.exdates().isEmpty());
+    }
+
+    @Test
+    void toEvent_OverrideCarriesRecurrenceId() throws IOException {
+        IcsImportedEvent override = mapper.toEvent(component("UID:s1",
+                "RECURRENCE-ID;TZID=Europe/Berlin:20260309T100000", "DTSTART;TZID=Europe/Berlin:20260309T120000",
+                "STATUS:CANCELLED"));
+
+        assertEquals(LocalDateTime.of(2026, 3, 9, 10, 0), override.recurrenceId());
+        assertEquals(EventStatus.CANCELLED, override.status());
+    }
+
+    @Test
+    void toEvent_MissingUidIsDerivedFromContent() throws IOException {
+        IcsImportedEvent first = mapper.toEvent(component("DTSTART:20260302T100000Z", "SUMMARY:No uid"));
+        IcsImportedEvent again = mapper.toEvent(component("DTSTART:20260302T100000Z", "SUMMARY:No uid"));
+
+        assertTrue(first.uid().startsWith("flux-import-"));
+        assertEquals(first.uid(), again.uid());
+        assertTrue(mapper.toEvent(component("UID:" + "x".repeat(600), "DTSTART:20260302T100000Z")).uid().startsWith("sha256:"));
+    }
+
+    @Test
+    void toEvent_RejectsUnreadableDates() {
+        assertThrows(DateTimeException.class, () -> mapper.toEvent(component("UID:e1", "SUMMARY:No start")));
+        assertThrows(DateTimeException.class, () -> mapper.toEvent(component("UID:e1", "DTSTART:tomorrow")));
+    }
+
+    @Test
+    void toTask_RequiresParentEvent() throws IOException {
+        IcsImportedTask task = mapper.toTask(todo("UID:t1", "RELATED-TO:e1", "SUMMARY:Book room", "STATUS:COMPLETED"));
+        assertEquals("e1", task.eventUid());
+        assertEquals("Book room", task.title());
+        assertTrue(task.done());
+
+        assertNull(mapper.toTask(todo("UID:t2", "SUMMARY:Loose")));
+        assertNull(mapper.toTask(todo("UID:t3", "RELATED-TO;RELTYPE=SIBLING:t1")));
+    }
+
+    @Test
+    void duration_SupportsWeeks() {
+        assertEquals(Duration.ofDays(14), IcsImportMapper.duration("P2W"));
+        assertEquals(Duration.ofHours(26), IcsImportMapper.duration("P1DT2H"));
+        assertThrows(DateTimeException.class, () -> IcsImportMapper.duration("-PT15M"));
+    }
+
+    private static IcsReader.Component component(String... lines) throws IOException {
+        return read("VEVENT", lines);
+    }
+
+    private static IcsReader.Component todo(String... lines) throws IOException {
+        return read("VTODO", lines);
+    }
+
+    private static IcsReader.Component read(String name, String... lines) throws IOException {
+        return new IcsReader(new StringReader("BEGIN:" + name + "\r\n" + String.join("\r\n", lines)
+                + "\r\nEND:" + name + "\r\n")).next();
+    }
+}
@@ -0,0 +1,127 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.exceptions.InvalidIcsFileException;
+import com.flux.calendar_service.ics.dto.IcsImportJobResponse;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IcsImportServiceTest {
+
+    private static final String ICS = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nEND:VCALENDAR\r\n";
+
+    @Mock
+    private CalendarRepository calendarRepository;
+    @Mock
+    private IcsImportJobRepository importJobRepository;
+    @Mock
+    private MinioService minioService;
+
+    @InjectMocks
+    private IcsImportService icsImportService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1"))
+                .thenReturn(Optional.of(Calendar.builder().id("cal-1").build()));
+    }
+
+    @Test
+    void startImport_StoresWholeBodyAndQueuesJob() throws Exception {
+        AtomicReference<String> uploaded = new AtomicReference<>();
+        when(minioService.uploadStream(any(), eq("import-cal-1.ics"), eq("text/calendar"))).thenAnswer(invocation -> {
+            uploaded.set(new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8));
+            return new MinioService.StoredObject("1_import-cal-1.ics", ICS.length(), "etag", "hash");
+        });
+        when(importJobRepository.saveAndFlush(any(IcsImportJob.class))).thenAnswer(invocation -> {
+            IcsImportJob job = invocation.getArgument(0);
+            job.setId("job-1");
+            return job;
+        });
+
+        IcsImportJobResponse response = icsImportService.startImport("cal-1", body("\uFEFF\r\n" + ICS), true);
+
+        assertEquals("\uFEFF\r\n" + ICS, uploaded.get());
+        assertEquals("job-1", response.id());
+        assertEquals(IcsImportStatus.QUEUED, response.status());
+        assertEquals(ICS.length(), response.sizeBytes());
+        verify(importJobRepository).saveAndFlush(argThat(job -> job.isSyncToGoogle()
+                && job.getObjectName().equals("1_import-cal-1.ics")));
+    }
+
+    @Test
+    void startImport_RejectsOtherContent() {
+        assertThrows(InvalidIcsFileException.class,
+                () -> icsImportService.startImport("cal-1", body("{\"events\": []}"), false));
+        assertThrows(InvalidIcsFileException.class,
+                () -> icsImportService.startImport("cal-1", body("BEGIN:VCAL"), false));
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    void startImport_ConflictWhileAnotherImportRuns() {
+        when(importJobRepository.existsByCalendarIdAndStatusIn(eq("cal-1"), any())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> icsImportService.startImport("cal-1", body(ICS), false));
+        verifyNoInteractions(minioService);
+    }
+
+    @Test
+    void startImport_RaceLosesUploadedFile() {
+        when(minioService.uploadStream(any(), anyString(), anyString()))
+                .thenReturn(new MinioService.StoredObject("1_import-cal-1.ics", ICS.length(), "etag", "hash"));
+        when(importJobRepository.saveAndFlush(any(IcsImportJob.class))).thenThrow(new DataIntegrityViolationException("uk"));
+
+        assertThrows(ConflictException.class, () -> icsImportService.startImport("cal-1", body(ICS), false));
+        verify(minioService).deleteFile("1_import-cal-1.ics");
+    }
+
+    @Test
+    void startImport_CalendarNotFound() {
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("missing")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> icsImportService.startImport("missing", body(ICS), false));
+    }
+
+    @Test
+    void getImportJob_ReportsProgress() {
+        when(importJobRepository.findById("job-1")).thenReturn(Optional.of(IcsImportJob.builder()
+                .id("job-1")
+                .status(IcsImportStatus.RUNNING)
+                .sizeBytes(4000)
+                .bytesRead(1000)
+                .eventsInserted(120)
+                .build()));
+
+        IcsImportJobResponse response = icsImportService.getImportJob("job-1");
+
+        assertEquals(25, response.percentComplete());
+        assertEquals(120, response.eventsInserted());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,221 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.google.GoogleCalendarApiService;
+import com.flux.calendar_service.storage.MinioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IcsImportWorkerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private IcsImportJobRepository importJobRepository;
+    @Mock
+    private CalendarRepository calendarRepository;
+    @Mock
+    private IcsImportWriter importWriter;
+    @Mock
+    private MinioService minioService;
+
+    @InjectMocks
+    private IcsImportWorker importWorker;
+
+    private IcsImportJob job;
+    private final List<Object> staged = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(importWorker, "workerThreads", 1);
+        ReflectionTestUtils.setField(importWorker, "batchSize", 2);
+        ReflectionTestUtils.setField(importWorker, "queueCapacity", 1);
+        ReflectionTestUtils.setField(importWorker, "maxAttempts", 3);
+        importWorker.start();
+
+        job = IcsImportJob.builder()
+                .id("job-1")
+                .calendarId("cal-1")
+                .objectName("1_import-cal-1.ics")
+                .status(IcsImportStatus.RUNNING)
+                .attempts(1)
+                .build();
+        when(importJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        lenient().when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.of(
+                Calendar.builder().id("cal-1").userId("user-1").colorHex("#00f").timezone("Europe/Berlin").build()));
+        lenient().when(jdbcTemplate.update(contains("finished_at"), any(Object[].class))).thenReturn(1);
+
+        // Staged rows are numbered by their position, standing in for the seq column
+        lenient().doAnswer(invocation -> {
+            staged.addAll(invocation.<List<IcsImportedEvent>>getArgument(1));
+            staged.addAll(invocation.<List<IcsImportedTask>>getArgument(2));
+            return null;
+        }).when(importWriter).stageLinked(any(), anyList(), anyList());
+        lenient().when(importWriter.findStaged(any(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            int from = (int) (long) invocation.<Long>getArgument(1);
+            int to = Math.min(from + invocation.<Integer>getArgument(2), staged.size());
+            List<Object> page = staged.subList(Math.min(from, to), to);
+            return new IcsImportWriter.StagedLinked(
+                    page.stream().filter(IcsImportedEvent.class::isInstance).map(IcsImportedEvent.class::cast).toList(),
+                    page.stream().filter(IcsImportedTask.class::isInstance).map(IcsImportedTask.class::cast).toList(),
+                    to);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importWorker.stop();
+    }
+
+    @Test
+    void process_WritesEventsBeforeOverridesAndTasks() {
+        file(event("e1", "DTSTART:20260301T090000Z", "RRULE:FREQ=WEEKLY"),
+                "BEGIN:VTODO\r\nUID:t1\r\nRELATED-TO:e3\r\nSUMMARY:Agenda\r\nEND:VTODO\r\n",
+                event("e1", "RECURRENCE-ID:20260308T090000Z", "DTSTART:20260308T110000Z"),
+                event("e2", "SUMMARY:No start"),
+                event("e2", "DTSTART:20260302T090000Z"),
+                event("e3", "DTSTART:20260303T090000Z"));
+
+        importWorker.process("job-1", 1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IcsImportedEvent>> events = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Integer> skipped = ArgumentCaptor.forClass(Integer.class);
+        verify(importWriter, atLeastOnce()).writeEvents(any(), events.capture(), skipped.capture(), anyLong());
+        assertEquals(List.of("e1", "e2", "e3"), events.getAllValues().stream().flatMap(List::stream)
+                .map(IcsImportedEvent::uid).toList());
+        assertEquals(1, skipped.getAllValues().stream().mapToInt(Integer::intValue).sum());
+
+        verify(importWriter).writeLinked(any(), argThat(overrides -> overrides.size() == 1
+                        && overrides.get(0).recurrenceId().equals(LocalDateTime.of(2026, 3, 8, 10, 0))),
+                argThat(tasks -> tasks.size() == 1 && tasks.get(0).eventUid().equals("e3")));
+        verify(jdbcTemplate).update(contains("finished_at"), eq("COMPLETED"), isNull(), eq("job-1"), eq(1));
+        verify(minioService).deleteFile("1_import-cal-1.ics");
+    }
+
+    @Test
+    void process_WritesStagedOverridesAndTasksInPages() {
+        file(event("e1", "DTSTART:20260301T090000Z"),
+                task("t1", "e1"), task("t2", "e1"), task("t3", "e1"), task("t4", "e1"), task("t5", "e1"));
+
+        importWorker.process("job-1", 1);
+
+        verify(importWriter, atLeastOnce()).stageLinked(argThat(target -> target.attempt() == 1), anyList(), anyList());
+        InOrder inOrder = inOrder(importWriter);
+        inOrder.verify(importWriter).writeLinked(any(), anyList(), argThat(tasks -> tasks.size() == 2));
+        inOrder.verify(importWriter).writeLinked(any(), anyList(), argThat(tasks -> tasks.size() == 2));
+        inOrder.verify(importWriter).writeLinked(any(), anyList(), argThat(tasks -> tasks.size() == 1
+                && tasks.get(0).uid().equals("t5")));
+        verify(importWriter).clearStaged("job-1");
+    }
+
+    @Test
+    void process_RestartedJobLeavesFileAlone() {
+        file(event("e1", "DTSTART:20260301T090000Z"));
+        when(jdbcTemplate.update(contains("finished_at"), any(Object[].class))).thenReturn(0);
+
+        importWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).update(contains("finished_at"), eq("COMPLETED"), isNull(), eq("job-1"), eq(1));
+        verify(importWriter, never()).clearStaged(any());
+        verify(minioService, never()).deleteFile(any());
+    }
+
+    @Test
+    void process_WriterFailureStopsParser() {
+        String[] events = new String[50];
+        Arrays.setAll(events, i -> event("e" + i, "DTSTART:20260301T090000Z"));
+        file(events);
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(importWriter).writeEvents(any(), anyList(), anyInt(), anyLong());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> importWorker.process("job-1", 1));
+
+        verify(importWriter).writeEvents(any(), anyList(), anyInt(), anyLong());
+        verify(importWriter, never()).writeLinked(any(), anyList(), anyList());
+        verify(jdbcTemplate).update(contains("finished_at"), eq("FAILED"), eq("database unavailable"), eq("job-1"), eq(1));
+    }
+
+    @Test
+    void process_MalformedFileFailsJob() {
+        when(minioService.getFile("1_import-cal-1.ics")).thenReturn(new ByteArrayInputStream(
+                "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nUID:e1\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        importWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).update(contains("finished_at"), eq("FAILED"), contains("Unexpected end of file"), eq("job-1"), eq(1));
+    }
+
+    @Test
+    void process_DeletedCalendarFailsJob() {
+        when(calendarRepository.findCalendarByIdAndIsDeletedFalse("cal-1")).thenReturn(Optional.empty());
+
+        importWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).update(contains("finished_at"), eq("FAILED"), contains("no longer exists"), eq("job-1"), eq(1));
+        verify(importWriter).clearStaged("job-1");
+        verifyNoMoreInteractions(importWriter);
+    }
+
+    @Test
+    void process_SyncsImportedEventsToGoogle() throws Exception {
+        GoogleCalendarApiService googleCalendarApiService = mock(GoogleCalendarApiService.class);
+        ReflectionTestUtils.setField(importWorker, "googleCalendarApiService", googleCalendarApiService);
+        job.setSyncToGoogle(true);
+        file(event("e1", "DTSTART:20260301T090000Z"));
+        List<IcsImportWriter.PendingGoogleEvent> page = List.of(new IcsImportWriter.PendingGoogleEvent("evt-1",
+                LocalDateTime.of(2026, 3, 1, 10, 0), null, false, "Standup", "", null));
+        when(importWriter.findPendingGoogleSync("cal-1", IcsImportWorker.GOOGLE_PAGE_SIZE)).thenReturn(page, List.of());
+        when(googleCalendarApiService.createEventsInBatch(eq("user-1"), anyList())).thenReturn(List.of("google-1"));
+
+        importWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).update(contains("'SYNCING'"), eq("job-1"), eq(1));
+        verify(importWriter).markGoogleSynced("job-1", page, List.of("google-1"));
+        verify(jdbcTemplate).update(contains("finished_at"), eq("COMPLETED"), isNull(), eq("job-1"), eq(1));
+    }
+
+    private void file(String... components) {
+        String ics = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\n" + String.join("", components) + "END:VCALENDAR\r\n";
+        when(minioService.getFile("1_import-cal-1.ics"))
+                .thenReturn(new ByteArrayInputStream(ics.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String task(String uid, String eventUid) {
+        return "BEGIN:VTODO\r\nUID:" + uid + "\r\nRELATED-TO:" + eventUid + "\r\nSUMMARY:" + uid + "\r\nEND:VTODO\r\n";
+    }
+
+    private static String event(String uid, String... lines) {
+        return "BEGIN:VEVENT\r\nUID:" + uid + "\r\n" + String.join("\r\n", lines) + "\r\nEND:VEVENT\r\n";
+    }
+}
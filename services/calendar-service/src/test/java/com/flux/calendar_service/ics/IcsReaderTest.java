@@ -0,0 +1,80 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.exceptions.InvalidIcsFileException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcsReaderTest {
+
+    @Test
+    void readsEventsAndTasksSkippingEverythingElse() throws IOException {
+        IcsReader reader = new IcsReader(new StringReader("BEGIN:VCALENDAR\r\n"
+                + "VERSION:2.0\r\n"
+                + "BEGIN:VTIMEZONE\r\nTZID:Europe/Berlin\r\nBEGIN:STANDARD\r\nDTSTART:19701025T030000\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n"
+                + "BEGIN:VEVENT\r\nUID:e1\r\nSUMMARY:First\r\n"
+                + "BEGIN:VALARM\r\nACTION:DISPLAY\r\nDESCRIPTION:Reminder\r\nEND:VALARM\r\n"
+                + "DTSTART:20260301T100000Z\r\nEND:VEVENT\r\n"
+                + "BEGIN:VTODO\r\nUID:t1\r\nSUMMARY:Prepare\r\nEND:VTODO\r\n"
+                + "END:VCALENDAR\r\n"));
+
+        IcsReader.Component event = reader.next();
+        assertEquals("VEVENT", event.name());
+        assertEquals("e1", event.value("UID"));
+        assertEquals("20260301T100000Z", event.value("DTSTART"));
+        // The alarm's DESCRIPTION must not leak into the event
+        assertNull(event.first("DESCRIPTION"));
+        assertNull(event.first("ACTION"));
+
+        IcsReader.Component task = reader.next();
+        assertEquals("VTODO", task.name());
+        assertEquals("Prepare", task.value("SUMMARY"));
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void unfoldsContinuationLinesAndParsesParameters() throws IOException {
+        IcsReader reader = new IcsReader(new StringReader("BEGIN:VEVENT\n"
+                + "dtstart;tzid=\"America/New_York\";X-LABEL=\"a;b:c\":20260301T\n"
+                + " 100000\n"
+                + "SUMMARY:Long ti\n"
+                + "\ttle\n"
+                + "EXDATE:20260308T100000Z\n"
+                + "EXDATE:20260315T100000Z\n"
+                + "END:VEVENT\n"));
+
+        IcsReader.Component event = reader.next();
+        IcsReader.Property start = event.first("DTSTART");
+        assertEquals("20260301T100000", start.value());
+        assertEquals("America/New_York", start.parameter("TZID"));
+        assertEquals("a;b:c", start.parameter("X-LABEL"));
+        assertEquals("Long title", event.value("SUMMARY"));
+        assertEquals(2, event.all("EXDATE").size());
+    }
+
+    @Test
+    void truncatedComponentFails() {
+        IcsReader reader = new IcsReader(new StringReader("BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nUID:e1\r\n"));
+
+        assertThrows(InvalidIcsFileException.class, reader::next);
+    }
+
+    @Test
+    void lineWithoutValueFails() {
+        IcsReader reader = new IcsReader(new StringReader("BEGIN:VEVENT\r\nSUMMARY\r\nEND:VEVENT\r\n"));
+
+        InvalidIcsFileException exception = assertThrows(InvalidIcsFileException.class, reader::next);
+        assertTrue(exception.getMessage().contains("Line 2"));
+    }
+
+    @Test
+    void unescape_ReversesTextEscaping() {
+        assertEquals("a;b,c\\d\ne\nf", IcsReader.unescape("a\\;b\\,c\\\\d\\ne\\Nf"));
+        assertEquals("plain", IcsReader.unescape("plain"));
+        assertNull(IcsReader.unescape(null));
+    }
+}
@@ -0,0 +1,125 @@
+package com.flux.calendar_service.ics;
+
+import com.flux.calendar_service.event.EventStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcsWriterTest {
+
+    private static final Instant STAMP = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void writesTimedEventInCalendarZone() throws IOException {
+        String ics = write(ZoneId.of("Europe/Berlin"), event("e1", LocalDateTime.of(2026, 3, 1, 10, 0),
+                LocalDateTime.of(2026, 3, 1, 11, 0), false, null), List.of());
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:e1@flux-calendar\r\n"));
+        assertTrue(ics.contains("DTSTAMP:20260101T000000Z\r\n"));
+        assertTrue(ics.contains("DTSTART;TZID=Europe/Berlin:20260301T100000\r\n"));
+        assertTrue(ics.contains("DTEND;TZID=Europe/Berlin:20260301T110000\r\n"));
+        assertTrue(ics.contains("LOCATION:Office\\, Berlin\r\n"));
+    }
+
+    @Test
+    void describesZoneWithYearlyRules() throws IOException {
+        String berlin = write(ZoneId.of("Europe/Berlin"), null, List.of());
+        assertTrue(berlin.contains("BEGIN:DAYLIGHT\r\nDTSTART:19700329T020000\r\nRRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=-1SU\r\n"
+                + "TZOFFSETFROM:+0100\r\nTZOFFSETTO:+0200\r\nEND:DAYLIGHT\r\n"));
+        assertTrue(berlin.contains("BEGIN:STANDARD\r\nDTSTART:19701025T030000\r\nRRULE:FREQ=YEARLY;BYMONTH=10;BYDAY=-1SU\r\n"));
+
+        String newYork = write(ZoneId.of("America/New_York"), null, List.of());
+        assertTrue(newYork.contains("RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=2SU\r\n"));
+        assertTrue(newYork.contains("RRULE:FREQ=YEARLY;BYMONTH=11;BYDAY=1SU\r\n"));
+
+        String tokyo = write(ZoneId.of("Asia/Tokyo"), null, List.of());
+        assertTrue(tokyo.contains("TZOFFSETFROM:+0900\r\nTZOFFSETTO:+0900\r\n"));
+    }
+
+    @Test
+    void allDayEventsUseExclusiveEndDate() throws IOException {
+        String ics = write(ZoneId.of("UTC"), event("e2", LocalDateTime.of(2026, 3, 2, 0, 0),
+                LocalDateTime.of(2026, 3, 4, 0, 0), true, null), List.of());
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20260302\r\nDTEND;VALUE=DATE:20260304\r\n"));
+
+        String single = write(ZoneId.of("UTC"), event("e3", LocalDateTime.of(2026, 3, 2, 0, 0),
+                null, true, null), List.of());
+        assertTrue(single.contains("DTSTART;VALUE=DATE:20260302\r\nDTEND;VALUE=DATE:20260303\r\n"));
+    }
+
+    @Test
+    void seriesExceptionsBecomeExdatesAndOverrides() throws IOException {
+        IcsEventRow series = event("e1", LocalDateTime.of(2026, 3, 1, 10, 0), LocalDateTime.of(2026, 3, 1, 11, 0),
+                false, "FREQ=WEEKLY;BYDAY=SU");
+        String ics = write(ZoneId.of("Europe/Berlin"), series, List.of(
+                new IcsExceptionRow("e1", LocalDateTime.of(2026, 3, 8, 10, 0), true, null, null, null),
+                new IcsExceptionRow("e1", LocalDateTime.of(2026, 3, 15, 10, 0), false,
+                        LocalDateTime.of(2026, 3, 15, 12, 0), null, "Moved")));
+
+        assertTrue(ics.contains("RRULE:FREQ=WEEKLY;BYDAY=SU\r\nEXDATE;TZID=Europe/Berlin:20260308T100000\r\nEND:VEVENT\r\n"));
+        assertTrue(ics.contains("RECURRENCE-ID;TZID=Europe/Berlin:20260315T100000\r\n"
+                + "DTSTART;TZID=Europe/Berlin:20260315T120000\r\n"
+                + "DTEND;TZID=Europe/Berlin:20260315T130000\r\n"
+                + "SUMMARY:Moved\r\n"));
+        assertEquals(2, ics.split("UID:e1@flux-calendar", -1).length - 1);
+    }
+
+    @Test
+    void seriesUntilIsWrittenInUtc() throws IOException {
+        IcsEventRow series = event("e1", LocalDateTime.of(2026, 3, 1, 10, 0), LocalDateTime.of(2026, 3, 1, 11, 0),
+                false, "FREQ=WEEKLY;UNTIL=20260329T100000");
+        String ics = write(ZoneId.of("Europe/Berlin"), series, List.of());
+
+        assertTrue(ics.contains("RRULE:FREQ=WEEKLY;UNTIL=20260329T080000Z\r\n"));
+    }
+
+    @Test
+    void foldsLongLinesWithoutSplittingCharacters() throws IOException {
+        String title = "Überraschungsparty für das gesamte Team ✓ ".repeat(6);
+        String ics = write(ZoneId.of("UTC"), new IcsEventRow("e1", null, title, "a;b,c\\d\ne", LocalDateTime.of(2026, 1, 1, 9, 0),
+                null, false, null, EventStatus.NOTSTARTED, null, null, null, null, null, null), List.of());
+
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        String unfolded = ics.replace("\r\n ", "");
+        assertTrue(unfolded.contains("SUMMARY:" + title + "\r\n"));
+        assertTrue(unfolded.contains("DESCRIPTION:a\\;b\\,c\\\\d\\ne\r\n"));
+    }
+
+    @Test
+    void importedEventsKeepTheirUid() throws IOException {
+        String ics = write(ZoneId.of("UTC"), new IcsEventRow("e1", "abc@example.com", "Imported", null,
+                LocalDateTime.of(2026, 1, 1, 9, 0), null, false, null, EventStatus.NOTSTARTED,
+                null, null, null, null, null, null), List.of());
+
+        assertTrue(ics.contains("UID:abc@example.com\r\n"));
+        assertFalse(ics.contains("@flux-calendar"));
+    }
+
+    private static String write(ZoneId zone, IcsEventRow event, List<IcsExceptionRow> exceptions) throws IOException {
+        StringWriter out = new StringWriter();
+        IcsWriter writer = new IcsWriter(out, zone, STAMP);
+        writer.beginCalendar("Work", null);
+        if (event != null) {
+            writer.event(event, exceptions);
+        }
+        writer.endCalendar();
+        return out.toString();
+    }
+
+    private static IcsEventRow event(String id, LocalDateTime start, LocalDateTime end, boolean allDay, String rule) {
+        return new IcsEventRow(id, null, "Standup", "Daily sync", start, end, allDay, rule, EventStatus.NOTSTARTED,
+                null, null, "Office", null, "Berlin", null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.flux.calendar_service.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimQueueTest {
+    private static final String CLAIM_SQL = "UPDATE queue ... RETURNING id, attempts";
+    private static final String RECOVER_SQL = "UPDATE queue ... WHERE locked_at < ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ClaimQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void poll_RecoversThenHandsClaimedRowsToProcessor() throws Exception {
+        CountDownLatch processed = new CountDownLatch(1);
+        String[] seen = new String[1];
+        int[] attempt = new int[1];
+        queue = new ClaimQueue(jdbcTemplate, CLAIM_SQL, RECOVER_SQL, Duration.ofMinutes(10), 2, "test-",
+                (id, claimedAttempt) -> {
+                    seen[0] = id;
+                    attempt[0] = claimedAttempt;
+                    processed.countDown();
+                });
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("id")).thenReturn("job-1");
+        when(row.getInt("attempts")).thenReturn(2);
+        when(jdbcTemplate.query(eq(CLAIM_SQL), any(RowMapper.class), eq(2))).thenAnswer(invocation ->
+                List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0)));
+
+        queue.poll();
+
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        assertEquals("job-1", seen[0]);
+        assertEquals(2, attempt[0]);
+        verify(jdbcTemplate).update(eq(RECOVER_SQL), any(Timestamp.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void poll_ClaimsNothingWhileEveryThreadIsBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = new ClaimQueue(jdbcTemplate, CLAIM_SQL, RECOVER_SQL, Duration.ofMinutes(10), 1, "test-",
+                (id, claimedAttempt) -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("id")).thenReturn("job-1");
+        when(row.getInt("attempts")).thenReturn(1);
+        when(jdbcTemplate.query(eq(CLAIM_SQL), any(RowMapper.class), eq(1))).thenAnswer(invocation ->
+                List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0)));
+
+        queue.poll();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        queue.poll();
+        release.countDown();
+
+        verify(jdbcTemplate, times(1)).query(eq(CLAIM_SQL), any(RowMapper.class), any(Object[].class));
+        verify(jdbcTemplate, times(2)).update(eq(RECOVER_SQL), any(Timestamp.class));
+    }
+}
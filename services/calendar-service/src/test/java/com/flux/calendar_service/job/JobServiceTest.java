@@ -0,0 +1,121 @@
+package com.flux.calendar_service.job;
+
+import com.flux.calendar_service.exceptions.ConflictException;
+import com.flux.calendar_service.job.dto.JobResponse;
+import com.flux.calendar_service.storage.MinioService;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobServiceTest {
+
+    @Mock
+    private JobRepository jobRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private MinioService minioService;
+
+    @InjectMocks
+    private JobService jobService;
+
+    @Test
+    void submit_QueuesJob() {
+        when(jobRepository.save(any(Job.class))).thenAnswer(invocation -> {
+            Job job = invocation.getArgument(0);
+            job.setId("job-1");
+            return job;
+        });
+
+        JobResponse response = jobService.submit("calendar.export", Map.of("calendarId", "cal-1"));
+
+        assertEquals("job-1", response.id());
+        assertEquals(JobStatus.QUEUED, response.status());
+        verify(jobRepository).save(argThat(job -> job.getPayload().equals(Map.of("calendarId", "cal-1"))
+                && job.getAvailableAt() != null));
+    }
+
+    @Test
+    void getJob_ReportsProgress() {
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job(JobStatus.RUNNING)));
+
+        JobResponse response = jobService.getJob("job-1");
+
+        assertEquals(25, response.percentComplete());
+        assertEquals(250, response.processed());
+    }
+
+    @Test
+    void cancel_QueuedJobIsCancelledAtOnce() {
+        when(jdbcTemplate.update(contains("status = 'QUEUED'"), eq("job-1"))).thenReturn(1);
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job(JobStatus.CANCELLED)));
+
+        assertEquals(JobStatus.CANCELLED, jobService.cancel("job-1").status());
+        verify(jdbcTemplate, never()).update(contains("status = 'RUNNING'"), eq("job-1"));
+    }
+
+    @Test
+    void cancel_RunningJobIsAskedToStop() {
+        when(jdbcTemplate.update(contains("status = 'QUEUED'"), eq("job-1"))).thenReturn(0);
+        when(jdbcTemplate.update(contains("status = 'RUNNING'"), eq("job-1"))).thenReturn(1);
+        Job running = job(JobStatus.RUNNING);
+        running.setCancelRequested(true);
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(running));
+
+        assertTrue(jobService.cancel("job-1").cancelRequested());
+    }
+
+    @Test
+    void cancel_FinishedJobConflicts() {
+        when(jdbcTemplate.update(any(String.class), eq("job-1"))).thenReturn(0);
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job(JobStatus.COMPLETED)));
+
+        assertThrows(ConflictException.class, () -> jobService.cancel("job-1"));
+    }
+
+    @Test
+    void getResultUrl_PresignsProducedFile() {
+        Job job = job(JobStatus.COMPLETED);
+        job.setResult(Map.of(JobService.RESULT_OBJECT_NAME, "1_Work.ics"));
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(minioService.presignDownload("1_Work.ics"))
+                .thenReturn(new MinioService.PresignedUrl("http://minio/1_Work.ics?sig", Instant.now()));
+
+        assertEquals("http://minio/1_Work.ics?sig", jobService.getResultUrl("job-1"));
+    }
+
+    @Test
+    void getResultUrl_RequiresCompletedJobWithFile() {
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job(JobStatus.RUNNING)));
+        when(jobRepository.findById("job-2")).thenReturn(Optional.of(job(JobStatus.COMPLETED)));
+
+        assertThrows(ConflictException.class, () -> jobService.getResultUrl("job-1"));
+        assertThrows(NotFoundException.class, () -> jobService.getResultUrl("job-2"));
+        verifyNoInteractions(minioService);
+    }
+
+    private static Job job(JobStatus status) {
+        return Job.builder()
+                .id("job-1")
+                .type("calendar.export")
+                .status(status)
+                .processed(250)
+                .total(1000)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.flux.calendar_service.job;
+
+import com.flux.calendar_service.storage.MinioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobWorkerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private JobRepository jobRepository;
+    @Mock
+    private MinioService minioService;
+    @Mock
+    private JobHandler handler;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JobWorker jobWorker;
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        when(handler.type()).thenReturn("test");
+        jobWorker = new JobWorker(jdbcTemplate, jobRepository, minioService, List.of(handler), transactionManager);
+        ReflectionTestUtils.setField(jobWorker, "workerThreads", 1);
+        ReflectionTestUtils.setField(jobWorker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(jobWorker, "retentionDays", 7L);
+        jobWorker.start();
+
+        job = Job.builder().id("job-1").type("test").payload(Map.of()).status(JobStatus.RUNNING).attempts(1).build();
+        lenient().when(jobRepository.findById("job-1")).thenReturn(Optional.of(job));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobWorker.stop();
+    }
+
+    @Test
+    void process_StoresResultAndProgress() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("RETURNING cancel_requested"), eq(Boolean.class), any(), any(), any()))
+                .thenReturn(false);
+        when(handler.run(eq(job), any())).thenAnswer(invocation -> {
+            invocation.<JobContext>getArgument(1).progress(5, 10);
+            return Map.of("deleted", "5");
+        });
+
+        jobWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).queryForObject(contains("RETURNING cancel_requested"), eq(Boolean.class), eq(5L), eq(10L), eq("job-1"));
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).commit(any());
+        verify(jdbcTemplate).update(contains("finished_at = now()"), eq("COMPLETED"), eq("{\"deleted\":\"5\"}"), isNull(), eq("job-1"), eq(1));
+    }
+
+    @Test
+    void process_StopsWhenCancelled() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("RETURNING cancel_requested"), eq(Boolean.class), any(), any(), any()))
+                .thenReturn(true);
+        when(handler.run(eq(job), any())).thenAnswer(invocation -> {
+            invocation.<JobContext>getArgument(1).progress(1, 10);
+            fail("Handler must not continue after cancellation");
+            return Map.of();
+        });
+
+        jobWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).update(contains("finished_at = now()"), eq("CANCELLED"), isNull(), isNull(), eq("job-1"), eq(1));
+    }
+
+    @Test
+    void process_RetriesWithBackoffThenFails() throws Exception {
+        when(handler.run(eq(job), any())).thenThrow(new IllegalStateException("Google unavailable"));
+
+        jobWorker.process("job-1", 1);
+        verify(jdbcTemplate).update(contains("available_at = ?"), eq("Google unavailable"), any(Timestamp.class), eq("job-1"), eq(1));
+
+        job.setAttempts(3);
+        jobWorker.process("job-1", 3);
+        verify(jdbcTemplate).update(contains("finished_at = now()"), eq("FAILED"), isNull(), eq("Google unavailable"), eq("job-1"), eq(3));
+    }
+
+    @Test
+    void process_UnknownTypeFails() {
+        job.setType("unknown");
+
+        jobWorker.process("job-1", 1);
+
+        verify(jdbcTemplate).update(contains("finished_at = now()"), eq("FAILED"), isNull(),
+                eq("No handler for job type unknown"), eq("job-1"), eq(1));
+    }
+
+    @Test
+    void purge_DeletesOldJobsAndTheirFiles() {
+        when(jdbcTemplate.queryForList(contains("DELETE FROM jobs"), eq(String.class), any(Timestamp.class)))
+                .thenReturn(Arrays.asList("1_Work.ics", null));
+
+        jobWorker.purge();
+
+        verify(minioService).deleteFiles(List.of("1_Work.ics"));
+    }
+}
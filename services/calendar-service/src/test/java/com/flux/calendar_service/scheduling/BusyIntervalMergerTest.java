@@ -0,0 +1,92 @@
+package com.flux.calendar_service.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusyIntervalMergerTest {
+
+    private static final Instant T0 = Instant.parse("2025-03-10T08:00:00Z");
+
+    private static TimeInterval interval(int fromMinute, int toMinute) {
+        return new TimeInterval(T0.plusSeconds(fromMinute * 60L), T0.plusSeconds(toMinute * 60L));
+    }
+
+    @Test
+    void freeSlots_MergesOverlappingSources() {
+        List<Iterator<TimeInterval>> sources = List.of(
+                List.of(interval(0, 60), interval(120, 180)).iterator(),
+                List.of(interval(30, 90), interval(200, 210)).iterator());
+
+        List<TimeInterval> free = BusyIntervalMerger.freeSlots(sources, T0, T0.plusSeconds(240 * 60),
+                Duration.ofMinutes(15), 10);
+
+        assertEquals(List.of(interval(90, 120), interval(180, 200), interval(210, 240)), free);
+    }
+
+    @Test
+    void freeSlots_SkipsShortGapsAndStopsAtCount() {
+        List<Iterator<TimeInterval>> sources = List.of(
+                List.of(interval(10, 60), interval(70, 100), interval(160, 170)).iterator());
+
+        List<TimeInterval> free = BusyIntervalMerger.freeSlots(sources, T0, T0.plusSeconds(300 * 60),
+                Duration.ofMinutes(30), 1);
+
+        assertEquals(List.of(interval(100, 160)), free);
+    }
+
+    /**
+     * Benchmark-sized case from the scheduling requirements: 100 users with 5k events each.
+     * Checked against a brute force minute grid rather than timed, as the repo has no JMH setup.
+     */
+    @Test
+    void freeSlots_HundredUsersFiveThousandEventsEach() {
+        int users = 100;
+        int eventsPerUser = 5_000;
+        // Sparse enough per user that the union of all calendars still leaves gaps
+        int horizonMinutes = 16_000_000;
+        Random random = new Random(42);
+
+        boolean[] busy = new boolean[horizonMinutes];
+        List<Iterator<TimeInterval>> sources = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            List<TimeInterval> events = new ArrayList<>(eventsPerUser);
+            int cursor = 0;
+            for (int e = 0; e < eventsPerUser; e++) {
+                cursor += random.nextInt(6_000);
+                int length = 15 + random.nextInt(30);
+                int from = Math.min(cursor, horizonMinutes);
+                int to = Math.min(cursor + length, horizonMinutes);
+                events.add(interval(from, to));
+                for (int m = from; m < to; m++) {
+                    busy[m] = true;
+                }
+            }
+            sources.add(events.iterator());
+        }
+
+        List<TimeInterval> free = BusyIntervalMerger.freeSlots(sources, T0, T0.plusSeconds(horizonMinutes * 60L),
+                Duration.ofMinutes(1), Integer.MAX_VALUE);
+
+        List<TimeInterval> expected = new ArrayList<>();
+        int runStart = -1;
+        for (int m = 0; m <= horizonMinutes; m++) {
+            boolean isFree = m < horizonMinutes && !busy[m];
+            if (isFree && runStart < 0) {
+                runStart = m;
+            } else if (!isFree && runStart >= 0) {
+                expected.add(interval(runStart, m));
+                runStart = -1;
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, free);
+    }
+}
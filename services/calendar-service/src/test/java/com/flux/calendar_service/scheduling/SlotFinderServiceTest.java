@@ -0,0 +1,102 @@
+package com.flux.calendar_service.scheduling;
+
+import com.flux.calendar_service.availability.dto.FreeSlot;
+import com.flux.calendar_service.calendar.Calendar;
+import com.flux.calendar_service.calendar.CalendarRepository;
+import com.flux.calendar_service.event.EventRepository;
+import com.flux.calendar_service.event.EventStatus;
+import com.flux.calendar_service.event.recurrence.OccurrenceExpander;
+import com.flux.calendar_service.exceptions.IncorrectTimeException;
+import com.flux.calendar_service.scheduling.dto.SlotSearchResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotFinderServiceTest {
+
+    @Mock
+    private CalendarRepository calendarRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private OccurrenceExpander occurrenceExpander;
+
+    @InjectMocks
+    private SlotFinderService slotFinderService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(slotFinderService, "maxUsers", 100);
+        ReflectionTestUtils.setField(slotFinderService, "maxRangeDays", 62);
+        ReflectionTestUtils.setField(slotFinderService, "maxSlots", 100);
+    }
+
+    @Test
+    void findCommonSlots_ConvertsCalendarTimezones() {
+        Calendar berlin = Calendar.builder().id("cal-berlin").userId("anna").timezone("Europe/Berlin").build();
+        Calendar newYork = Calendar.builder().id("cal-ny").userId("ben").timezone("America/New_York").build();
+        when(calendarRepository.findByUserIdInAndIsDeletedFalse(List.of("anna", "ben"))).thenReturn(List.of(berlin, newYork));
+
+        // 09:00-10:00 in Berlin is 08:00-09:00 UTC, 06:00-07:00 in New York (already on DST) is 10:00-11:00 UTC
+        when(eventRepository.streamSingleEventSpans(eq("cal-berlin"), any(), any(), eq(EventStatus.CANCELLED), eq(false)))
+                .thenReturn(Stream.of(new EventSpan(LocalDateTime.of(2025, 3, 10, 9, 0), LocalDateTime.of(2025, 3, 10, 10, 0), false)));
+        when(eventRepository.streamSingleEventSpans(eq("cal-ny"), any(), any(), eq(EventStatus.CANCELLED), eq(false)))
+                .thenReturn(Stream.of(new EventSpan(LocalDateTime.of(2025, 3, 10, 6, 0), LocalDateTime.of(2025, 3, 10, 7, 0), false)));
+        when(eventRepository.streamSingleEventSpans(any(), any(), any(), eq(EventStatus.CANCELLED), eq(true)))
+                .thenAnswer(invocation -> Stream.empty());
+        when(eventRepository.findRecurringByCalendarIdOverlapping(any(), any(), any())).thenReturn(List.of());
+
+        SlotSearchResponse response = slotFinderService.findCommonSlots(List.of("anna", "ben"),
+                LocalDateTime.of(2025, 3, 10, 8, 0), LocalDateTime.of(2025, 3, 10, 12, 0), 30, 5, "UTC");
+
+        assertEquals(List.of(
+                new FreeSlot(LocalDateTime.of(2025, 3, 10, 9, 0), LocalDateTime.of(2025, 3, 10, 10, 0)),
+                new FreeSlot(LocalDateTime.of(2025, 3, 10, 11, 0), LocalDateTime.of(2025, 3, 10, 12, 0))),
+                response.slots());
+        verify(eventRepository).streamSingleEventSpans("cal-ny",
+                LocalDateTime.of(2025, 3, 10, 4, 0), LocalDateTime.of(2025, 3, 10, 8, 0), EventStatus.CANCELLED, true);
+    }
+
+    @Test
+    void findCommonSlots_AllDayEventBlocksFromMidnight() {
+        Calendar calendar = Calendar.builder().id("cal-1").userId("anna").timezone("UTC").build();
+        when(calendarRepository.findByUserIdInAndIsDeletedFalse(List.of("anna"))).thenReturn(List.of(calendar));
+        when(eventRepository.streamSingleEventSpans(eq("cal-1"), any(), any(), eq(EventStatus.CANCELLED), eq(false)))
+                .thenReturn(Stream.of(
+                        new EventSpan(LocalDateTime.of(2025, 3, 10, 13, 0), LocalDateTime.of(2025, 3, 10, 14, 0), false),
+                        new EventSpan(LocalDateTime.of(2025, 3, 11, 8, 0), LocalDateTime.of(2025, 3, 11, 9, 0), false)));
+        // Stored after the 08:00 meeting, but blocks the day from midnight
+        when(eventRepository.streamSingleEventSpans(eq("cal-1"), any(), any(), eq(EventStatus.CANCELLED), eq(true)))
+                .thenReturn(Stream.of(new EventSpan(LocalDateTime.of(2025, 3, 11, 9, 0), null, true)));
+        when(eventRepository.findRecurringByCalendarIdOverlapping(any(), any(), any())).thenReturn(List.of());
+
+        SlotSearchResponse response = slotFinderService.findCommonSlots(List.of("anna"),
+                LocalDateTime.of(2025, 3, 10, 12, 0), LocalDateTime.of(2025, 3, 11, 12, 0), 30, 5, "UTC");
+
+        assertEquals(List.of(
+                new FreeSlot(LocalDateTime.of(2025, 3, 10, 12, 0), LocalDateTime.of(2025, 3, 10, 13, 0)),
+                new FreeSlot(LocalDateTime.of(2025, 3, 10, 14, 0), LocalDateTime.of(2025, 3, 11, 0, 0))),
+                response.slots());
+    }
+
+    @Test
+    void findCommonSlots_UnknownTimezone() {
+        assertThrows(IncorrectTimeException.class, () -> slotFinderService.findCommonSlots(List.of("anna"),
+                LocalDateTime.of(2025, 3, 10, 8, 0), LocalDateTime.of(2025, 3, 10, 12, 0), 30, 5, "Mars/Olympus"));
+        verifyNoInteractions(calendarRepository);
+    }
+}
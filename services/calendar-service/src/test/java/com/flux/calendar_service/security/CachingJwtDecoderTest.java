@@ -0,0 +1,69 @@
+package com.flux.calendar_service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new CachingJwtDecoder(delegate, 100);
+    }
+
+    @Test
+    void validatedTokenIsOnlyVerifiedOnce() {
+        Jwt jwt = jwt("token-1", Instant.now().plusSeconds(300));
+        when(delegate.decode("token-1")).thenReturn(jwt);
+
+        assertSame(jwt, decoder.decode("token-1"));
+        assertSame(jwt, decoder.decode("token-1"));
+
+        verify(delegate, times(1)).decode("token-1");
+    }
+
+    @Test
+    void expiredTokenIsVerifiedAgain() {
+        when(delegate.decode("token-1")).thenReturn(jwt("token-1", Instant.now().minusSeconds(1)));
+
+        decoder.decode("token-1");
+        decoder.decode("token-1");
+
+        verify(delegate, times(2)).decode("token-1");
+    }
+
+    @Test
+    void rejectedTokenIsNotCached() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("invalid signature"));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user-1")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
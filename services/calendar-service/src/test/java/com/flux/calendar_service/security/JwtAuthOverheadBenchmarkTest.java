@@ -0,0 +1,109 @@
+package com.flux.calendar_service.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Auth cost per request for a Keycloak-style RS256 token: full verification, a validated-token
+ * cache hit, and claims forwarded by the gateway in signed headers.
+ */
+class JwtAuthOverheadBenchmarkTest {
+    private static final String ISSUER = "http://localhost:8080/realms/flux";
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void cachedAndForwardedTokensCostLessThanVerification() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keys = generator.generateKeyPair();
+        String token = token(keys);
+
+        OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefaultWithIssuer(ISSUER);
+        NimbusJwtDecoder full = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keys.getPublic()).build();
+        full.setJwtValidator(validator);
+        JwtDecoder cached = new CachingJwtDecoder(full, 1_000);
+        JwtDecoder forwarded = new InternalJwtDecoder(full, validator, "internal-secret", 30);
+
+        long now = Instant.now().getEpochSecond();
+        String[] headers = InternalJwtDecoderTest.headers(forwardedClaims(now), now, token, "internal-secret");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(InternalJwtDecoder.CLAIMS_HEADER, headers[0]);
+        request.addHeader(InternalJwtDecoder.ISSUED_HEADER, headers[1]);
+        request.addHeader(InternalJwtDecoder.SIGNATURE_HEADER, headers[2]);
+
+        long fullNanos = nanosPerDecode(full, token);
+        long cachedNanos = nanosPerDecode(cached, token);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        long forwardedNanos = nanosPerDecode(forwarded, token);
+
+        System.out.printf("JWT auth per request: verify %d us, cached %d us, gateway-forwarded %d us%n",
+                fullNanos / 1_000, cachedNanos / 1_000, forwardedNanos / 1_000);
+        assertTrue(cachedNanos * 3 < fullNanos, "cached " + cachedNanos + " ns vs verify " + fullNanos + " ns");
+        assertTrue(forwardedNanos < fullNanos, "forwarded " + forwardedNanos + " ns vs verify " + fullNanos + " ns");
+    }
+
+    private static long nanosPerDecode(JwtDecoder decoder, String token) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals("user-1", decoder.decode(token).getSubject());
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoder.decode(token);
+        }
+        return (System.nanoTime() - started) / ITERATIONS;
+    }
+
+    private static String token(KeyPair keys) throws JOSEException {
+        Instant now = Instant.now();
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("key-1").build(),
+                new JWTClaimsSet.Builder()
+                        .subject("user-1")
+                        .issuer(ISSUER)
+                        .audience("account")
+                        .issueTime(Date.from(now))
+                        .expirationTime(Date.from(now.plusSeconds(300)))
+                        .claim("preferred_username", "alice")
+                        .claim("realm_access", Map.of("roles", List.of("user", "offline_access")))
+                        .build());
+        jwt.sign(new RSASSASigner(keys.getPrivate()));
+        return jwt.serialize();
+    }
+
+    private static String forwardedClaims(long now) {
+        return "{\"header\":{\"alg\":\"RS256\",\"kid\":\"key-1\"},"
+                + "\"claims\":{\"sub\":\"user-1\",\"iss\":\"" + ISSUER + "\",\"aud\":[\"account\"],\"iat\":" + now
+                + ",\"exp\":" + (now + 300) + ",\"preferred_username\":\"alice\","
+                + "\"realm_access\":{\"roles\":[\"user\",\"offline_access\"]}}}";
+    }
+}
@@ -1,6 +1,10 @@
 package com.flux.calendar_service.storage;
 
+import com.flux.calendar_service.exceptions.MinIoRetrievingErrorException;
+import com.flux.calendar_service.exceptions.MinIoUploadingErrorException;
 import io.minio.*;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,10 +15,29 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +52,7 @@ class MinioServiceTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(minioService, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(minioService, "uploadPartSize", 10L * 1024 * 1024);
     }
 
     @Test
@@ -53,16 +77,54 @@ class MinioServiceTest {
     void uploadFile_Success() throws Exception {
         MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", "content".getBytes());
         
-        // Mock putObject to do nothing (void) or return null via generic Object
-        // But putObject returns ObjectWriteResponse.
-        when(minioClient.putObject(any(PutObjectArgs.class))).thenReturn(new ObjectWriteResponse(null, "bucket", "region", "object", "etag", null));
+        // Drain the stream like the real client so the content hash gets computed
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            args.stream().readAllBytes();
+            return new ObjectWriteResponse(null, "bucket", "region", "object", "etag", null);
+        });
 
-        String fileName = minioService.uploadFile(file);
+        MinioService.StoredObject stored = minioService.uploadFile(file);
 
-        assertNotNull(fileName);
+        assertTrue(stored.objectName().matches("uploads/[0-9a-f-]{36}_test\\.txt"));
+        assertEquals("ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73", stored.sha256());
         verify(minioClient).putObject(any(PutObjectArgs.class));
     }
 
+    @Test
+    void sha256_HashesStoredObject() throws Exception {
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(new GetObjectResponse(null, "bucket", "region",
+                "evt-1/abc_test.txt", new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73",
+                minioService.sha256("evt-1/abc_test.txt"));
+    }
+
+    @Test
+    void getFileUrl_IsPresigned() throws Exception {
+        ReflectionTestUtils.setField(minioService, "downloadExpiryMinutes", 15L);
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("http://minio/test-bucket/test.txt?X-Amz-Signature=abc");
+
+        String url = minioService.getFileUrl("test.txt");
+
+        assertEquals("http://minio/test-bucket/test.txt?X-Amz-Signature=abc", url);
+        verify(minioClient).getPresignedObjectUrl(argThat(args -> args.method() == Method.GET
+                && args.expiry() == 15 * 60
+                && "test.txt".equals(args.object())));
+    }
+
+    @Test
+    void presignUpload_UsesPut() throws Exception {
+        ReflectionTestUtils.setField(minioService, "uploadExpiryMinutes", 10L);
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class))).thenReturn("http://minio/put");
+
+        MinioService.PresignedUrl url = minioService.presignUpload("evt-1/abc_test.txt");
+
+        assertEquals("http://minio/put", url.url());
+        verify(minioClient).getPresignedObjectUrl(argThat(args -> args.method() == Method.PUT && args.expiry() == 600));
+    }
+
     @Test
     void getFile_Success() throws Exception {
         InputStream stream = new ByteArrayInputStream("content".getBytes());
@@ -75,10 +137,182 @@ class MinioServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void getFileRange_RequestsOnlyTheRange() throws Exception {
+        InputStream stream = new ByteArrayInputStream("nte".getBytes());
+        when(minioClient.getObject(any(GetObjectArgs.class)))
+                .thenReturn(new GetObjectResponse(null, "bucket", "region", "object", stream));
+
+        minioService.getFileRange("test.txt", 2, 3);
+
+        verify(minioClient).getObject(argThat(args -> args.offset() == 2L && args.length() == 3L));
+    }
+
     @Test
     void deleteFile_Success() throws Exception {
         minioService.deleteFile("test.txt");
 
         verify(minioClient).removeObject(any(RemoveObjectArgs.class));
     }
+
+    @Test
+    void deleteFiles_ReportsFailedObjects() throws Exception {
+        DeleteError error = mock(DeleteError.class);
+        when(error.objectName()).thenReturn("b.txt");
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of(new Result<>(error)));
+
+        List<String> failed = minioService.deleteFiles(List.of("a.txt", "b.txt", "a.txt"));
+
+        assertEquals(List.of("b.txt"), failed);
+        verify(minioClient).removeObjects(argThat(args -> "test-bucket".equals(args.bucket())));
+    }
+
+    @Test
+    void deleteFiles_EmptyDoesNothing() {
+        assertTrue(minioService.deleteFiles(List.of()).isEmpty());
+
+        verifyNoInteractions(minioClient);
+    }
+
+    @Test
+    void copyFiles_RespectsConcurrencyLimit() throws Exception {
+        ReflectionTestUtils.setField(minioService, "batchConcurrency", 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(minioClient.copyObject(any(CopyObjectArgs.class))).thenAnswer(invocation -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return null;
+        });
+        Map<String, String> copies = new HashMap<>();
+        for (int i = 0; i < 12; i++) {
+            copies.put("src-" + i, "dst-" + i);
+        }
+
+        minioService.copyFiles(copies);
+
+        verify(minioClient, times(12)).copyObject(any(CopyObjectArgs.class));
+        verify(minioClient).copyObject(argThat(args -> "dst-4".equals(args.object())
+                && "src-4".equals(args.source().object())));
+        assertTrue(peak.get() <= 3, "peak concurrency " + peak.get());
+    }
+
+    @Test
+    void copyFiles_FailureIsReported() throws Exception {
+        ReflectionTestUtils.setField(minioService, "batchConcurrency", 2);
+        when(minioClient.copyObject(any(CopyObjectArgs.class))).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(MinIoUploadingErrorException.class, () -> minioService.copyFiles(Map.of("a", "b")));
+    }
+
+    @Test
+    void writeZip_StreamsEntriesInOrder() throws Exception {
+        ReflectionTestUtils.setField(minioService, "batchConcurrency", 2);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            return new GetObjectResponse(null, "bucket", "region", args.object(),
+                    new ByteArrayInputStream(("content of " + args.object()).getBytes(StandardCharsets.UTF_8)));
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        minioService.writeZip(List.of(
+                new MinioService.ZipSource("notes.txt", "evt-1/1_notes.txt"),
+                new MinioService.ZipSource("photo.png", "evt-1/2_photo.png"),
+                new MinioService.ZipSource("notes.txt", "evt-1/3_notes.txt")), out);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(List.of("notes.txt", "photo.png", "notes (2).txt"), List.copyOf(entries.keySet()));
+        assertEquals("content of evt-1/3_notes.txt", entries.get("notes (2).txt"));
+    }
+
+    @Test
+    void writeZip_MissingObjectFailsWithoutHanging() throws Exception {
+        ReflectionTestUtils.setField(minioService, "batchConcurrency", 1);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            if (args.object().equals("missing")) {
+                throw new IllegalStateException("NoSuchKey");
+            }
+            return new GetObjectResponse(null, "bucket", "region", args.object(), new ByteArrayInputStream(new byte[]{1}));
+        });
+
+        List<MinioService.ZipSource> sources = List.of(
+                new MinioService.ZipSource("a", "a"),
+                new MinioService.ZipSource("missing", "missing"),
+                new MinioService.ZipSource("c", "c"),
+                new MinioService.ZipSource("d", "d"));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(MinIoRetrievingErrorException.class,
+                () -> minioService.writeZip(sources, new ByteArrayOutputStream())));
+    }
+
+    /**
+     * Streams a 2 GB multipart body through the parser into MinIO. Surefire runs with -Xmx256m,
+     * so buffering the file anywhere along the way would fail with an OutOfMemoryError.
+     */
+    @Test
+    void uploadStream_TwoGigabyteMultipartBody() throws Exception {
+        long fileSize = 2L * 1024 * 1024 * 1024;
+        String boundary = "----FluxBoundary";
+        byte[] head = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"big.bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        InputStream body = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(head), new FillerInputStream(fileSize), new ByteArrayInputStream(tail))));
+
+        long[] received = new long[1];
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            PutObjectArgs args = invocation.getArgument(0);
+            assertEquals(-1, args.objectSize());
+            byte[] part = new byte[(int) args.partSize()];
+            int read;
+            while ((read = args.stream().read(part)) > 0) {
+                received[0] += read;
+            }
+            return new ObjectWriteResponse(null, "bucket", "region", "object", "etag", null);
+        });
+
+        MultipartStreamReader reader = new MultipartStreamReader(body, boundary, 64 * 1024);
+        MultipartStreamReader.Part part = reader.nextPart();
+        MinioService.StoredObject stored = minioService.uploadStream(part.body(), part.filename(), part.contentType());
+
+        assertEquals(fileSize, received[0]);
+        assertEquals(fileSize, stored.size());
+        assertNull(reader.nextPart());
+    }
+
+    private static final class FillerInputStream extends InputStream {
+        private long remaining;
+
+        FillerInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(len, remaining);
+            Arrays.fill(b, off, off + count, (byte) 'x');
+            remaining -= count;
+            return count;
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package com.flux.calendar_service.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----FluxBoundary7MA4YWxkTrZu0gW";
+
+    @Test
+    void readsFieldsAndFileParts() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"title\"\r\n\r\n"
+                + "Quarterly report\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"report.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "line one\r\nline two\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+
+        MultipartStreamReader reader = reader(body.getBytes(StandardCharsets.UTF_8), 64);
+
+        MultipartStreamReader.Part title = reader.nextPart();
+        assertEquals("title", title.name());
+        assertNull(title.filename());
+        assertEquals("Quarterly report", new String(title.body().readAllBytes(), StandardCharsets.UTF_8));
+
+        MultipartStreamReader.Part file = reader.nextPart();
+        assertEquals("file", file.name());
+        assertEquals("report.txt", file.filename());
+        assertEquals("text/plain", file.contentType());
+        assertEquals("line one\r\nline two", new String(file.body().readAllBytes(), StandardCharsets.UTF_8));
+
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void skipsPreambleAndUnreadParts() throws IOException {
+        String body = "This is the preamble\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"ignored\"\r\n\r\n"
+                + "never read\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"a.bin\"\r\n\r\n"
+                + "payload\r\n"
+                + "--" + BOUNDARY + "--";
+
+        MultipartStreamReader reader = reader(body.getBytes(StandardCharsets.UTF_8), 64);
+
+        assertEquals("ignored", reader.nextPart().name());
+        MultipartStreamReader.Part file = reader.nextPart();
+        assertEquals("payload", new String(file.body().readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void preservesBinaryContentAcrossBufferBoundaries() throws IOException {
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 37, 63, 64, 65, 1000, 70_000}) {
+            byte[] payload = new byte[size];
+            random.nextBytes(payload);
+            // Near-misses of the delimiter must stay part of the content
+            if (size > 10) {
+                byte[] nearMiss = ("\r\n--" + BOUNDARY.substring(0, 10)).getBytes(StandardCharsets.ISO_8859_1);
+                System.arraycopy(nearMiss, 0, payload, size / 2, Math.min(nearMiss.length, size - size / 2));
+            }
+
+            for (int bufferSize : new int[]{64, 100, 8192}) {
+                MultipartStreamReader reader = reader(fileBody(payload), bufferSize);
+                MultipartStreamReader.Part part = reader.nextPart();
+                assertArrayEquals(payload, part.body().readAllBytes(), "size " + size + ", buffer " + bufferSize);
+                assertNull(reader.nextPart());
+            }
+        }
+    }
+
+    @Test
+    void truncatedBodyFails() {
+        byte[] body = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"a.bin\"\r\n\r\n"
+                + "cut off in the middle").getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(EOFException.class, () -> reader(body, 64).nextPart().body().readAllBytes());
+    }
+
+    @Test
+    void oversizedHeadersFailTheHeaderCheckWithASmallBuffer() {
+        byte[] body = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + "a".repeat(20_000) + "\"\r\n\r\n"
+                + "payload\r\n"
+                + "--" + BOUNDARY + "--").getBytes(StandardCharsets.UTF_8);
+
+        IOException e = assertThrows(IOException.class, () -> reader(body, 64).nextPart());
+
+        assertTrue(e.getMessage().startsWith("Multipart part headers are too large"), e.getMessage());
+    }
+
+    @Test
+    void boundaryOf_ParsesQuotedAndPlainValues() {
+        assertEquals("abc", MultipartStreamReader.boundaryOf("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartStreamReader.boundaryOf("multipart/form-data; charset=UTF-8; Boundary=\"a b\""));
+        assertNull(MultipartStreamReader.boundaryOf("multipart/form-data"));
+        assertNull(MultipartStreamReader.boundaryOf(null));
+    }
+
+    private static MultipartStreamReader reader(byte[] body, int bufferSize) {
+        // Trickle the input so reads never line up with part boundaries
+        InputStream in = new ByteArrayInputStream(body) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 13));
+            }
+        };
+        return new MultipartStreamReader(in, BOUNDARY, bufferSize);
+    }
+
+    private static byte[] fileBody(byte[] payload) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"data.bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[head.length + payload.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(payload, 0, body, head.length, payload.length);
+        System.arraycopy(tail, 0, body, head.length + payload.length, tail.length);
+        return body;
+    }
+}
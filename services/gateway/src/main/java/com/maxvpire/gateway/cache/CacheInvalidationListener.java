@@ -0,0 +1,74 @@
+package com.maxvpire.gateway.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Drops cached responses when a downstream service publishes the ids it changed. The message is a
+ * comma-separated list of ids; calendar-service sends one after every committed write. Messages
+ * missed while Redis is unreachable are only bounded by the entries' freshness.
+ * <p>
+ * The subscription starts once the application is ready and keeps retrying in the background, so
+ * the gateway starts and serves traffic while Redis is down.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "gateway.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener {
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final ResponseCacheStore store;
+
+    @Value("${gateway.cache.invalidation-channel:gateway:cache:invalidate}")
+    private String channel;
+
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // The container connects when it is created, so it is created again on every retry
+        subscription = Flux.usingWhen(
+                        Mono.fromCallable(() -> new ReactiveRedisMessageListenerContainer(connectionFactory))
+                                .subscribeOn(Schedulers.boundedElastic()),
+                        container -> container.receive(ChannelTopic.of(channel))
+                                .map(ReactiveSubscription.Message::getMessage)
+                                .concatMap(message -> store.invalidate(parse(message))),
+                        ReactiveRedisMessageListenerContainer::destroyLater)
+                .doOnError(e -> log.warn("Cache invalidation subscription failed, resubscribing: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    static List<String> parse(String message) {
+        return Arrays.stream(message.split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,26 @@
+package com.maxvpire.gateway.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A downstream response held by the gateway cache. It is fresh until {@code expiresAt}; after that
+ * an entry with an ETag is kept a while longer so it can be revalidated instead of fetched again.
+ */
+public record CachedResponse(
+        int status,
+        Map<String, List<String>> headers,
+        byte[] body,
+        String etag,
+        long expiresAt,
+        Set<String> tags
+) {
+    public boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    public CachedResponse refreshed(long expiresAt) {
+        return new CachedResponse(status, headers, body, etag, expiresAt, tags);
+    }
+}
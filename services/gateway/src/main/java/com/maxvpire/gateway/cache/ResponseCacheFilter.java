@@ -0,0 +1,331 @@
+package com.maxvpire.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves repeated GETs from {@link ResponseCacheStore}. Entries are private to the JWT subject and
+ * keyed by route, path and query. Downstream {@code Cache-Control} decides whether and how long a
+ * response is kept; expired entries with an ETag are revalidated with {@code If-None-Match}, and
+ * clients get a {@code 304} when their ETag still matches.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+    static final String CACHE_HEADER = "X-Cache";
+
+    // Describe the original exchange rather than the stored response
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.DATE.toLowerCase(),
+            CACHE_HEADER.toLowerCase());
+
+    private final ResponseCacheStore store;
+    private final boolean enabled;
+    private final List<String> cachedPaths;
+    private final List<String> excludedPaths;
+    private final long defaultTtlMillis;
+    private final int maxEntryBytes;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public ResponseCacheFilter(ResponseCacheStore store,
+                               @Value("${gateway.cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.cache.paths:/calendars/**,/events/**,/tasks/**}") List<String> cachedPaths,
+                               @Value("${gateway.cache.excluded-paths:/calendars/imports/**}") List<String> excludedPaths,
+                               @Value("${gateway.cache.default-ttl-seconds:30}") long defaultTtlSeconds,
+                               @Value("${gateway.cache.max-entry-bytes:524288}") int maxEntryBytes) {
+        this.store = store;
+        this.enabled = enabled;
+        this.cachedPaths = cachedPaths;
+        this.excludedPaths = excludedPaths;
+        this.defaultTtlMillis = TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    @Override
+    public int getOrder() {
+        // The response decorator has to be in place before the proxied response is written, and
+        // ahead of request coalescing so cache hits never wait on an in-flight call
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() != HttpMethod.GET || !isCacheable(request.getPath().value())
+                || hasDirective(request.getHeaders(), "no-store")) {
+            return chain.filter(exchange);
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(subject -> subject.isEmpty()
+                        ? chain.filter(exchange)
+                        : serve(exchange, chain, cacheKey(exchange, subject)));
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, GatewayFilterChain chain, String key) {
+        long requestedAt = System.currentTimeMillis();
+        // A client asking for no-cache skips the lookup, but the fresh response is still stored
+        Mono<CachedResponse> lookup = hasDirective(exchange.getRequest().getHeaders(), "no-cache")
+                ? Mono.empty()
+                : store.get(key);
+
+        return lookup.map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> {
+                    if (cached.isPresent() && cached.get().isFresh(requestedAt)) {
+                        return writeEntry(exchange.getRequest(), exchange.getResponse(), cached.get(), "HIT");
+                    }
+                    CachedResponse stale = cached.filter(entry -> entry.etag() != null).orElse(null);
+                    return forward(exchange, chain, key, stale, requestedAt);
+                });
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                               CachedResponse stale, long requestedAt) {
+        ServerWebExchange forwarded = stale == null ? exchange : exchange.mutate()
+                .request(request -> request.headers(headers -> headers.setIfNoneMatch(stale.etag())))
+                .build();
+        ServerHttpRequest request = exchange.getRequest();
+        Set<String> tags = tags(request);
+
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (stale != null && status != null && status.value() == HttpStatus.NOT_MODIFIED.value()) {
+                    return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(this::revalidated));
+                }
+
+                long freshness = status != null && status.value() == HttpStatus.OK.value()
+                        ? freshnessMillis(getHeaders(), defaultTtlMillis)
+                        : -1;
+                String etag = getHeaders().getETag();
+                if (freshness < 0 || (freshness == 0 && etag == null) || !isStorable(getHeaders())) {
+                    return super.writeWith(body);
+                }
+
+                getHeaders().set(CACHE_HEADER, stale == null ? "MISS" : "EXPIRED");
+                Map<String, List<String>> headers = storedHeaders(getHeaders());
+                ByteArrayOutputStream captured = new ByteArrayOutputStream();
+                boolean[] overflow = {false};
+                Flux<? extends DataBuffer> tee = Flux.from(body).doOnNext(buffer -> {
+                    if (overflow[0] || captured.size() + buffer.readableByteCount() > maxEntryBytes) {
+                        overflow[0] = true;
+                        return;
+                    }
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    int position = buffer.readPosition();
+                    buffer.read(bytes);
+                    buffer.readPosition(position);
+                    captured.writeBytes(bytes);
+                });
+
+                return super.writeWith(tee).then(Mono.defer(() -> {
+                    if (overflow[0]) {
+                        return Mono.empty();
+                    }
+                    byte[] bytes = captured.toByteArray();
+                    String entryEtag = etag != null ? etag : contentEtag(bytes);
+                    headers.put(HttpHeaders.ETAG, List.of(entryEtag));
+                    return store.put(key, new CachedResponse(HttpStatus.OK.value(), headers, bytes, entryEtag,
+                            requestedAt + freshness, tags), requestedAt);
+                }));
+            }
+
+            // Downstream confirmed the stale entry, so it is served and kept for another freshness period
+            private Mono<Void> revalidated() {
+                long freshness = freshnessMillis(getHeaders(), defaultTtlMillis);
+                Mono<Void> refresh = freshness < 0
+                        ? Mono.empty()
+                        : store.put(key, stale.refreshed(requestedAt + freshness), requestedAt);
+                return refresh.then(Mono.defer(() -> writeEntry(request, getDelegate(), stale, "REVALIDATED")));
+            }
+        };
+
+        return chain.filter(forwarded.mutate().response(response).build());
+    }
+
+    private Mono<Void> writeEntry(ServerHttpRequest request, ServerHttpResponse response, CachedResponse entry,
+                                  String outcome) {
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(entry.headers());
+        headers.set(CACHE_HEADER, outcome);
+
+        if (etagMatches(request.getHeaders().getIfNoneMatch(), entry.etag())) {
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(entry.status()));
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private boolean isCacheable(String path) {
+        return cachedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))
+                && excludedPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private boolean isStorable(HttpHeaders headers) {
+        MediaType contentType = headers.getContentType();
+        return contentType != null
+                && MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && headers.getContentLength() <= maxEntryBytes;
+    }
+
+    private static String cacheKey(ServerWebExchange exchange, String subject) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        Map<String, List<String>> query = new TreeMap<>();
+        request.getQueryParams().forEach((name, values) -> query.put(name, values.stream().sorted().toList()));
+
+        // Hashed, so subjects and query values never end up in Redis keys
+        return sha256((route == null ? "" : route.getId()) + "\n" + request.getPath().value() + "\n" + query + "\n" + subject);
+    }
+
+    /**
+     * The ids an entry can contain, matched against invalidation events: every path segment after
+     * the resource name and every query value. Collection roots such as {@code /calendars} are
+     * tagged with the resource name itself.
+     */
+    static Set<String> tags(ServerHttpRequest request) {
+        List<String> segments = Arrays.stream(request.getPath().value().split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .toList();
+        Set<String> tags = new LinkedHashSet<>();
+        if (segments.size() == 1) {
+            tags.add(segments.get(0));
+        } else {
+            tags.addAll(segments.subList(1, segments.size()));
+        }
+        request.getQueryParams().values().forEach(tags::addAll);
+        return tags;
+    }
+
+    /**
+     * How long a response stays fresh according to its {@code Cache-Control}, or -1 if it must not
+     * be stored. {@code no-cache} responses are stored but revalidated on every request.
+     */
+    static long freshnessMillis(HttpHeaders headers, long defaultTtlMillis) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return defaultTtlMillis;
+        }
+
+        // no-store wins wherever it appears, e.g. in Spring Security's "no-cache, no-store, ..."
+        if (hasDirective(headers, "no-store")) {
+            return -1;
+        }
+        Long maxAge = null;
+        Long sharedMaxAge = null;
+        for (String directive : cacheControl.toLowerCase().split(",")) {
+            String name = directive.trim();
+            if (name.equals("no-cache")) {
+                return 0;
+            }
+            if (name.startsWith("max-age=")) {
+                maxAge = parseSeconds(name.substring("max-age=".length()));
+            } else if (name.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(name.substring("s-maxage=".length()));
+            }
+        }
+        Long seconds = sharedMaxAge != null ? sharedMaxAge : maxAge;
+        return seconds == null ? defaultTtlMillis : TimeUnit.SECONDS.toMillis(seconds);
+    }
+
+    private static Long parseSeconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.replace("\"", "")));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static boolean hasDirective(HttpHeaders headers, String directive) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && Arrays.stream(cacheControl.toLowerCase().split(","))
+                .anyMatch(value -> value.trim().equals(directive));
+    }
+
+    private static boolean etagMatches(List<String> ifNoneMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String strong = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return ifNoneMatch.stream()
+                .map(value -> value.startsWith("W/") ? value.substring(2) : value)
+                .anyMatch(value -> value.equals("*") || value.equals(strong));
+    }
+
+    private static Map<String, List<String>> storedHeaders(HttpHeaders headers) {
+        Map<String, List<String>> stored = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (!UNCACHED_HEADERS.contains(name.toLowerCase())) {
+                stored.put(name, new ArrayList<>(values));
+            }
+        });
+        return stored;
+    }
+
+    private static String contentEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.maxvpire.gateway.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier store behind {@link ResponseCacheFilter}: a local cache bounded by the total size of the
+ * cached bodies, and optionally Redis so instances share entries. Entries are indexed by tag, the
+ * ids from their request path, so an invalidation only drops the responses that can contain them.
+ */
+@Component
+@Slf4j
+public class ResponseCacheStore {
+    private static final String ENTRY_PREFIX = "gateway:cache:entry:";
+    private static final String TAG_PREFIX = "gateway:cache:tag:";
+
+    private final ObjectMapper objectMapper;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final long staleRetentionMillis;
+    private final Cache<String, CachedResponse> local;
+    private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+
+    // A response fetched before an invalidation of one of its tags must not be stored after it
+    private final Cache<String, Long> recentInvalidations = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    public ResponseCacheStore(ObjectMapper objectMapper,
+                              ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                              @Value("${gateway.cache.max-bytes:67108864}") long maxBytes,
+                              @Value("${gateway.cache.stale-retention-seconds:300}") long staleRetentionSeconds,
+                              @Value("${gateway.cache.redis.enabled:false}") boolean redisEnabled) {
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisEnabled ? redisTemplate.getIfAvailable() : null;
+        this.staleRetentionMillis = TimeUnit.SECONDS.toMillis(staleRetentionSeconds);
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse entry) -> key.length() + entry.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, retainUntil(entry) - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((String key, CachedResponse entry, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED && key != null && entry != null) {
+                        untag(key, entry);
+                    }
+                })
+                .build();
+    }
+
+    public Mono<CachedResponse> get(String key) {
+        CachedResponse entry = local.getIfPresent(key);
+        if (entry != null || redisTemplate == null) {
+            return Mono.justOrEmpty(entry);
+        }
+        return redisTemplate.opsForValue().get(ENTRY_PREFIX + key)
+                .flatMap(json -> Mono.justOrEmpty(read(json)))
+                .doOnNext(shared -> putLocal(key, shared))
+                .onErrorResume(e -> {
+                    log.warn("Failed to read cached response {} from Redis: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Stores a response fetched by a request that started at {@code requestedAt}, unless one of its
+     * tags has been invalidated since.
+     */
+    public Mono<Void> put(String key, CachedResponse entry, long requestedAt) {
+        for (String tag : entry.tags()) {
+            Long invalidatedAt = recentInvalidations.getIfPresent(tag);
+            if (invalidatedAt != null && invalidatedAt >= requestedAt) {
+                return Mono.empty();
+            }
+        }
+        putLocal(key, entry);
+        if (redisTemplate == null) {
+            return Mono.empty();
+        }
+
+        Duration retention = Duration.ofMillis(Math.max(1, retainUntil(entry) - System.currentTimeMillis()));
+        return redisTemplate.opsForValue().set(ENTRY_PREFIX + key, write(entry), retention)
+                .thenMany(Flux.fromIterable(entry.tags())
+                        .flatMap(tag -> redisTemplate.opsForSet().add(TAG_PREFIX + tag, key)
+                                .then(redisTemplate.expire(TAG_PREFIX + tag, retention))))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to write cached response {} to Redis: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> invalidate(Collection<String> tags) {
+        long now = System.currentTimeMillis();
+        for (String tag : tags) {
+            recentInvalidations.put(tag, now);
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                local.invalidateAll(keys);
+            }
+        }
+        if (redisTemplate == null) {
+            return Mono.empty();
+        }
+
+        return Flux.fromIterable(tags)
+                .flatMap(tag -> redisTemplate.opsForSet().members(TAG_PREFIX + tag)
+                        .map(key -> ENTRY_PREFIX + key)
+                        .concatWithValues(TAG_PREFIX + tag)
+                        .collectList()
+                        .flatMap(keys -> redisTemplate.delete(keys.toArray(String[]::new))))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to invalidate cached responses in Redis: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    long localSize() {
+        local.cleanUp();
+        return local.estimatedSize();
+    }
+
+    private void putLocal(String key, CachedResponse entry) {
+        for (String tag : entry.tags()) {
+            keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        local.put(key, entry);
+    }
+
+    private void untag(String key, CachedResponse entry) {
+        if (local.asMap().containsKey(key)) {
+            return;
+        }
+        for (String tag : entry.tags()) {
+            keysByTag.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    // Entries that can be revalidated outlive their freshness
+    private long retainUntil(CachedResponse entry) {
+        return entry.etag() != null ? entry.expiresAt() + staleRetentionMillis : entry.expiresAt();
+    }
+
+    private CachedResponse read(String json) {
+        try {
+            return objectMapper.readValue(json, CachedResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached response: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String write(CachedResponse entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cached response is not serializable", e);
+        }
+    }
+}
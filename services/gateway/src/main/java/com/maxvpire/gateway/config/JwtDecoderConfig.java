@@ -0,0 +1,87 @@
+package com.maxvpire.gateway.config;
+
+import com.maxvpire.gateway.security.CachingReactiveJwtDecoder;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces the auto-configured JWT decoder with one that keeps Keycloak's signing keys warm and
+ * remembers validated tokens. The key set is fetched at startup and refreshed in the background
+ * before it expires, so no request waits on Keycloak, and a failed refresh keeps the last keys.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.security.oauth2.resourceserver.jwt.issuer-uri")
+public class JwtDecoderConfig {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:${spring.security.oauth2.resourceserver.jwt.issuer-uri}/protocol/openid-connect/certs}")
+    private String jwkSetUri;
+
+    @Value("${security.jwt.jwks.cache-seconds:300}")
+    private long jwksCacheSeconds;
+
+    @Value("${security.jwt.jwks.refresh-ahead-seconds:30}")
+    private long jwksRefreshAheadSeconds;
+
+    @Value("${security.jwt.jwks.outage-tolerance-seconds:3600}")
+    private long jwksOutageToleranceSeconds;
+
+    @Value("${security.jwt.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource() throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                .cache(TimeUnit.SECONDS.toMillis(jwksCacheSeconds), TimeUnit.SECONDS.toMillis(15))
+                .refreshAheadCache(TimeUnit.SECONDS.toMillis(jwksRefreshAheadSeconds), true)
+                .retrying(true)
+                .outageTolerant(TimeUnit.SECONDS.toMillis(jwksOutageToleranceSeconds))
+                .build();
+    }
+
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        // Keys normally come from memory; only a cold cache or an unknown key id goes to Keycloak
+        NimbusReactiveJwtDecoder nimbus = NimbusReactiveJwtDecoder
+                .withJwkSource(jwt -> Mono.fromCallable(() -> jwkSource.get(
+                                new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader())), null))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapMany(Flux::fromIterable))
+                .build();
+        nimbus.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return new CachingReactiveJwtDecoder(nimbus, cacheMaxEntries);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchSigningKeys() throws MalformedURLException {
+        try {
+            jwkSource().get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+        } catch (KeySourceException e) {
+            log.warn("Could not prefetch signing keys from {}: {}", jwkSetUri, e.getMessage());
+        }
+    }
+}
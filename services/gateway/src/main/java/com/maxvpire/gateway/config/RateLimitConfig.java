@@ -0,0 +1,17 @@
+package com.maxvpire.gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    // Bucket per subject and route; a client may burst to the capacity, then gets the replenish rate per second
+    @Bean
+    public RedisRateLimiter redisRateLimiter(@Value("${gateway.rate-limit.replenish-rate:20}") int replenishRate,
+                                             @Value("${gateway.rate-limit.burst-capacity:40}") int burstCapacity) {
+        return new RedisRateLimiter(replenishRate, burstCapacity);
+    }
+}
@@ -0,0 +1,26 @@
+package com.maxvpire.gateway.config;
+
+import io.lettuce.core.ReadFrom;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The gateway keeps Boot's reactive Redis auto-configuration: host, timeouts and sentinel or cluster
+ * nodes come from {@code spring.data.redis.*}, and every command shares one multiplexed connection,
+ * so a pool would not help. This only adds the replica read preference the properties lack.
+ */
+@Configuration
+public class RedisClientConfig {
+
+    // Empty reads from the primary; replicaPreferred, replica, nearest or any spread reads over replicas
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer redisReadFromCustomizer(@Value("${redis.client.read-from:}") String readFrom) {
+        return builder -> {
+            if (!readFrom.isBlank()) {
+                builder.readFrom(ReadFrom.valueOf(readFrom));
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency and health of one service instance as seen from this gateway. Latency is a peak EWMA:
+ * a slower call raises the cost at once, faster calls only pull it down over {@code decayNanos}, and
+ * so does time without calls, so an instance that was slow gets probed again eventually.
+ */
+public class InstanceStats {
+    // Load of an instance that has calls pending but no latency yet, so new instances are not flooded
+    private static final double PENALTY = 1e12;
+    // Successful calls after which an instance's ejection history is forgotten
+    private static final int RECOVERY_SAMPLES = 20;
+
+    private final double decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double cost;
+    private long updatedAt;
+    private long samples;
+    private int consecutiveFailures;
+    private int ejections;
+    private int successesSinceEjection;
+    private long ejectedUntil;
+
+    public InstanceStats(long decayNanos, long now) {
+        this.decayNanos = decayNanos;
+        this.updatedAt = now;
+    }
+
+    public void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Ends a call with its round trip. Failed calls only count towards ejection, so an instance that
+     * fails fast doesn't look fast.
+     */
+    public synchronized void complete(long rttNanos, boolean failed, long now) {
+        inFlight.decrementAndGet();
+        if (failed) {
+            consecutiveFailures++;
+            return;
+        }
+        consecutiveFailures = 0;
+        if (++successesSinceEjection >= RECOVERY_SAMPLES) {
+            ejections = 0;
+        }
+        observe(rttNanos, now);
+        samples++;
+    }
+
+    /**
+     * Ends a call that was abandoned before it answered, without a sample.
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Expected wait for one more call: the latency estimate times the calls that would share it.
+     */
+    public synchronized double load(long now) {
+        double current = observe(0, now);
+        int pending = inFlight.get();
+        if (current == 0 && pending > 0) {
+            return PENALTY + pending;
+        }
+        return current * (pending + 1);
+    }
+
+    public synchronized double cost(long now) {
+        return observe(0, now);
+    }
+
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized boolean isEjected(long now) {
+        return now < ejectedUntil;
+    }
+
+    /**
+     * Takes the instance out of rotation, for longer each time it is ejected again soon after.
+     */
+    public synchronized void eject(long now, long baseNanos, long maxNanos) {
+        ejections++;
+        successesSinceEjection = 0;
+        consecutiveFailures = 0;
+        ejectedUntil = now + Math.min(maxNanos, baseNanos * ejections);
+        // Comes back with a clean slate rather than the latency that got it ejected
+        cost = 0;
+        samples = 0;
+    }
+
+    private double observe(double rttNanos, long now) {
+        long elapsed = Math.max(0, now - updatedAt);
+        updatedAt = now;
+        if (rttNanos > cost) {
+            cost = rttNanos;
+        } else {
+            double weight = Math.exp(-elapsed / decayNanos);
+            cost = cost * weight + rttNanos * (1 - weight);
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,51 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records the round trip and outcome of every call to the instance the load balancer picked, up to
+ * the response headers. Calls the client abandoned only free their in-flight slot.
+ */
+@Component
+@RequiredArgsConstructor
+public class InstanceStatsFilter implements GlobalFilter, Ordered {
+    private final InstanceStatsRegistry registry;
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        String key = PeakEwmaLoadBalancer.key(chosen.getServer());
+        registry.start(key);
+        long started = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                registry.cancel(key);
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            registry.complete(key, System.nanoTime() - started, failed);
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks instances by {@link InstanceStats#load}, the peak-EWMA latency times the calls in flight,
+ * out of two random candidates, which keeps the choice cheap and avoids every gateway thread piling
+ * onto the same "best" instance. Instances with repeated failures, or latency far above the median
+ * of their service, are ejected for a while; never more than a set share of a service at once.
+ */
+@Component
+public class InstanceStatsRegistry {
+    private final long decayNanos;
+    private final int consecutiveFailures;
+    private final double latencyFactor;
+    private final long minSamples;
+    private final long ejectionNanos;
+    private final long maxEjectionNanos;
+    private final double maxEjectionRatio;
+    private final LongSupplier clock;
+    private final Random random;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InstanceStatsRegistry(@Value("${gateway.load-balancer.decay-ms:10000}") long decayMs,
+                                 @Value("${gateway.load-balancer.consecutive-failures:5}") int consecutiveFailures,
+                                 @Value("${gateway.load-balancer.latency-factor:3.0}") double latencyFactor,
+                                 @Value("${gateway.load-balancer.min-samples:20}") long minSamples,
+                                 @Value("${gateway.load-balancer.ejection-ms:30000}") long ejectionMs,
+                                 @Value("${gateway.load-balancer.max-ejection-ms:300000}") long maxEjectionMs,
+                                 @Value("${gateway.load-balancer.max-ejection-percent:50}") int maxEjectionPercent) {
+        this(decayMs, consecutiveFailures, latencyFactor, minSamples, ejectionMs, maxEjectionMs, maxEjectionPercent,
+                System::nanoTime, new Random());
+    }
+
+    InstanceStatsRegistry(long decayMs, int consecutiveFailures, double latencyFactor, long minSamples,
+                          long ejectionMs, long maxEjectionMs, int maxEjectionPercent,
+                          LongSupplier clock, Random random) {
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMs);
+        this.consecutiveFailures = consecutiveFailures;
+        this.latencyFactor = latencyFactor;
+        this.minSamples = minSamples;
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMs);
+        this.maxEjectionNanos = TimeUnit.MILLISECONDS.toNanos(maxEjectionMs);
+        this.maxEjectionRatio = maxEjectionPercent / 100.0;
+        this.clock = clock;
+        this.random = random;
+    }
+
+    public InstanceStats stats(String key) {
+        return stats.computeIfAbsent(key, k -> new InstanceStats(decayNanos, clock.getAsLong()));
+    }
+
+    public void start(String key) {
+        stats(key).start();
+    }
+
+    public void complete(String key, long rttNanos, boolean failed) {
+        stats(key).complete(rttNanos, failed, clock.getAsLong());
+    }
+
+    public void cancel(String key) {
+        stats(key).cancel();
+    }
+
+    /**
+     * The instance to send the next call to, or null when there is none.
+     */
+    public <T> T choose(List<T> instances, Function<T, String> key) {
+        if (instances.isEmpty()) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        List<T> candidates = available(instances, key, now);
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        T a = candidates.get(first);
+        T b = candidates.get(second);
+        return stats(key.apply(a)).load(now) <= stats(key.apply(b)).load(now) ? a : b;
+    }
+
+    private <T> List<T> available(List<T> instances, Function<T, String> key, long now) {
+        ejectOutliers(instances, key, now);
+        List<T> available = new ArrayList<>(instances.size());
+        for (T instance : instances) {
+            if (!stats(key.apply(instance)).isEjected(now)) {
+                available.add(instance);
+            }
+        }
+        // Beyond the cap, ejecting would only pile the load onto the rest
+        return available.size() < instances.size() * (1 - maxEjectionRatio) ? instances : available;
+    }
+
+    private <T> void ejectOutliers(List<T> instances, Function<T, String> key, long now) {
+        double[] costs = new double[instances.size()];
+        int measured = 0;
+        for (T instance : instances) {
+            InstanceStats instanceStats = stats(key.apply(instance));
+            if (instanceStats.isEjected(now)) {
+                continue;
+            }
+            if (instanceStats.getConsecutiveFailures() >= consecutiveFailures) {
+                eject(instances, key, instanceStats, now);
+            } else if (instanceStats.getSamples() >= minSamples) {
+                costs[measured++] = instanceStats.cost(now);
+            }
+        }
+        // A median needs a few instances to say which of them is the odd one out
+        if (measured < 3) {
+            return;
+        }
+        Arrays.sort(costs, 0, measured);
+        double median = costs[measured / 2];
+        for (T instance : instances) {
+            InstanceStats instanceStats = stats(key.apply(instance));
+            if (!instanceStats.isEjected(now) && instanceStats.getSamples() >= minSamples
+                    && instanceStats.cost(now) > latencyFactor * median) {
+                eject(instances, key, instanceStats, now);
+            }
+        }
+    }
+
+    private <T> void eject(List<T> instances, Function<T, String> key, InstanceStats instanceStats, long now) {
+        long ejected = instances.stream().filter(instance -> stats(key.apply(instance)).isEjected(now)).count();
+        if (ejected + 1 <= instances.size() * maxEjectionRatio) {
+            instanceStats.eject(now, ejectionNanos, maxEjectionNanos);
+        }
+    }
+}
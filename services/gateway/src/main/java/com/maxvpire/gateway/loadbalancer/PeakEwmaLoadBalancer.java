@@ -0,0 +1,42 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Cloud LoadBalancer side of {@link InstanceStatsRegistry}: picks one of a service's
+ * instances from Eureka by latency and load instead of round robin. The latencies it goes by are
+ * recorded by {@link InstanceStatsFilter}.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> instanceSuppliers;
+    private final InstanceStatsRegistry registry;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> instanceSuppliers,
+                                InstanceStatsRegistry registry) {
+        this.instanceSuppliers = instanceSuppliers;
+        this.registry = registry;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = instanceSuppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            ServiceInstance chosen = registry.choose(instances, PeakEwmaLoadBalancer::key);
+            return chosen == null ? new EmptyResponse() : new DefaultResponse(chosen);
+        });
+    }
+
+    public static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
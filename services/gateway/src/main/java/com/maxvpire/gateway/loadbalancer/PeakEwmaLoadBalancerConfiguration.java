@@ -0,0 +1,22 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer configuration for every service, applied through {@code @LoadBalancerClients} in
+ * its own child context. Deliberately not a {@code @Configuration}, so component scanning doesn't
+ * register it in the gateway's main context as well.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment,
+                                                     LoadBalancerClientFactory clientFactory,
+                                                     InstanceStatsRegistry registry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), registry);
+    }
+}
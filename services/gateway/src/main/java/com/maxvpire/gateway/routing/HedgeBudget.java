@@ -0,0 +1,32 @@
+package com.maxvpire.gateway.routing;
+
+/**
+ * Keeps hedged calls to a share of all calls, like a retry budget: every call earns {@code ratio}
+ * of a token and every hedge spends a whole one. At most {@code maxTokens} can be saved up, so a
+ * quiet period can't pay for a burst of hedges when the downstream service slows down as a whole.
+ */
+public class HedgeBudget {
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public HedgeBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+    }
+
+    public synchronized void recordRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Spends a token for one hedge, or returns false when the budget is used up.
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,225 @@
+package com.maxvpire.gateway.routing;
+
+import com.maxvpire.gateway.loadbalancer.InstanceStatsRegistry;
+import com.maxvpire.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedges slow GETs on load-balanced routes: when the instance the load balancer picked has not
+ * answered within the route's p95 latency, the same request goes to another instance from Eureka
+ * and whichever answers first is used, the other call is cancelled. The p95 comes from the
+ * {@code gateway.downstream.latency} timer, and a {@link HedgeBudget} per route caps the extra load.
+ * The second instance is the best one {@link InstanceStatsRegistry} knows besides the first.
+ */
+@Component
+public class HedgedRoutingFilter implements GlobalFilter, Ordered {
+    private static final double PERCENTILE = 0.95;
+    // Reading a percentile snapshot allocates, so the delay is only recomputed this often
+    private static final long THRESHOLD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final InstanceStatsRegistry instanceStats;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final WebClient webClient;
+    private final boolean enabled;
+    private final List<String> paths;
+    private final List<String> excludedPaths;
+    private final double budgetRatio;
+    private final int budgetBurst;
+    private final long minSamples;
+    private final Duration minDelay;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, HedgeBudget> budgets = new ConcurrentHashMap<>();
+    private final Map<String, Threshold> thresholds = new ConcurrentHashMap<>();
+
+    public HedgedRoutingFilter(MeterRegistry meterRegistry,
+                               ReactiveDiscoveryClient discoveryClient,
+                               InstanceStatsRegistry instanceStats,
+                               ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                               HttpClient httpClient,
+                               @Value("${gateway.hedging.enabled:true}") boolean enabled,
+                               @Value("${gateway.hedging.paths:/calendars/**,/events/**,/tasks/**}") List<String> paths,
+                               @Value("${gateway.hedging.excluded-paths:/calendars/imports/**,/calendars/*/export.ics}") List<String> excludedPaths,
+                               @Value("${gateway.hedging.budget-ratio:0.05}") double budgetRatio,
+                               @Value("${gateway.hedging.budget-burst:10}") int budgetBurst,
+                               @Value("${gateway.hedging.min-samples:100}") long minSamples,
+                               @Value("${gateway.hedging.min-delay-ms:10}") long minDelayMs) {
+        this.meterRegistry = meterRegistry;
+        this.discoveryClient = discoveryClient;
+        this.instanceStats = instanceStats;
+        this.headersFilters = headersFilters;
+        // Same connection pool and timeouts as the gateway's own proxied calls
+        this.webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        this.enabled = enabled;
+        this.paths = paths;
+        this.excludedPaths = excludedPaths;
+        this.budgetRatio = budgetRatio;
+        this.budgetBurst = budgetBurst;
+        this.minSamples = minSamples;
+        this.minDelay = Duration.ofMillis(minDelayMs);
+    }
+
+    @Override
+    public int getOrder() {
+        // Once the load balancer has picked an instance, in place of the Netty routing filter
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (!enabled || route == null || url == null || !"lb".equals(route.getUri().getScheme())
+                || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                || exchange.getRequest().getMethod() != HttpMethod.GET
+                || !isHedged(exchange.getRequest().getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        HedgeBudget budget = budgets.computeIfAbsent(route.getId(), id -> new HedgeBudget(budgetRatio, budgetBurst));
+        budget.recordRequest();
+        Duration delay = hedgeDelay(route.getId());
+        if (delay == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+        Mono<ResponseEntity<Flux<DataBuffer>>> primary = send(url, headers);
+        Mono<ResponseEntity<Flux<DataBuffer>>> hedge = Mono.delay(delay)
+                .then(otherInstance(route.getUri().getHost(), url))
+                .filter(instance -> budget.tryAcquire())
+                .flatMap(instance -> {
+                    meterRegistry.counter("gateway.hedging.sent", "route", route.getId()).increment();
+                    return timed(instance, send(withInstance(url, instance), headers));
+                })
+                .doOnNext(response -> meterRegistry.counter("gateway.hedging.won", "route", route.getId()).increment())
+                // A hedge that fails or can't be sent leaves the primary call to answer
+                .onErrorResume(e -> Mono.empty())
+                .switchIfEmpty(Mono.never());
+
+        return Mono.firstWithSignal(primary, hedge).flatMap(downstream -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(downstream.getStatusCode());
+            response.getHeaders().putAll(HttpHeadersFilter.filter(headersFilters.getIfAvailable(),
+                    downstream.getHeaders(), exchange, HttpHeadersFilter.Type.RESPONSE));
+            return response.writeWith(downstream.getBody());
+        });
+    }
+
+    /**
+     * How long to wait for the primary call before hedging, or null while the route has too few
+     * samples for a meaningful p95.
+     */
+    Duration hedgeDelay(String routeId) {
+        long now = System.nanoTime();
+        Threshold threshold = thresholds.get(routeId);
+        if (threshold == null || now - threshold.computedAt() > THRESHOLD_REFRESH_NANOS) {
+            threshold = new Threshold(now, percentileDelay(routeId));
+            thresholds.put(routeId, threshold);
+        }
+        return threshold.delay();
+    }
+
+    private Duration percentileDelay(String routeId) {
+        Timer latency = meterRegistry.find("gateway.downstream.latency").tag("route", routeId).timer();
+        if (latency == null || latency.count() < minSamples) {
+            return null;
+        }
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == PERCENTILE) {
+                Duration p95 = Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+                return p95.compareTo(minDelay) < 0 ? minDelay : p95;
+            }
+        }
+        return null;
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> send(URI url, HttpHeaders headers) {
+        return webClient.get()
+                .uri(url)
+                .headers(request -> request.addAll(headers))
+                .retrieve()
+                // Error statuses are passed on to the client like any other response
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class);
+    }
+
+    private Mono<ServiceInstance> otherInstance(String serviceId, URI primary) {
+        return discoveryClient.getInstances(serviceId)
+                .filter(instance -> !instance.getHost().equals(primary.getHost()) || instance.getPort() != primary.getPort())
+                .collectList()
+                .flatMap(others -> Mono.justOrEmpty(instanceStats.choose(others, PeakEwmaLoadBalancer::key)));
+    }
+
+    // The hedge bypasses the load balancer, so its round trip is recorded here
+    private Mono<ResponseEntity<Flux<DataBuffer>>> timed(ServiceInstance instance,
+                                                         Mono<ResponseEntity<Flux<DataBuffer>>> call) {
+        String key = PeakEwmaLoadBalancer.key(instance);
+        return Mono.defer(() -> {
+            instanceStats.start(key);
+            long started = System.nanoTime();
+            return call.doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    instanceStats.cancel(key);
+                } else {
+                    instanceStats.complete(key, System.nanoTime() - started, signal == SignalType.ON_ERROR);
+                }
+            });
+        });
+    }
+
+    private static URI withInstance(URI url, ServiceInstance instance) {
+        return UriComponentsBuilder.fromUri(url)
+                .scheme(instance.isSecure() ? "https" : "http")
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    private boolean isHedged(String path) {
+        return paths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))
+                && excludedPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private record Threshold(long computedAt, Duration delay) {
+    }
+}
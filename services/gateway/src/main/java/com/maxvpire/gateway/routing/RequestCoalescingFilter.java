@@ -0,0 +1,176 @@
+package com.maxvpire.gateway.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses identical GETs that are in flight at the same time into one downstream call. The first
+ * request goes through and its response is handed to every identical request that arrived while it
+ * was running. Identical means same route, path, query, {@code Accept}, {@code If-None-Match} and
+ * JWT subject, so a response is never shared between users. Followers fall back to their own call
+ * when the leader fails, is cancelled or returns a body too large to share.
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+    static final String COALESCED_HEADER = "X-Coalesced";
+
+    // Describe the leader's exchange rather than the shared response
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.DATE.toLowerCase());
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<String> paths;
+    private final int maxBodyBytes;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry,
+                                   @Value("${gateway.coalescing.enabled:true}") boolean enabled,
+                                   @Value("${gateway.coalescing.paths:/events/*,/calendars/id/*,/tasks/*}") List<String> paths,
+                                   @Value("${gateway.coalescing.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.paths = paths;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public int getOrder() {
+        // After the response cache, so only calls that would reach the downstream service are collapsed
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || request.getMethod() != HttpMethod.GET || !isCoalesced(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(subject -> subject.isEmpty()
+                        ? chain.filter(exchange)
+                        : coalesce(exchange, chain, route, key(route, request, subject)));
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private Mono<Void> coalesce(ServerWebExchange exchange, GatewayFilterChain chain, Route route, String key) {
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            meterRegistry.counter("gateway.coalescing.joined", "route", route.getId()).increment();
+            // write() completes empty, so only an empty leader (failed or unshareable) falls back to a call
+            return leader.asMono()
+                    .flatMap(shared -> write(exchange.getResponse(), shared).thenReturn(true))
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(true)))
+                    .then();
+        }
+
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                Map<String, List<String>> headers = sharedHeaders(getHeaders());
+                ByteArrayOutputStream captured = new ByteArrayOutputStream();
+                boolean[] overflow = {false};
+                Flux<? extends DataBuffer> tee = Flux.from(body).doOnNext(buffer -> {
+                    if (overflow[0] || captured.size() + buffer.readableByteCount() > maxBodyBytes) {
+                        overflow[0] = true;
+                        return;
+                    }
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    int position = buffer.readPosition();
+                    buffer.read(bytes);
+                    buffer.readPosition(position);
+                    captured.writeBytes(bytes);
+                });
+
+                return super.writeWith(tee).doOnSuccess(done -> {
+                    if (status != null && !overflow[0]) {
+                        inFlight.remove(key, sink);
+                        sink.tryEmitValue(new SharedResponse(status, headers, captured.toByteArray()));
+                    }
+                });
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    // Nothing shared: the followers make their own calls
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().set(COALESCED_HEADER, "true");
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private boolean isCoalesced(String path) {
+        return paths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static String key(Route route, ServerHttpRequest request, String subject) {
+        Map<String, List<String>> query = new TreeMap<>();
+        request.getQueryParams().forEach((name, values) -> query.put(name, values.stream().sorted().toList()));
+        HttpHeaders headers = request.getHeaders();
+        return route.getId() + "\n" + request.getPath().value() + "\n" + query + "\n" + headers.getAccept()
+                + "\n" + headers.getIfNoneMatch() + "\n" + subject;
+    }
+
+    private static Map<String, List<String>> sharedHeaders(HttpHeaders headers) {
+        Map<String, List<String>> shared = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.forEach((name, values) -> {
+            if (!UNSHARED_HEADERS.contains(name.toLowerCase())) {
+                shared.put(name, List.copyOf(values));
+            }
+        });
+        return shared;
+    }
+
+    private record SharedResponse(HttpStatusCode status, Map<String, List<String>> headers, byte[] body) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.maxvpire.gateway.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Remembers tokens that already passed signature and claim validation, keyed by their SHA-256, until
+ * they expire. Concurrent requests with the same unseen token share one verification; a failed one
+ * is dropped from the cache straight away, so a rejected token is checked again next time.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+    private final ReactiveJwtDecoder delegate;
+    private final AsyncCache<String, Jwt> validated;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maxEntries) {
+        this.delegate = delegate;
+        this.validated = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        Instant expiresAt = jwt.getExpiresAt();
+                        return expiresAt == null ? 0 : Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, jwt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .buildAsync();
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        String key = tokenHash(token);
+        // One caller giving up must not cancel the verification the others are waiting on
+        return Mono.fromFuture(() -> validated.get(key, (k, executor) -> delegate.decode(token).toFuture()), true);
+    }
+
+    public static String tokenHash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.maxvpire.gateway.security;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Passes the claims of the token the gateway just verified on to the services in headers signed
+ * with a secret they share, so they don't have to verify the token signature again. The signature
+ * covers the token's hash and the time of signing. Copies of these headers sent by clients are
+ * always removed, whether or not a secret is configured.
+ */
+@Component
+public class InternalJwtHeaderFilter implements GlobalFilter, Ordered {
+    public static final String CLAIMS_HEADER = "X-Internal-Jwt";
+    public static final String ISSUED_HEADER = "X-Internal-Jwt-Issued";
+    public static final String SIGNATURE_HEADER = "X-Internal-Jwt-Signature";
+
+    private final SecretKeySpec key;
+
+    public InternalJwtHeaderFilter(@Value("${security.internal-jwt.secret:}") String secret) {
+        this.key = secret.isBlank() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerWebExchange stripped = exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(CLAIMS_HEADER);
+                    headers.remove(ISSUED_HEADER);
+                    headers.remove(SIGNATURE_HEADER);
+                }))
+                .build();
+        if (key == null) {
+            return chain.filter(stripped);
+        }
+
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> stripped.mutate()
+                        .request(request -> request.headers(headers ->
+                                sign(((JwtAuthenticationToken) principal).getToken(), headers)))
+                        .build())
+                .defaultIfEmpty(stripped)
+                .flatMap(chain::filter);
+    }
+
+    void sign(Jwt jwt, HttpHeaders headers) {
+        Map<String, Object> forwarded = new LinkedHashMap<>();
+        forwarded.put("header", jwt.getHeaders());
+        forwarded.put("claims", toJson(jwt.getClaims()));
+        String payload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(JSONObjectUtils.toJSONString(forwarded).getBytes(StandardCharsets.UTF_8));
+        String issued = String.valueOf(Instant.now().getEpochSecond());
+        String signed = payload + "." + issued + "." + CachingReactiveJwtDecoder.tokenHash(jwt.getTokenValue());
+
+        headers.set(CLAIMS_HEADER, payload);
+        headers.set(ISSUED_HEADER, issued);
+        headers.set(SIGNATURE_HEADER, Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(signed)));
+    }
+
+    private byte[] hmac(String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Back to the types of the original token: timestamps as epoch seconds, URLs as strings
+    private static Map<String, Object> toJson(Map<String, Object> claims) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        claims.forEach((name, value) -> json.put(name, toJsonValue(value)));
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toJsonValue(Object value) {
+        if (value instanceof Instant instant) {
+            return instant.getEpochSecond();
+        }
+        if (value instanceof URL url) {
+            return url.toString();
+        }
+        if (value instanceof Map<?, ?> map) {
+            return toJson((Map<String, Object>) map);
+        }
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(InternalJwtHeaderFilter::toJsonValue).toList();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.maxvpire.gateway.throttling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows downstream latency, after TCP Vegas. The lowest round trip seen
+ * stands for an idle downstream; how far the current round trip exceeds it estimates how many
+ * requests are queued there. The limit grows while that queue is short and shrinks once it builds
+ * up, so excess load is rejected at the gateway instead of waiting in the service's queue.
+ */
+public class AdaptiveConcurrencyLimiter {
+    // Failures and timeouts mean overload regardless of latency
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long noLoadRttNanos = Long.MAX_VALUE;
+    private int samplesSinceProbe;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    /**
+     * Takes a slot for one downstream call, or returns false when the limit is reached.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives the slot back and adjusts the limit to the call's round trip.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int concurrent = inFlight.getAndDecrement();
+        update(rttNanos, dropped, concurrent);
+    }
+
+    /**
+     * Gives the slot back without a sample, for calls the client abandoned.
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int concurrent) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current * BACKOFF_RATIO);
+            return;
+        }
+
+        // Forget the baseline now and then, in case the downstream got slower for good
+        if (++samplesSinceProbe >= probeInterval) {
+            samplesSinceProbe = 0;
+            noLoadRttNanos = rttNanos;
+        }
+        noLoadRttNanos = Math.min(noLoadRttNanos, Math.max(1, rttNanos));
+
+        double queued = current * (1 - (double) noLoadRttNanos / Math.max(1, rttNanos));
+        double step = Math.max(1, Math.log10(current));
+        if (queued <= 3 * step) {
+            // Only grow when the current limit is actually being used
+            if (concurrent * 2 >= current) {
+                limit = Math.min(maxLimit, current + step);
+            }
+        } else if (queued >= 6 * step) {
+            limit = Math.max(minLimit, current - step);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.maxvpire.gateway.throttling;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load with {@code 503} once a route has as many calls in flight as its
+ * {@link AdaptiveConcurrencyLimiter} allows. Runs after the response cache, so only calls that
+ * actually reach the downstream service take a slot, and times them up to the response headers.
+ */
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${gateway.concurrency.enabled:true}") boolean enabled,
+                                  @Value("${gateway.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${gateway.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${gateway.concurrency.max-limit:500}") int maxLimit,
+                                  @Value("${gateway.concurrency.probe-interval:1000}") int probeInterval) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    @Override
+    public int getOrder() {
+        // Inside the response write, so the timing covers the downstream call only
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null) {
+            return chain.filter(exchange);
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getId(), this::newLimiter);
+        if (!limiter.tryAcquire()) {
+            meterRegistry.counter("gateway.concurrency.rejected", "route", route.getId()).increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+
+        // The p95 also sets how long HedgedRoutingFilter waits before hedging
+        Timer latency = Timer.builder("gateway.downstream.latency")
+                .tag("route", route.getId())
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+        long started = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                limiter.cancel();
+                return;
+            }
+            long rtt = System.nanoTime() - started;
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean dropped = signal == SignalType.ON_ERROR || (status != null && isOverloaded(status));
+            limiter.release(rtt, dropped);
+            latency.record(rtt, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    AdaptiveConcurrencyLimiter limiter(String routeId) {
+        return limiters.get(routeId);
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, probeInterval);
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static boolean isOverloaded(HttpStatusCode status) {
+        return status.value() == HttpStatus.BAD_GATEWAY.value()
+                || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status.value() == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+}
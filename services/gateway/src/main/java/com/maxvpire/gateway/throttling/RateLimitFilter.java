@@ -0,0 +1,64 @@
+package com.maxvpire.gateway.throttling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+
+/**
+ * Token bucket per JWT subject and route, kept in Redis so every gateway instance draws from the
+ * same bucket. Runs before the response cache, so a client's cached reads count as well.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter implements GlobalFilter, Ordered {
+    private final RedisRateLimiter redisRateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public int getOrder() {
+        return -100;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null) {
+            return chain.filter(exchange);
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(subject -> subject.isEmpty()
+                        ? chain.filter(exchange)
+                        : redisRateLimiter.isAllowed(route.getId(), route.getId() + ":" + subject)
+                        .flatMap(response -> {
+                            ServerHttpResponse httpResponse = exchange.getResponse();
+                            response.getHeaders().forEach(httpResponse.getHeaders()::add);
+                            if (response.isAllowed()) {
+                                return chain.filter(exchange);
+                            }
+                            meterRegistry.counter("gateway.ratelimit.rejected", "route", route.getId()).increment();
+                            httpResponse.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                            httpResponse.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                            return httpResponse.setComplete();
+                        }));
+    }
+}
@@ -3,7 +3,8 @@ package com.maxvpire.gateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Normally served by the config server, which is optional and absent here
+@SpringBootTest(properties = "spring.security.oauth2.resourceserver.jwt.issuer-uri=http://localhost:8080/realms/test")
 class GatewayApplicationTests {
 
 	@Test
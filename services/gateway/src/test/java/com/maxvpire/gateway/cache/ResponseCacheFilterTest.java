@@ -0,0 +1,210 @@
+package com.maxvpire.gateway.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.web.server.header.CacheControlServerHttpHeadersWriter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private ResponseCacheStore store;
+    private ResponseCacheFilter filter;
+    private AtomicInteger downstreamCalls;
+    private String cacheControl;
+
+    @BeforeEach
+    void setUp() {
+        store = new ResponseCacheStore(new ObjectMapper(), null, 1024 * 1024, 300, false);
+        filter = new ResponseCacheFilter(store, true, List.of("/calendars/**"), List.of("/calendars/imports/**"), 30, 1024);
+        downstreamCalls = new AtomicInteger();
+        cacheControl = null;
+    }
+
+    @Test
+    void secondRequestIsServedFromCache() {
+        ServerWebExchange first = exchange("/calendars/user/primary/user-1", "alice");
+        filter.filter(first, chain()).block();
+        ServerWebExchange second = exchange("/calendars/user/primary/user-1", "alice");
+        filter.filter(second, chain()).block();
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("{\"call\":1}", body(second));
+        assertNotNull(second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void entriesArePrivateToTheSubject() {
+        filter.filter(exchange("/calendars/id/cal-1", "alice"), chain()).block();
+        ServerWebExchange other = exchange("/calendars/id/cal-1", "bob");
+        filter.filter(other, chain()).block();
+
+        assertEquals(2, downstreamCalls.get());
+        assertEquals("{\"call\":2}", body(other));
+    }
+
+    @Test
+    void noStoreResponsesAreNotCached() {
+        cacheControl = "no-store";
+        filter.filter(exchange("/calendars/id/cal-1", "alice"), chain()).block();
+        filter.filter(exchange("/calendars/id/cal-1", "alice"), chain()).block();
+
+        assertEquals(2, downstreamCalls.get());
+    }
+
+    @Test
+    void excludedPathsAreNotCached() {
+        filter.filter(exchange("/calendars/imports/job-1", "alice"), chain()).block();
+        filter.filter(exchange("/calendars/imports/job-1", "alice"), chain()).block();
+
+        assertEquals(2, downstreamCalls.get());
+    }
+
+    @Test
+    void invalidationDropsEntriesTaggedWithTheId() {
+        filter.filter(exchange("/calendars/id/cal-1", "alice"), chain()).block();
+        filter.filter(exchange("/calendars/id/cal-2", "alice"), chain()).block();
+
+        store.invalidate(List.of("cal-1")).block();
+        ServerWebExchange refetched = exchange("/calendars/id/cal-1", "alice");
+        filter.filter(refetched, chain()).block();
+        ServerWebExchange kept = exchange("/calendars/id/cal-2", "alice");
+        filter.filter(kept, chain()).block();
+
+        assertEquals(3, downstreamCalls.get());
+        assertEquals("MISS", refetched.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", kept.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+    }
+
+    @Test
+    void matchingIfNoneMatchGetsNotModified() {
+        filter.filter(exchange("/calendars/id/cal-1", "alice"), chain()).block();
+        ServerWebExchange cached = exchange("/calendars/id/cal-1", "alice");
+        filter.filter(cached, chain()).block();
+        String etag = cached.getResponse().getHeaders().getETag();
+
+        MockServerHttpRequest conditional = MockServerHttpRequest.get("/calendars/id/cal-1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .build();
+        ServerWebExchange revalidated = MockServerWebExchange.from(conditional).mutate().principal(principal("alice")).build();
+        filter.filter(revalidated, chain()).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+        assertEquals(1, downstreamCalls.get());
+    }
+
+    @Test
+    void tagsAreTheIdsOfPathAndQuery() {
+        assertEquals(Set.of("user", "primary", "user-1"),
+                ResponseCacheFilter.tags(MockServerHttpRequest.get("/calendars/user/primary/user-1").build()));
+        assertEquals(Set.of("calendars", "user-1"),
+                ResponseCacheFilter.tags(MockServerHttpRequest.get("/calendars?userId=user-1").build()));
+    }
+
+    @Test
+    void freshnessFollowsCacheControl() {
+        assertEquals(30_000, ResponseCacheFilter.freshnessMillis(new HttpHeaders(), 30_000));
+        assertEquals(-1, ResponseCacheFilter.freshnessMillis(headers("private, no-store"), 30_000));
+        assertEquals(0, ResponseCacheFilter.freshnessMillis(headers("no-cache"), 30_000));
+        assertEquals(-1, ResponseCacheFilter.freshnessMillis(headers("no-cache, no-store, max-age=0, must-revalidate"), 30_000));
+        assertEquals(60_000, ResponseCacheFilter.freshnessMillis(headers("max-age=60"), 30_000));
+        assertEquals(10_000, ResponseCacheFilter.freshnessMillis(headers("max-age=60, s-maxage=10"), 30_000));
+    }
+
+    @Test
+    void downstreamWithDefaultSecurityHeadersIsNotCached() {
+        GatewayFilterChain securedDownstream = securedDownstream(false);
+        filter.filter(exchange("/calendars/id/cal-1", "alice"), securedDownstream).block();
+        ServerWebExchange second = exchange("/calendars/id/cal-1", "alice");
+        filter.filter(second, securedDownstream).block();
+
+        assertEquals(2, downstreamCalls.get());
+        assertNull(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+    }
+
+    @Test
+    void downstreamWithExplicitCacheHeadersIsCachedDespiteSecurityHeaders() {
+        GatewayFilterChain securedDownstream = securedDownstream(true);
+        filter.filter(exchange("/calendars/id/cal-1", "alice"), securedDownstream).block();
+        ServerWebExchange second = exchange("/calendars/id/cal-1", "alice");
+        filter.filter(second, securedDownstream).block();
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("\"v1\"", second.getResponse().getHeaders().getETag());
+    }
+
+    /**
+     * A downstream service behind Spring Security's default cache headers, optionally setting its
+     * own Cache-Control and ETag first the way calendar-service does for cacheable GETs.
+     */
+    private GatewayFilterChain securedDownstream(boolean explicitCacheHeaders) {
+        CacheControlServerHttpHeadersWriter securityHeaders = new CacheControlServerHttpHeadersWriter();
+        return exchange -> {
+            downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (explicitCacheHeaders) {
+                response.getHeaders().setCacheControl("max-age=0, s-maxage=30");
+                response.getHeaders().setETag("\"v1\"");
+            }
+            byte[] body = "{\"id\":\"cal-1\"}".getBytes(StandardCharsets.UTF_8);
+            return securityHeaders.writeHttpHeaders(exchange)
+                    .then(response.writeWith(Mono.just(response.bufferFactory().wrap(body))));
+        };
+    }
+
+    private GatewayFilterChain chain() {
+        return exchange -> {
+            int call = downstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (cacheControl != null) {
+                exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            }
+            byte[] body = ("{\"call\":" + call + "}").getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        };
+    }
+
+    private static ServerWebExchange exchange(String path, String subject) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).build())
+                .mutate()
+                .principal(principal(subject))
+                .build();
+    }
+
+    private static Mono<Principal> principal(String subject) {
+        return Mono.just(() -> subject);
+    }
+
+    private static HttpHeaders headers(String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        return headers;
+    }
+
+    private static String body(ServerWebExchange exchange) {
+        return ((MockServerHttpResponse) exchange.getResponse()).getBodyAsString().block();
+    }
+}
@@ -0,0 +1,66 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstanceStatsFilterTest {
+
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(10_000, 5, 3.0, 20, 30_000, 300_000, 50);
+    private final InstanceStatsFilter filter = new InstanceStatsFilter(registry);
+
+    @Test
+    void recordsSuccessfulCalls() {
+        filter.filter(exchange(), respondWith(HttpStatus.OK)).block();
+
+        InstanceStats stats = registry.stats("10.0.0.1:8081");
+        assertEquals(1, stats.getSamples());
+        assertEquals(0, stats.getInFlight());
+        assertEquals(0, stats.getConsecutiveFailures());
+    }
+
+    @Test
+    void countsServerErrorsAsFailures() {
+        filter.filter(exchange(), respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block();
+
+        InstanceStats stats = registry.stats("10.0.0.1:8081");
+        assertEquals(0, stats.getSamples());
+        assertEquals(1, stats.getConsecutiveFailures());
+    }
+
+    @Test
+    void abandonedCallsOnlyFreeTheirSlot() {
+        filter.filter(exchange(), exchange -> Mono.never())
+                .timeout(Duration.ofMillis(50), Mono.empty())
+                .block();
+
+        InstanceStats stats = registry.stats("10.0.0.1:8081");
+        assertEquals(0, stats.getInFlight());
+        assertEquals(0, stats.getSamples());
+        assertEquals(0, stats.getConsecutiveFailures());
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/events/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                new DefaultResponse(new DefaultServiceInstance("events-1", "events", "10.0.0.1", 8081, false)));
+        return exchange;
+    }
+
+    private static GatewayFilterChain respondWith(HttpStatus status) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+}
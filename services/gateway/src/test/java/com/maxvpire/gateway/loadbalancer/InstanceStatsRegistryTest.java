@@ -0,0 +1,169 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstanceStatsRegistryTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long[] clock = {0};
+
+    @Test
+    void prefersTheInstanceWithLowerLatency() {
+        InstanceStatsRegistry registry = registry();
+        record(registry, "fast", 10 * MS, 1);
+        record(registry, "slow", 100 * MS, 1);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("fast", registry.choose(List.of("fast", "slow"), Function.identity()));
+        }
+    }
+
+    @Test
+    void prefersTheInstanceWithFewerCallsInFlight() {
+        InstanceStatsRegistry registry = registry();
+        record(registry, "a", 10 * MS, 1);
+        record(registry, "b", 10 * MS, 1);
+        registry.start("a");
+        registry.start("a");
+
+        assertEquals("b", registry.choose(List.of("a", "b"), Function.identity()));
+    }
+
+    @Test
+    void ejectsInstancesThatKeepFailing() {
+        InstanceStatsRegistry registry = registry();
+        List<String> instances = List.of("a", "b", "c", "d");
+        for (int i = 0; i < 5; i++) {
+            registry.start("d");
+            registry.complete("d", MS, true);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertNotEquals("d", registry.choose(instances, Function.identity()));
+        }
+        assertTrue(registry.stats("d").isEjected(clock[0]));
+
+        clock[0] += 30_000 * MS;
+        assertFalse(registry.stats("d").isEjected(clock[0]));
+    }
+
+    @Test
+    void ejectsLatencyOutliers() {
+        InstanceStatsRegistry registry = registry();
+        record(registry, "a", 10 * MS, 20);
+        record(registry, "b", 12 * MS, 20);
+        record(registry, "c", 11 * MS, 20);
+        record(registry, "d", 80 * MS, 20);
+
+        registry.choose(List.of("a", "b", "c", "d"), Function.identity());
+
+        assertTrue(registry.stats("d").isEjected(clock[0]));
+        assertFalse(registry.stats("a").isEjected(clock[0]));
+    }
+
+    @Test
+    void neverEjectsMoreThanTheCap() {
+        InstanceStatsRegistry registry = registry();
+        for (String instance : List.of("a", "b")) {
+            for (int i = 0; i < 5; i++) {
+                registry.start(instance);
+                registry.complete(instance, MS, true);
+            }
+        }
+
+        registry.choose(List.of("a", "b"), Function.identity());
+
+        assertNotEquals(registry.stats("a").isEjected(clock[0]), registry.stats("b").isEjected(clock[0]));
+    }
+
+    /**
+     * Simulated load on four local instances, one of them twenty times slower than the others,
+     * offered 1000 requests per second for ten seconds. Round robin keeps sending the slow instance
+     * a quarter of the traffic, five times what it can serve, so its queue and the tail latency
+     * grow for the whole run; the latency-aware balancer sends it almost nothing.
+     */
+    @Test
+    void slowInstanceDoesNotDragDownTheTail() {
+        SimulationResult roundRobin = simulate(null);
+        SimulationResult peakEwma = simulate(registry());
+
+        assertTrue(roundRobin.p99Millis() > 1000, "round robin p99 was " + roundRobin.p99Millis());
+        assertTrue(peakEwma.p99Millis() <= 50, "peak EWMA p99 was " + peakEwma.p99Millis());
+        assertTrue(peakEwma.slowShare() < 0.01, "slow instance share was " + peakEwma.slowShare());
+    }
+
+    private InstanceStatsRegistry registry() {
+        return new InstanceStatsRegistry(10_000, 5, 3.0, 20, 30_000, 300_000, 50, () -> clock[0], new Random(42));
+    }
+
+    private void record(InstanceStatsRegistry registry, String instance, long rttNanos, int times) {
+        for (int i = 0; i < times; i++) {
+            registry.start(instance);
+            registry.complete(instance, rttNanos, false);
+        }
+    }
+
+    private record SimulationResult(long p99Millis, double slowShare) {
+    }
+
+    // Discrete-event simulation in 1 ms ticks; each instance serves FIFO on 10 workers
+    private SimulationResult simulate(InstanceStatsRegistry registry) {
+        clock[0] = 0;
+        List<String> instances = List.of("fast-1", "fast-2", "fast-3", "slow");
+        Map<String, Long> serviceMillis = Map.of("fast-1", 10L, "fast-2", 10L, "fast-3", 10L, "slow", 200L);
+        Map<String, long[]> workerFreeAt = new HashMap<>();
+        instances.forEach(instance -> workerFreeAt.put(instance, new long[10]));
+        // {finished at, latency, instance index}
+        PriorityQueue<long[]> finishing = new PriorityQueue<>(Comparator.comparingLong((long[] call) -> call[0]));
+        List<Long> latencies = new ArrayList<>();
+        int slowCalls = 0;
+
+        for (long now = 0; now < 10_000; now++) {
+            clock[0] = now * MS;
+            while (!finishing.isEmpty() && finishing.peek()[0] <= now) {
+                long[] call = finishing.poll();
+                if (registry != null) {
+                    registry.complete(instances.get((int) call[2]), call[1] * MS, false);
+                }
+            }
+
+            String instance = registry == null
+                    ? instances.get((int) (now % instances.size()))
+                    : registry.choose(instances, Function.identity());
+            if (registry != null) {
+                registry.start(instance);
+            }
+            if (instance.equals("slow")) {
+                slowCalls++;
+            }
+            long[] workers = workerFreeAt.get(instance);
+            int worker = 0;
+            for (int i = 1; i < workers.length; i++) {
+                if (workers[i] < workers[worker]) {
+                    worker = i;
+                }
+            }
+            long finishedAt = Math.max(now, workers[worker]) + serviceMillis.get(instance);
+            workers[worker] = finishedAt;
+            latencies.add(finishedAt - now);
+            finishing.add(new long[]{finishedAt, finishedAt - now, instances.indexOf(instance)});
+        }
+
+        Collections.sort(latencies);
+        return new SimulationResult(latencies.get((int) (latencies.size() * 0.99)), (double) slowCalls / latencies.size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstanceStatsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long DECAY = 10_000 * MS;
+
+    @Test
+    void slowCallRaisesTheCostAtOnce() {
+        InstanceStats stats = new InstanceStats(DECAY, 0);
+        record(stats, 10 * MS, 0);
+        record(stats, 200 * MS, MS);
+
+        assertEquals(200 * MS, stats.cost(MS), MS);
+    }
+
+    @Test
+    void fastCallsOnlyPullTheCostDownGradually() {
+        InstanceStats stats = new InstanceStats(DECAY, 0);
+        record(stats, 200 * MS, 0);
+        record(stats, 10 * MS, 100 * MS);
+
+        double cost = stats.cost(100 * MS);
+        assertTrue(cost > 190 * MS && cost < 200 * MS, "cost was " + cost / MS + " ms");
+    }
+
+    @Test
+    void costFadesWithoutCalls() {
+        InstanceStats stats = new InstanceStats(DECAY, 0);
+        record(stats, 200 * MS, 0);
+
+        assertTrue(stats.cost(30_000 * MS) < 20 * MS);
+    }
+
+    @Test
+    void loadGrowsWithCallsInFlight() {
+        InstanceStats stats = new InstanceStats(DECAY, 0);
+        record(stats, 10 * MS, 0);
+        double idle = stats.load(0);
+        stats.start();
+        stats.start();
+
+        assertEquals(3 * idle, stats.load(0), 1);
+    }
+
+    @Test
+    void unmeasuredInstanceWithPendingCallsIsAvoided() {
+        InstanceStats fresh = new InstanceStats(DECAY, 0);
+        InstanceStats measured = new InstanceStats(DECAY, 0);
+        record(measured, 500 * MS, 0);
+        fresh.start();
+
+        assertTrue(fresh.load(0) > measured.load(0));
+    }
+
+    @Test
+    void failuresCountButLeaveTheLatencyAlone() {
+        InstanceStats stats = new InstanceStats(DECAY, 0);
+        record(stats, 100 * MS, 0);
+        stats.start();
+        stats.complete(MS, true, 0);
+
+        assertEquals(1, stats.getConsecutiveFailures());
+        assertEquals(100 * MS, stats.cost(0), 1);
+    }
+
+    @Test
+    void ejectionGrowsWhenRepeated() {
+        InstanceStats stats = new InstanceStats(DECAY, 0);
+        stats.eject(0, 1_000 * MS, 10_000 * MS);
+        assertTrue(stats.isEjected(999 * MS));
+        assertFalse(stats.isEjected(1_000 * MS));
+
+        stats.eject(1_000 * MS, 1_000 * MS, 10_000 * MS);
+        assertTrue(stats.isEjected(2_999 * MS));
+        assertFalse(stats.isEjected(3_000 * MS));
+    }
+
+    private static void record(InstanceStats stats, long rttNanos, long now) {
+        stats.start();
+        stats.complete(rttNanos, false, now);
+    }
+}
@@ -0,0 +1,101 @@
+package com.maxvpire.gateway.loadbalancer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeakEwmaLoadBalancerTest {
+
+    private static final int REQUESTS = 200;
+    private static final int CONCURRENCY = 8;
+    private static final String HOST = "127.0.0.1";
+
+    private final List<DisposableServer> servers = new ArrayList<>();
+    private final HttpClient httpClient = HttpClient.create();
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(10_000, 5, 3.0, 20, 30_000, 300_000, 50);
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(DisposableServer::disposeNow);
+    }
+
+    @Test
+    void slowInstanceGetsLittleTraffic() {
+        AtomicInteger slowCalls = new AtomicInteger();
+        List<ServiceInstance> instances = List.of(
+                instance("fast-1", server(Duration.ofMillis(5), 200, new AtomicInteger())),
+                instance("fast-2", server(Duration.ofMillis(5), 200, new AtomicInteger())),
+                instance("fast-3", server(Duration.ofMillis(5), 200, new AtomicInteger())),
+                instance("slow", server(Duration.ofMillis(200), 200, slowCalls)));
+
+        send(balancer(instances));
+
+        // Round robin would have sent it a quarter, 50 calls of 200 ms each
+        assertTrue(slowCalls.get() <= REQUESTS / 20, "slow instance got " + slowCalls.get() + " calls");
+    }
+
+    @Test
+    void failingInstanceIsEjected() {
+        AtomicInteger failingCalls = new AtomicInteger();
+        List<ServiceInstance> instances = List.of(
+                instance("ok-1", server(Duration.ofMillis(5), 200, new AtomicInteger())),
+                instance("ok-2", server(Duration.ofMillis(5), 200, new AtomicInteger())),
+                instance("ok-3", server(Duration.ofMillis(5), 200, new AtomicInteger())),
+                instance("failing", server(Duration.ZERO, 500, failingCalls)));
+
+        send(balancer(instances));
+
+        // Five failures in a row eject it, plus whatever was already on its way
+        assertTrue(failingCalls.get() <= 5 + CONCURRENCY, "failing instance got " + failingCalls.get() + " calls");
+    }
+
+    private PeakEwmaLoadBalancer balancer(List<ServiceInstance> instances) {
+        return new PeakEwmaLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("events", instances.toArray(ServiceInstance[]::new)), registry);
+    }
+
+    // Calls the instance the balancer picks and records the outcome as InstanceStatsFilter does
+    private void send(PeakEwmaLoadBalancer balancer) {
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> balancer.choose().flatMap(response -> {
+                    ServiceInstance instance = response.getServer();
+                    String key = PeakEwmaLoadBalancer.key(instance);
+                    registry.start(key);
+                    long started = System.nanoTime();
+                    return httpClient.get()
+                            .uri(instance.getUri() + "/events/1")
+                            .responseSingle((res, body) -> body.asString().defaultIfEmpty("").thenReturn(res.status().code()))
+                            .doOnNext(status -> registry.complete(key, System.nanoTime() - started, status >= 500));
+                }), CONCURRENCY)
+                .blockLast(Duration.ofSeconds(30));
+    }
+
+    private DisposableServer server(Duration delay, int status, AtomicInteger calls) {
+        DisposableServer server = HttpServer.create().host(HOST).port(0)
+                .handle((request, response) -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(delay).then(response.status(status).sendString(Mono.just("{}")).then());
+                })
+                .bindNow();
+        servers.add(server);
+        return server;
+    }
+
+    private static ServiceInstance instance(String id, DisposableServer server) {
+        return new DefaultServiceInstance(id, "events", HOST, server.port(), false);
+    }
+}
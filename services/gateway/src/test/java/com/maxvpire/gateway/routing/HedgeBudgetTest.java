@@ -0,0 +1,36 @@
+package com.maxvpire.gateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgeBudgetTest {
+
+    @Test
+    void hedgesAreLimitedToTheirShareOfRequests() {
+        HedgeBudget budget = new HedgeBudget(0.25, 10);
+        int hedges = 0;
+
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+            if (budget.tryAcquire()) {
+                hedges++;
+            }
+        }
+
+        assertEquals(25, hedges);
+    }
+
+    @Test
+    void savedTokensAreCapped() {
+        HedgeBudget budget = new HedgeBudget(0.5, 3);
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+}
@@ -0,0 +1,179 @@
+package com.maxvpire.gateway.routing;
+
+import com.maxvpire.gateway.loadbalancer.InstanceStatsRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HedgedRoutingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DisposableServer slow;
+    private DisposableServer fast;
+    private AtomicInteger slowCalls;
+    private AtomicInteger fastCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        slowCalls = new AtomicInteger();
+        fastCalls = new AtomicInteger();
+        slow = HttpServer.create().port(0)
+                .handle((request, response) -> {
+                    slowCalls.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(1500)).then(response.sendString(Mono.just("slow")).then());
+                })
+                .bindNow();
+        fast = HttpServer.create().port(0)
+                .handle((request, response) -> {
+                    fastCalls.incrementAndGet();
+                    return response.sendString(Mono.just("fast")).then();
+                })
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slow.disposeNow();
+        fast.disposeNow();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedToAnotherInstance() {
+        HedgedRoutingFilter filter = filter(1.0);
+        recordLatencies(20);
+        ServerWebExchange exchange = exchange();
+
+        long started = System.nanoTime();
+        filter.filter(exchange, unrouted()).block(Duration.ofSeconds(5));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals("fast", body(exchange));
+        assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+        assertEquals(1, slowCalls.get());
+        assertEquals(1, fastCalls.get());
+        assertEquals(1.0, meterRegistry.counter("gateway.hedging.won", "route", "events").count());
+        assertTrue(ServerWebExchangeUtils.isAlreadyRouted(exchange));
+    }
+
+    @Test
+    void noHedgeOnceTheBudgetIsSpent() {
+        HedgedRoutingFilter filter = filter(0.0);
+        recordLatencies(20);
+        ServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, unrouted()).block(Duration.ofSeconds(5));
+
+        assertEquals("slow", body(exchange));
+        assertEquals(0, fastCalls.get());
+        assertEquals(0.0, meterRegistry.counter("gateway.hedging.sent", "route", "events").count());
+    }
+
+    @Test
+    void routesWithoutEnoughSamplesAreNotHedged() {
+        HedgedRoutingFilter filter = filter(1.0);
+        AtomicInteger routed = new AtomicInteger();
+
+        filter.filter(exchange(), exchange -> {
+            routed.incrementAndGet();
+            return Mono.empty();
+        }).block();
+
+        assertEquals(1, routed.get());
+        assertNull(filter.hedgeDelay("events"));
+    }
+
+    @Test
+    void hedgeDelayFollowsTheRouteP95() {
+        HedgedRoutingFilter filter = filter(1.0);
+        recordLatencies(40);
+
+        Duration delay = filter.hedgeDelay("events");
+
+        assertNotNull(delay);
+        assertTrue(delay.toMillis() >= 30 && delay.toMillis() <= 50, "p95 was " + delay);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HedgedRoutingFilter filter(double budgetRatio) {
+        ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+        when(headersFilters.getIfAvailable()).thenReturn(List.of());
+        ReactiveDiscoveryClient discoveryClient = new ReactiveDiscoveryClient() {
+            @Override
+            public String description() {
+                return "test";
+            }
+
+            @Override
+            public Flux<ServiceInstance> getInstances(String serviceId) {
+                return Flux.just(
+                        new DefaultServiceInstance("slow", serviceId, "localhost", slow.port(), false),
+                        new DefaultServiceInstance("fast", serviceId, "localhost", fast.port(), false));
+            }
+
+            @Override
+            public Flux<String> getServices() {
+                return Flux.just("calendars-service");
+            }
+        };
+        InstanceStatsRegistry instanceStats = new InstanceStatsRegistry(10_000, 5, 3.0, 20, 30_000, 300_000, 50);
+        return new HedgedRoutingFilter(meterRegistry, discoveryClient, instanceStats, headersFilters, HttpClient.create(), true,
+                List.of("/events/**"), List.of(), budgetRatio, 10, 100, 10);
+    }
+
+    private void recordLatencies(long millis) {
+        Timer timer = Timer.builder("gateway.downstream.latency")
+                .tag("route", "events")
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+        for (int i = 0; i < 200; i++) {
+            timer.record(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private ServerWebExchange exchange() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/events/evt-1").build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("events").uri("lb://calendars-service").predicate(e -> true).build());
+        // The load balancer picked the slow instance
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+                URI.create("http://localhost:" + slow.port() + "/events/evt-1"));
+        return exchange;
+    }
+
+    private static GatewayFilterChain unrouted() {
+        return exchange -> Mono.error(new AssertionError("the hedging filter should have routed the call"));
+    }
+
+    private static String body(ServerWebExchange exchange) {
+        return ((MockServerHttpResponse) exchange.getResponse()).getBodyAsString().block();
+    }
+}
@@ -0,0 +1,120 @@
+package com.maxvpire.gateway.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescingFilter filter;
+    private AtomicInteger downstreamCalls;
+    private Sinks.Empty<Void> release;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestCoalescingFilter(meterRegistry, true, List.of("/events/*"), 1024);
+        downstreamCalls = new AtomicInteger();
+        release = Sinks.empty();
+    }
+
+    @Test
+    void identicalRequestsInFlightShareOneDownstreamCall() {
+        ServerWebExchange leader = exchange("/events/evt-1", "alice");
+        ServerWebExchange follower = exchange("/events/evt-1", "alice");
+        Mono<Void> leading = filter.filter(leader, slowChain()).cache();
+        Mono<Void> following = filter.filter(follower, slowChain()).cache();
+        leading.subscribe();
+        following.subscribe();
+
+        release.tryEmitEmpty();
+        leading.block();
+        following.block();
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals("{\"call\":1}", body(follower));
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("true", follower.getResponse().getHeaders().getFirst(RequestCoalescingFilter.COALESCED_HEADER));
+        assertEquals(1.0, meterRegistry.counter("gateway.coalescing.joined", "route", "events").count());
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void requestsOfDifferentUsersAreNotShared() {
+        ServerWebExchange alice = exchange("/events/evt-1", "alice");
+        ServerWebExchange bob = exchange("/events/evt-1", "bob");
+        Mono<Void> first = filter.filter(alice, slowChain()).cache();
+        Mono<Void> second = filter.filter(bob, slowChain()).cache();
+        first.subscribe();
+        second.subscribe();
+
+        release.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertEquals(2, downstreamCalls.get());
+        assertEquals("{\"call\":2}", body(bob));
+    }
+
+    @Test
+    void followersMakeTheirOwnCallWhenTheLeaderFails() {
+        Sinks.Empty<Void> failure = Sinks.empty();
+        ServerWebExchange leader = exchange("/events/evt-1", "alice");
+        ServerWebExchange follower = exchange("/events/evt-1", "alice");
+        Mono<Void> leading = filter.filter(leader, exchange -> failure.asMono()).cache();
+        Mono<Void> following = filter.filter(follower, slowChain()).cache();
+        leading.subscribe(null, e -> { });
+        following.subscribe();
+
+        failure.tryEmitError(new IllegalStateException("connection reset"));
+        release.tryEmitEmpty();
+        following.block();
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals("{\"call\":1}", body(follower));
+        assertEquals(0, filter.inFlight());
+    }
+
+    private GatewayFilterChain slowChain() {
+        return exchange -> release.asMono().then(Mono.defer(() -> {
+            int call = downstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] body = ("{\"call\":" + call + "}").getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        }));
+    }
+
+    private static ServerWebExchange exchange(String path, String subject) {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build())
+                .mutate()
+                .principal(Mono.just((Principal) () -> subject))
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("events").uri("lb://calendars-service").predicate(e -> true).build());
+        return exchange;
+    }
+
+    private static String body(ServerWebExchange exchange) {
+        return ((MockServerHttpResponse) exchange.getResponse()).getBodyAsString().block();
+    }
+}
@@ -0,0 +1,76 @@
+package com.maxvpire.gateway.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingReactiveJwtDecoderTest {
+
+    @Test
+    void validatedTokenIsOnlyVerifiedOnce() {
+        AtomicInteger verifications = new AtomicInteger();
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            return Mono.just(jwt(token, Instant.now().plusSeconds(300)));
+        }, 100);
+
+        assertEquals("user-1", decoder.decode("token-1").block().getSubject());
+        assertEquals("user-1", decoder.decode("token-1").block().getSubject());
+        decoder.decode("token-2").block();
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void concurrentRequestsShareOneVerification() {
+        AtomicInteger verifications = new AtomicInteger();
+        Sinks.One<Jwt> pending = Sinks.one();
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            return pending.asMono();
+        }, 100);
+
+        Mono<Jwt> first = decoder.decode("token-1").cache();
+        Mono<Jwt> second = decoder.decode("token-1").cache();
+        first.subscribe();
+        second.subscribe();
+        pending.tryEmitValue(jwt("token-1", Instant.now().plusSeconds(300)));
+
+        assertSame(first.block(), second.block());
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void expiredOrRejectedTokensAreVerifiedAgain() {
+        AtomicInteger verifications = new AtomicInteger();
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(token -> {
+            verifications.incrementAndGet();
+            return token.equals("bad")
+                    ? Mono.error(new BadJwtException("invalid signature"))
+                    : Mono.just(jwt(token, Instant.now().minusSeconds(1)));
+        }, 100);
+
+        decoder.decode("expired").block();
+        decoder.decode("expired").block();
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad").block());
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad").block());
+
+        assertEquals(4, verifications.get());
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user-1")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.maxvpire.gateway.security;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternalJwtHeaderFilterTest {
+
+    @Test
+    void headersSentByClientsAreRemoved() {
+        InternalJwtHeaderFilter filter = new InternalJwtHeaderFilter("");
+        MockServerHttpRequest request = MockServerHttpRequest.get("/calendars/id/cal-1")
+                .header(InternalJwtHeaderFilter.CLAIMS_HEADER, "forged")
+                .header(InternalJwtHeaderFilter.SIGNATURE_HEADER, "forged")
+                .build();
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+
+        filter.filter(exchange(request, jwt()), capture(forwarded)).block();
+
+        assertNull(forwarded.get().getFirst(InternalJwtHeaderFilter.CLAIMS_HEADER));
+        assertNull(forwarded.get().getFirst(InternalJwtHeaderFilter.SIGNATURE_HEADER));
+    }
+
+    @Test
+    void verifiedClaimsAreSignedForTheServices() throws Exception {
+        InternalJwtHeaderFilter filter = new InternalJwtHeaderFilter("internal-secret");
+        MockServerHttpRequest request = MockServerHttpRequest.get("/calendars/id/cal-1")
+                .header(InternalJwtHeaderFilter.CLAIMS_HEADER, "forged")
+                .build();
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+        Jwt jwt = jwt();
+
+        filter.filter(exchange(request, jwt), capture(forwarded)).block();
+
+        HttpHeaders headers = forwarded.get();
+        String payload = headers.getFirst(InternalJwtHeaderFilter.CLAIMS_HEADER);
+        String issued = headers.getFirst(InternalJwtHeaderFilter.ISSUED_HEADER);
+        String signed = payload + "." + issued + "." + CachingReactiveJwtDecoder.tokenHash(jwt.getTokenValue());
+        assertEquals(hmac("internal-secret", signed), headers.getFirst(InternalJwtHeaderFilter.SIGNATURE_HEADER));
+
+        Map<String, Object> claims = JSONObjectUtils.getJSONObject(JSONObjectUtils.parse(
+                new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8)), "claims");
+        assertEquals("user-1", claims.get("sub"));
+        assertEquals(jwt.getExpiresAt().getEpochSecond(), ((Number) claims.get("exp")).longValue());
+        assertEquals(List.of("user"), ((Map<?, ?>) claims.get("realm_access")).get("roles"));
+    }
+
+    @Test
+    void anonymousRequestsAreNotSigned() {
+        InternalJwtHeaderFilter filter = new InternalJwtHeaderFilter("internal-secret");
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health").build()),
+                capture(forwarded)).block();
+
+        assertNull(forwarded.get().getFirst(InternalJwtHeaderFilter.SIGNATURE_HEADER));
+    }
+
+    private static GatewayFilterChain capture(AtomicReference<HttpHeaders> forwarded) {
+        return exchange -> {
+            forwarded.set(exchange.getRequest().getHeaders());
+            return Mono.empty();
+        };
+    }
+
+    private static ServerWebExchange exchange(MockServerHttpRequest request, Jwt jwt) {
+        return MockServerWebExchange.from(request)
+                .mutate()
+                .principal(Mono.just(new JwtAuthenticationToken(jwt)))
+                .build();
+    }
+
+    private static Jwt jwt() {
+        Instant now = Instant.now();
+        return Jwt.withTokenValue("token-1")
+                .header("alg", "RS256")
+                .subject("user-1")
+                .issuer("http://localhost:8080/realms/flux")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .claim("realm_access", Map.of("roles", List.of("user")))
+                .build();
+    }
+
+    private static String hmac(String secret, String value) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
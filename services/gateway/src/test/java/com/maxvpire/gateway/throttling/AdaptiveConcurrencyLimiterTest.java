@@ -0,0 +1,131 @@
+package com.maxvpire.gateway.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void rejectsCallsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1000);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.cancel();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlat() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 100, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            fillAndRelease(limiter, 10 * MS);
+        }
+
+        assertTrue(limiter.getLimit() > 4);
+    }
+
+    @Test
+    void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 1000);
+        fillAndRelease(limiter, 10 * MS);
+
+        for (int i = 0; i < 20; i++) {
+            fillAndRelease(limiter, 40 * MS);
+        }
+
+        assertTrue(limiter.getLimit() < 50);
+    }
+
+    @Test
+    void backsOffOnFailures() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 1000);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(10 * MS, true);
+
+        assertEquals(18, limiter.getLimit());
+    }
+
+    /**
+     * Load test against a simulated service with 10 workers and 10 ms per request, offered twice the
+     * load it can serve for five seconds. Without shedding its queue, and so every admitted request's
+     * latency, grows for as long as the overload lasts; with the limiter the tail stays within a few
+     * service times while throughput stays at capacity.
+     */
+    @Test
+    void overloadKeepsTailLatencyOfAdmittedRequestsBounded() {
+        SimulationResult unprotected = simulate(null);
+        SimulationResult protectedRun = simulate(new AdaptiveConcurrencyLimiter(20, 4, 500, 1000));
+
+        assertTrue(unprotected.p99Millis() > 1000, "unprotected p99 was " + unprotected.p99Millis());
+        assertTrue(protectedRun.p99Millis() <= 50, "protected p99 was " + protectedRun.p99Millis());
+        assertTrue(protectedRun.completed() >= 4500, "protected throughput was " + protectedRun.completed());
+        assertTrue(protectedRun.rejected() > 0);
+    }
+
+    private static void fillAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+
+    private record SimulationResult(long p99Millis, int completed, int rejected) {
+    }
+
+    // Discrete-event simulation in 1 ms ticks: two arrivals per tick, FIFO onto the first free worker
+    private static SimulationResult simulate(AdaptiveConcurrencyLimiter limiter) {
+        int workers = 10;
+        long serviceMillis = 10;
+        long[] workerFreeAt = new long[workers];
+        PriorityQueue<long[]> finishing = new PriorityQueue<>(Comparator.comparingLong((long[] call) -> call[0]));
+        List<Long> latencies = new ArrayList<>();
+        int rejected = 0;
+
+        for (long now = 0; now < 5000; now++) {
+            while (!finishing.isEmpty() && finishing.peek()[0] <= now) {
+                long[] call = finishing.poll();
+                if (limiter != null) {
+                    limiter.release(call[1] * MS, false);
+                }
+            }
+            for (int arrival = 0; arrival < 2; arrival++) {
+                if (limiter != null && !limiter.tryAcquire()) {
+                    rejected++;
+                    continue;
+                }
+                int worker = 0;
+                for (int i = 1; i < workers; i++) {
+                    if (workerFreeAt[i] < workerFreeAt[worker]) {
+                        worker = i;
+                    }
+                }
+                long finishedAt = Math.max(now, workerFreeAt[worker]) + serviceMillis;
+                workerFreeAt[worker] = finishedAt;
+                latencies.add(finishedAt - now);
+                finishing.add(new long[]{finishedAt, finishedAt - now});
+            }
+        }
+
+        Collections.sort(latencies);
+        return new SimulationResult(latencies.get((int) (latencies.size() * 0.99)), latencies.size(), rejected);
+    }
+}
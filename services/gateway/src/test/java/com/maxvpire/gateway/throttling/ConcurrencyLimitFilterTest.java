@@ -0,0 +1,66 @@
+package com.maxvpire.gateway.throttling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(meterRegistry, true, 1, 1, 10, 1000);
+    }
+
+    @Test
+    void shedsCallsBeyondTheLimitWithServiceUnavailable() {
+        Sinks.Empty<Void> downstream = Sinks.empty();
+        GatewayFilterChain slowChain = exchange -> downstream.asMono();
+        filter.filter(exchange(), slowChain).subscribe();
+
+        ServerWebExchange shed = exchange();
+        filter.filter(shed, slowChain).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.counter("gateway.concurrency.rejected", "route", "calendars").count());
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.in-flight").gauge().value());
+
+        downstream.tryEmitEmpty();
+        assertEquals(0, filter.limiter("calendars").getInFlight());
+        assertEquals(1, meterRegistry.timer("gateway.downstream.latency", "route", "calendars").count());
+    }
+
+    @Test
+    void downstreamOverloadLowersTheLimit() {
+        filter = new ConcurrencyLimitFilter(meterRegistry, true, 10, 1, 10, 1000);
+        GatewayFilterChain failingChain = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return Mono.empty();
+        };
+
+        filter.filter(exchange(), failingChain).block();
+
+        assertEquals(9, filter.limiter("calendars").getLimit());
+    }
+
+    private static ServerWebExchange exchange() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/calendars/id/cal-1").build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("calendars").uri("http://localhost:8081").predicate(e -> true).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,96 @@
+package com.maxvpire.gateway.throttling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RedisRateLimiter redisRateLimiter;
+    @Mock
+    private GatewayFilterChain chain;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(redisRateLimiter, meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+    }
+
+    @Test
+    void allowedRequestsPassWithRemainingTokens() {
+        ServerWebExchange exchange = exchange("alice");
+        when(redisRateLimiter.isAllowed("calendars", "calendars:alice"))
+                .thenReturn(Mono.just(new RateLimiter.Response(true, Map.of("X-RateLimit-Remaining", "39"))));
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        filter.filter(exchange, chain).block();
+
+        verify(chain).filter(exchange);
+        assertEquals("39", exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+    }
+
+    @Test
+    void emptyBucketGetsTooManyRequests() {
+        ServerWebExchange exchange = exchange("alice");
+        when(redisRateLimiter.isAllowed("calendars", "calendars:alice"))
+                .thenReturn(Mono.just(new RateLimiter.Response(false, Map.of("X-RateLimit-Remaining", "0"))));
+
+        filter.filter(exchange, chain).block();
+
+        verifyNoInteractions(chain);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("1", exchange.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals(1.0, meterRegistry.counter("gateway.ratelimit.rejected", "route", "calendars").count());
+    }
+
+    @Test
+    void anonymousRequestsAreNotLimited() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/calendars/id/cal-1").build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+        when(chain.filter(exchange)).thenReturn(Mono.empty());
+
+        filter.filter(exchange, chain).block();
+
+        verify(redisRateLimiter, never()).isAllowed(anyString(), anyString());
+    }
+
+    private static ServerWebExchange exchange(String subject) {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/calendars/id/cal-1").build())
+                .mutate()
+                .principal(Mono.just((Principal) () -> subject))
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+        return exchange;
+    }
+
+    private static Route route() {
+        return Route.async().id("calendars").uri("http://localhost:8081").predicate(exchange -> true).build();
+    }
+}
@@ -2,45 +2,55 @@ package com.flux.user_management_service.config;
 
 import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.flux.user_management_service.user.UserProfileCache;
+import com.flux.user_management_service.user.UserService;
+
 
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
-    @Bean
-    public RedisStandaloneConfiguration redisStandaloneConfiguration() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
-        config.setHostName("localhost");
-        config.setPort(6377);
-        // config.setPassword(RedisPassword.of("password")); // if needed
-        return config;
-    }
-
-    @Bean
-    public RedisConnectionFactory redisConnectionFactory(
-            RedisStandaloneConfiguration redisStandaloneConfiguration) {
-        return new LettuceConnectionFactory(redisStandaloneConfiguration);
-    }
-
     @Bean
     public RedisTemplate<String, Object> redisTemplate(
             RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
+        // Same serializers as the cache manager, so UserProfileCache can read and write its entries
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.java());
         return template;
     }
+
+    @Bean
+    public RedisCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            @Value("${cache.users.ttl-minutes:30}") long usersTtlMinutes,
+            @Value("${cache.users.negative-ttl-seconds:60}") long negativeTtlSeconds) {
+        RedisCacheConfiguration serialization = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.java()));
+        RedisCacheConfiguration defaults = serialization.disableCachingNullValues();
+        Duration usersTtl = Duration.ofMinutes(usersTtlMinutes);
+        Duration negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withCacheConfiguration(UserProfileCache.CACHE, defaults.entryTtl(usersTtl))
+                // Unknown Keycloak ids are cached as null, but only briefly
+                .withCacheConfiguration(UserService.KEYCLOAK_ID_CACHE, serialization.entryTtl(
+                        (key, value) -> value == null ? negativeTtl : usersTtl))
+                .build();
+    }
 }
@@ -0,0 +1,185 @@
+package com.flux.user_management_service.config;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Lettuce connection factory built from the standard {@code spring.data.redis.*} keys, so one build
+ * runs against a single Redis, Sentinel ({@code sentinel.master} and {@code sentinel.nodes}) or
+ * Cluster ({@code cluster.nodes}). Ordinary commands from all threads share one native connection,
+ * on which Lettuce pipelines them without waiting for replies; the pool only serves connections that
+ * cannot be shared, such as MULTI/EXEC and blocking commands.
+ */
+@Slf4j
+@Configuration
+public class RedisConnectionConfig {
+
+    @Value("${spring.data.redis.host:localhost}")
+    private String host;
+
+    @Value("${spring.data.redis.port:6379}")
+    private int port;
+
+    @Value("${spring.data.redis.password:}")
+    private String password;
+
+    @Value("${spring.data.redis.database:0}")
+    private int database;
+
+    @Value("${spring.data.redis.ssl.enabled:false}")
+    private boolean ssl;
+
+    @Value("${spring.data.redis.sentinel.master:}")
+    private String sentinelMaster;
+
+    @Value("${spring.data.redis.sentinel.nodes:}")
+    private List<String> sentinelNodes;
+
+    @Value("${spring.data.redis.cluster.nodes:}")
+    private List<String> clusterNodes;
+
+    @Value("${spring.data.redis.cluster.max-redirects:3}")
+    private int clusterMaxRedirects;
+
+    @Value("${redis.client.cluster-refresh-period-ms:30000}")
+    private long clusterRefreshPeriodMs;
+
+    @Value("${redis.client.command-timeout-ms:2000}")
+    private long commandTimeoutMs;
+
+    @Value("${redis.client.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+
+    @Value("${redis.client.shutdown-timeout-ms:100}")
+    private long shutdownTimeoutMs;
+
+    // Empty reads from the primary; replicaPreferred, replica, nearest or any spread reads over replicas
+    @Value("${redis.client.read-from:}")
+    private String readFrom;
+
+    @Value("${redis.client.pool.max-active:16}")
+    private int poolMaxActive;
+
+    @Value("${redis.client.pool.max-idle:8}")
+    private int poolMaxIdle;
+
+    @Value("${redis.client.pool.min-idle:0}")
+    private int poolMinIdle;
+
+    @Value("${redis.client.pool.max-wait-ms:500}")
+    private long poolMaxWaitMs;
+
+    // 0 writes an executePipelined batch in one go when it closes, n > 0 flushes every n commands
+    @Value("${redis.client.pipeline-flush-after:0}")
+    private int pipelineFlushAfter;
+
+    @Bean
+    public LettuceConnectionFactory redisConnectionFactory() {
+        Duration commandTimeout = Duration.ofMillis(commandTimeoutMs);
+        LettucePoolingClientConfiguration.LettucePoolingClientConfigurationBuilder client = LettucePoolingClientConfiguration.builder()
+                .poolConfig(poolConfig())
+                .clientOptions(clientOptions(commandTimeout))
+                .commandTimeout(commandTimeout)
+                .shutdownTimeout(Duration.ofMillis(shutdownTimeoutMs));
+        if (!readFrom.isBlank()) {
+            client.readFrom(ReadFrom.valueOf(readFrom));
+        }
+        if (ssl) {
+            client.useSsl();
+        }
+
+        RedisConfiguration server = serverConfiguration();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(server, client.build());
+        factory.setShareNativeConnection(true);
+        factory.setPipeliningFlushPolicy(pipelineFlushAfter > 0
+                ? LettuceConnection.PipeliningFlushPolicy.buffered(pipelineFlushAfter)
+                : LettuceConnection.PipeliningFlushPolicy.flushOnClose());
+        log.info("Redis client for {} with {} ms command timeout, reading from {}",
+                server.getClass().getSimpleName(), commandTimeoutMs, readFrom.isBlank() ? "upstream" : readFrom);
+        return factory;
+    }
+
+    RedisConfiguration serverConfiguration() {
+        RedisPassword redisPassword = RedisPassword.of(password);
+        if (clustered()) {
+            RedisClusterConfiguration cluster = new RedisClusterConfiguration(trimmed(clusterNodes));
+            cluster.setMaxRedirects(clusterMaxRedirects);
+            cluster.setPassword(redisPassword);
+            return cluster;
+        }
+        if (!sentinelMaster.isBlank()) {
+            RedisSentinelConfiguration sentinel = new RedisSentinelConfiguration(sentinelMaster, new LinkedHashSet<>(trimmed(sentinelNodes)));
+            sentinel.setPassword(redisPassword);
+            sentinel.setDatabase(database);
+            return sentinel;
+        }
+        RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(host, port);
+        standalone.setPassword(redisPassword);
+        standalone.setDatabase(database);
+        return standalone;
+    }
+
+    private ClientOptions clientOptions(Duration commandTimeout) {
+        SocketOptions socketOptions = SocketOptions.builder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .keepAlive(true)
+                .build();
+        // Also time out pipelined and async commands, and fail fast instead of queueing while disconnected
+        TimeoutOptions timeoutOptions = TimeoutOptions.enabled(commandTimeout);
+        if (!clustered()) {
+            return ClientOptions.builder()
+                    .socketOptions(socketOptions)
+                    .timeoutOptions(timeoutOptions)
+                    .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                    .build();
+        }
+        return ClusterClientOptions.builder()
+                .socketOptions(socketOptions)
+                .timeoutOptions(timeoutOptions)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                        .enablePeriodicRefresh(Duration.ofMillis(clusterRefreshPeriodMs))
+                        .enableAllAdaptiveRefreshTriggers()
+                        .build())
+                .build();
+    }
+
+    private GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig() {
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> pool = new GenericObjectPoolConfig<>();
+        pool.setMaxTotal(poolMaxActive);
+        pool.setMaxIdle(poolMaxIdle);
+        pool.setMinIdle(poolMinIdle);
+        pool.setMaxWait(Duration.ofMillis(poolMaxWaitMs));
+        return pool;
+    }
+
+    private boolean clustered() {
+        return !trimmed(clusterNodes).isEmpty();
+    }
+
+    private static List<String> trimmed(List<String> nodes) {
+        return nodes.stream().map(String::trim).filter(node -> !node.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,7 @@
+package com.flux.user_management_service.exception;
+
+public class TooManyIdsException extends RuntimeException {
+    public TooManyIdsException(String message) {
+        super(message);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.flux.user_management_service.exception.TooManyIdsException;
 import com.flux.user_management_service.exception.UserAlreadyExistsException;
 import com.flux.user_management_service.exception.UserNotFoundException;
 
@@ -36,6 +37,15 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(errors));
     }
 
+    @ExceptionHandler(TooManyIdsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyIdsException(TooManyIdsException exp) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", exp.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(errors));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
 
@@ -0,0 +1,104 @@
+package com.flux.user_management_service.security;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Takes the claims the gateway already verified from its signed internal headers, so a request
+ * through the gateway costs an HMAC instead of a signature check. The signature covers the hash of
+ * the bearer token and a timestamp, so the headers can't be moved to another token or replayed
+ * later; whenever they are missing or don't check out, the token goes through the full decoder.
+ */
+@Slf4j
+public class InternalJwtDecoder implements JwtDecoder {
+    public static final String CLAIMS_HEADER = "X-Internal-Jwt";
+    public static final String ISSUED_HEADER = "X-Internal-Jwt-Issued";
+    public static final String SIGNATURE_HEADER = "X-Internal-Jwt-Signature";
+
+    private final JwtDecoder delegate;
+    private final OAuth2TokenValidator<Jwt> validator;
+    private final SecretKeySpec key;
+    private final long maxAgeSeconds;
+    private final MappedJwtClaimSetConverter claimSetConverter = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+
+    public InternalJwtDecoder(JwtDecoder delegate, OAuth2TokenValidator<Jwt> validator, String secret, long maxAgeSeconds) {
+        this.delegate = delegate;
+        this.validator = validator;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            Jwt jwt = fromHeaders(request.getHeader(CLAIMS_HEADER), request.getHeader(ISSUED_HEADER),
+                    request.getHeader(SIGNATURE_HEADER), token);
+            if (jwt != null) {
+                return jwt;
+            }
+        }
+        return delegate.decode(token);
+    }
+
+    @SuppressWarnings("unchecked")
+    Jwt fromHeaders(String payload, String issued, String signature, String token) {
+        if (payload == null || issued == null || signature == null) {
+            return null;
+        }
+        try {
+            long issuedAt = Long.parseLong(issued);
+            if (Math.abs(Instant.now().getEpochSecond() - issuedAt) > maxAgeSeconds) {
+                return null;
+            }
+            byte[] expected = sign(payload + "." + issued + "." + CachingJwtDecoder.tokenHash(token));
+            if (!MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature))) {
+                log.warn("Ignoring internal JWT headers with an invalid signature");
+                return null;
+            }
+
+            Map<String, Object> forwarded = JSONObjectUtils.parse(
+                    new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8));
+            Map<String, Object> headers = (Map<String, Object>) forwarded.get("header");
+            Map<String, Object> claims = claimSetConverter.convert((Map<String, Object>) forwarded.get("claims"));
+            Jwt jwt = Jwt.withTokenValue(token)
+                    .headers(h -> h.putAll(headers))
+                    .claims(c -> c.putAll(claims))
+                    .build();
+            // Expiry and issuer are still checked, only the signature check is skipped
+            return validator.validate(jwt).hasErrors() ? null : jwt;
+        } catch (ParseException | RuntimeException e) {
+            log.debug("Ignoring malformed internal JWT headers: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] sign(String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.flux.user_management_service.user;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@code UserResponse} controller parameter to the user registered for the JWT subject.
+ * See {@link CurrentUserArgumentResolver}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    /**
+     * Whether a caller without a user record gets a 404, rather than {@code null}.
+     */
+    boolean required() default true;
+}
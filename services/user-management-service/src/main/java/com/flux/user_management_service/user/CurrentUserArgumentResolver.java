@@ -0,0 +1,70 @@
+package com.flux.user_management_service.user;
+
+import java.util.Optional;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.flux.user_management_service.exception.UserNotFoundException;
+import com.flux.user_management_service.user.dto.UserResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves {@link CurrentUser} parameters from the JWT {@code sub}, which is the Keycloak id. Both
+ * steps go through the Redis caches of {@link UserService}, and the result is kept as a request
+ * attribute, so a request resolves its user at most once however many parameters ask for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+    private static final String ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".user";
+
+    private final UserService userService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && UserResponse.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        @SuppressWarnings("unchecked")
+        Optional<UserResponse> user = (Optional<UserResponse>) webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (user == null) {
+            user = lookup();
+            webRequest.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        if (user.isEmpty() && parameter.getParameterAnnotation(CurrentUser.class).required()) {
+            throw new UserNotFoundException("No user registered for this account");
+        }
+        return user.orElse(null);
+    }
+
+    private Optional<UserResponse> lookup() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Jwt jwt) || jwt.getSubject() == null) {
+            return Optional.empty();
+        }
+        Optional<String> id = userService.findUserIdByKeycloakId(jwt.getSubject());
+        if (id.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(userService.getUserById(id.get()));
+        } catch (UserNotFoundException e) {
+            // The user was deleted after the id was cached
+            return Optional.empty();
+        }
+    }
+}
@@ -2,9 +2,9 @@ package com.flux.user_management_service.user;
 
 import java.util.List;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -30,13 +30,13 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Tag(name = "User", description = "User management APIs")
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final UserService userService;
 
 
     @PostMapping
     @Operation(summary = "Create a new user", description = "Creates a new user with the provided details and Keycloak ID")
-    @CacheEvict(value = "users", key = "'all'")
     public ResponseEntity<String> createUser(
             @RequestParam String keycloakId,
             @RequestBody @Valid UserRequest request) {
@@ -47,25 +47,37 @@ public class UserController {
     }
 
 
+    @GetMapping("/me")
+    @Operation(summary = "Get current user", description = "Retrieves the user registered for the authenticated Keycloak account")
+    public ResponseEntity<UserResponse> getCurrentUser(@CurrentUser UserResponse user) {
+        return ResponseEntity.ok(user);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique ID")
-    @Cacheable(value = "users", key = "#id")
     public ResponseEntity<UserResponse> getUserById(@PathVariable String id) {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get users by IDs", description = "Retrieves up to 200 users in one call, in the order of the comma-separated IDs; unknown IDs are left out")
+    public ResponseEntity<List<UserResponse>> getUsersByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieves a list of all registered users")
-    @Cacheable(value = "users", key = "'all'")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @Operation(summary = "Get users", description = "Retrieves registered users a page at a time, ordered by last and first name")
+    public ResponseEntity<PagedModel<UserResponse>> getUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE),
+                Sort.by("lastname", "firstname", "id"));
+        return ResponseEntity.ok(new PagedModel<>(userService.getUsers(pageRequest)));
     }
 
 
     @PutMapping("/{id}")
     @Operation(summary = "Update user", description = "Updates an existing user's information")
-    @CachePut(value = "users", key = "#id")
-    @CacheEvict(value = "users", key = "'all'")
     public ResponseEntity<Void> updateUser(
             @PathVariable String id,
             @RequestBody @Valid UserRequest request) {
@@ -77,7 +89,6 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete user", description = "Deletes a user by their ID")
-    @CacheEvict(value = "users", allEntries = true)
     public ResponseEntity<Void> deleteUser(@PathVariable String id) {
         userService.deleteUser(id);
         return ResponseEntity.accepted().build();
@@ -0,0 +1,88 @@
+package com.flux.user_management_service.user;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import com.flux.user_management_service.user.dto.UserResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batch access to the "users" cache region that {@code @Cacheable} fills one profile at a time:
+ * same keys, serializer and TTL, but read with a single MGET and written back in one pipeline.
+ * A Redis failure is treated as a miss, so lookups fall back to the database.
+ */
+@Component
+@Slf4j
+public class UserProfileCache {
+    public static final String CACHE = "users";
+    private static final String KEY_PREFIX = CACHE + "::";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+
+    public UserProfileCache(RedisTemplate<String, Object> redisTemplate,
+                            @Value("${cache.users.ttl-minutes:30}") long ttlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    /**
+     * The cached profiles among {@code ids}, by id. Ids that are not cached are absent.
+     */
+    public Map<String, UserResponse> getAll(List<String> ids) {
+        Map<String, UserResponse> found = new HashMap<>();
+        if (ids.isEmpty()) {
+            return found;
+        }
+        List<Object> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream().map(UserProfileCache::key).toList());
+        } catch (DataAccessException e) {
+            log.warn("User cache read failed, loading {} profiles from the database: {}", ids.size(), e.getMessage());
+            return found;
+        }
+        if (values == null) {
+            return found;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) instanceof UserResponse user) {
+                found.put(ids.get(i), user);
+            }
+        }
+        return found;
+    }
+
+    public void putAll(Collection<UserResponse> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redis = (RedisOperations<String, Object>) operations;
+                    users.forEach(user -> redis.opsForValue().set(key(user.id()), user, ttl));
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("User cache write failed for {} profiles: {}", users.size(), e.getMessage());
+        }
+    }
+
+    static String key(String id) {
+        return KEY_PREFIX + id;
+    }
+}
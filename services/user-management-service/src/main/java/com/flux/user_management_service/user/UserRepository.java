@@ -8,4 +8,7 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // keycloak_id is UNIQUE, so this is an index lookup
+    Optional<User> findByKeycloakId(String keycloakId);
 }
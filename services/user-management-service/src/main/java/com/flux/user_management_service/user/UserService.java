@@ -1,14 +1,20 @@
 package com.flux.user_management_service.user;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.lang.StringUtils;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.flux.user_management_service.exception.TooManyIdsException;
 import com.flux.user_management_service.exception.UserAlreadyExistsException;
 import com.flux.user_management_service.exception.UserNotFoundException;
 import com.flux.user_management_service.user.dto.UserRequest;
@@ -19,10 +25,14 @@ import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    public static final int MAX_BATCH_SIZE = 200;
+    public static final String KEYCLOAK_ID_CACHE = "user-ids-by-keycloak-id";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserProfileCache userProfileCache;
 
-    @CachePut(value = "users", key = "#result")
+    @CacheEvict(value = KEYCLOAK_ID_CACHE, key = "#keycloakId")
     public String createUser(String keycloakId, UserRequest request) {
         if (userRepository.existsByEmail(request.email())) {
             throw new UserAlreadyExistsException("User with email " + request.email() + " already exists");
@@ -38,22 +48,59 @@ public class UserService {
         return userRepository.save(user).getId();
     }
 
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = UserProfileCache.CACHE, key = "#id")
     public UserResponse getUserById(String id) {
         return userRepository.findById(id)
                 .map(userMapper::toUserResponse)
                 .orElseThrow(() -> new UserNotFoundException("User not found!"));
     }
 
-    @Cacheable(value = "users")
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(userMapper::toUserResponse)
-                .collect(Collectors.toList());
+    /**
+     * Id of the user registered for a Keycloak account. Misses are cached too, for a shorter time,
+     * so unregistered accounts don't query on every request; creating the user evicts the entry.
+     * The mapping never changes for an existing row, so updates leave it alone.
+     */
+    @Cacheable(value = KEYCLOAK_ID_CACHE, key = "#keycloakId")
+    public Optional<String> findUserIdByKeycloakId(String keycloakId) {
+        return userRepository.findByKeycloakId(keycloakId).map(User::getId);
+    }
+
+    /**
+     * Profiles for the given ids in request order, without duplicates or unknown ids. Cached
+     * profiles come from one MGET, and the rest from one query whose results are cached in turn.
+     */
+    public List<UserResponse> getUsersByIds(List<String> ids) {
+        List<String> uniqueIds = List.copyOf(new LinkedHashSet<>(ids));
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new TooManyIdsException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+
+        Map<String, UserResponse> users = new HashMap<>(userProfileCache.getAll(uniqueIds));
+        List<String> misses = uniqueIds.stream().filter(id -> !users.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            List<UserResponse> loaded = userRepository.findAllById(misses)
+                    .stream()
+                    .map(userMapper::toUserResponse)
+                    .toList();
+            userProfileCache.putAll(loaded);
+            loaded.forEach(user -> users.put(user.id(), user));
+        }
+
+        List<UserResponse> ordered = new ArrayList<>(users.size());
+        for (String id : uniqueIds) {
+            UserResponse user = users.get(id);
+            if (user != null) {
+                ordered.add(user);
+            }
+        }
+        return ordered;
+    }
+
+    public Page<UserResponse> getUsers(Pageable pageable) {
+        return userRepository.findAll(pageable).map(userMapper::toUserResponse);
     }
 
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = UserProfileCache.CACHE, key = "#id")
     public void updateUser(String id, UserRequest request) {
         var user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found!"));
@@ -72,7 +119,7 @@ public class UserService {
         }
     }
 
-    @CacheEvict(value = "users", allEntries = true)
+    @CacheEvict(value = UserProfileCache.CACHE, key = "#id")
     public void deleteUser(String id) {
         if (!userRepository.existsById(id)) {
             throw new UserNotFoundException("User not found!");
@@ -0,0 +1,115 @@
+package com.flux.user_management_service.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InternalJwtDecoderTest {
+    private static final String ISSUER = "http://localhost:8080/realms/flux";
+    private static final String SECRET = "internal-secret";
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private InternalJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new InternalJwtDecoder(delegate, JwtValidators.createDefaultWithIssuer(ISSUER), SECRET, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void signedClaimsFromTheGatewaySkipVerification() {
+        long now = Instant.now().getEpochSecond();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        String[] headers = headers(claims(now + 300), now, "token-1", SECRET);
+        request.addHeader(InternalJwtDecoder.CLAIMS_HEADER, headers[0]);
+        request.addHeader(InternalJwtDecoder.ISSUED_HEADER, headers[1]);
+        request.addHeader(InternalJwtDecoder.SIGNATURE_HEADER, headers[2]);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Jwt jwt = decoder.decode("token-1");
+
+        assertEquals("user-1", jwt.getSubject());
+        assertEquals("token-1", jwt.getTokenValue());
+        assertEquals(Instant.ofEpochSecond(now + 300), jwt.getExpiresAt());
+        verify(delegate, never()).decode(anyString());
+    }
+
+    @Test
+    void headersAreOnlyTrustedWithTheSharedSecretAndTheSameToken() {
+        long now = Instant.now().getEpochSecond();
+
+        assertNull(fromHeaders(headers(claims(now + 300), now, "token-1", "other-secret"), "token-1"));
+        assertNull(fromHeaders(headers(claims(now + 300), now, "token-1", SECRET), "token-2"));
+    }
+
+    @Test
+    void staleOrExpiredClaimsAreNotTrusted() {
+        long now = Instant.now().getEpochSecond();
+
+        assertNull(fromHeaders(headers(claims(now + 300), now - 120, "token-1", SECRET), "token-1"));
+        // Past the validator's 60 s clock skew
+        assertNull(fromHeaders(headers(claims(now - 300), now, "token-1", SECRET), "token-1"));
+        assertNotNull(fromHeaders(headers(claims(now + 300), now, "token-1", SECRET), "token-1"));
+    }
+
+    @Test
+    void requestsWithoutHeadersGoThroughTheFullDecoder() {
+        Jwt verified = Jwt.withTokenValue("token-1").header("alg", "RS256").subject("user-1").build();
+        when(delegate.decode("token-1")).thenReturn(verified);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertSame(verified, decoder.decode("token-1"));
+    }
+
+    private Jwt fromHeaders(String[] headers, String token) {
+        return decoder.fromHeaders(headers[0], headers[1], headers[2], token);
+    }
+
+    private static String claims(long expiresAt) {
+        return "{\"header\":{\"alg\":\"RS256\",\"kid\":\"key-1\"},"
+                + "\"claims\":{\"sub\":\"user-1\",\"iss\":\"" + ISSUER + "\",\"iat\":" + (expiresAt - 600)
+                + ",\"exp\":" + expiresAt + ",\"realm_access\":{\"roles\":[\"user\"]}}}";
+    }
+
+    // Same format the gateway's InternalJwtHeaderFilter writes
+    static String[] headers(String json, long issued, String token, String secret) {
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+        String signed = payload + "." + issued + "." + CachingJwtDecoder.tokenHash(token);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            String signature = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(signed.getBytes(StandardCharsets.UTF_8)));
+            return new String[]{payload, String.valueOf(issued), signature};
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.flux.user_management_service.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.flux.user_management_service.exception.UserNotFoundException;
+import com.flux.user_management_service.user.dto.UserResponse;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserArgumentResolverTest {
+
+    @Mock
+    private UserService userService;
+
+    private CurrentUserArgumentResolver resolver;
+    private NativeWebRequest webRequest;
+    private UserResponse userResponse;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new CurrentUserArgumentResolver(userService);
+        webRequest = new ServletWebRequest(new MockHttpServletRequest());
+        userResponse = new UserResponse("1", "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1));
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("keycloak-1")
+                .build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void supportsOnlyAnnotatedUserResponseParameters() throws Exception {
+        assertTrue(resolver.supportsParameter(parameter("required")));
+        assertFalse(resolver.supportsParameter(parameter("notAnnotated")));
+    }
+
+    @Test
+    void resolvesTheUserOncePerRequest() throws Exception {
+        when(userService.findUserIdByKeycloakId("keycloak-1")).thenReturn(Optional.of("1"));
+        when(userService.getUserById("1")).thenReturn(userResponse);
+
+        assertSame(userResponse, resolver.resolveArgument(parameter("required"), null, webRequest, null));
+        assertSame(userResponse, resolver.resolveArgument(parameter("optional"), null, webRequest, null));
+
+        verify(userService, times(1)).findUserIdByKeycloakId("keycloak-1");
+        verify(userService, times(1)).getUserById("1");
+    }
+
+    @Test
+    void unregisteredAccountIsNotFoundUnlessOptional() throws Exception {
+        when(userService.findUserIdByKeycloakId("keycloak-1")).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class,
+                () -> resolver.resolveArgument(parameter("required"), null, webRequest, null));
+        assertNull(resolver.resolveArgument(parameter("optional"), null, webRequest, null));
+        verify(userService, never()).getUserById(anyString());
+    }
+
+    @Test
+    void deletedUserBehindACachedIdIsNotFound() throws Exception {
+        when(userService.findUserIdByKeycloakId("keycloak-1")).thenReturn(Optional.of("1"));
+        when(userService.getUserById("1")).thenThrow(new UserNotFoundException("User not found!"));
+
+        assertNull(resolver.resolveArgument(parameter("optional"), null, webRequest, null));
+    }
+
+    @Test
+    void requestWithoutJwtHasNoUser() throws Exception {
+        SecurityContextHolder.clearContext();
+
+        assertNull(resolver.resolveArgument(parameter("optional"), null, webRequest, null));
+        verifyNoInteractions(userService);
+    }
+
+    private static MethodParameter parameter(String method) throws NoSuchMethodException {
+        return new MethodParameter(Handlers.class.getDeclaredMethod(method, UserResponse.class), 0);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+        void required(@CurrentUser UserResponse user) {
+        }
+
+        void optional(@CurrentUser(required = false) UserResponse user) {
+        }
+
+        void notAnnotated(UserResponse user) {
+        }
+    }
+}
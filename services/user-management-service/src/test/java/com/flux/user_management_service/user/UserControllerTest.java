@@ -1,6 +1,7 @@
 package com.flux.user_management_service.user;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -13,19 +14,27 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.flux.user_management_service.exception.TooManyIdsException;
 import com.flux.user_management_service.user.dto.UserRequest;
 import com.flux.user_management_service.user.dto.UserResponse;
 
@@ -44,9 +53,15 @@ class UserControllerTest {
     private UserRequest userRequest;
     private UserResponse userResponse;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver(userService))
                 .setControllerAdvice(new com.flux.user_management_service.handler.GlobalExceptionHandler())
                 .build();
         objectMapper = new ObjectMapper();
@@ -68,6 +83,20 @@ class UserControllerTest {
                 .andExpect(jsonPath("$").value("1"));
     }
 
+    @Test
+    void getCurrentUser_ShouldResolveUserFromJwtSubject() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("keycloak-1")
+                .build()));
+        when(userService.findUserIdByKeycloakId("keycloak-1")).thenReturn(Optional.of("1"));
+        when(userService.getUserById("1")).thenReturn(userResponse);
+
+        mockMvc.perform(get("/users/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("1"));
+    }
+
     @Test
     void getUserById_ShouldReturnUserResponse() throws Exception {
         when(userService.getUserById("1")).thenReturn(userResponse);
@@ -79,14 +108,34 @@ class UserControllerTest {
     }
 
     @Test
-    void getAllUsers_ShouldReturnListOfUserResponses() throws Exception {
-        when(userService.getAllUsers()).thenReturn(List.of(userResponse));
+    void getUsers_ShouldReturnPage() throws Exception {
+        when(userService.getUsers(any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(userResponse), invocation.getArgument(0), 1));
 
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(get("/users").param("page", "0").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("1"))
+                .andExpect(jsonPath("$.page.size").value(100))
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    void getUsersByIds_ShouldReturnListOfUserResponses() throws Exception {
+        when(userService.getUsersByIds(List.of("1", "2"))).thenReturn(List.of(userResponse));
+
+        mockMvc.perform(get("/users").param("ids", "1,2"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value("1"));
     }
 
+    @Test
+    void getUsersByIds_ShouldReturnBadRequest_WhenTooManyIds() throws Exception {
+        when(userService.getUsersByIds(anyList())).thenThrow(new TooManyIdsException("At most 200 ids can be requested at once"));
+
+        mockMvc.perform(get("/users").param("ids", "1,2"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateUser_ShouldUpdateUser() throws Exception {
         mockMvc.perform(put("/users/1")
@@ -0,0 +1,96 @@
+package com.flux.user_management_service.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.flux.user_management_service.user.dto.UserResponse;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private UserProfileCache userProfileCache;
+    private UserResponse john;
+    private UserResponse jane;
+
+    @BeforeEach
+    void setUp() {
+        userProfileCache = new UserProfileCache(redisTemplate, 30);
+        john = new UserResponse("1", "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1));
+        jane = new UserResponse("2", "Jane", "Roe", "jane.roe@example.com", LocalDate.of(1991, 2, 2));
+    }
+
+    @Test
+    void getAll_ShouldReadAllKeysWithOneMultiGet() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("users::1", "users::3", "users::2")))
+                .thenReturn(Arrays.asList(john, null, jane));
+
+        Map<String, UserResponse> cached = userProfileCache.getAll(List.of("1", "3", "2"));
+
+        assertEquals(Map.of("1", john, "2", jane), cached);
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    void getAll_ShouldReturnNoHits_WhenRedisIsDown() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(userProfileCache.getAll(List.of("1")).isEmpty());
+    }
+
+    @Test
+    void getAll_ShouldNotCallRedis_WhenNoIds() {
+        assertTrue(userProfileCache.getAll(List.of()).isEmpty());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void putAll_ShouldWriteEveryProfileWithTtlInOnePipeline() {
+        RedisOperations<String, Object> operations = mock(RedisOperations.class);
+        when(operations.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(operations);
+            return List.of();
+        });
+
+        userProfileCache.putAll(List.of(john, jane));
+
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        verify(valueOperations).set("users::1", john, Duration.ofMinutes(30));
+        verify(valueOperations).set("users::2", jane, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void putAll_ShouldSwallowRedisFailures() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertDoesNotThrow(() -> userProfileCache.putAll(List.of(john)));
+    }
+}
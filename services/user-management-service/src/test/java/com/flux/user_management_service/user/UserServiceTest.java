@@ -6,7 +6,9 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,10 +16,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import com.flux.user_management_service.user.dto.UserRequest;
 import com.flux.user_management_service.user.dto.UserResponse;
 
+import com.flux.user_management_service.exception.TooManyIdsException;
 import com.flux.user_management_service.exception.UserAlreadyExistsException;
 import com.flux.user_management_service.exception.UserNotFoundException;
 
@@ -30,6 +36,9 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserProfileCache userProfileCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -90,14 +99,62 @@ class UserServiceTest {
     }
 
     @Test
-    void getAllUsers_ShouldReturnListOfUserResponses() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+    void findUserIdByKeycloakId_ShouldReturnId_WhenRegistered() {
+        when(userRepository.findByKeycloakId("keycloak-1")).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of("1"), userService.findUserIdByKeycloakId("keycloak-1"));
+    }
+
+    @Test
+    void findUserIdByKeycloakId_ShouldReturnEmpty_WhenNotRegistered() {
+        when(userRepository.findByKeycloakId("keycloak-2")).thenReturn(Optional.empty());
+
+        assertTrue(userService.findUserIdByKeycloakId("keycloak-2").isEmpty());
+    }
+
+    @Test
+    void getUsers_ShouldReturnRequestedPage() {
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        when(userRepository.findAll(pageRequest)).thenReturn(new PageImpl<>(List.of(user), pageRequest, 1));
         when(userMapper.toUserResponse(user)).thenReturn(userResponse);
 
-        List<UserResponse> responses = userService.getAllUsers();
+        Page<UserResponse> responses = userService.getUsers(pageRequest);
+
+        assertEquals(1, responses.getTotalElements());
+        assertEquals("1", responses.getContent().get(0).id());
+    }
+
+    @Test
+    void getUsersByIds_ShouldLoadOnlyCacheMissesInOneQuery() {
+        User other = User.builder().id("2").firstname("Jane").lastname("Roe").build();
+        UserResponse otherResponse = new UserResponse("2", "Jane", "Roe", "jane.roe@example.com", LocalDate.of(1991, 2, 2));
+        when(userProfileCache.getAll(List.of("2", "1", "3"))).thenReturn(Map.of("1", userResponse));
+        when(userRepository.findAllById(List.of("2", "3"))).thenReturn(List.of(other));
+        when(userMapper.toUserResponse(other)).thenReturn(otherResponse);
+
+        List<UserResponse> responses = userService.getUsersByIds(List.of("2", "1", "3", "1"));
+
+        assertEquals(List.of(otherResponse, userResponse), responses);
+        verify(userProfileCache).putAll(List.of(otherResponse));
+        verify(userRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void getUsersByIds_ShouldNotQueryDatabase_WhenAllCached() {
+        when(userProfileCache.getAll(List.of("1"))).thenReturn(Map.of("1", userResponse));
+
+        assertEquals(List.of(userResponse), userService.getUsersByIds(List.of("1")));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUsersByIds_ShouldThrowException_WhenTooManyIds() {
+        List<String> ids = IntStream.rangeClosed(0, UserService.MAX_BATCH_SIZE)
+                .mapToObj(String::valueOf)
+                .toList();
 
-        assertEquals(1, responses.size());
-        assertEquals("1", responses.get(0).id());
+        assertThrows(TooManyIdsException.class, () -> userService.getUsersByIds(ids));
+        verifyNoInteractions(userProfileCache, userRepository);
     }
 
     @Test